@@ -0,0 +1,159 @@
+/* ChunksEnumeratorBenchmark.java
+ * Mesures de la boucle de chargement des chunks du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.util.SafeLogger;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Définition de la classe.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ChunksEnumeratorBenchmark
+{
+    /* Mesures d'un lot de ChunksEnumerator couvrant une région entière, contre un monde factice dont le coût de
+     * chargement d'un chunk est simulé (en unités de Blackhole.consumeCPU). Mesure le coût propre de la boucle :
+     * parcours du masque, contrôle du budget, interrogation du serveur et événements JFR désactivés. */
+
+    // Membres.
+
+    @Param({ "0.25", "1.0" })
+    public double occupancy;        // Part des chunks présents dans la région.
+
+    @Param({ "false", "true" })
+    public boolean trustHeader;     // Option trustheader.
+
+    @Param({ "0", "100" })
+    public long chunkLoadCost;      // Coût simulé d'un chargement.
+
+    private ChunkMask regionMask;   // Chunks présents dans la région.
+    private SafeLogger safeLogger;  // Loggeur.
+    private World world;            // Monde factice.
+
+    // Méthodes publiques de classe.
+
+    @Setup
+    public void createWorld()
+    {
+        /* Crée le monde factice et le masque de la région.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        Random random = new Random(42L); // Tirage reproductible.
+
+        regionMask = new ChunkMask();
+        safeLogger = new SafeLogger(Logger.getLogger("ChunksRefresherBenchmark"));
+        world      = createStubWorld(chunkLoadCost);
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            if(random.nextDouble() < occupancy)
+                regionMask.set(chunkIndex);
+        }
+    }
+
+    @Benchmark
+    public void enumerateRegion(Blackhole blackhole)
+    {
+        /* Traitement d'une région entière en un seul lot, sans limite de budget.
+         * Retour : aucun.
+         * Paramètres : consommateur des résultats. */
+
+        ChunksEnumerator chunksEnumerator = new ChunksEnumerator(safeLogger, world, 0, 0, 0, ChunkMask.CHUNKS_PER_REGION, Long.MAX_VALUE, regionMask, trustHeader, null); // Lot mesuré.
+
+        blackhole.consume(chunksEnumerator.call().intValue());
+        blackhole.consume(chunksEnumerator.getNextPosition());
+    }
+
+    // Méthodes privées statiques.
+
+    private static World createStubWorld(long chunkLoadCost)
+    {
+        /* Crée un monde factice : tous les chunks existent et sont déchargés, leur chargement coûte chunkLoadCost.
+         * Retour : monde en question.
+         * Paramètres : coût simulé d'un chargement. */
+
+        Chunk stubChunk = (Chunk)Proxy.newProxyInstance(Chunk.class.getClassLoader(), new Class<?>[] { Chunk.class }, (proxy, method, arguments) -> stubAnswer(method, true)); // Chunk retourné.
+
+        return (World)Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] { World.class }, (proxy, method, arguments) ->
+        {
+            switch(method.getName())
+            {
+                case "getChunkAt":
+                    Blackhole.consumeCPU(chunkLoadCost);
+                    return stubChunk;
+
+                case "getName":
+                    return "benchmark";
+
+                case "isChunkGenerated":
+                    return true;
+
+                case "isChunkLoaded":
+                    return false;
+
+                default:
+                    return stubAnswer(method, false);
+            }
+        });
+    }
+
+    private static Object stubAnswer(Method method, boolean booleanAnswer)
+    {
+        /* Retourne une valeur par défaut pour une méthode non simulée du monde ou du chunk factice.
+         * Retour : valeur en question.
+         * Paramètres : -method        : méthode appelée.
+         *              -booleanAnswer : valeur des méthodes retournant un booléen. */
+
+        Class<?> returnType = method.getReturnType(); // Type retourné.
+
+        if(returnType == boolean.class)
+            return booleanAnswer;
+
+        if(returnType == int.class)
+            return 0;
+
+        if(returnType == long.class)
+            return 0L;
+
+        if(returnType == double.class)
+            return 0.0D;
+
+        if(returnType == float.class)
+            return 0.0F;
+
+        if(returnType == String.class)
+            return "benchmark";
+
+        return null;
+    }
+}
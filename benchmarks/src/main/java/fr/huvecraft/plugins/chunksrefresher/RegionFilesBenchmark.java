@@ -0,0 +1,159 @@
+/* RegionFilesBenchmark.java
+ * Mesures de l'énumération des fichiers de régions du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Définition de la classe.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RegionFilesBenchmark
+{
+    /* Mesures de l'énumération d'un dossier de régions (listage et filtrage des noms) et de la lecture des coordonnées
+     * des régions dans les noms de fichiers, sur un dossier de fichiers vides créé pour l'occasion. Le listage complet
+     * par File.listFiles() sert de référence à l'exploration en flux de RegionSource. */
+
+    // Constantes.
+
+    private static final String[] OTHER_FILENAMES = { "chkref.journal", "chkref.snapshot", "r.0.0.mca.chkref", "r.0.0.mcc", "session.lock" }; // Fichiers à ignorer.
+
+    // Membres.
+
+    @Param({ "1024", "16384", "102400" })
+    public int regionsCount;             // Nombre de fichiers de régions du dossier.
+
+    private File regionFolder;           // Dossier des régions.
+    private String[] filenames;          // Noms des fichiers du dossier.
+
+    // Méthodes publiques de classe.
+
+    @Setup
+    public void createRegionFolder() throws IOException
+    {
+        /* Crée le dossier des régions : fichiers vides disposés en carré autour de l'origine, et quelques autres fichiers.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        int sideLength = (int)Math.ceil(Math.sqrt(regionsCount)); // Côté du carré de régions.
+
+        regionFolder = Files.createTempDirectory("chkref-bench").toFile();
+        filenames    = new String[regionsCount + OTHER_FILENAMES.length];
+
+        for(int regionIndex = 0; regionIndex < regionsCount; regionIndex++)
+        {
+            filenames[regionIndex] = "r." + ((regionIndex % sideLength) - (sideLength / 2)) + "." + ((regionIndex / sideLength) - (sideLength / 2)) + ".mca";
+
+            new File(regionFolder, filenames[regionIndex]).createNewFile();
+        }
+
+        for(int otherIndex = 0; otherIndex < OTHER_FILENAMES.length; otherIndex++)
+        {
+            filenames[regionsCount + otherIndex] = OTHER_FILENAMES[otherIndex];
+
+            new File(regionFolder, OTHER_FILENAMES[otherIndex]).createNewFile();
+        }
+    }
+
+    @TearDown
+    public void deleteRegionFolder()
+    {
+        /* Supprime le dossier des régions.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        for(String filename : filenames)
+            new File(regionFolder, filename).delete();
+
+        regionFolder.delete();
+    }
+
+    @Benchmark
+    public File[] listRegionFiles()
+    {
+        /* Listage complet et filtré du dossier, en objets File.
+         * Retour : fichiers de régions.
+         * Paramètres : aucun. */
+
+        return regionFolder.listFiles((hostDirectory, filename) -> RegionCoordinates.isRegionFilename(filename, RegionSource.REGION_EXTENSION));
+    }
+
+    @Benchmark
+    public int streamRegionFiles()
+    {
+        /* Exploration en flux du dossier, comme au démarrage d'une tâche, exécutée dans le thread de la mesure.
+         * Retour : nombre de régions relevées.
+         * Paramètres : aucun. */
+
+        RegionSource regionSource = new RegionSource(regionFolder, "benchmark", null, null); // Source mesurée.
+
+        regionSource.run();
+
+        return regionSource.size();
+    }
+
+    @Benchmark
+    public void filterRegionFilenames(Blackhole blackhole)
+    {
+        /* Filtrage seul des noms de fichiers, sans accès au disque.
+         * Retour : aucun.
+         * Paramètres : consommateur des résultats. */
+
+        for(String filename : filenames)
+            blackhole.consume(RegionCoordinates.isRegionFilename(filename, RegionSource.REGION_EXTENSION));
+    }
+
+    @Benchmark
+    public void parseCoordinatesSplit(Blackhole blackhole)
+    {
+        /* Lecture des coordonnées par découpage du nom, comme le faisaient les versions précédentes.
+         * Retour : aucun.
+         * Paramètres : consommateur des résultats. */
+
+        for(int regionIndex = 0; regionIndex < regionsCount; regionIndex++)
+        {
+            String regionFilenameParts[] = filenames[regionIndex].split("\\."); // Parties du nom.
+
+            blackhole.consume(Integer.parseInt(regionFilenameParts[1]));
+            blackhole.consume(Integer.parseInt(regionFilenameParts[2]));
+        }
+    }
+
+    @Benchmark
+    public void parseCoordinatesPacked(Blackhole blackhole)
+    {
+        /* Lecture des coordonnées sans expression régulière ni découpage, par RegionCoordinates.
+         * Retour : aucun.
+         * Paramètres : consommateur des résultats. */
+
+        for(int regionIndex = 0; regionIndex < regionsCount; regionIndex++)
+            blackhole.consume(RegionCoordinates.parseFilename(filenames[regionIndex]));
+    }
+}
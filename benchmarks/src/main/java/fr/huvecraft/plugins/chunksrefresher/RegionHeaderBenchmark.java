@@ -0,0 +1,125 @@
+/* RegionHeaderBenchmark.java
+ * Mesures de la lecture des en-têtes de régions du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionHeader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Définition de la classe.
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RegionHeaderBenchmark
+{
+    /* Mesures de la lecture de l'en-tête d'un fichier de région et du calcul de son masque d'occupation, sur un fichier
+     * synthétique dont seul l'en-tête est écrit (les secteurs des chunks restent creux). */
+
+    // Membres.
+
+    @Param({ "0.1", "0.5", "1.0" })
+    public double occupancy;     // Part des chunks présents dans la région.
+
+    private File regionFile;     // Fichier de région synthétique.
+    private RegionHeader header; // En-tête déjà lu.
+
+    // Méthodes publiques de classe.
+
+    @Setup
+    public void createRegionFile() throws IOException
+    {
+        /* Crée le fichier de région : un secteur par chunk présent, dates de sauvegarde quelconques.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        ByteBuffer headerBuffer = ByteBuffer.allocate(2 * RegionHeader.SECTOR_SIZE); // Tables des emplacements et des dates.
+        Random random           = new Random(42L);                                   // Tirage reproductible.
+        int nextSector          = 2;                                                 // Premier secteur libre.
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            if(random.nextDouble() < occupancy)
+            {
+                headerBuffer.putInt(chunkIndex * 4, (nextSector++ << 8) | 1);
+                headerBuffer.putInt(RegionHeader.SECTOR_SIZE + (chunkIndex * 4), 1600000000 + random.nextInt(100000000));
+            }
+        }
+
+        regionFile = File.createTempFile("r.0.0.", ".mca");
+
+        try(RandomAccessFile output = new RandomAccessFile(regionFile, "rw"))
+        {
+            output.write(headerBuffer.array());
+            output.setLength((long)nextSector * RegionHeader.SECTOR_SIZE);
+        }
+
+        header = RegionHeader.read(regionFile);
+    }
+
+    @TearDown
+    public void deleteRegionFile()
+    {
+        /* Supprime le fichier de région.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        regionFile.delete();
+    }
+
+    @Benchmark
+    public RegionHeader readHeader() throws IOException
+    {
+        /* Lecture des deux tables de l'en-tête.
+         * Retour : en-tête lu.
+         * Paramètres : aucun. */
+
+        return RegionHeader.read(regionFile);
+    }
+
+    @Benchmark
+    public ChunkMask decodeOccupancy()
+    {
+        /* Calcul du masque d'occupation depuis un en-tête déjà lu.
+         * Retour : masque calculé.
+         * Paramètres : aucun. */
+
+        return header.getOccupancyMask();
+    }
+
+    @Benchmark
+    public ChunkMask readOccupancy() throws IOException
+    {
+        /* Lecture de l'en-tête et calcul du masque, comme pour chaque région au pré-chargement.
+         * Retour : masque calculé.
+         * Paramètres : aucun. */
+
+        return RegionHeader.read(regionFile).getOccupancyMask();
+    }
+}
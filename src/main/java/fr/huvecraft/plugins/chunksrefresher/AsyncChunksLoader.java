@@ -0,0 +1,277 @@
+/* AsyncChunksLoader.java
+ * Classe de chargement asynchrone des chunks du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.util.ChkRefException;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitScheduler;
+
+// Définition de la classe.
+
+final class AsyncChunksLoader
+{
+    /* Classe chargeant les chunks par World.getChunkAtAsync() (serveurs Paper), en gardant un nombre borné
+     * de chargements en cours. Chaque chunk est confié, une fois chargé, à la fenêtre de résidence de la tâche, qui le
+     * relève elle-même une fois sauvegardé, ou à défaut déchargé aussitôt puis relevé. La place d'un chargement n'est
+     * rendue qu'après ce relevé, pour qu'aucun chunk ne soit relevé après la fin de sa région. */
+
+    // Constantes.
+
+    private static final Method GET_CHUNK_AT_ASYNC = findGetChunkAtAsync(); // Méthode Paper, null si absente.
+
+    // Membres.
+
+    private AtomicInteger nFailures;              // Nombre de chargements en échec depuis le dernier relevé.
+    private ChunkMask loadedChunks;               // Chunks traités de la région en cours, hors fenêtre de résidence, depuis le dernier relevé.
+    private BukkitScheduler scheduler;            // Scheduler Bukkit.
+    private ChunkResidencyWindow residencyWindow; // Fenêtre de résidence des chunks chargés, null pour les décharger aussitôt.
+    private ChunksRefresher chunkRefresherPlugin; // Instance du plugin hôte.
+    private int windowSize;                       // Nombre maximal de chargements en cours.
+    private Semaphore window;                     // Places disponibles dans la fenêtre de chargements.
+    private World world;                          // Monde concerné.
+    private volatile boolean closed;              // Chargeur fermé : plus aucune attente de place.
+
+    // Constructeurs.
+
+    public AsyncChunksLoader(BukkitScheduler scheduler, ChunksRefresher chunkRefresherPlugin, World world, int windowSize, ChunkResidencyWindow residencyWindow) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. */
+
+        // Contrôle.
+
+        if((!(scheduler instanceof BukkitScheduler)) || (!(chunkRefresherPlugin instanceof ChunksRefresher)) || (!(world instanceof World)) || (windowSize < 1))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.nFailures            = new AtomicInteger(0);
+        this.loadedChunks         = new ChunkMask();
+        this.scheduler            = scheduler;
+        this.residencyWindow      = residencyWindow;
+        this.chunkRefresherPlugin = chunkRefresherPlugin;
+        this.windowSize           = windowSize;
+        this.window               = new Semaphore(windowSize);
+        this.world                = world;
+        this.closed               = false;
+    }
+
+    // Méthodes publiques statiques.
+
+    public static boolean isAvailable()
+    {
+        /* Indique si le serveur propose le chargement asynchrone des chunks.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return GET_CHUNK_AT_ASYNC instanceof Method;
+    }
+
+    // Méthodes publiques de classe.
+
+    public int acquireSlots() throws InterruptedException
+    {
+        /* Attend qu'au moins une place se libère dans la fenêtre, et réserve toutes les places libres.
+         * Retour : nombre de places réservées, au moins 1.
+         * Paramètres : aucun. */
+
+        window.acquire();
+
+        if(closed)
+            throw new InterruptedException("Asynchronous chunk loader closed.");
+
+        return 1 + window.drainPermits();
+    }
+
+    public void awaitAll() throws InterruptedException
+    {
+        /* Attend la fin de tous les chargements en cours.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        window.acquire(windowSize);
+        window.release(windowSize);
+
+        if(closed)
+            throw new InterruptedException("Asynchronous chunk loader closed.");
+    }
+
+    public void close()
+    {
+        /* Ferme le chargeur, lors de la désactivation du plugin : le thread Bukkit ne terminant plus les chargements en
+         * cours, les attentes de places sont débloquées et échouent. Les chunks déjà chargés restent à relever.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        closed = true;
+
+        window.release(windowSize);
+    }
+
+    public ChunkMask drainLoadedChunks()
+    {
+        /* Retourne les chunks chargés avec succès et déchargés depuis le dernier appel, ou déjà chargés avant leur
+         * demande. Les chunks confiés à la fenêtre de résidence en sont exclus, elle les relève elle-même.
+         * Retour : masque des chunks en question, par index dans leur région.
+         * Paramètres : aucun. */
+
+        ChunkMask drainedChunks = null; // Masque à retourner.
+
+        synchronized(loadedChunks)
+        {
+            drainedChunks = new ChunkMask(loadedChunks);
+
+            loadedChunks.andNot(drainedChunks);
+        }
+
+        return drainedChunks;
+    }
+
+    public int getAndResetFailures()
+    {
+        /* Retourne le nombre de chargements en échec depuis le dernier appel.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return nFailures.getAndSet(0);
+    }
+
+    public void releaseSlots(int nSlots)
+    {
+        /* Libère des places réservées et non utilisées.
+         * Retour : aucun.
+         * Paramètres : nombre de places. */
+
+        if(nSlots > 0)
+            window.release(nSlots);
+    }
+
+    public void requestChunk(int xChunk, int zChunk, boolean unloadWhenLoaded) throws ChkRefException
+    {
+        /* Demande le chargement asynchrone d'un chunk, une place de la fenêtre devant avoir été réservée.
+         * Doit être appelée depuis le thread Bukkit.
+         * Retour : aucun.
+         * Paramètres : -xChunk, zChunk   : coordonnées du chunk.
+         *              -unloadWhenLoaded : décharger le chunk une fois chargé. */
+
+        CompletableFuture<?> futureChunk = null;                 // Chargement en cours.
+        ChunkLoadEvent loadEvent         = new ChunkLoadEvent(); // Evénement JFR, de la demande à la fin du chargement.
+
+        loadEvent.begin();
+
+        try
+        {
+            futureChunk = (CompletableFuture<?>)GET_CHUNK_AT_ASYNC.invoke(world, xChunk, zChunk);
+        }
+
+        catch(ReflectiveOperationException|ClassCastException error)
+        {
+            window.release();
+
+            throw new ChkRefException("Cannot request chunk X:" + xChunk + " Z:" + zChunk + " asynchronously.");
+        }
+
+        futureChunk.whenComplete((chunk, error) ->
+        {
+            // Libère le chunk s'il n'était pas chargé avant l'opération, depuis le thread Bukkit, puis sa place.
+
+            if(error instanceof Throwable)
+                nFailures.incrementAndGet();
+
+            else
+            {
+                loadEvent.commit(world, xChunk, zChunk, ChunkLoadEvent.LOAD, true);
+
+                if(unloadWhenLoaded && (chunk instanceof Chunk) && !Bukkit.isPrimaryThread() && chunkRefresherPlugin.isEnabled())
+                {
+                    scheduler.runTask(chunkRefresherPlugin, () ->
+                    {
+                        releaseChunk((Chunk)chunk);
+
+                        window.release();
+                    });
+
+                    return;
+                }
+
+                else if(unloadWhenLoaded && (chunk instanceof Chunk) && Bukkit.isPrimaryThread())
+                    releaseChunk((Chunk)chunk);
+
+                else if(!unloadWhenLoaded) // Déjà chargé avant l'opération : laissé tel quel.
+                    recordChunk(xChunk, zChunk);
+            }
+
+            // Libère la place dans la fenêtre.
+
+            window.release();
+        });
+    }
+
+    // Méthodes privées de classe.
+
+    private void recordChunk(int xChunk, int zChunk)
+    {
+        /* Relève un chunk traité, pour que la tâche le journalise.
+         * Retour : aucun.
+         * Paramètres : coordonnées X et Z du chunk. */
+
+        synchronized(loadedChunks)
+        {
+            loadedChunks.set(xChunk, zChunk);
+        }
+    }
+
+    private void releaseChunk(Chunk chunk)
+    {
+        /* Confie un chunk chargé à la fenêtre de résidence, ou le décharge et le relève. Doit être appelée depuis le
+         * thread Bukkit.
+         * Retour : aucun.
+         * Paramètres : chunk en question. */
+
+        if(residencyWindow instanceof ChunkResidencyWindow)
+            residencyWindow.hold(chunk);
+
+        else
+        {
+            chunk.unload(true); // Pas de contrôle d'erreur.
+
+            recordChunk(chunk.getX(), chunk.getZ());
+        }
+    }
+
+    // Méthodes privées statiques.
+
+    private static Method findGetChunkAtAsync()
+    {
+        /* Recherche la méthode World.getChunkAtAsync(int, int) retournant un CompletableFuture.
+         * Retour : méthode en question, null si absente.
+         * Paramètres : aucun. */
+
+        try
+        {
+            Method getChunkAtAsync = World.class.getMethod("getChunkAtAsync", int.class, int.class); // Méthode trouvée.
+
+            if(CompletableFuture.class.isAssignableFrom(getChunkAtAsync.getReturnType()))
+                return getChunkAtAsync;
+        }
+
+        catch(NoSuchMethodException|SecurityException exception)
+        {
+            // Serveur Spigot : pas de chargement asynchrone.
+        }
+
+        return null;
+    }
+}
@@ -10,21 +10,35 @@ import fr.huvecraft.plugins.chunksrefresher.util.ChkRefException;
 
 // Imports.
 
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionHeader;
 import fr.huvecraft.plugins.chunksrefresher.util.SafeLogger;
 import java.io.File;
-import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.HashMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitScheduler;
-import org.bukkit.scheduler.BukkitWorker;
 import org.bukkit.World;
 import org.bukkit.World.Environment;
+import org.bukkit.WorldBorder;
 
 // Définition de la classe.
 
@@ -32,59 +46,137 @@ public final class AsyncChunksRefresher extends BukkitRunnable
 {
     /* Classe d'une tâche asynchrone de chargement des chunks du plugin AsyncChunksRefresher pour Spigot. */
     
+    // Constantes.
+    
+    private static final long LAG_WAIT_MILLIS        = 50L;    // Attente lorsque la tâche cède le thread Bukkit, en mode serveur ouvert.
+    private static final long MAX_GENERATION_REGIONS = 65536L; // Nombre maximal de régions de la zone d'une génération (256 x 256).
+    private static final long MEMORY_WAIT_MILLIS     = 1000L;  // Intervalle de contrôle de la mémoire, en attente de reprise.
+    private static final long PLAYERS_WAIT_MILLIS    = 1000L;  // Attente lorsque seules restent des régions proches des joueurs.
+    
     // Définitions de membres privés.
     
-    private List<File> regionFilesList;           // Liste des fichiers de régions.
-    private boolean abort;                        // Effacer les marqueurs de fichiers de région lors de l'arrêt prématuré.
-    private boolean mustStop;                     // Indique que cette tâche doit s'arrêter.
-    private boolean nextRegion;                   // Indique que la région en cours a été traitée.
-    private boolean paused;                       // Tâche mise en pause ?
-    private boolean noMemControl;                 // Ne pas surveiller la RAM ?
-    private BukkitScheduler scheduler;            // Scheduler Bukkit.
-    private ChunksRefresher chunkRefresherPlugin; // Instance du plugin hôte.
-    private int currentRegionIndex;               // Index du fichier de région en cours.
-    private int nChunksRefreshedInWorld;          // Nombre total de chunks traités dans le monde.
-    private int xCurrentChunkStart;               // X de la rangée de chunks en cours.
-    private int xCurrentRegion;                   // X de la région en cours.
-    private int zCurrentRegion;                   // Z de la région en cours.
-    private Object mustStopLock;                  // Verrou d'accès à l'indicateur d'arrêt de tâche.
-    private SafeLogger safeLogger;                // Loggueur thread-safe.
-    private World world;                          // Monde concerné.
-    private WorldData worldData;                  // Données concernant le monde.
+    private ArrayDeque<Integer> postponedRegions;                      // Index des régions reportées car proches des joueurs.
+    private ArrayDeque<Long> unsavedRegions;                           // Régions terminées dont des chunks restent retenus par la fenêtre de résidence.
+    private AsyncChunksLoader asyncChunksLoader;                       // Chargeur asynchrone des chunks, null si indisponible.
+    private AtomicBoolean started;                                     // Exécution de la tâche démarrée, ou écartée avant son démarrage ?
+    private AtomicReference<RefreshState> state;                       // Etat de la tâche, seul point de synchronisation des demandes de pause et d'arrêt.
+    private CopyOnWriteArrayList<RefreshStateListener> stateListeners; // Objets prévenus des changements d'état.
+    private boolean currentRegionHeaderTrusted;                        // L'en-tête de la région en cours a pu être lu ?
+    private boolean currentRegionPostponed;                            // La région en cours a déjà été reportée ?
+    private boolean nextRegion;                                        // Indique que la région en cours a été traitée.
+    private volatile boolean abort;                                    // Effacer les marqueurs de fichiers de région lors de l'arrêt prématuré.
+    private volatile boolean memoryThrottled;                          // Tâche en attente de mémoire ?
+    private volatile boolean shuttingDown;                             // Plugin en cours de désactivation : plus aucune tâche synchrone exécutée.
+    private volatile Future<?> pendingSyncCall;                        // Tâche synchrone attendue, null si aucune.
+    private volatile Thread workerThread;                              // Thread de la tâche, réveillé lors des demandes.
+    private CountDownLatch terminated;                                 // Libéré à la fin de l'exécution de la tâche.
+    private BatchController batchController;                           // Régulateur du budget de temps des lots de chunks.
+    private BukkitScheduler scheduler;                                 // Scheduler Bukkit.
+    private ChunkResidencyWindow residencyWindow;                      // Fenêtre de résidence des chunks chargés, null pour les décharger aussitôt.
+    private ChunkMask currentPruneMask;                                // Chunks jamais habités de la région en cours, à retirer une fois traitée.
+    private ChunkMask currentRegionMask;                               // Chunks présents dans la région en cours, d'après son en-tête.
+    private ChunksRefresher chunkRefresherPlugin;                      // Instance du plugin hôte.
+    private int currentRegionIndex;                                    // Index du fichier de région en cours.
+    private int nextRegionIndex;                                       // Index du prochain fichier de région jamais abordé.
+    private int currentChunkPosition;                                  // Position du prochain chunk à traiter dans la région (rangée * 32 + colonne).
+    private int nChunksRefreshedInWorld;                               // Nombre total de chunks traités dans le monde.
+    private int nChunksFailedInWorld;                                  // Nombre de chunks dont le chargement asynchrone a échoué, à reprendre.
+    private int xCurrentRegion;                                        // X de la région en cours.
+    private int zCurrentRegion;                                        // Z de la région en cours.
+    private PlayerTracker playerTracker;                               // Suivi des joueurs, en mode serveur ouvert, null sinon.
+    private ProgressJournal progressJournal;                           // Journal de progression du monde.
+    private QuarantineReport quarantineReport;                         // Rapport des chunks défectueux écartés, null sans contrôle des régions.
+    private RefreshMetrics metrics;                                    // Mesures de la tâche.
+    private RefreshOptions options;                                    // Options de la tâche.
+    private RefreshScope refreshScope;                                 // Zone à laquelle la tâche est limitée, null pour le monde entier.
+    private RegionPreScanner regionPreScanner;                         // Lecteur anticipé des en-têtes de régions.
+    private RegionSource regionSource;                                 // Régions du monde, relevées au fil de l'exploration du dossier.
+    private SafeLogger safeLogger;                                     // Loggueur thread-safe.
+    private TimestampSnapshot timestampSnapshot;                       // Instantané des dates de sauvegarde, en mode incrémental.
+    private World world;                                               // Monde concerné.
+    private WorldData worldData;                                       // Données concernant le monde.
     
     // Constructeurs.
     
-    public AsyncChunksRefresher(BukkitScheduler scheduler, SafeLogger safeLogger, ChunksRefresher chunkRefresherPlugin, World world, boolean noMemControl) throws ChkRefException
+    public AsyncChunksRefresher(BukkitScheduler scheduler, SafeLogger safeLogger, ChunksRefresher chunkRefresherPlugin, World world, RefreshOptions options) throws ChkRefException
     {
         /* Constructeur par défaut. */
         
         if(!(world instanceof World))
             throw new ChkRefException("Invalid world specified.");
         
-        else if(!((scheduler instanceof BukkitScheduler) && (safeLogger instanceof SafeLogger) && (chunkRefresherPlugin instanceof ChunksRefresher)))
+        else if(!((scheduler instanceof BukkitScheduler) && (safeLogger instanceof SafeLogger) && (chunkRefresherPlugin instanceof ChunksRefresher) && (options instanceof RefreshOptions)))
             throw new ChkRefException("Invalid parameters.");
         
-        this.abort                   = false;
-        this.mustStop                = false;
-        this.nextRegion              = false;
-        this.paused                  = false;
-        this.noMemControl            = noMemControl;
-        this.mustStopLock            = new Object();
-        this.regionFilesList         = null;
-        this.scheduler               = scheduler;
-        this.chunkRefresherPlugin    = chunkRefresherPlugin;
+        this.postponedRegions           = new ArrayDeque<Integer>();
+        this.unsavedRegions             = new ArrayDeque<Long>();
+        this.asyncChunksLoader          = null;
+        this.started                    = new AtomicBoolean(false);
+        this.state                      = new AtomicReference<RefreshState>(RefreshState.RUNNING);
+        this.stateListeners             = new CopyOnWriteArrayList<RefreshStateListener>();
+        this.currentRegionHeaderTrusted = false;
+        this.currentRegionPostponed     = false;
+        this.nextRegion                 = false;
+        this.abort                      = false;
+        this.memoryThrottled            = false;
+        this.shuttingDown               = false;
+        this.pendingSyncCall            = null;
+        this.workerThread               = null;
+        this.terminated                 = new CountDownLatch(1);
+        this.batchController            = new BatchController(chunkRefresherPlugin.getTickMonitor(), options.isLive());
+        this.metrics                    = new RefreshMetrics();
+        this.options                    = options;
+        this.refreshScope               = null;
+        this.playerTracker              = null;
+        this.progressJournal            = null;
+        this.quarantineReport           = null;
+        this.regionPreScanner           = null;
+        this.regionSource               = null;
+        this.residencyWindow            = null;
+        this.timestampSnapshot          = null;
+        this.scheduler                  = scheduler;
+        this.currentPruneMask           = null;
+        this.currentRegionMask          = null;
+        this.chunkRefresherPlugin       = chunkRefresherPlugin;
         this.currentRegionIndex      = 0;
+        this.nextRegionIndex         = 0;
+        this.currentChunkPosition    = 0;
         this.nChunksRefreshedInWorld = 0;
-        this.xCurrentChunkStart      = 0;
+        this.nChunksFailedInWorld    = 0;
         this.xCurrentRegion          = 0;
         this.zCurrentRegion          = 0;
         this.safeLogger              = safeLogger;
         this.world                   = world;
         this.worldData               = null;
+        
+        // Fenêtre de résidence des chunks chargés, sauf si les chunks doivent être déchargés et sauvegardés aussitôt.
+        
+        if((options.getResidencyRows() > 0) || (options.getMaxUnsaved() > 0))
+            this.residencyWindow = new ChunkResidencyWindow(chunkRefresherPlugin, world, options.getResidencyRows(), options.getMaxUnsaved());
+        
+        // Suivi des joueurs, en mode serveur ouvert.
+        
+        if(options.isLive())
+            this.playerTracker = new PlayerTracker(world);
+        
+        // Chargement asynchrone des chunks, si le serveur le propose et qu'il n'est pas désactivé.
+        
+        if(AsyncChunksLoader.isAvailable() && !options.isSyncLoad())
+            this.asyncChunksLoader = new AsyncChunksLoader(scheduler, chunkRefresherPlugin, world, options.getAsyncWindow(), residencyWindow);
     }
     
     // Méthodes publiques de classe.
 
+    public void addStateListener(RefreshStateListener listener)
+    {
+        /* Ajoute un objet à prévenir des changements d'état de la tâche.
+         * Retour : aucun.
+         * Paramètres : objet en question. */
+        
+        if(listener instanceof RefreshStateListener)
+            stateListeners.addIfAbsent(listener);
+    }
+    
     public void askForStop()
     {
         /* Défini si la tâche doit s'arrêter, sans effacer les marqueurs des régions traitées.
@@ -96,47 +188,77 @@ public final class AsyncChunksRefresher extends BukkitRunnable
     
     public void askForStop(boolean abort)
     {
-        /* Défini si la tâche doit s'arrêter.
+        /* Défini si la tâche doit s'arrêter, au plus tard à la fin du lot de chunks en cours, même en pause.
          * Retour : aucun. 
          * Paramètres : abort : efface les marqueurs de régions traitées. */
 
-        List<BukkitWorker> bukkitWorkers = null; // Tâches asynchrones en cours.
+        RefreshState currentState = null; // Etat avant la demande.
+        
+        // Change l'état sans verrou, sauf si la tâche est déjà terminée ou en cours d'arrêt.
         
-        // Défini la valeur de manière thread-safe.
+        if(abort)
+            this.abort = true;
         
-        synchronized(mustStopLock)
+        do
         {
-            this.abort    = abort;
-            this.mustStop = true;
+            currentState = state.get();
+            
+            if(currentState.isTerminal() || (currentState == RefreshState.STOPPING))
+                return;
         }
+        while(!changeState(currentState, RefreshState.STOPPING));
+        
+        // Réveille la tâche, au cas où celle-ci serait en attente.
+        
+        wakeWorker();
+    }
 
-        // On envoie un interrupt() au thread de la tâche, au cas où celle-ci serait dans une phase d'attente.
+    public boolean awaitTermination(long timeoutMillis) throws InterruptedException
+    {
+        /* Attend, sans scrutation, la fin de l'exécution de la tâche.
+         * Retour : tâche terminée dans le délai ?
+         * Paramètres : délai maximal, en millisecondes. */
         
-        bukkitWorkers = scheduler.getActiveWorkers();
+        return terminated.await(Math.max(timeoutMillis, 0L), TimeUnit.MILLISECONDS);
+    }
+    
+    public RefreshState getState()
+    {
+        /* Retourne l'état de la tâche.
+         * Retour : état en question.
+         * Paramètres : aucun. */
         
-        for(BukkitWorker currentWorker : bukkitWorkers)
-        {
-            if(currentWorker.getTaskId() == this.getTaskId())
-            {
-                currentWorker.getThread().interrupt();
-                
-                break;
-            }
-        }
+        return state.get();
     }
 
     public void pause()
     {
-        /* Défini que la tâche doit se mettre en pause.
+        /* Défini que la tâche doit se mettre en pause, à la fin du lot de chunks en cours.
          * Retour : aucun. 
          * Paramètres : aucun. */
         
-        // Défini la valeur de manière thread-safe.
+        if(changeState(RefreshState.RUNNING, RefreshState.PAUSING))
+            wakeWorker();
+    }
+
+    public void releaseResidentChunks()
+    {
+        /* Libère sur-le-champ les chunks encore retenus par la tâche. Appelée depuis le thread Bukkit lors de la
+         * désactivation du plugin, une fois la tâche terminée, les libérations étalées n'ayant plus lieu.
+         * Retour : aucun.
+         * Paramètres : aucun. */
         
-        synchronized(mustStopLock)
-        {
-            paused = true;
-        }
+        if(residencyWindow instanceof ChunkResidencyWindow)
+            residencyWindow.releaseAll();
+    }
+
+    public void removeStateListener(RefreshStateListener listener)
+    {
+        /* Retire un objet prévenu des changements d'état de la tâche.
+         * Retour : aucun.
+         * Paramètres : objet en question. */
+        
+        stateListeners.remove(listener);
     }
 
     public void resume()
@@ -145,12 +267,42 @@ public final class AsyncChunksRefresher extends BukkitRunnable
          * Retour : aucun. 
          * Paramètres : aucun. */
         
-        // Défini la valeur de manière thread-safe.
+        if(changeState(RefreshState.PAUSED, RefreshState.RUNNING) || changeState(RefreshState.PAUSING, RefreshState.RUNNING))
+            wakeWorker();
+    }
+    
+    public void shutdown()
+    {
+        /* Arrête la tâche lors de la désactivation du plugin, sans effacer les marqueurs des régions traitées : le
+         * thread Bukkit, occupé par la désactivation, n'exécutera plus les tâches synchrones attendues ni ne terminera
+         * les chargements asynchrones, qui sont donc abandonnés. La progression est écrite par la tâche à sa fin.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        Future<?> currentSyncCall = null; // Tâche synchrone attendue.
+        
+        shuttingDown = true;
+        
+        askForStop(false);
+        
+        // Tâche pas encore démarrée : elle ne le sera plus.
         
-        synchronized(mustStopLock)
+        if(started.compareAndSet(false, true))
         {
-            paused = false;
+            notifyStateChange(state.getAndSet(RefreshState.DONE), RefreshState.DONE);
+            
+            terminated.countDown();
+            
+            return;
         }
+        
+        // Débloque les attentes du thread Bukkit.
+        
+        if((currentSyncCall = pendingSyncCall) instanceof Future<?>)
+            currentSyncCall.cancel(false);
+        
+        if(asyncChunksLoader instanceof AsyncChunksLoader)
+            asyncChunksLoader.close();
     }
     
     @Override
@@ -160,10 +312,26 @@ public final class AsyncChunksRefresher extends BukkitRunnable
          * Retour : aucun. 
          * Paramètres : aucun. */
         
-        boolean completed            = false; // Tâche achevée.
-        boolean outOfMemory          = false; // Tâche interrompue par manque de mémoire.
-        int nChunksRefreshedInRegion = 0;     // Nombre de chunks traités dans l'itération de la boucle de traitement.
+        boolean completed              = false; // Tâche achevée.
+        boolean regionsCounted         = false; // Décompte des chunks restants lancé ?
+        int nChunksRefreshedInRegion   = 0;     // Nombre de chunks traités dans l'itération de la boucle de traitement.
+        long regionStartTime           = 0L;    // Timestamp de début de traitement de la région en cours.
+        RegionRefreshEvent regionEvent = null;  // Evénement JFR de la région en cours.
+        RefreshState finalState        = null;  // Etat de la tâche à la fin de son exécution.
+        
+        // Tâche écartée avant son démarrage, lors de la désactivation du plugin ?
+        
+        if(!(started.compareAndSet(false, true)))
+            return;
         
+        // Thread à réveiller lors des demandes de pause et d'arrêt.
+        
+        workerThread = Thread.currentThread();
+        
+        // Réclame une part du budget de temps commun.
+
+        chunkRefresherPlugin.getRefreshCoordinator().register(this, options.getWeight());
+
         try
         {
             // Obtient la localisation du spawn du monde.
@@ -175,65 +343,183 @@ public final class AsyncChunksRefresher extends BukkitRunnable
             
             safeLogger.logInfo("World spawn location is X:" + worldData.getXSpawnLocation() + " Y:" + worldData.getYSpawnLocation() + " Z:" + worldData.getZSpawnLocation() + ".");
             
-            // Obtient les noms des fichiers de régions contenus dans le dossier du monde.
+            if(asyncChunksLoader instanceof AsyncChunksLoader)
+                safeLogger.logInfo("Chunks will be loaded asynchronously, " + options.getAsyncWindow() + " at a time.");
+            
+            // Libération progressive, à chaque tick, des chunks sortis de la fenêtre de résidence.
+            
+            if(residencyWindow instanceof ChunkResidencyWindow)
+            {
+                residencyWindow.runTaskTimer(chunkRefresherPlugin, 1L, 1L);
+                
+                if(options.getMaxUnsaved() > 0)
+                    safeLogger.logInfo("Chunks will be saved region by region, up to " + options.getMaxUnsaved() + " unsaved chunks kept loaded.");
+                
+                else
+                    safeLogger.logInfo("The last " + options.getResidencyRows() + " rows of loaded chunks will be kept loaded.");
+            }
+            
+            // Relevé périodique de la position des joueurs, en mode serveur ouvert.
+            
+            if(playerTracker instanceof PlayerTracker)
+            {
+                playerTracker.runTaskTimer(chunkRefresherPlugin, 0L, PlayerTracker.PERIOD_TICKS);
+                
+                safeLogger.logInfo("Live server mode : regions within " + options.getLiveRadius() + " blocks of online players, or on their way, will be refreshed later.");
+            }
+            
+            // Zone à laquelle la tâche est limitée, d'après le spawn et la bordure du monde.
+            
+            if((refreshScope = options.getScope(worldData.getXSpawnLocation(), worldData.getZSpawnLocation(), worldData.getXBorderCenter(), worldData.getZBorderCenter(), worldData.getBorderSize())) instanceof RefreshScope)
+                safeLogger.logInfo("Refresh limited to " + refreshScope + ".");
+            
+            // Génération des chunks manquants, dans une zone bornée de taille raisonnable.
+            
+            if(options.isGenerate())
+            {
+                if(!(refreshScope instanceof RefreshScope) || (refreshScope.countRegions() > MAX_GENERATION_REGIONS))
+                    throw new ChkRefException("Generation area too large, it must span at most " + MAX_GENERATION_REGIONS + " regions.");
+                
+                safeLogger.logInfo("Missing chunks will be generated, existing ones refreshed.");
+            }
+            
+            if(options.isValidate())
+            {
+                quarantineReport = new QuarantineReport(worldData.getWorldRegionFolder(), worldData.getWorldName());
+                
+                safeLogger.logInfo("Region files will be checked before being refreshed, corrupt chunks skipped.");
+            }
+            
+            if(options.getPruneMode() instanceof PruneMode)
+                safeLogger.logInfo("Never inhabited chunks will be " + (options.getPruneMode() == PruneMode.DRYRUN ? "counted only." : (options.getPruneMode() == PruneMode.SKIP ? "skipped." : "skipped, then removed at next server start.")));
+            
+            // Ouvre le journal de progression, pour reprendre là où une précédente tâche s'est arrêtée.
+            
+            openProgressJournal();
+            
+            // Lance l'exploration du dossier des régions du monde.
             
             listRegionFiles();
             
+            loadTimestampSnapshot();
+            
+            regionPreScanner = new RegionPreScanner(regionSource, getTargetDataVersion(), timestampSnapshot, refreshScope, options.isGenerate(), options.getPruneMode(), quarantineReport);
+            
             // Boucle de découverte et d'actualisation des chunks, uniquement si au moins une région a été trouvée.
             
-            if(regionFilesList.size() != 0)
+            if(regionSource.await(0))
             {
                 // On s'assure de commencer par le 1er fichier de région.
                 
-                currentRegionIndex      = 0;
-                nextRegion              = true; // Pour forcer l'exécution du bloc déterminant X et Z de la région.
+                nextRegionIndex = 0;
+                nextRegion      = true; // Pour forcer l'exécution du bloc déterminant X et Z de la région.
+                
+                selectNextRegion();
                 
                 // Boucle.
             
-                while(!(isStopAsked() || completed || outOfMemory))
+                while(!completed)
                 {
+                    // Applique les demandes de pause et d'arrêt, entre deux lots.
+                    
+                    if(!(awaitRunnable()))
+                        break;
+                    
+                    // Attend, sans forcer le passage du ramasse-miettes, que la mémoire du serveur ne soit plus saturée.
+                    // L'attente est interrompue par les demandes de pause et d'arrêt.
+                    
+                    if(!options.isNoMemControl() && chunkRefresherPlugin.getRefreshCoordinator().isMemoryLow())
+                    {
+                        if(!memoryThrottled)
+                        {
+                            safeLogger.logWarning("Server memory is nearly full, chunk refreshing for world \"" + worldData.getWorldName() + "\" is waiting for it to recover...");
+                            
+                            memoryThrottled = true;
+                        }
+                        
+                        LockSupport.parkNanos(this, MEMORY_WAIT_MILLIS * 1000000L);
+                        
+                        continue;
+                    }
+                    
+                    if(memoryThrottled)
+                    {
+                        safeLogger.logInfo("Server memory recovered, chunk refreshing for world \"" + worldData.getWorldName() + "\" resumes.");
+                        
+                        memoryThrottled = false;
+                    }
+                    
+                    // En mode serveur ouvert, cède entièrement le thread Bukkit tant que les ticks restent trop longs.
+                    
+                    if(batchController.shouldYield())
+                    {
+                        LockSupport.parkNanos(this, LAG_WAIT_MILLIS * 1000000L);
+                        
+                        continue;
+                    }
+                    
                     // Détermine les coordonnées de la région associée, si son traitement débute.
                     
                     if(nextRegion)
                     {
-                        if(isPaused()) // Contrôle fait ici, pour assurer la fin du traitement d'une région entamée avant mise en pause.
+                        // Une fois l'exploration terminée, décompte les chunks restants pour l'estimation de la durée restante.
+                        
+                        if(!regionsCounted && regionSource.isComplete())
                         {
-                            try
-                            {
-                                Thread.sleep(100L);
-                            }
-
-                            catch(InterruptedException exception)
-                            {
-                                // Rien d'anormal.
-                            }
-
-                            continue;
+                            countChunksToRefresh();
+                            
+                            regionsCounted = true;
                         }
-
+                        
+                        importRegionRefreshedIndicators();
+                        
                         determineRegionXZ();
                         
-                        xCurrentChunkStart       = 0;     // On commence par la 1ère rangée de chunks.
+                        // En mode serveur ouvert, reporte la région si des joueurs s'y trouvent ou s'y dirigent.
+                        
+                        if(isCurrentRegionNearPlayers())
+                        {
+                            if(currentRegionPostponed) // Plus que des régions reportées : laisse les joueurs s'éloigner.
+                                LockSupport.parkNanos(this, PLAYERS_WAIT_MILLIS * 1000000L);
+                            
+                            else
+                                safeLogger.logInfo("Region X:" + xCurrentRegion + " Z:" + zCurrentRegion + " of world \"" + worldData.getWorldName() + "\" is near online players, postponed.");
+                            
+                            postponedRegions.addLast(currentRegionIndex);
+                            
+                            selectNextRegion();
+                            
+                            continue;
+                        }
+                        
+                        regionEvent = new RegionRefreshEvent();
+                        
+                        regionEvent.begin();
+                        
+                        determineRegionMask();
+                        
+                        currentChunkPosition     = 0;     // On commence par le 1er chunk de la 1ère rangée.
                         nChunksRefreshedInRegion = 0;     // Réinitialise le nombre de chunks traités dans la région.
                         nextRegion               = false; // Traitement en cours de la région.
+                        regionStartTime          = System.nanoTime();
                         
                         // Traite chaque nom de fichier.
                         
                         safeLogger.logInfo("Refreshing chunks in region X:" + xCurrentRegion + " Z:" + zCurrentRegion + " of world \"" + worldData.getWorldName() + "\"...");
                     }
                     
-                    // On traite un maximum de 64 chunks à chaque itération (2 rangées de 32 chunks).
-                    // -> Si un indicateur comme quoi ce fichier a déjà été traité existe, on ignore cette région et
+                    // On traite à chaque itération autant de chunks que le budget de temps du tick le permet.
+                    // -> Si le journal indique que cette région a déjà été traitée, on ignore cette région et
                     //    et on demande le passage à la suivante.
                     
                     if(!(isCurrentRegionAlreadyRefreshed()))
                     {
-                        if((nChunksRefreshedInRegion += refreshChunksFromFilenames(2)) < 0)
-                            throw new ChkRefException("Failed to discover and refresh chunks.");
+                        int nChunksRefreshedInBatch = refreshChunksBatch(); // Chunks traités dans le lot.
                         
-                        // Nettoyage.
+                        if(nChunksRefreshedInBatch < 0)
+                            throw new ChkRefException("Failed to discover and refresh chunks.");
                         
-                        System.gc();
+                        nChunksRefreshedInRegion += nChunksRefreshedInBatch;
                     }
                     
                     else
@@ -247,76 +533,116 @@ public final class AsyncChunksRefresher extends BukkitRunnable
                     
                     if(nextRegion)
                     {
-                        safeLogger.logInfo(nChunksRefreshedInRegion + " chunks discovered and refreshed in region X:" + xCurrentRegion + " Z:" + zCurrentRegion + " of world \"" + worldData.getWorldName() + "\".");
+                        int nFailures = 0; // Chargements asynchrones en échec dans la région.
                         
-                        // Toutes les régions ont été traitées ?
-                        
-                        if(currentRegionIndex == regionFilesList.size() - 1) // Oui ?
-                        {
-                            completed = true; // Arrête la boucle.
-                        }
+                        // Attend la fin des chargements asynchrones de la région. Les chunks en échec ne sont pas journalisés.
                         
-                        else                                             // Non.
+                        if(asyncChunksLoader instanceof AsyncChunksLoader)
                         {
-                        
-                            // Créé un indicateur marquant la région en cours comme totalement raffraichie.
-                            
-                            getCurrentRegionRefreshedIndicator().createNewFile(); // Pas de contrôle.
+                            asyncChunksLoader.awaitAll();
                             
-                            // Contrôle mémoire disponible (1Go nécessaire considéré).
+                            progressJournal.markChunksRefreshed(xCurrentRegion, zCurrentRegion, asyncChunksLoader.drainLoadedChunks());
                             
-                            if(!noMemControl && (Runtime.getRuntime().freeMemory() < 1073741824L)) // Insuffisante, arrêt de la tâche.
+                            if((nFailures = asyncChunksLoader.getAndResetFailures()) > 0)
                             {
-                                // Message console.
-                                
-                                safeLogger.logWarning("Server is running out of memory. For safety, chunk refreshing for world \"" + worldData.getWorldName() + "\" has been stopped.");
-                                safeLogger.logWarning("Try restart task after clearing memory or restarting server, don't worry, it will resume on the first unrefreshed region ;)");
+                                safeLogger.logWarning(nFailures + " chunks failed to load in region X:" + xCurrentRegion + " Z:" + zCurrentRegion + " of world \"" + worldData.getWorldName() + "\", left to the next run.");
                                 
-                                // Arrêt de la boucle.
-                                
-                                outOfMemory = true;
+                                nChunksFailedInWorld += nFailures;
                             }
+                        }
+                        
+                        metrics.recordRegion(System.nanoTime() - regionStartTime);
+                        
+                        safeLogger.logInfo(nChunksRefreshedInRegion + " chunks discovered and refreshed in region X:" + xCurrentRegion + " Z:" + zCurrentRegion + " of world \"" + worldData.getWorldName() + "\".");
+                        
+                        // Marque la région en cours comme totalement raffraichie, sauf si la zone n'en couvrait qu'une partie ou si
+                        // des chargements ont échoué, une fois tous ses chunks sauvegardés s'ils sont retenus par la fenêtre de
+                        // résidence. Une reprise ne traite alors à nouveau que les chunks non journalisés.
+                        
+                        if(((refreshScope instanceof RefreshScope) && !refreshScope.containsRegion(xCurrentRegion, zCurrentRegion)) || (nFailures > 0))
+                            recordReleasedChunks();
+                        
+                        else if(residencyWindow instanceof ChunkResidencyWindow)
+                        {
+                            unsavedRegions.addLast(RegionCoordinates.pack(xCurrentRegion, zCurrentRegion));
                             
-                            else                                                                   // Suffisante, on continue avec la région suivante.
-                            {
-                                // Incrémente l'index de la région en cours et ajoute le total des chunks traités dans la région à ceux du monde.
-                                
-                                currentRegionIndex++;
-                                
-                                nChunksRefreshedInWorld += nChunksRefreshedInRegion;
-                            }
+                            recordReleasedChunks();
                         }
-                    }
-                    
-                    // Pause 100ms (2 Bukkit ticks)
-                    
-                    try
-                    {
-                        Thread.sleep(50L);
-                    }
-
-                    catch(InterruptedException exception)
-                    {
-                        // Rien d'anormal.
+                        
+                        else
+                            progressJournal.markRegionRefreshed(xCurrentRegion, zCurrentRegion);
+                        
+                        // Met le fichier de la région en file de compactage, s'il a été modifié, ou avec ses chunks jamais
+                        // habités à retirer, seulement maintenant que la région est traitée.
+                        
+                        if((options.isCompact() && (nChunksRefreshedInRegion > 0)) || (currentPruneMask instanceof ChunkMask))
+                            queueRegionCompaction();
+                        
+                        progressJournal.commit();
+                        
+                        regionEvent.commit(world, xCurrentRegion, zCurrentRegion, nChunksRefreshedInRegion);
+                        
+                        // Toutes les régions ont été traitées ?
+                        
+                        nChunksRefreshedInWorld += nChunksRefreshedInRegion;
+                        
+                        if(!(selectNextRegion())) // Oui ?
+                            completed = true;     // Arrête la boucle.
                     }
                 }
             }
             
+            // Aucun fichier de région : rien à raffraichir, la tâche est achevée.
+            
+            else
+            {
+                safeLogger.logInfo("No region file found in world \"" + worldData.getWorldName() + "\", nothing to refresh.");
+                
+                completed = true;
+            }
+            
+            // Reprend les derniers fichiers indicateurs relevés, pour qu'aucun ne subsiste après une tâche achevée.
+            
+            if(completed)
+                importRegionRefreshedIndicators();
+            
             safeLogger.logInfo("Total of " + nChunksRefreshedInWorld + " chunks discovered and refreshed in world \"" + worldData.getWorldName() + "\".");
             
-            // Nettoyage des fichiers indicateurs si la carte a été traité complètement ou en cas d'abandon.
+            // Instantané des dates de sauvegarde, base des prochains raffraichissements incrémentaux, pris uniquement
+            // si le monde entier a été traité, sans chunk en échec.
+            
+            if(completed && (refreshScope instanceof RefreshScope))
+                safeLogger.logInfo("Timestamp snapshot not recorded, only part of the world was refreshed.");
+            
+            else if(completed && (nChunksFailedInWorld > 0))
+                safeLogger.logInfo("Timestamp snapshot not recorded, some chunks failed to load.");
+            
+            else if(completed)
+                writeTimestampSnapshot();
+            
+            // Suppression du journal de progression si la carte a été traité complètement ou en cas d'abandon. Avec des
+            // chunks en échec, le journal est conservé pour que la prochaine tâche sur ce monde ne reprenne qu'eux.
+            
+            if(completed && (nChunksFailedInWorld > 0) && !abort)
+                safeLogger.logWarning(nChunksFailedInWorld + " chunks failed to load in world \"" + worldData.getWorldName() + "\", run the refresh again to retry them.");
+            
+            else if(completed || abort)
+                deleteProgressJournal();
+            
+            if(options.getPruneMode() instanceof PruneMode)
+                logPruneReport();
             
-            if(completed || isAborted())
-                cleanRegionRefreshedIndicators();
+            if((quarantineReport instanceof QuarantineReport) && ((quarantineReport.getChunksCount() > 0) || (quarantineReport.getRegionsCount() > 0)))
+                safeLogger.logWarning(quarantineReport.getChunksCount() + " corrupt chunks and " + quarantineReport.getRegionsCount() + " regions with an unreadable header skipped in world \"" + worldData.getWorldName() + "\", listed in \"" + quarantineReport.getFile() + "\".");
+            
+            if(options.isCompact())
+                safeLogger.logInfo("Refreshed region files of world \"" + worldData.getWorldName() + "\" will be compacted at next server start.");
             
             // Fin d'exécution.
             
-            if((completed) || (isStopAsked()))
+            if((completed) || (state.get() == RefreshState.STOPPING))
                 safeLogger.logInfo("Chunks refresh " + (completed ? "completed" : "endded") + " for world \"" + worldData.getWorldName() + "\".");
             
-            else if(outOfMemory)
-                safeLogger.logWarning("Chunks refresh suspended for world \"" + worldData.getWorldName() + "\".");
-            
             else
                 safeLogger.logError("Chunks refresh endded for world \"" + worldData.getWorldName() + "\".");
         }
@@ -325,7 +651,10 @@ public final class AsyncChunksRefresher extends BukkitRunnable
         {
             // Interrompu.
             
-            if(worldData instanceof WorldData)
+            if(shuttingDown && (worldData instanceof WorldData))
+                safeLogger.logInfo("Chunks refresh stopped for world \"" + worldData.getWorldName() + "\" by plugin shutdown, it will resume from here.");
+            
+            else if(worldData instanceof WorldData)
                 safeLogger.logInfo("Chunks refresh interrupted for world \"" + worldData.getWorldName() + "\": " + error.getMessage());
             
             else
@@ -345,38 +674,284 @@ public final class AsyncChunksRefresher extends BukkitRunnable
 
         finally
         {
-            // Signale l'arrêt.
+            // Abandonne les lectures d'en-têtes encore en cours.
+            
+            if(regionPreScanner instanceof RegionPreScanner)
+                regionPreScanner.close();
+            
+            if(regionSource instanceof RegionSource)
+                regionSource.close();
+            
+            // Arrête le suivi des joueurs.
+            
+            if(playerTracker instanceof PlayerTracker)
+                playerTracker.close();
+            
+            // Libère progressivement les chunks encore retenus, depuis le thread Bukkit.
+            
+            if((residencyWindow instanceof ChunkResidencyWindow) && chunkRefresherPlugin.isEnabled())
+                scheduler.runTask(chunkRefresherPlugin, residencyWindow::close);
+            
+            // Ecrit et ferme le journal de progression, s'il n'a pas été supprimé, avec les derniers chunks chargés.
+            
+            checkpointLoadedChunks();
+            closeProgressJournal();
+            
+            // Etat final : achevée ou arrêtée à la demande, sinon en échec.
+            
+            finalState = (completed || (state.get() == RefreshState.STOPPING)) ? RefreshState.DONE : RefreshState.FAILED;
+            
+            notifyStateChange(state.getAndSet(finalState), finalState);
+            
+            // Rend sa part du budget de temps commun, et signale l'arrêt.
 
-            chunkRefresherPlugin.onTaskEnd(world);   
+            chunkRefresherPlugin.getRefreshCoordinator().unregister(this);
+
+            chunkRefresherPlugin.onTaskEnd(world);
+            
+            terminated.countDown();
         }
     }
 
+    public RefreshMetrics getMetrics()
+    {
+        /* Retourne les mesures de la tâche.
+         * Retour : objet en question.
+         * Paramètres : aucun. */
+        
+        return metrics;
+    }
+    
+    public RefreshOptions getOptions()
+    {
+        /* Retourne les options de la tâche.
+         * Retour : objet en question.
+         * Paramètres : aucun. */
+        
+        return options;
+    }
+    
     public World getWorld()
     {
         return world;
     }
     
+    public boolean isMemoryThrottled()
+    {
+        /* Indique si la tâche attend que la mémoire du serveur ne soit plus saturée.
+         * Retour : oui ou non. 
+         * Paramètres : aucun. */
+        
+        return memoryThrottled;
+    }
+    
+    public boolean isPaused()
+    {
+        /* Indique si la tâche est en pause, ou sur le point de l'être.
+         * Retour : oui ou non. 
+         * Paramètres : aucun. */
+        
+        RefreshState currentState = state.get(); // Etat de la tâche.
+        
+        return (currentState == RefreshState.PAUSING) || (currentState == RefreshState.PAUSED);
+    }
+    
     // Méthodes privées de classe.
     
+    private boolean awaitRunnable()
+    {
+        /* Applique, entre deux lots de chunks, les demandes de pause et d'arrêt : la tâche reste garée, sans scrutation,
+         * tant qu'elle est en pause.
+         * Retour : la tâche peut poursuivre ? Non si son arrêt est demandé.
+         * Paramètres : aucun. */
+        
+        if(changeState(RefreshState.PAUSING, RefreshState.PAUSED))
+        {
+            safeLogger.logInfo("Chunks refresh paused for world \"" + worldData.getWorldName() + "\".");
+            
+            while(state.get() == RefreshState.PAUSED)
+                LockSupport.park(this);
+            
+            if(state.get() == RefreshState.RUNNING)
+                safeLogger.logInfo("Chunks refresh resumed for world \"" + worldData.getWorldName() + "\".");
+        }
+        
+        return state.get() != RefreshState.STOPPING;
+    }
+    
+    private boolean changeState(RefreshState expectedState, RefreshState newState)
+    {
+        /* Change l'état de la tâche, s'il est celui attendu, et prévient les objets à l'écoute.
+         * Retour : changement effectué ?
+         * Paramètres : -expectedState : état attendu.
+         *              -newState      : nouvel état. */
+        
+        if(!(state.compareAndSet(expectedState, newState)))
+            return false;
+        
+        notifyStateChange(expectedState, newState);
+        
+        return true;
+    }
+    
+    private void countChunksToRefresh()
+    {
+        /* Lance le décompte, d'après les en-têtes et hors du thread Bukkit, des chunks restant à traiter dans les régions
+         * non terminées, pour l'estimation de la durée restante. Appelée une fois l'exploration du dossier terminée.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        long[] pendingRegions        = new long[regionSource.size()]; // Coordonnées des régions non terminées.
+        int nPendingRegions          = 0;                             // Nombre de régions non terminées.
+        long nChunksAlreadyRefreshed = 0L;                            // Chunks déjà journalisés dans ces régions.
+        
+        for(int regionIndex = 0; regionIndex < pendingRegions.length; regionIndex++)
+        {
+            long packedCoordinates = regionSource.get(regionIndex);                 // Coordonnées de la région.
+            int xRegion            = RegionCoordinates.unpackX(packedCoordinates);
+            int zRegion            = RegionCoordinates.unpackZ(packedCoordinates);
+            
+            if(!progressJournal.isRegionRefreshed(xRegion, zRegion))
+            {
+                pendingRegions[nPendingRegions++] = packedCoordinates;
+                
+                nChunksAlreadyRefreshed += progressJournal.getRefreshedMask(xRegion, zRegion).count();
+            }
+        }
+        
+        final long nChunksToSubtract = nChunksAlreadyRefreshed; // Pour la lambda.
+        final int nRegionsToCount    = nPendingRegions;
+        
+        metrics.setRegionsToRefresh(nPendingRegions);
+        
+        CompletableFuture.supplyAsync(() -> Arrays.stream(pendingRegions, 0, nRegionsToCount).parallel().map(packedCoordinates ->
+        {
+            try
+            {
+                if(options.isGenerate()) // Chunks présents ou à générer : tous ceux de la zone.
+                    return refreshScope.getRegionMask(RegionCoordinates.unpackX(packedCoordinates), RegionCoordinates.unpackZ(packedCoordinates)).count();
+                
+                ChunkMask occupancyMask = RegionHeader.read(regionSource.getFile(packedCoordinates)).getOccupancyMask(); // Chunks présents.
+                
+                if(refreshScope instanceof RefreshScope)
+                    occupancyMask.and(refreshScope.getRegionMask(RegionCoordinates.unpackX(packedCoordinates), RegionCoordinates.unpackZ(packedCoordinates)));
+                
+                return occupancyMask.count();
+            }
+            
+            catch(IOException error)
+            {
+                return 0L;
+            }
+        }).sum(), ForkJoinPool.commonPool()).thenAccept(nChunks -> metrics.setChunksToRefresh(Math.max(0L, nChunks - nChunksToSubtract)));
+    }
+    
     private void determineRegionXZ() throws Exception
     {
         /* Obtient détermine les coordonnées X et Z de la région indiquée par currentRegionIndex.
          * Retour : aucun.
          * Paramètres : aucun. */
         
-        String regionFilenameParts[] = null;
+        long packedCoordinates = 0L; // Coordonnées regroupées de la région.
         
         // Contrôles.
         
-        if(!(regionFilesList instanceof List<?>))
+        if(!(regionSource instanceof RegionSource))
             throw new IllegalArgumentException("Object not ready to use.");
         
         // Détermine les coordonnées de la région.
         
-        regionFilenameParts = regionFilesList.get(currentRegionIndex).getName().split("\\.");
+        packedCoordinates = regionSource.get(currentRegionIndex);
             
-        xCurrentRegion = Integer.parseInt(regionFilenameParts[1]);
-        zCurrentRegion = Integer.parseInt(regionFilenameParts[2]);
+        xCurrentRegion = RegionCoordinates.unpackX(packedCoordinates);
+        zCurrentRegion = RegionCoordinates.unpackZ(packedCoordinates);
+    }
+    
+    private void determineRegionMask() throws InterruptedException
+    {
+        /* Obtient le masque des chunks présents dans la région indiquée par currentRegionIndex, depuis son en-tête.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        currentPruneMask = null;
+        
+        try
+        {
+            currentRegionMask          = regionPreScanner.getRegionMask(currentRegionIndex);
+            currentPruneMask           = regionPreScanner.takePruneMask(xCurrentRegion, zCurrentRegion);
+            currentRegionHeaderTrusted = true;
+        }
+        
+        catch(ExecutionException error)
+        {
+            // En-tête illisible, avec contrôle des régions : la région entière est écartée et mise en quarantaine, ses
+            // chunks ne pouvant être contrôlés.
+            
+            if(quarantineReport instanceof QuarantineReport)
+            {
+                safeLogger.logWarning("Cannot read header of region X:" + xCurrentRegion + " Z:" + zCurrentRegion + " (" + error.getCause() + "), region skipped.");
+                
+                try
+                {
+                    quarantineReport.addRegion(xCurrentRegion, zCurrentRegion, "unreadable header (" + error.getCause() + ")");
+                }
+                
+                catch(IOException exception)
+                {
+                    safeLogger.logWarning("Quarantine report of world \"" + worldData.getWorldName() + "\" cannot be written: " + exception.getMessage());
+                }
+                
+                currentRegionMask = new ChunkMask();
+            }
+            
+            // Sinon, on revient à l'interrogation du serveur pour chaque chunk.
+            
+            else
+            {
+                safeLogger.logWarning("Cannot read header of region X:" + xCurrentRegion + " Z:" + zCurrentRegion + " (" + error.getCause() + "), probing every chunk.");
+                
+                currentRegionMask = (refreshScope instanceof RefreshScope) ? refreshScope.getRegionMask(xCurrentRegion, zCurrentRegion) : ChunkMask.full();
+            }
+            
+            currentRegionHeaderTrusted = false;
+        }
+        
+        // Retire les chunks déjà raffraichis par une précédente tâche, pour reprendre au chunk près.
+        
+        currentRegionMask.andNot(progressJournal.getRefreshedMask(xCurrentRegion, zCurrentRegion));
+    }
+    
+    private int getTargetDataVersion() throws ChkRefException
+    {
+        /* Obtient la version de format en deçà de laquelle les chunks doivent être chargés, si l'option staleonly est active.
+         * Retour : version en question, 0 pour charger tous les chunks présents.
+         * Paramètres : aucun. */
+        
+        Object unsafeValues   = null; // Fonctions internes du serveur.
+        int targetDataVersion = 0;    // Version obtenue.
+        
+        if(!options.isStaleOnly())
+            return 0;
+        
+        if((targetDataVersion = options.getTargetDataVersion()) == 0)
+        {
+            // UnsafeValues.getDataVersion() n'existe pas sur tous les serveurs : recherche par réflexion.
+            
+            try
+            {
+                unsafeValues      = chunkRefresherPlugin.getServer().getUnsafe();
+                targetDataVersion = (Integer)unsafeValues.getClass().getMethod("getDataVersion").invoke(unsafeValues);
+            }
+            
+            catch(ReflectiveOperationException|ClassCastException|NullPointerException|SecurityException exception)
+            {
+                throw new ChkRefException("Cannot get server data version, use dataversion=<n> instead of staleonly.");
+            }
+        }
+        
+        safeLogger.logInfo("Only chunks older than data version " + targetDataVersion + " will be refreshed.");
+        
+        return targetDataVersion;
     }
     
     private boolean getWorldData() throws InterruptedException, ChkRefException
@@ -419,172 +994,388 @@ public final class AsyncChunksRefresher extends BukkitRunnable
     
     private boolean isCurrentRegionAlreadyRefreshed() throws Exception
     {
-        /* Indique si la région en cours a déjà été totalement raffraichie, par existence ou non d'un fichier indicateur.
+        /* Indique si la région en cours a déjà été totalement raffraichie, d'après le journal de progression.
          * Retour : oui ou non. 
          * Paramètres : aucun. */
         
-        // Contrôle l'existence d'un fichier indicateur dans le dossier du monde.
+        // Contrôle.
+        
+        if(!(progressJournal instanceof ProgressJournal))
+            throw new IllegalArgumentException("Object not ready to use.");
+        
+        return progressJournal.isRegionRefreshed(xCurrentRegion, zCurrentRegion);
+    }
+    
+    private boolean isCurrentRegionNearPlayers() throws Exception
+    {
+        /* Indique, en mode serveur ouvert, si des joueurs se trouvent à proximité de la région en cours ou s'y dirigent.
+         * Une région déjà raffraichie, ignorée de toute façon, n'est jamais concernée.
+         * Retour : oui ou non, toujours non hors mode serveur ouvert.
+         * Paramètres : aucun. */
+        
+        if(!(playerTracker instanceof PlayerTracker) || isCurrentRegionAlreadyRefreshed())
+            return false;
+        
+        return playerTracker.isRegionNear(xCurrentRegion, zCurrentRegion, options.getLiveRadius());
+    }
+
+    private void notifyStateChange(RefreshState previousState, RefreshState newState)
+    {
+        /* Prévient les objets à l'écoute d'un changement d'état.
+         * Retour : aucun.
+         * Paramètres : -previousState : état précédent.
+         *              -newState      : nouvel état. */
+        
+        if(previousState == newState)
+            return;
+        
+        for(RefreshStateListener currentListener : stateListeners)
+        {
+            try
+            {
+                currentListener.onStateChanged(this, previousState, newState);
+            }
+            
+            catch(RuntimeException exception)
+            {
+                safeLogger.logWarning("Refresh state listener failed: " + exception.getMessage());
+            }
+        }
+    }
+    
+    private void logPruneReport()
+    {
+        /* Rend compte des chunks jamais habités relevés, selon le mode d'élagage.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        String prunedSize = (regionPreScanner.getUninhabitedBytes() / 1048576L) + " MiB"; // Taille des chunks relevés.
+        
+        switch(options.getPruneMode())
+        {
+            case DRYRUN:
+                safeLogger.logInfo("Prune dry run: " + regionPreScanner.getUninhabitedChunks() + " never inhabited chunks (" + prunedSize + ") found and refreshed in world \"" + worldData.getWorldName() + "\".");
+                break;
+                
+            case SKIP:
+                safeLogger.logInfo(regionPreScanner.getUninhabitedChunks() + " never inhabited chunks (" + prunedSize + ") skipped in world \"" + worldData.getWorldName() + "\".");
+                break;
+                
+            case REMOVE:
+                safeLogger.logInfo(regionPreScanner.getUninhabitedChunks() + " never inhabited chunks (" + prunedSize + ") skipped in world \"" + worldData.getWorldName() + "\", they will be removed at next server start.");
+                break;
+        }
+    }
+    
+    private void queueRegionCompaction()
+    {
+        /* Met le fichier de la région en cours en file de compactage, pour le prochain démarrage du serveur, avec ses
+         * chunks jamais habités à retirer s'il y en a.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        try
+        {
+            CompactionQueue.add(worldData.getWorldRegionFolder(), xCurrentRegion, zCurrentRegion, currentPruneMask);
+        }
+        
+        catch(IOException error)
+        {
+            safeLogger.logWarning("Cannot queue region X:" + xCurrentRegion + " Z:" + zCurrentRegion + " for compaction: " + error.getMessage());
+        }
+    }
+    
+    private int refreshChunksBatch() throws InterruptedException, ChkRefException
+    {
+        /* Découvre et raffrichi dans la région en cours autant de chunks que le budget de temps du prochain tick le permet.
+         * Retour : nombre de chunks traités, -1 si échec.
+         * Paramètres : aucun. */
+        
+        ChunkMask refreshedChunks              = null; // Chunks du lot à journaliser.
+        ChunksEnumerator chunksEnumerator      = null; // Enumérateur exécuté sur le thread Bukkit.
+        Future<Integer> futureChunksRefreshed  = null; // Objet permettant l'obtention du nombre de chunks traités depuis Bukkit.
+        Integer nChunksRefreshedRegion         = null; // Chunks raffraichis dans la région.
+        
+        try
+        {
+            // Contrôles.
+            
+            if((!(safeLogger instanceof SafeLogger)) || (!(world instanceof World)))
+                throw new IllegalArgumentException("Object not ready to use.");
+            
+            // Enumération chunks dans la région, uniquement si l'en-tête en indique dans la suite de la région.
+            
+            if(currentRegionMask.nextPosition(currentChunkPosition) >= ChunkMask.CHUNKS_PER_REGION)
+            {
+                nChunksRefreshedRegion = 0;
+                currentChunkPosition   = ChunkMask.CHUNKS_PER_REGION;
+            }
+            
+            else if(asyncChunksLoader instanceof AsyncChunksLoader)
+            {
+                // Réserve les places libres de la fenêtre de chargement, en attendant qu'au moins une se libère.
+                
+                int nSlots = asyncChunksLoader.acquireSlots(); // Places réservées.
+                
+                // Les demandes de chargement sont émises au prochain tick, dans la limite des places réservées.
+                
+                ChunksRequester chunksRequester = new ChunksRequester(asyncChunksLoader, world, xCurrentRegion, zCurrentRegion, currentChunkPosition, Math.min(nSlots, batchController.getMaxChunks()), batchController.getBudgetNanos(chunkRefresherPlugin.getRefreshCoordinator().getBudgetShareNanos(this)), currentRegionMask, options.isGenerate() || (options.isTrustHeader() && currentRegionHeaderTrusted));
+                
+                if((futureChunksRefreshed = scheduler.callSyncMethod(chunkRefresherPlugin, chunksRequester)) == null)
+                {
+                    asyncChunksLoader.releaseSlots(nSlots);
+                    
+                    throw new ChkRefException("Failed to refresh chunks.");
+                }
+                
+                futureWaiter(futureChunksRefreshed);
+                
+                if((nChunksRefreshedRegion = futureChunksRefreshed.get()) == -1)
+                    throw new ChkRefException("Failed to refresh chunks.");
+                
+                // Libère les places non utilisées et déplace le pointeur vers le prochain chunk à traiter.
+                // Seuls les chunks dont le chargement est terminé sont journalisés.
+                
+                asyncChunksLoader.releaseSlots(nSlots - nChunksRefreshedRegion);
+                
+                progressJournal.markChunksRefreshed(xCurrentRegion, zCurrentRegion, asyncChunksLoader.drainLoadedChunks());
+                
+                batchController.onBatchDone(nChunksRefreshedRegion, chunksRequester.getElapsedNanos());
+                metrics.recordBatch(nChunksRefreshedRegion, chunksRequester.getElapsedNanos());
+                
+                currentChunkPosition = chunksRequester.getNextPosition();
+            }
+            
+            else
+            {
+                // Le lot est exécuté au prochain tick, avec le budget de temps et le nombre de chunks maximal du moment.
+                
+                chunksEnumerator = new ChunksEnumerator(safeLogger, world, xCurrentRegion, zCurrentRegion, currentChunkPosition, batchController.getMaxChunks(), batchController.getBudgetNanos(chunkRefresherPlugin.getRefreshCoordinator().getBudgetShareNanos(this)), currentRegionMask, options.isGenerate() || (options.isTrustHeader() && currentRegionHeaderTrusted), residencyWindow);
+                
+                if((futureChunksRefreshed = scheduler.callSyncMethod(chunkRefresherPlugin, chunksEnumerator)) == null)
+                    throw new ChkRefException("Failed to refresh chunks.");
+                
+                futureWaiter(futureChunksRefreshed);
+                
+                if((nChunksRefreshedRegion = futureChunksRefreshed.get()) == -1)
+                    throw new ChkRefException("Failed to refresh chunks.");
+                
+                // Prend en compte la mesure du lot, le journalise et déplace le pointeur vers le prochain chunk à traiter.
+                
+                batchController.onBatchDone(nChunksRefreshedRegion, chunksEnumerator.getElapsedNanos());
+                metrics.recordBatch(nChunksRefreshedRegion, chunksEnumerator.getElapsedNanos());
+                
+                // Les chunks retenus par la fenêtre de résidence ne sont journalisés qu'une fois sauvegardés.
+                
+                refreshedChunks = ChunkMask.range(currentRegionMask, currentChunkPosition, chunksEnumerator.getNextPosition());
+                
+                refreshedChunks.andNot(chunksEnumerator.getHeldChunks());
+                
+                progressJournal.markChunksRefreshed(xCurrentRegion, zCurrentRegion, refreshedChunks);
+                
+                currentChunkPosition = chunksEnumerator.getNextPosition();
+            }
+            
+            // Validation groupée des lots journalisés, avec les chunks sauvegardés par la fenêtre de résidence.
+            
+            recordReleasedChunks();
+            
+            progressJournal.commit();
+            
+            // Indique que la région a été totalement traitée si on a atteint son dernier chunk.
+            
+            if(currentChunkPosition >= ChunkMask.CHUNKS_PER_REGION)
+                nextRegion = true;
+        }
+        
+        catch(ExecutionException|IOException|IllegalArgumentException|NullPointerException|Error error)
+        {
+            // Echec.
+            
+            return -1;
+        }
+        
+        // Succès.
+        
+        return nChunksRefreshedRegion;
+    }
+    
+    private boolean selectNextRegion() throws InterruptedException, IOException
+    {
+        /* Désigne la prochaine région à traiter : la suivante de la source tant qu'il en reste, sinon la plus
+         * anciennement reportée.
+         * Retour : une région a été désignée ? Non si toutes ont été traitées.
+         * Paramètres : aucun. */
+        
+        if(regionSource.await(nextRegionIndex))
+        {
+            currentRegionIndex     = nextRegionIndex++;
+            currentRegionPostponed = false;
+        }
+        
+        else if(!postponedRegions.isEmpty())
+        {
+            currentRegionIndex     = postponedRegions.removeFirst();
+            currentRegionPostponed = true;
+        }
+        
+        else
+            return false;
+        
+        return true;
+    }
+    
+    private void wakeWorker()
+    {
+        /* Réveille le thread de la tâche, s'il est garé, pour qu'il prenne en compte une demande.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        Thread currentWorkerThread = workerThread; // Thread de la tâche, null tant qu'elle n'a pas démarré.
         
-        return getCurrentRegionRefreshedIndicator().exists();
+        if(currentWorkerThread instanceof Thread)
+            LockSupport.unpark(currentWorkerThread);
     }
-
-    private boolean isAborted()
+    
+    private void writeTimestampSnapshot() throws InterruptedException
     {
-        /* Indique si la tâche doit effacer les marqueurs des régions déjà traitées lors de l'arrêt prématuré.
-         * Retour : oui ou non. 
+        /* Sauvegarde le monde, puis prend l'instantané des dates de sauvegarde de ses chunks, hors du thread Bukkit.
+         * Retour : aucun.
          * Paramètres : aucun. */
         
-        // Obtient la valeur de manière thread-safe.
+        Future<Boolean> futureSave = null; // Objet permettant de sauvegarder le monde depuis Bukkit.
+        
+        safeLogger.logInfo("Saving world and recording chunks timestamps for next incremental refresh...");
         
-        synchronized(mustStopLock)
+        if((futureSave = scheduler.callSyncMethod(chunkRefresherPlugin, () -> { world.save(); return true; })) == null)
         {
-            return abort;
+            safeLogger.logWarning("Failed to save world \"" + worldData.getWorldName() + "\", timestamp snapshot not recorded.");
+            
+            return;
         }
-    }
-
-    private boolean isPaused()
-    {
-        /* Indique si la tâche est en pause.
-         * Retour : oui ou non. 
-         * Paramètres : aucun. */
         
-        // Obtient la valeur de manière thread-safe.
+        futureWaiter(futureSave);
+        
+        try
+        {
+            futureSave.get();
+            
+            TimestampSnapshot.write(worldData.getWorldRegionFolder(), regionSource);
+        }
         
-        synchronized(mustStopLock)
+        catch(ExecutionException|IOException error)
         {
-            return paused;
+            safeLogger.logWarning("Timestamp snapshot of world \"" + worldData.getWorldName() + "\" cannot be recorded: " + error.getMessage());
         }
     }
     
-    private boolean isStopAsked()
+    private void checkpointLoadedChunks()
     {
-        /* Indique si la tâche doit s'arrêter.
-         * Retour : oui ou non. 
+        /* Journalise les chunks de la région en cours dont le chargement asynchrone s'est terminé depuis le dernier lot,
+         * ainsi que ceux sauvegardés depuis par la fenêtre de résidence, pour qu'une tâche interrompue reprenne
+         * exactement là où elle s'est arrêtée.
+         * Retour : aucun.
          * Paramètres : aucun. */
         
-        // Obtient la valeur de manière thread-safe.
+        if(!(progressJournal instanceof ProgressJournal))
+            return;
+        
+        try
+        {
+            if(asyncChunksLoader instanceof AsyncChunksLoader)
+                progressJournal.markChunksRefreshed(xCurrentRegion, zCurrentRegion, asyncChunksLoader.drainLoadedChunks());
+            
+            recordReleasedChunks();
+        }
         
-        synchronized(mustStopLock)
+        catch(IOException error)
         {
-            return mustStop;
+            safeLogger.logWarning("Last refreshed chunks of world \"" + worldData.getWorldName() + "\" cannot be recorded in progress journal: " + error.getMessage());
         }
     }
     
-    private File getCurrentRegionRefreshedIndicator() throws Exception
+    private void recordReleasedChunks() throws IOException
     {
-        /* Retourne le fichier indicateur de région raffraichie.
-         * Paramètres : aucun.
-         * Retour : fichier indicateur en question, existant ou non. */
-        
-        File currentRegionRefreshedIndicator = null; // Fichier indicateur.
-        
-        // Contrôle.
+        /* Journalise les chunks déchargés et sauvegardés par la fenêtre de résidence depuis le dernier appel, puis
+         * marque comme totalement raffraichies les régions terminées dont plus aucun chunk n'est retenu.
+         * Retour : aucun.
+         * Paramètres : aucun. */
         
-        if(!(worldData instanceof WorldData))
-            throw new IllegalArgumentException("Object not ready to use.");
+        HashMap<Long, ChunkMask> releasedChunks = null; // Chunks sauvegardés, par région regroupée.
         
-        // Obtention du fichier.
+        if((!(residencyWindow instanceof ChunkResidencyWindow)) || (!(progressJournal instanceof ProgressJournal)))
+            return;
         
-        currentRegionRefreshedIndicator = new File(worldData.getWorldRegionFolder(), "r." + xCurrentRegion + "." + zCurrentRegion + ".chkref");
+        releasedChunks = residencyWindow.drainReleasedChunks();
         
-        if((currentRegionRefreshedIndicator.exists()) && (((!(currentRegionRefreshedIndicator.isFile())) || (currentRegionRefreshedIndicator.length() > 0L))))
-            throw new Exception("Invalid region refreshed indicator file.");
+        for(Long regionKey : releasedChunks.keySet())
+            progressJournal.markChunksRefreshed(RegionCoordinates.unpackX(regionKey), RegionCoordinates.unpackZ(regionKey), releasedChunks.get(regionKey));
         
-        // Retour, existant ou non.
+        // Régions terminées, dans l'ordre : les chunks sont libérés région après région.
         
-        return currentRegionRefreshedIndicator;
+        while((!(unsavedRegions.isEmpty())) && !residencyWindow.isRegionResident(RegionCoordinates.unpackX(unsavedRegions.peekFirst()), RegionCoordinates.unpackZ(unsavedRegions.peekFirst())))
+        {
+            long regionKey = unsavedRegions.removeFirst(); // Région terminée et sauvegardée.
+            
+            progressJournal.markRegionRefreshed(RegionCoordinates.unpackX(regionKey), RegionCoordinates.unpackZ(regionKey));
+        }
     }
     
-    private int refreshChunksFromFilenames(int nLinesOfChunks) throws InterruptedException, ChkRefException
+    private void closeProgressJournal()
     {
-        /* Découvre et raffrichi au maximum n rangées de 32 chunks dans la région en cours.
+        /* Ecrit les modifications en attente et ferme le journal de progression, s'il est ouvert.
          * Retour : aucun.
-         * Paramètre : nLinesOfChunks : nombre de rangées de 32 chunks à traiter. */
-        
+         * Paramètres : aucun. */
         
-        Future<Integer> futureChunksRefreshed  = null; // Objet permettant l'obtention du nombre de chunks traités depuis Bukkit.
-        Integer nChunksRefreshedRegion         = null; // Chunks raffraichis dans la région.
+        if(!(progressJournal instanceof ProgressJournal))
+            return;
         
         try
         {
-            // Contrôles.
-            
-            if((!(safeLogger instanceof SafeLogger)) || (!(world instanceof World)))
-                throw new IllegalArgumentException("Object not ready to use.");
-            
-            if((nLinesOfChunks < 1) || (nLinesOfChunks > 32))
-                throw new IllegalArgumentException();
-            
-            // Enumération chunks dans la région.
-            
-            if((futureChunksRefreshed = scheduler.callSyncMethod(chunkRefresherPlugin, new ChunksEnumerator(safeLogger, world, xCurrentRegion, zCurrentRegion, xCurrentChunkStart, nLinesOfChunks))) == null)
-                throw new ChkRefException("Failed to refresh chunks.");
-            
-            futureWaiter(futureChunksRefreshed);
-            
-            if((nChunksRefreshedRegion = futureChunksRefreshed.get()) == -1)
-                throw new ChkRefException("Failed to refresh chunks.");
-            
-            // Déplace le pointeur vers la prochaine rangée de chunks à traiter,
-            // indique que la région a été totalement traitée si on a traité 31 rangées de celle-ci.
-            
-            if((xCurrentChunkStart += nLinesOfChunks) >= 32) // Ne devrait pas être supérieur mais bon... #CherchePasLaMisère
-                nextRegion = true;
+            progressJournal.close();
         }
         
-        catch(ExecutionException|IllegalArgumentException|NullPointerException|Error error)
+        catch(IOException error)
         {
-            // Echec.
-            
-            return -1;
+            safeLogger.logWarning("Progress journal of world \"" + worldData.getWorldName() + "\" cannot be saved: " + error.getMessage());
         }
         
-        // Succès.
-        
-        return nChunksRefreshedRegion;
+        progressJournal = null;
     }
     
-    private void cleanRegionRefreshedIndicators() throws Exception
+    private void deleteProgressJournal() throws Exception
     {
-        /* Supprime tous les fichiers indicateurs de la carte concernée.
+        /* Supprime le journal de progression de la carte concernée.
          * Retour : aucun.
          * Paramètres : aucun. */
         
-        File[] regionsRefreshedIndicators = null; // Liste obtenue.
-        
         // Log. 
 
-        safeLogger.logInfo("Cleaning region refreshed indicators...");
+        safeLogger.logInfo("Deleting progress journal...");
         
         // Contrôle.
         
-        if(!(worldData instanceof WorldData))
+        if(!(progressJournal instanceof ProgressJournal))
             throw new IllegalArgumentException("Object not ready to use.");
         
-        // Liste les fichiers indicateurs. 
-        
-        if((regionsRefreshedIndicators = worldData.getWorldRegionFolder().listFiles(new RegionRefreshedIndicatorsFilter())) == null)
-            throw new ChkRefException("Can't get world region refreshed indicators list.");
-        
-        // Supprime les fichiers indicateurs.
+        // Suppression.
         
-        for(int indicatorIndex = 0; indicatorIndex < regionsRefreshedIndicators.length; indicatorIndex++)
+        if(!(progressJournal.delete()))
         {
-            if(!(regionsRefreshedIndicators[indicatorIndex].delete()))
-            {
-                safeLogger.logWarning("Region refreshed indicator file \"" + regionsRefreshedIndicators[indicatorIndex].getName() + "\" from world \"" + worldData.getWorldName() + "\" cannot be deleted.");
-                safeLogger.logWarning("This file is not required anymore, you should delete it by yourself carrefully.");
-            }
+            safeLogger.logWarning("Progress journal file \"" + ProgressJournal.FILE_NAME + "\" from world \"" + worldData.getWorldName() + "\" cannot be deleted.");
+            safeLogger.logWarning("This file is not required anymore, you should delete it by yourself carrefully.");
         }
         
+        progressJournal = null;
+        
         // Log. 
 
-        safeLogger.logInfo("Region refreshed indicators cleaned.");
+        safeLogger.logInfo("Progress journal deleted.");
     }
     
     private void futureWaiter(Future<?> future) throws IllegalArgumentException, InterruptedException
     {
-        /* Attend la fin d'une tâche synchrone du thread Bukkit.
+        /* Attend la fin d'une tâche synchrone du thread Bukkit, sans scrutation : le thread est réveillé à sa fin.
          * Retour : aucun.
          * Paramètre : objet Future de la tâche en question. */
         
@@ -593,16 +1384,30 @@ public final class AsyncChunksRefresher extends BukkitRunnable
         if(!(future instanceof Future<?>))
             throw new IllegalArgumentException();
         
-        // Attente.
+        // Attente, la tâche étant annulée si le plugin est désactivé entre-temps.
+        
+        pendingSyncCall = future;
+        
+        if(shuttingDown)
+            future.cancel(false);
         
         while(!future.isDone())
         {
-            if(future.isCancelled())
+            try
+            {
+                future.get();
+            }
+            
+            catch(CancellationException exception)
+            {
+                pendingSyncCall = null;
+                
                 throw new InterruptedException("Synchronous task canceled.");
+            }
             
-            try
+            catch(ExecutionException exception)
             {
-                Thread.sleep(5L);
+                // Sera remontée par l'appelant lors de l'obtention du résultat.
             }
 
             catch(InterruptedException exception)
@@ -610,29 +1415,123 @@ public final class AsyncChunksRefresher extends BukkitRunnable
                 // Rien d'anormal.
             }
         }
-    } 
+        
+        pendingSyncCall = null;
+        
+        if(future.isCancelled())
+            throw new InterruptedException("Synchronous task canceled.");
+    }
+    
+    private void loadTimestampSnapshot()
+    {
+        /* Charge l'instantané des dates de sauvegarde du monde, en mode incrémental.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        if(!options.isIncremental())
+            return;
+        
+        try
+        {
+            if((timestampSnapshot = TimestampSnapshot.load(worldData.getWorldRegionFolder())) instanceof TimestampSnapshot)
+                safeLogger.logInfo("Incremental refresh: only chunks saved since the last complete refresh (" + timestampSnapshot.getRegionsCount() + " regions recorded) will be refreshed.");
+            
+            else
+                safeLogger.logInfo("Incremental refresh: no timestamp snapshot yet, every chunk will be refreshed.");
+        }
+        
+        catch(IOException error)
+        {
+            safeLogger.logWarning("Timestamp snapshot of world \"" + worldData.getWorldName() + "\" cannot be read (" + error.getMessage() + "), every chunk will be refreshed.");
+            
+            timestampSnapshot = null;
+        }
+    }
+    
+    private void importRegionRefreshedIndicators() throws IOException
+    {
+        /* Reporte dans le journal de progression les fichiers indicateurs .chkref des versions précédentes relevés
+         * jusqu'ici par l'exploration du dossier, puis les supprime.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        ArrayList<Long> importedIndicators = new ArrayList<Long>(); // Coordonnées des fichiers indicateurs reportés.
+        Long packedCoordinates             = null;                  // Coordonnées du fichier indicateur en cours.
+        
+        // Report.
+        
+        while((packedCoordinates = regionSource.pollRefreshedIndicator()) != null)
+        {
+            progressJournal.markRegionRefreshed(RegionCoordinates.unpackX(packedCoordinates), RegionCoordinates.unpackZ(packedCoordinates));
+            
+            importedIndicators.add(packedCoordinates);
+        }
+        
+        if(importedIndicators.isEmpty())
+            return;
+        
+        progressJournal.flush();
+        
+        // Suppression des fichiers indicateurs, une fois reportés.
+        
+        for(Long currentIndicator : importedIndicators)
+        {
+            File indicatorFile = regionSource.getIndicatorFile(currentIndicator); // Fichier indicateur.
+            
+            if(!(indicatorFile.delete()))
+                safeLogger.logWarning("Region refreshed indicator file \"" + indicatorFile.getName() + "\" from world \"" + worldData.getWorldName() + "\" cannot be deleted, you should delete it by yourself carrefully.");
+        }
+        
+        safeLogger.logInfo(importedIndicators.size() + " region refreshed indicators imported into progress journal.");
+    }
+    
+    private void openProgressJournal() throws Exception
+    {
+        /* Ouvre le journal de progression du monde. Les fichiers indicateurs .chkref des versions précédentes y sont
+         * reportés au fil de l'exploration du dossier des régions (voir importRegionRefreshedIndicators()).
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        // Contrôle.
+        
+        if(!(worldData instanceof WorldData))
+            throw new IllegalArgumentException("Object not ready to use.");
+        
+        // Ouverture.
+        
+        progressJournal = ProgressJournal.open(worldData.getWorldRegionFolder());
+    }
     
     private void listRegionFiles() throws Exception, Error
     {
-        /* Liste les fichiers regions situés dans le dossier du monde.
+        /* Lance l'exploration en flux du dossier des régions du monde, dont les régions sont traitées au fil de l'eau.
+         * Un ordre autre que l'ordre naturel exige en revanche d'attendre la fin de l'exploration pour trier les régions.
          * Retour : aucun.
          * Paramètre : aucun. */
         
-        File[] regionsFiles = null; // Liste obtenue.
+        int nRegions = 0; // Nombre de régions du monde.
         
         // Contrôle.
         
         if(!(worldData instanceof WorldData))
             throw new IllegalArgumentException("Object not ready to use.");
         
-        // Liste les fichiers. 
+        // Lance l'exploration.
+        
+        regionSource = new RegionSource(worldData.getWorldRegionFolder(), worldData.getWorldName(), (refreshScope instanceof RefreshScope) ? refreshScope::intersectsRegion : null, options.isGenerate() ? refreshScope : null);
         
-        if((regionsFiles = worldData.getWorldRegionFolder().listFiles(new RegionFilesFilter())) == null)
-            throw new ChkRefException("Can't get world region files list.");
+        regionSource.start();
         
-        // Enregistre le résulat sous forme de List.
+        if(options.getOrder() == RegionOrder.NATURAL)
+            return;
         
-        regionFilesList = Arrays.asList(regionsFiles);
+        // Trie les régions selon l'ordre demandé.
+        
+        nRegions = regionSource.awaitCompletion();
+        
+        regionSource.sort(options.getOrder(), worldData.getXSpawnLocation() >> 9, worldData.getZSpawnLocation() >> 9);
+        
+        safeLogger.logInfo(nRegions + " regions sorted in " + options.getOrder().name().toLowerCase() + " order.");
     }
 }
 
@@ -644,37 +1543,78 @@ final class ChunksEnumerator implements Callable<Integer>
     
     // Membres.
     
-    int nLinesOfChunks;            // Nombres de rangées de chunks à traiter.
-    int xChunkStart;               // Coordonnée X de la rangée de chunks par laquelle débuter.
-    int xRegion;                   // Coordonnée X de la région à traiter.
-    int zRegion;                   // Coordonnée Z de la région à traiter.
-    World world;                   // Monde concerné.
+    boolean trustHeader;                  // Ne pas demander au serveur si les chunks présents dans le masque existent ?
+    ChunkMask heldChunks;                 // Chunks confiés à la fenêtre de résidence, à l'issue de l'exécution.
+    ChunkMask regionMask;                 // Chunks présents dans la région, d'après son en-tête.
+    ChunkResidencyWindow residencyWindow; // Fenêtre de résidence des chunks chargés, null pour les décharger aussitôt.
+    int maxChunks;                        // Nombre maximal de chunks à traiter.
+    int nextPosition;                     // Position du premier chunk non traité, à l'issue de l'exécution.
+    int startPosition;                    // Position dans la région (rangée * 32 + colonne) du chunk par lequel débuter.
+    long budgetNanos;                     // Budget de temps du lot sur le thread Bukkit.
+    long elapsedNanos;                    // Temps passé sur le thread Bukkit, à l'issue de l'exécution.
+    int xRegion;                          // Coordonnée X de la région à traiter.
+    int zRegion;                          // Coordonnée Z de la région à traiter.
+    World world;                          // Monde concerné.
     @SuppressWarnings("unused")
-    private SafeLogger safeLogger; // Loggeur thread-safe.
+    private SafeLogger safeLogger;        // Loggeur thread-safe.
     
     // Constructeurs.
     
-    public ChunksEnumerator(SafeLogger safeLogger, World world, int xRegion, int zRegion, int xChunkStart, int nLinesOfChunks) throws IllegalArgumentException
+    public ChunksEnumerator(SafeLogger safeLogger, World world, int xRegion, int zRegion, int startPosition, int maxChunks, long budgetNanos, ChunkMask regionMask, boolean trustHeader, ChunkResidencyWindow residencyWindow) throws IllegalArgumentException
     {
         /* Constructeur par défaut. */
         
         // Contrôle.
         
-        if((!(safeLogger instanceof SafeLogger)) || (!(world instanceof World)) || ((xChunkStart < 0) || (xChunkStart > 31)) || ((nLinesOfChunks < 1) || (nLinesOfChunks > 32)))
+        if((!(safeLogger instanceof SafeLogger)) || (!(world instanceof World)) || (!(regionMask instanceof ChunkMask)) || ((startPosition < 0) || (startPosition >= ChunkMask.CHUNKS_PER_REGION)) || (maxChunks < 1) || (budgetNanos < 1L))
             throw new IllegalArgumentException();
         
         // Affectation.
         
-        this.nLinesOfChunks = nLinesOfChunks;
-        this.xChunkStart    = xChunkStart;
-        this.xRegion        = xRegion;
-        this.zRegion        = zRegion;
-        this.safeLogger     = safeLogger;
-        this.world          = world;
+        this.trustHeader     = trustHeader;
+        this.heldChunks      = new ChunkMask();
+        this.regionMask      = regionMask;
+        this.residencyWindow = residencyWindow;
+        this.maxChunks       = maxChunks;
+        this.nextPosition    = startPosition;
+        this.startPosition   = startPosition;
+        this.budgetNanos     = budgetNanos;
+        this.elapsedNanos    = 0L;
+        this.xRegion         = xRegion;
+        this.zRegion         = zRegion;
+        this.safeLogger      = safeLogger;
+        this.world           = world;
     }
     
     // Fonctions publiques de classe.
     
+    public long getElapsedNanos()
+    {
+        /* Retourne le temps passé sur le thread Bukkit lors de l'exécution.
+         * Retour : durée en nanosecondes.
+         * Paramètres : aucun. */
+        
+        return elapsedNanos;
+    }
+    
+    public ChunkMask getHeldChunks()
+    {
+        /* Retourne les chunks confiés à la fenêtre de résidence lors de l'exécution, non encore sauvegardés.
+         * Retour : masque des chunks en question, par index dans la région.
+         * Paramètres : aucun. */
+        
+        return heldChunks;
+    }
+    
+    public int getNextPosition()
+    {
+        /* Retourne la position du premier chunk non traité lors de l'exécution.
+         * Retour : position dans la région, 1024 si la région est terminée.
+         * Paramètres : aucun. */
+        
+        return nextPosition;
+    }
+    
     @Override
     public Integer call()
     {
@@ -682,58 +1622,90 @@ final class ChunksEnumerator implements Callable<Integer>
          * Retour : ArrayList d'objets Chunk à raffraichir. 
          * Paramètres : aucun. */
 
-        boolean chunkLoaded        = false; // Chunk à traité déjà chargé ?
-        Chunk currentChunk         = null;  // Chunk en cours.
-        int nRegionChunksRefreshed = 0;     // Chunks à découverts et raffraichis dans la région en cours.
-        int xChunk                 = 0;     // Coordonnée X du chunk à traiter.
-        int zChunk                 = 0;     // Coordonnée Z du chunk à traiter.
-        int xChunkIndex            = 0;     // Index X dans la région du chunk à traiter.
-        int zChunkIndex            = 0;     // Index Z dans la région du chunk à traiter.
+        boolean chunkLoaded        = false;                 // Chunk à traité déjà chargé ?
+        Chunk currentChunk         = null;                  // Chunk en cours.
+        int nRegionChunksRefreshed = 0;                     // Chunks à découverts et raffraichis dans la région en cours.
+        int position               = 0;                     // Position dans la région du chunk à traiter.
+        int xChunk                 = 0;                     // Coordonnée X du chunk à traiter.
+        int zChunk                 = 0;                     // Coordonnée Z du chunk à traiter.
+        int xChunkIndex            = 0;                     // Index X dans la région du chunk à traiter.
+        int zChunkIndex            = 0;                     // Index Z dans la région du chunk à traiter.
+        ChunkBatchEvent batchEvent = new ChunkBatchEvent(); // Evénement JFR du lot.
+        ChunkLoadEvent loadEvent   = null;                  // Evénement JFR du chunk en cours.
+        long startTime             = System.nanoTime();     // Début du lot.
+        
+        batchEvent.begin();
         
         try
         {            
-            // Parcours des chunks.
+            // Parcours des chunks, rangée par rangée, jusqu'à épuisement du budget de temps ou du nombre de chunks maximal.
             
-            xChunkIndex = xChunkStart;
-            
-            for(xChunkIndex = xChunkStart; (xChunkIndex < 32) && (xChunkIndex < (xChunkStart + nLinesOfChunks)); xChunkIndex++)
+            for(position = startPosition; position < ChunkMask.CHUNKS_PER_REGION; position++)
             {
-                // Coordonnée X.
+                // Index et coordonnées du chunk.
+                
+                xChunkIndex = position >>> 5;
+                zChunkIndex = position & 31;
+                xChunk      = (xRegion * 32) + xChunkIndex;
+                zChunk      = (zRegion * 32) + zChunkIndex;
                 
-                xChunk = (xRegion * 32) + xChunkIndex;
+                // Traite le chunk concerné, s'il existe.
                 
-                // Axe Z.
+                if(!(regionMask.get(xChunkIndex, zChunkIndex))) // Absent de l'en-tête ?
+                    continue;
                 
-                for(zChunkIndex = 0; zChunkIndex < 32; zChunkIndex++)
+                if((nRegionChunksRefreshed >= maxChunks) || ((System.nanoTime() - startTime) >= budgetNanos)) // Lot terminé ?
+                    break;
+                
+                if(trustHeader || world.isChunkGenerated(xChunk, zChunk)) // Existe ?
                 {
-                    // Coordonnée Z.
+                    // Déjà chargé ?
+                    
+                    chunkLoaded = world.isChunkLoaded(xChunk, zChunk);
+                    
+                    // Obtient le chunk aux coordonnées indiquées.
+
+                    loadEvent = new ChunkLoadEvent();
                     
-                    zChunk = (zRegion * 32) + zChunkIndex;
+                    loadEvent.begin();
                     
-                    // Traite le chunk concerné, s'il existe.
+                    if((currentChunk = world.getChunkAt(xChunk, zChunk)) == null)
+                        throw new ChkRefException("Cannot refresh chunk.");
                     
-                    if(world.isChunkGenerated(xChunk, zChunk)) // Existe ?
+                    loadEvent.commit(world, xChunk, zChunk, ChunkLoadEvent.LOAD, false);
+                    
+                    // Le confie à la fenêtre de résidence, ou le décharge, s'il n'était pas chargé avant l'opération.
+                    
+                    if((!(chunkLoaded)) && (residencyWindow instanceof ChunkResidencyWindow))
                     {
-                        // Déjà chargé ?
+                        residencyWindow.hold(currentChunk);
                         
-                        chunkLoaded = world.isChunkLoaded(xChunk, zChunk);
-                        
-                        // Obtient le chunk aux coordonnées indiquées.
-
-                        if((currentChunk = world.getChunkAt(xChunk, zChunk)) == null)
-                            throw new ChkRefException("Cannot refresh chunk.");
+                        heldChunks.set(xChunkIndex, zChunkIndex);
+                    }
+                    
+                    else if(!(chunkLoaded))
+                    {
+                        loadEvent = new ChunkLoadEvent();
                         
-                        // Le décharge s'il n'était pas chargé avant l'opération.
+                        loadEvent.begin();
                         
-                        if(!(chunkLoaded))
-                            currentChunk.unload(); // Pas de contrôle d'erreur.
-
-                        // Incrémente le nombre de chunks de la région traités.
+                        currentChunk.unload(true); // Pas de contrôle d'erreur.
                         
-                        nRegionChunksRefreshed++;
+                        loadEvent.commit(world, xChunk, zChunk, ChunkLoadEvent.UNLOAD, false);
                     }
+
+                    // Incrémente le nombre de chunks de la région traités.
+                    
+                    nRegionChunksRefreshed++;
                 }
             }
+            
+            // Mesures du lot.
+            
+            nextPosition = position;
+            elapsedNanos = System.nanoTime() - startTime;
+            
+            batchEvent.commit(world, xRegion, zRegion, nRegionChunksRefreshed, false, budgetNanos);
         }
         
         catch(Exception|Error exception)
@@ -749,57 +1721,129 @@ final class ChunksEnumerator implements Callable<Integer>
     }
 }
 
-final class RegionFilesFilter implements FilenameFilter
+final class ChunksRequester implements Callable<Integer>
 {
-    /* Classe permettant de ne lister que les fichiers de régions lors de l'exploration du dossier du jeu. */
-    
-    // Méthodes publiques de classe.
-    
-    @Override
-    public boolean accept(File hostDirectory, String filename) throws IllegalArgumentException
+    /* Classe demandant depuis le thread Bukkit le chargement asynchrone des prochains chunks d'une région. */
+
+    // Membres.
+
+    boolean trustHeader;                 // Ne pas demander au serveur si les chunks présents dans le masque existent ?
+    AsyncChunksLoader asyncChunksLoader; // Chargeur asynchrone.
+    ChunkMask regionMask;                // Chunks présents dans la région, d'après son en-tête.
+    int maxChunks;                       // Nombre maximal de chunks à demander (places réservées).
+    int nextPosition;                    // Position du premier chunk non demandé, à l'issue de l'exécution.
+    int startPosition;                   // Position dans la région (rangée * 32 + colonne) du chunk par lequel débuter.
+    int xRegion;                         // Coordonnée X de la région à traiter.
+    int zRegion;                         // Coordonnée Z de la région à traiter.
+    long budgetNanos;                    // Budget de temps du lot sur le thread Bukkit.
+    long elapsedNanos;                   // Temps passé sur le thread Bukkit, à l'issue de l'exécution.
+    World world;                         // Monde concerné.
+
+    // Constructeurs.
+
+    public ChunksRequester(AsyncChunksLoader asyncChunksLoader, World world, int xRegion, int zRegion, int startPosition, int maxChunks, long budgetNanos, ChunkMask regionMask, boolean trustHeader) throws IllegalArgumentException
     {
-        /* Fonction effectuant la sélection.
-         * Retour : fichier accepté ou non.
-         * Paramètres : dossier hôte et nom du fichier en question. */
-        
+        /* Constructeur par défaut. */
+
         // Contrôle.
-        
-        if(!(filename instanceof String))
+
+        if((!(asyncChunksLoader instanceof AsyncChunksLoader)) || (!(world instanceof World)) || (!(regionMask instanceof ChunkMask)) || ((startPosition < 0) || (startPosition >= ChunkMask.CHUNKS_PER_REGION)) || (maxChunks < 1) || (budgetNanos < 1L))
             throw new IllegalArgumentException();
-        
-        // Filtrage.
-        
-        if(filename.matches("(?i)\\Ar\\.-?\\d+\\.-?\\d+\\.mca\\z")) // JS version : /^r\\.-?\\d+\\.-?\\d+\\.mca$/gi
-            return true;
-        
-        return false;
+
+        // Affectation.
+
+        this.trustHeader       = trustHeader;
+        this.asyncChunksLoader = asyncChunksLoader;
+        this.regionMask        = regionMask;
+        this.maxChunks         = maxChunks;
+        this.nextPosition      = startPosition;
+        this.startPosition     = startPosition;
+        this.xRegion           = xRegion;
+        this.zRegion           = zRegion;
+        this.budgetNanos       = budgetNanos;
+        this.elapsedNanos      = 0L;
+        this.world             = world;
+    }
+
+    // Fonctions publiques de classe.
+
+    public long getElapsedNanos()
+    {
+        /* Retourne le temps passé sur le thread Bukkit lors de l'exécution.
+         * Retour : durée en nanosecondes.
+         * Paramètres : aucun. */
+
+        return elapsedNanos;
+    }
+
+    public int getNextPosition()
+    {
+        /* Retourne la position du premier chunk non demandé lors de l'exécution.
+         * Retour : position dans la région, 1024 si la région est terminée.
+         * Paramètres : aucun. */
+
+        return nextPosition;
     }
-}
 
-final class RegionRefreshedIndicatorsFilter implements FilenameFilter
-{
-    /* Classe permettant de ne lister que les fichiers indicateurs des régions déjà traitées lors de l'exploration du dossier du jeu. */
-    
-    // Méthodes publiques de classe.
-    
     @Override
-    public boolean accept(File hostDirectory, String filename) throws IllegalArgumentException
+    public Integer call()
     {
-        /* Fonction effectuant la sélection.
-         * Retour : fichier accepté ou non.
-         * Paramètres : dossier hôte et nom du fichier en question. */
-        
-        // Contrôle.
-        
-        if(!(filename instanceof String))
-            throw new IllegalArgumentException();
-        
-        // Filtrage.
-        
-        if(filename.matches("(?i)\\Ar\\.-?\\d+\\.-?\\d+\\.chkref\\z")) // JS version : /^r\\.-?\\d+\\.-?\\d+\\.chkref$/gi
-            return true;
-        
-        return false;
+        /* Fonction demandant les chargements depuis le thread Bukkit.
+         * Retour : nombre de chargements demandés, -1 si échec.
+         * Paramètres : aucun. */
+
+        int nChunksRequested       = 0;                     // Chargements demandés.
+        int position               = 0;                     // Position dans la région du chunk à traiter.
+        int xChunk                 = 0;                     // Coordonnée X du chunk à traiter.
+        int zChunk                 = 0;                     // Coordonnée Z du chunk à traiter.
+        ChunkBatchEvent batchEvent = new ChunkBatchEvent(); // Evénement JFR du lot.
+        long startTime             = System.nanoTime();     // Début du lot.
+
+        batchEvent.begin();
+
+        try
+        {
+            for(position = startPosition; position < ChunkMask.CHUNKS_PER_REGION; position++)
+            {
+                // Coordonnées du chunk.
+
+                xChunk = (xRegion * 32) + (position >>> 5);
+                zChunk = (zRegion * 32) + (position & 31);
+
+                // Demande le chargement du chunk concerné, s'il existe.
+
+                if(!(regionMask.get(position >>> 5, position & 31))) // Absent de l'en-tête ?
+                    continue;
+
+                if((nChunksRequested >= maxChunks) || ((System.nanoTime() - startTime) >= budgetNanos)) // Lot terminé ?
+                    break;
+
+                if(trustHeader || world.isChunkGenerated(xChunk, zChunk)) // Existe ?
+                {
+                    asyncChunksLoader.requestChunk(xChunk, zChunk, !(world.isChunkLoaded(xChunk, zChunk)));
+
+                    nChunksRequested++;
+                }
+            }
+
+            // Mesures du lot.
+
+            nextPosition = position;
+            elapsedNanos = System.nanoTime() - startTime;
+
+            batchEvent.commit(world, xRegion, zRegion, nChunksRequested, true, budgetNanos);
+        }
+
+        catch(Exception|Error exception)
+        {
+            // Echec.
+
+            return -1;
+        }
+
+        // Succès.
+
+        return nChunksRequested;
     }
 }
 
@@ -814,6 +1858,9 @@ final class WorldData implements Callable<WorldData>
     private String worldName;             // Nom du monde.
     private World world;                  // Monde concerné.
     private Environment worldEnvironment; // Environement du monde concerné.
+    private double borderSize;            // Côté de la bordure du monde, 0 si indisponible.
+    private double xBorderCenter;         // X du centre de la bordure du monde.
+    private double zBorderCenter;         // Z du centre de la bordure du monde.
     private int xSpawnLocation;           // X du spawn.
     private int ySpawnLocation;           // Y du spawn.
     private int zSpawnLocation;           // Z du spawn.
@@ -839,6 +1886,9 @@ final class WorldData implements Callable<WorldData>
         this.spawnLocation     = null;
         this.worldName         = null;
         this.worldRegionFolder = null;
+        this.borderSize        = 0.0D;
+        this.xBorderCenter     = 0.0D;
+        this.zBorderCenter     = 0.0D;
         this.xSpawnLocation    = 0;
         this.ySpawnLocation    = 0;
         this.zSpawnLocation    = 0;
@@ -846,6 +1896,33 @@ final class WorldData implements Callable<WorldData>
     
     // Fonctions publiques de classe.
     
+    public double getBorderSize()
+    {
+        /* Retourne le côté de la bordure du monde.
+         * Retour : côté en blocs, 0 si indisponible.
+         * Paramètres : aucun. */
+        
+        return borderSize;
+    }
+    
+    public double getXBorderCenter()
+    {
+        /* Retourne la coordonnée X du centre de la bordure du monde.
+         * Retour : coordonnée en question.
+         * Paramètres : aucun. */
+        
+        return xBorderCenter;
+    }
+    
+    public double getZBorderCenter()
+    {
+        /* Retourne la coordonnée Z du centre de la bordure du monde.
+         * Retour : coordonnée en question.
+         * Paramètres : aucun. */
+        
+        return zBorderCenter;
+    }
+    
     public Environment getWorldEnvironment()
     {
         /* Retourne l'environnement du monde.
@@ -891,6 +1968,7 @@ final class WorldData implements Callable<WorldData>
         
         File worldFolder             = null; // Dossier du monde.
         String worldRegionFolderPath = null; // Chemin du dossier des régions du monde.
+        WorldBorder worldBorder      = null; // Bordure du monde.
         
         // Obtient les données. 
         
@@ -901,6 +1979,14 @@ final class WorldData implements Callable<WorldData>
         xSpawnLocation    = spawnLocation.getBlockX(); // Coordonnées du spawn.
         ySpawnLocation    = spawnLocation.getBlockY();
         zSpawnLocation    = spawnLocation.getBlockZ();        
+        worldBorder       = world.getWorldBorder();    // Bordure du monde.
+        
+        if(worldBorder instanceof WorldBorder)
+        {
+            borderSize    = worldBorder.getSize();
+            xBorderCenter = worldBorder.getCenter().getX();
+            zBorderCenter = worldBorder.getCenter().getZ();
+        }
         
         // Détermine et ouvre le dossier des région du monde.
         
@@ -0,0 +1,115 @@
+/* BatchController.java
+ * Classe de régulation de la taille des lots de chunks du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Définition de la classe.
+
+final class BatchController
+{
+    /* Classe attribuant à une tâche de raffraichissement un budget de temps sur le thread Bukkit à chaque tick,
+     * borné par la part que lui accorde le coordinateur, et ajusté selon la durée récente des ticks du serveur
+     * et le coût mesuré d'un chunk. En mode serveur ouvert, le budget est réduit dès le moindre allongement des ticks,
+     * et la tâche cède entièrement le thread Bukkit tant que ceux-ci restent nettement trop longs. */
+
+    // Constantes.
+
+    private static final double COST_SMOOTHING         = 0.2D;     // Poids d'un nouveau lot dans la moyenne du coût d'un chunk.
+    private static final double GROW_FACTOR            = 1.1D;     // Croissance du budget quand le serveur tient le rythme.
+    private static final double LAG_MARGIN_MILLIS      = 2.0D;     // Marge au-delà de 50ms avant de considérer le serveur en retard.
+    private static final double LIVE_GROW_FACTOR       = 1.05D;    // Croissance du budget en mode serveur ouvert.
+    private static final double LIVE_LAG_MARGIN_MILLIS = 0.5D;     // Marge de retard en mode serveur ouvert.
+    private static final double LIVE_SHRINK_FACTOR     = 0.5D;     // Réduction du budget en mode serveur ouvert.
+    private static final double LIVE_YIELD_MILLIS      = 5.0D;     // Retard au-delà duquel la tâche cède le thread Bukkit, en mode serveur ouvert.
+    private static final double SHRINK_FACTOR          = 0.75D;    // Réduction du budget quand le serveur prend du retard.
+    private static final long MIN_BUDGET_NANOS         = 2000000L; // Budget minimal (2ms).
+
+    // Membres.
+
+    private boolean live;            // Mode serveur ouvert ?
+    private double chunkCostNanos;   // Coût moyen d'un chunk sur le thread Bukkit.
+    private double growFactor;       // Croissance du budget quand le serveur tient le rythme.
+    private double lagMarginMillis;  // Marge au-delà de 50ms avant de considérer le serveur en retard.
+    private double shrinkFactor;     // Réduction du budget quand le serveur prend du retard.
+    private long budgetNanos;        // Budget courant, 0 avant le premier lot.
+    private TickMonitor tickMonitor; // Mesure de la durée des ticks.
+
+    // Constructeurs.
+
+    public BatchController(TickMonitor tickMonitor, boolean live) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. */
+
+        // Contrôle.
+
+        if(!(tickMonitor instanceof TickMonitor))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.live            = live;
+        this.budgetNanos     = 0L;
+        this.chunkCostNanos  = 2000000.0D; // Estimation pessimiste avant la première mesure.
+        this.growFactor      = live ? LIVE_GROW_FACTOR : GROW_FACTOR;
+        this.lagMarginMillis = live ? LIVE_LAG_MARGIN_MILLIS : LAG_MARGIN_MILLIS;
+        this.shrinkFactor    = live ? LIVE_SHRINK_FACTOR : SHRINK_FACTOR;
+        this.tickMonitor     = tickMonitor;
+    }
+
+    // Méthodes publiques de classe.
+
+    public long getBudgetNanos(long maxBudgetNanos)
+    {
+        /* Retourne le budget du prochain lot, ajusté selon la durée récente des ticks.
+         * Retour : budget en nanosecondes.
+         * Paramètres : budget maximal accordé à la tâche. */
+
+        maxBudgetNanos = Math.max(MIN_BUDGET_NANOS, maxBudgetNanos);
+
+        if(budgetNanos == 0L) // Démarrage prudent.
+            budgetNanos = Math.max(MIN_BUDGET_NANOS, maxBudgetNanos / 2L);
+
+        else if(tickMonitor.getAverageTickMillis() > (TickMonitor.TICK_MILLIS + lagMarginMillis)) // Serveur en retard.
+            budgetNanos = Math.max(MIN_BUDGET_NANOS, (long)(budgetNanos * shrinkFactor));
+
+        else                                                                               // Serveur à l'heure.
+            budgetNanos = Math.min(maxBudgetNanos, (long)(budgetNanos * growFactor) + 1L);
+
+        budgetNanos = Math.min(budgetNanos, maxBudgetNanos); // La part accordée a pu diminuer.
+
+        return budgetNanos;
+    }
+
+    public int getMaxChunks()
+    {
+        /* Retourne le nombre maximal de chunks du prochain lot, d'après le budget et le coût moyen d'un chunk.
+         * Retour : nombre de chunks, au moins 1.
+         * Paramètres : aucun. */
+
+        return (int)Math.max(1L, Math.min(1024L, Math.round(budgetNanos / chunkCostNanos) + 1L));
+    }
+
+    public void onBatchDone(int nChunks, long elapsedNanos)
+    {
+        /* Prend en compte la mesure d'un lot terminé.
+         * Retour : aucun.
+         * Paramètres : -nChunks      : nombre de chunks traités.
+         *              -elapsedNanos : temps passé sur le thread Bukkit. */
+
+        if(nChunks > 0)
+            chunkCostNanos += COST_SMOOTHING * (((double)elapsedNanos / nChunks) - chunkCostNanos);
+    }
+
+    public boolean shouldYield()
+    {
+        /* Indique si la tâche doit céder entièrement le thread Bukkit, en mode serveur ouvert, les ticks restant
+         * nettement trop longs même au budget minimal.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return live && (tickMonitor.getAverageTickMillis() > (TickMonitor.TICK_MILLIS + LIVE_YIELD_MILLIS));
+    }
+}
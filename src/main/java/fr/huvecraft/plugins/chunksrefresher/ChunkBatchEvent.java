@@ -0,0 +1,75 @@
+/* ChunkBatchEvent.java
+ * Evénement JFR d'un lot de chunks du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.bukkit.World;
+
+// Définition de la classe.
+
+@Name("fr.huvecraft.chunksrefresher.ChunkBatch")
+@Label("Chunk Batch")
+@Category("ChunksRefresher")
+@Description("Batch of chunks processed on the server thread during one tick, the event duration being the time spent on the server thread.")
+final class ChunkBatchEvent extends jdk.jfr.Event
+{
+    /* Evénement Java Flight Recorder couvrant un lot exécuté sur le thread Bukkit, sans coût si l'enregistrement est inactif. */
+
+    // Membres.
+
+    @Label("World")
+    String world; // Nom du monde.
+
+    @Label("Region X")
+    int regionX; // Coordonnées de la région.
+
+    @Label("Region Z")
+    int regionZ;
+
+    @Label("Chunks")
+    int chunks; // Chunks chargés, ou dont le chargement a été demandé.
+
+    @Label("Asynchronous")
+    boolean asynchronous; // Chargements asynchrones demandés, plutôt que chargements bloquants ?
+
+    @Label("Budget")
+    @Timespan(Timespan.NANOSECONDS)
+    long budget; // Budget de temps accordé au lot.
+
+    // Méthodes publiques de classe.
+
+    public void commit(World world, int regionX, int regionZ, int chunks, boolean asynchronous, long budget)
+    {
+        /* Termine l'événement et l'enregistre si l'enregistrement est actif.
+         * Retour : aucun.
+         * Paramètres : -world            : monde traité.
+         *              -regionX, regionZ : coordonnées de la région.
+         *              -chunks           : nombre de chunks du lot.
+         *              -asynchronous     : chargements asynchrones.
+         *              -budget           : budget de temps du lot, en nanosecondes. */
+
+        end();
+
+        if(shouldCommit())
+        {
+            this.world        = world.getName();
+            this.regionX      = regionX;
+            this.regionZ      = regionZ;
+            this.chunks       = chunks;
+            this.asynchronous = asynchronous;
+            this.budget       = budget;
+
+            commit();
+        }
+    }
+}
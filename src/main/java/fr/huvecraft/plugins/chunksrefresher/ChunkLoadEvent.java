@@ -0,0 +1,77 @@
+/* ChunkLoadEvent.java
+ * Evénement JFR du chargement ou déchargement d'un chunk du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+import org.bukkit.World;
+
+// Définition de la classe.
+
+@Name("fr.huvecraft.chunksrefresher.ChunkLoad")
+@Label("Chunk Load")
+@Category("ChunksRefresher")
+@Description("Load or unload of a single chunk by a refresh task, recorded only above the event threshold.")
+@Threshold("1 ms")
+final class ChunkLoadEvent extends jdk.jfr.Event
+{
+    /* Evénement Java Flight Recorder d'un chargement ou déchargement de chunk. Seuls ceux dépassant le seuil de l'événement
+     * (1 ms par défaut, modifiable dans les paramètres de l'enregistrement) sont enregistrés. Pour un chargement asynchrone,
+     * la durée va de la demande à la fin du chargement. */
+
+    // Constantes.
+
+    static final String LOAD   = "load";   // Opérations.
+    static final String UNLOAD = "unload";
+
+    // Membres.
+
+    @Label("World")
+    String world; // Nom du monde.
+
+    @Label("Chunk X")
+    int chunkX; // Coordonnées du chunk.
+
+    @Label("Chunk Z")
+    int chunkZ;
+
+    @Label("Operation")
+    String operation; // Chargement ou déchargement.
+
+    @Label("Asynchronous")
+    boolean asynchronous; // Chargement asynchrone ?
+
+    // Méthodes publiques de classe.
+
+    public void commit(World world, int chunkX, int chunkZ, String operation, boolean asynchronous)
+    {
+        /* Termine l'événement et l'enregistre s'il dépasse le seuil.
+         * Retour : aucun.
+         * Paramètres : -world          : monde du chunk.
+         *              -chunkX, chunkZ : coordonnées du chunk.
+         *              -operation      : LOAD ou UNLOAD.
+         *              -asynchronous   : chargement asynchrone. */
+
+        end();
+
+        if(shouldCommit())
+        {
+            this.world        = world.getName();
+            this.chunkX       = chunkX;
+            this.chunkZ       = chunkZ;
+            this.operation    = operation;
+            this.asynchronous = asynchronous;
+
+            commit();
+        }
+    }
+}
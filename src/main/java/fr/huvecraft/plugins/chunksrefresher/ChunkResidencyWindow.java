@@ -0,0 +1,329 @@
+/* ChunkResidencyWindow.java
+ * Classe de la fenêtre de résidence des chunks chargés du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+// Définition de la classe.
+
+final class ChunkResidencyWindow extends BukkitRunnable
+{
+    /* Fenêtre glissante gardant chargées les dernières rangées de chunks raffraichies par une tâche : le chargement
+     * d'un chunk sollicite ses voisins (lumière, références de structures), qu'il est inutile de décharger puis
+     * recharger à la rangée suivante. Les chunks sont retenus par un ticket de plugin (serveurs 1.14 et plus), ou à
+     * défaut marqués comme chargés de force, et ne sont libérés qu'une fois sortis de la fenêtre. Les libérations,
+     * et donc les déchargements et sauvegardes qui en découlent, sont étalées sur les ticks suivants.
+     * En mode de sauvegarde par région, tous les chunks de la région en cours sont retenus, puis déchargés et
+     * sauvegardés ensemble, dans l'ordre, dès que la tâche passe à la région suivante : les écritures d'un fichier
+     * de région sont groupées plutôt que dispersées. Le nombre de chunks retenus non sauvegardés est plafonné, les
+     * plus anciennes rangées étant libérées au-delà.
+     * Chaque chunk libéré est déchargé et sauvegardé sur-le-champ, puis relevé pour que la tâche le journalise : un
+     * chunk encore retenu n'est pas écrit sur disque et doit être raffraichi à nouveau après un arrêt brutal.
+     * Toutes les méthodes doivent être appelées depuis le thread Bukkit, sauf drainReleasedChunks() et
+     * isRegionResident(). */
+
+    // Constantes.
+
+    public static final int MAX_ROWS          = 8;                                           // Nombre maximal de rangées retenues.
+    public static final int MAX_UNSAVED       = 8192;                                        // Plafond maximal des chunks retenus non sauvegardés.
+    public static final int MIN_UNSAVED       = 64;                                          // Plafond minimal des chunks retenus non sauvegardés.
+    private static final int MIN_RELEASES     = 8;                                           // Nombre minimal de libérations par tick.
+    private static final int RELEASE_SPREAD   = 20;                                          // Ticks sur lesquels étaler les libérations en attente.
+    private static final Method ADD_TICKET    = findTicketMethod("addPluginChunkTicket");    // Méthodes 1.14, null si absentes.
+    private static final Method REMOVE_TICKET = findTicketMethod("removePluginChunkTicket");
+
+    // Membres.
+
+    private ArrayDeque<ArrayList<Chunk>> heldRows;   // Rangées retenues, de la plus ancienne à la plus récente.
+    private ArrayDeque<Chunk> pendingReleases;       // Chunks sortis de la fenêtre, en attente de libération.
+    private HashMap<Long, ChunkMask> releasedChunks; // Chunks déchargés non encore relevés, par région regroupée.
+    private HashMap<Long, Integer> residentCounts;   // Nombre de chunks retenus ou en attente, par région regroupée.
+    private Plugin plugin;                           // Plugin détenteur des tickets.
+    private World world;                             // Monde concerné.
+    private boolean closed;                          // Tâche terminée : tout libérer, puis s'arrêter ?
+    private int heldCount;                           // Nombre de chunks retenus.
+    private int maxRows;                             // Nombre de rangées retenues, hors mode de sauvegarde par région.
+    private int maxUnsaved;                          // Plafond des chunks retenus en mode de sauvegarde par région, 0 hors de ce mode.
+    private long currentRegionKey;                   // Région en cours, regroupée.
+    private long currentRowKey;                      // Rangée en cours : X du chunk et Z de la région, regroupés.
+
+    // Constructeurs.
+
+    public ChunkResidencyWindow(Plugin plugin, World world, int maxRows, int maxUnsaved) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. Un plafond de chunks non sauvegardés non nul active le mode de sauvegarde par
+         * région, le nombre de rangées étant alors ignoré. */
+
+        // Contrôle.
+
+        if((!(plugin instanceof Plugin)) || (!(world instanceof World)) || (maxRows < 0) || (maxRows > MAX_ROWS) || ((maxUnsaved != 0) && ((maxUnsaved < MIN_UNSAVED) || (maxUnsaved > MAX_UNSAVED))) || ((maxRows == 0) && (maxUnsaved == 0)))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.heldRows         = new ArrayDeque<ArrayList<Chunk>>(maxRows + 1);
+        this.pendingReleases  = new ArrayDeque<Chunk>();
+        this.releasedChunks   = new HashMap<Long, ChunkMask>();
+        this.residentCounts   = new HashMap<Long, Integer>();
+        this.plugin           = plugin;
+        this.world            = world;
+        this.closed           = false;
+        this.heldCount        = 0;
+        this.maxRows          = maxRows;
+        this.maxUnsaved       = maxUnsaved;
+        this.currentRegionKey = Long.MIN_VALUE;
+        this.currentRowKey    = Long.MIN_VALUE;
+    }
+
+    // Méthodes publiques de classe.
+
+    public void close()
+    {
+        /* Libère progressivement tous les chunks retenus, puis arrête la fenêtre.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        releaseOldestRows(0);
+
+        closed = true;
+    }
+
+    public HashMap<Long, ChunkMask> drainReleasedChunks()
+    {
+        /* Retourne les chunks déchargés et sauvegardés depuis le dernier appel. Peut être appelée depuis tout thread.
+         * Retour : masques des chunks en question, par région regroupée.
+         * Paramètres : aucun. */
+
+        HashMap<Long, ChunkMask> drainedChunks = null; // Masques à retourner.
+
+        synchronized(releasedChunks)
+        {
+            drainedChunks = new HashMap<Long, ChunkMask>(releasedChunks);
+
+            releasedChunks.clear();
+        }
+
+        return drainedChunks;
+    }
+
+    public void hold(Chunk chunk)
+    {
+        /* Retient un chunk que la tâche vient de charger, la rangée la plus ancienne sortant de la fenêtre si celui-ci
+         * en débute une nouvelle, ou toute la région précédente en mode de sauvegarde par région.
+         * Retour : aucun.
+         * Paramètres : chunk en question, non chargé avant l'opération. */
+
+        long regionKey = RegionCoordinates.pack(chunk.getX() >> 5, chunk.getZ() >> 5); // Région du chunk.
+        long rowKey    = RegionCoordinates.pack(chunk.getX(), chunk.getZ() >> 5);      // Rangée du chunk.
+
+        // Compte le chunk parmi ceux de sa région non encore sauvegardés.
+
+        synchronized(releasedChunks)
+        {
+            residentCounts.merge(regionKey, 1, Integer::sum);
+        }
+
+        // Nouvelle région, en mode de sauvegarde par région ?
+
+        if((maxUnsaved > 0) && (regionKey != currentRegionKey))
+        {
+            releaseOldestRows(0);
+
+            currentRegionKey = regionKey;
+        }
+
+        // Nouvelle rangée ?
+
+        if((rowKey != currentRowKey) || heldRows.isEmpty())
+        {
+            if(maxUnsaved == 0)
+                releaseOldestRows(maxRows - 1);
+
+            heldRows.addLast(new ArrayList<Chunk>(32));
+
+            currentRowKey = rowKey;
+        }
+
+        // Plafond des chunks non sauvegardés atteint : libère les rangées les plus anciennes.
+
+        while((maxUnsaved > 0) && (heldCount >= maxUnsaved) && (heldRows.size() > 1))
+            releaseOldestRows(heldRows.size() - 1);
+
+        // Retient le chunk.
+
+        if(ADD_TICKET instanceof Method)
+        {
+            try
+            {
+                ADD_TICKET.invoke(world, chunk.getX(), chunk.getZ(), plugin);
+            }
+
+            catch(ReflectiveOperationException error)
+            {
+                pendingReleases.addLast(chunk); // Non retenu : libéré au plus tôt.
+
+                return;
+            }
+        }
+
+        else if(chunk.isForceLoaded()) // Déjà retenu par un autre que la tâche : on n'y touche pas.
+        {
+            recordRelease(chunk);
+
+            return;
+        }
+
+        else
+            chunk.setForceLoaded(true);
+
+        heldRows.getLast().add(chunk);
+
+        heldCount++;
+    }
+
+    public boolean isRegionResident(int xRegion, int zRegion)
+    {
+        /* Indique si des chunks d'une région sont encore retenus ou en attente de libération, donc non sauvegardés.
+         * Peut être appelée depuis tout thread.
+         * Retour : oui ou non.
+         * Paramètres : coordonnées X et Z de la région. */
+
+        synchronized(releasedChunks)
+        {
+            return residentCounts.containsKey(RegionCoordinates.pack(xRegion, zRegion));
+        }
+    }
+
+    public void releaseAll()
+    {
+        /* Libère sur-le-champ tous les chunks retenus ou en attente, lors de la désactivation du plugin.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        close();
+
+        while(!pendingReleases.isEmpty())
+            release(pendingReleases.removeFirst());
+    }
+
+    @Override
+    public void run()
+    {
+        /* Libère, à chaque tick, une part des chunks en attente.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        int nReleases = Math.max(MIN_RELEASES, pendingReleases.size() / RELEASE_SPREAD); // Libérations de ce tick.
+
+        while((nReleases-- > 0) && !pendingReleases.isEmpty())
+            release(pendingReleases.removeFirst());
+
+        if(closed && pendingReleases.isEmpty())
+            cancel();
+    }
+
+    // Méthodes privées statiques.
+
+    private static Method findTicketMethod(String name)
+    {
+        /* Recherche une méthode de gestion des tickets de plugin de World (serveurs 1.14 et plus).
+         * Retour : méthode en question, null si absente.
+         * Paramètres : nom de la méthode. */
+
+        try
+        {
+            return World.class.getMethod(name, int.class, int.class, Plugin.class);
+        }
+
+        catch(NoSuchMethodException|SecurityException exception)
+        {
+            // Serveur 1.13 : chunks chargés de force à la place.
+        }
+
+        return null;
+    }
+
+    // Méthodes privées de classe.
+
+    private void releaseOldestRows(int keptRows)
+    {
+        /* Fait sortir de la fenêtre les rangées les plus anciennes.
+         * Retour : aucun.
+         * Paramètres : nombre de rangées récentes à conserver. */
+
+        while(heldRows.size() > Math.max(keptRows, 0))
+        {
+            ArrayList<Chunk> oldestRow = heldRows.removeFirst(); // Rangée sortante.
+
+            pendingReleases.addAll(oldestRow);
+
+            heldCount -= oldestRow.size();
+        }
+    }
+
+    private void recordRelease(Chunk chunk)
+    {
+        /* Relève un chunk libéré, pour que la tâche le journalise, et le retire des chunks non sauvegardés de sa région.
+         * Retour : aucun.
+         * Paramètres : chunk en question. */
+
+        long regionKey = RegionCoordinates.pack(chunk.getX() >> 5, chunk.getZ() >> 5); // Région du chunk.
+
+        synchronized(releasedChunks)
+        {
+            releasedChunks.computeIfAbsent(regionKey, key -> new ChunkMask()).set(chunk.getX(), chunk.getZ());
+
+            if(residentCounts.merge(regionKey, -1, Integer::sum) <= 0)
+                residentCounts.remove(regionKey);
+        }
+    }
+
+    private void release(Chunk chunk)
+    {
+        /* Libère un chunk sorti de la fenêtre : retrait du ticket ou fin du chargement forcé, puis déchargement et
+         * sauvegarde immédiats, plutôt qu'au gré du serveur, le chunk n'étant journalisé qu'ensuite.
+         * Retour : aucun.
+         * Paramètres : chunk en question. */
+
+        ChunkLoadEvent unloadEvent = new ChunkLoadEvent(); // Evénement JFR de la libération.
+
+        unloadEvent.begin();
+
+        if(REMOVE_TICKET instanceof Method)
+        {
+            try
+            {
+                REMOVE_TICKET.invoke(world, chunk.getX(), chunk.getZ(), plugin);
+            }
+
+            catch(ReflectiveOperationException error)
+            {
+                // Ticket déjà retiré : le chunk est déchargé malgré tout.
+            }
+        }
+
+        else
+            chunk.setForceLoaded(false);
+
+        chunk.unload(true); // Pas de contrôle d'erreur.
+
+        recordRelease(chunk);
+
+        unloadEvent.commit(world, chunk.getX(), chunk.getZ(), ChunkLoadEvent.UNLOAD, false);
+    }
+}
@@ -8,12 +8,21 @@ package fr.huvecraft.plugins.chunksrefresher;
 
 // Imports.
 
+import java.io.File;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 import org.bukkit.scheduler.BukkitScheduler;
 import org.bukkit.scheduler.BukkitTask;
 
@@ -29,13 +38,23 @@ public final class ChunksRefresher extends JavaPlugin
 {
     /* Classe principale du plugin ChunksRefresher pour Spigot. */
     
+    // Constantes.
+    
+    private static final long MANAGEMENT_TIMEOUT_SECONDS = 10L;    // Attente maximale d'une commande reçue par JMX.
+    private static final long QUEUE_POLL_TICKS           = 100L;   // Intervalle de contrôle de la file d'attente (5 secondes).
+    private static final long SHUTDOWN_TIMEOUT_MILLIS    = 30000L; // Attente maximale de l'arrêt des tâches lors de la désactivation.
+    private static final long SHUTDOWN_WARNING_MILLIS    = 20000L; // Attente de l'arrêt des tâches avant avertissement.
+    
     // Définitions de membres privés.
     
     private HashMap<World, AsyncChunksRefresher> achunksRefreshers; // Raffraichisseurs asynchrones de chunks.
     private HashMap<World, BukkitTask> chunksRefreshersTasks;       // Tâches Bukkit des raffraichisseurs asynchrones de chunks.
     private BukkitScheduler bukkitScheduler;                        // Gestionnaire de tâches Bukkit.
+    private PluginManagement pluginManagement;                      // Interfaces JMX du plugin et de ses tâches.
+    private RefreshCoordinator refreshCoordinator;                  // File d'attente et budgets communs des tâches.
     private SafeLogger safeLogger;                                  // Loggueur thread-safe.
     private Server server;                                          // Serveur Spigot.
+    private TickMonitor tickMonitor;                                // Mesure de la durée des ticks du serveur.
     private Object tasksLock;
     
     // Constructeurs.
@@ -46,14 +65,21 @@ public final class ChunksRefresher extends JavaPlugin
          * Retour : aucun.
          * Paramètres : aucun. */
         
-        // Initialise les membres.
+        initializeMembers();
+    }
+    
+    ChunksRefresher(JavaPluginLoader pluginLoader, PluginDescriptionFile description, File dataFolder, File pluginFile)
+    {
+        /* Constructeur hors serveur, pour le banc de simulation : le plugin n'est alors pas chargé par Bukkit.
+         * Retour : aucun.
+         * Paramètres : -pluginLoader : chargeur de plugins, lié au serveur simulé.
+                        -description  : description du plugin (plugin.yml).
+                        -dataFolder   : dossier de données du plugin.
+                        -pluginFile   : fichier du plugin. */
         
-        achunksRefreshers     = new HashMap<World, AsyncChunksRefresher>();
-        bukkitScheduler       = null;
-        chunksRefreshersTasks = new HashMap<World, BukkitTask>();
-        safeLogger            = null;
-        server                = null;
-        tasksLock             = new Object();
+        super(pluginLoader, description, dataFolder, pluginFile);
+        
+        initializeMembers();
     }
     
     // Définitions de méthodes publiques de classe.
@@ -96,6 +122,86 @@ public final class ChunksRefresher extends JavaPlugin
         return false;
     }
 
+    RefreshCoordinator getRefreshCoordinator()
+    {
+        /* Retourne le coordinateur des tâches de raffraichissement.
+         * Retour : objet en question.
+         * Paramètres : aucun. */
+        
+        return refreshCoordinator;
+    }
+
+    String[] getRunningWorldNames()
+    {
+        /* Retourne les noms des mondes en cours de traitement.
+         * Retour : noms en question.
+         * Paramètres : aucun. */
+        
+        ArrayList<String> worldNames = new ArrayList<String>(); // Noms à retourner.
+        
+        synchronized(tasksLock)
+        {
+            for(World world : achunksRefreshers.keySet())
+                worldNames.add(world.getName());
+        }
+        
+        return worldNames.toArray(new String[0]);
+    }
+    
+    void runManagementCommand(String... args) throws IllegalArgumentException, IllegalStateException
+    {
+        /* Exécute depuis le thread Bukkit une commande reçue par JMX, comme si elle avait été tapée en console.
+         * Retour : aucun.
+         * Paramètres : arguments de la commande. */
+        
+        Future<Boolean> futureCommand = null; // Objet permettant l'exécution de la commande depuis Bukkit.
+        
+        try
+        {
+            if(server.isPrimaryThread())
+                commandChunkRefresher(null, args);
+            
+            else
+            {
+                if((futureCommand = bukkitScheduler.callSyncMethod(this, () -> { commandChunkRefresher(null, args); return true; })) == null)
+                    throw new IllegalStateException("Failed to run command.");
+                
+                futureCommand.get(MANAGEMENT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        }
+        
+        catch(ChkRefException error)
+        {
+            throw new IllegalArgumentException(error.getMessage());
+        }
+        
+        catch(ExecutionException error)
+        {
+            throw new IllegalArgumentException(error.getCause().getMessage());
+        }
+        
+        catch(TimeoutException error)
+        {
+            throw new IllegalStateException("Command not run by the server within " + MANAGEMENT_TIMEOUT_SECONDS + " seconds.");
+        }
+        
+        catch(InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+            
+            throw new IllegalStateException("Interrupted while waiting for the server.");
+        }
+    }
+    
+    TickMonitor getTickMonitor()
+    {
+        /* Retourne la mesure de la durée des ticks du serveur.
+         * Retour : objet en question.
+         * Paramètres : aucun. */
+        
+        return tickMonitor;
+    }
+
     public void onTaskEnd(World world)
     {
         /* Appelée lors de la fin d'une tâche de raffraichissement d'un monde. */
@@ -106,6 +212,24 @@ public final class ChunksRefresher extends JavaPlugin
             achunksRefreshers.remove(world);
             chunksRefreshersTasks.remove(world);
         }
+        
+        if(pluginManagement instanceof PluginManagement)
+            pluginManagement.unregisterTask(world.getName());
+
+        // Démarre les mondes en attente, une place s'étant libérée.
+
+        if(isEnabled())
+        {
+            try
+            {
+                startQueuedTasks();
+            }
+
+            catch(ChkRefException error)
+            {
+                safeLogger.logWarning(error.getMessage());
+            }
+        }
     }
     
     @Override
@@ -115,70 +239,68 @@ public final class ChunksRefresher extends JavaPlugin
          * Retour : aucun.
          * Paramètres : aucun. */
         
-        boolean allTasksStopped  = false; // Toutes tâches stoppées ?
-        boolean warningDisplayed = false; // Message d'alerte de non-stop affiché. 
-        long stopAskedTime       = 0L;    // Timestamp de demande d'arrêt des tâches.
+        ArrayList<AsyncChunksRefresher> runningTasks = null;  // Tâches en cours lors de la désactivation.
+        long stopAskedTime                           = 0L;    // Timestamp de demande d'arrêt des tâches.
+        boolean allTasksStopped                      = false; // Toutes tâches stoppées ?
         
-        // Demande la fin des tâches asynchrones en cours.
+        // Abandonne les mondes en attente, puis demande la fin des tâches asynchrones en cours, qui écrivent leur
+        // progression avant de s'arrêter.
         
+        refreshCoordinator.clearQueue();
+
         synchronized(tasksLock)
         {
-            for(AsyncChunksRefresher currentACR : achunksRefreshers.values())
+            runningTasks = new ArrayList<AsyncChunksRefresher>(achunksRefreshers.values());
+            
+            for(AsyncChunksRefresher currentACR : runningTasks)
             {
-                currentACR.askForStop();
+                currentACR.shutdown();
                 chunksRefreshersTasks.get(currentACR.getWorld()).cancel(); // Pour éviter démarrage intempestif au prochain tick.
             }
         }
 
         stopAskedTime = System.currentTimeMillis();
 
-        // Attend la fin des tâches asynchrones en cours.
+        // Attend, sans scrutation et dans la limite du délai, la fin des tâches asynchrones en cours.
         
-        do
+        if(!(allTasksStopped = awaitTasksStop(runningTasks, stopAskedTime + SHUTDOWN_WARNING_MILLIS)))
         {
-            // Considère que tout est stoppé jusqu'à preuve du contraire.
+            safeLogger.logWarning("Waiting for asynchronous tasks to stop since " + (SHUTDOWN_WARNING_MILLIS / 1000L) + " seconds...");
+            safeLogger.logWarning("Waiting " + ((SHUTDOWN_TIMEOUT_MILLIS - SHUTDOWN_WARNING_MILLIS) / 1000L) + " seconds more...");
             
-            allTasksStopped = true;
-                
-            synchronized(tasksLock)
-            {
-                // Contrôle.
-                
-                for(BukkitTask currentACRT : chunksRefreshersTasks.values())
-                {
-                    if(bukkitScheduler.isCurrentlyRunning(currentACRT.getTaskId()))
-                    {
-                        // On arrête le contrôle dès qu'une tâche active est trouvée et on enregistre cet état.
-                        
-                        allTasksStopped = false;
-                        
-                        break;
-                    }
-                }
-            }
-                
-            // Contrôle du temps depuis lequel on attend.
-            
-            if(((System.currentTimeMillis() - stopAskedTime) > 20000L) && (!warningDisplayed))
-            {
-                safeLogger.logWarning("Waiting for asynchronous tasks to stop since 20 seconds...");
-                safeLogger.logWarning("Waiting 10 seconds more...");
-                
-                warningDisplayed = true;
-            }
-                
-            else if((System.currentTimeMillis() - stopAskedTime) >= 30000L)
-                break; // On interrompt l'attente après 30 secondes.
+            allTasksStopped = awaitTasksStop(runningTasks, stopAskedTime + SHUTDOWN_TIMEOUT_MILLIS);
+        }
+        
+        // Libère les chunks encore retenus par les tâches, les libérations étalées n'ayant plus lieu.
+        
+        for(AsyncChunksRefresher currentACR : runningTasks)
+            currentACR.releaseResidentChunks();
+        
+        // Retire les interfaces JMX.
+        
+        if(pluginManagement instanceof PluginManagement)
+        {
+            for(String worldName : getRunningWorldNames())
+                pluginManagement.unregisterTask(worldName);
             
-        } while(!allTasksStopped);
+            pluginManagement.unregister();
+        }
+        
+        // Arrête la mesure de la durée des ticks, et rétablit les seuils mémoire de la JVM.
+        
+        tickMonitor.cancel();
         
-        // Arrête le serveur si une tâche asynchrone est toujours en cours.
+        refreshCoordinator.close();
+        
+        // Signale les tâches asynchrones toujours en cours : leur journal de progression peut manquer leurs derniers lots.
         
         if(!allTasksStopped)
         {
-            safeLogger.logError("Some asynchronous tasks not stopped. Killing server to avoid random issues.");
-            
-            getServer().shutdown();
+            for(AsyncChunksRefresher currentACR : runningTasks)
+            {
+                if(!currentACR.getState().isTerminal())
+                    safeLogger.logError("Asynchronous task of world \"" + currentACR.getWorld().getName() + "\" not stopped within " + (SHUTDOWN_TIMEOUT_MILLIS / 1000L) + " seconds, its last refreshed chunks may be refreshed again next time.");
+            }
         }
     }
     
@@ -188,6 +310,34 @@ public final class ChunksRefresher extends JavaPlugin
         /* Méthodes appelée lors de l'activation du plugin.
          * Retour : aucun.
          * Paramètres : aucun. */
+        
+        // Démarre la mesure de la durée des ticks, utilisée pour réguler le budget de temps des tâches.
+        
+        tickMonitor.runTaskTimer(this, 1L, 1L);
+        
+        // Publie l'interface JMX du plugin.
+        
+        pluginManagement = new PluginManagement(this, safeLogger);
+        
+        pluginManagement.register();
+        
+        // Démarre régulièrement les mondes en attente de mémoire, aucune fin de tâche ne devant forcément survenir.
+        
+        bukkitScheduler.runTaskTimer(this, () ->
+        {
+            if(refreshCoordinator.getQueueSize() > 0)
+            {
+                try
+                {
+                    startQueuedTasks();
+                }
+                
+                catch(ChkRefException error)
+                {
+                    safeLogger.logWarning(error.getMessage());
+                }
+            }
+        }, QUEUE_POLL_TICKS, QUEUE_POLL_TICKS);
     }
     
     @Override
@@ -205,10 +355,46 @@ public final class ChunksRefresher extends JavaPlugin
         safeLogger      = new SafeLogger(logger);
         server          = getServer();
         bukkitScheduler = server.getScheduler();
+        tickMonitor     = new TickMonitor();
+        
+        // Compacte les régions raffraichies avant le dernier arrêt, tant que leurs fichiers ne sont pas ouverts par le
+        // serveur : pas lors d'un rechargement des plugins, les mondes étant alors déjà chargés.
+        
+        if(server.getWorlds().isEmpty())
+            CompactionQueue.compactPending(server.getWorldContainer(), safeLogger);
+        
+        else
+            safeLogger.logInfo("Worlds already loaded, region files compaction postponed to next server start.");
     }
     
      // Définitions de méthodes privées de classe.
     
+    private boolean awaitTasksStop(List<AsyncChunksRefresher> tasks, long deadlineTime)
+    {
+        /* Attend, sans scrutation, la fin de tâches asynchrones, jusqu'à une échéance.
+         * Retour : toutes les tâches sont terminées ?
+         * Paramètres : -tasks        : tâches en question.
+         *              -deadlineTime : timestamp de l'échéance, en millisecondes. */
+        
+        try
+        {
+            for(AsyncChunksRefresher currentACR : tasks)
+            {
+                if(!currentACR.awaitTermination(deadlineTime - System.currentTimeMillis()))
+                    return false;
+            }
+        }
+        
+        catch(InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+            
+            return false;
+        }
+        
+        return true;
+    }
+    
     private void commandChunkRefresher(CommandSender sender, String[] args) throws ChkRefException, UnsupportedOperationException
     {
         /* Méthode de traitement de la commande de raffraichissement des chunks d'un monde.
@@ -217,9 +403,12 @@ public final class ChunksRefresher extends JavaPlugin
                         -args    : arguments. */
         
         AsyncChunksRefresher achunksRefresher = null; // Tâches asynchrone de raffraichissement des chunks.
-        BukkitTask chunksRefreshersTask       = null; // Tâches Bukkit de raffraichissement asynchrone des chunks.
         ChkRefOperation operation             = null;
-        World world                           = null; // Monde concerné.
+        int firstOptionIndex                  = 1;    // Index du premier argument d'option.
+        List<World> worlds                    = null; // Mondes concernés.
+        double totalChunksPerSecond           = 0.0D; // Débit cumulé des tâches affichées.
+        int nStatusDisplayed                  = 0;    // Nombre de tâches affichées.
+        RefreshOptions options                = null; // Options d'une nouvelle tâche.
         
         try
         {
@@ -231,10 +420,9 @@ public final class ChunksRefresher extends JavaPlugin
             if(args.length < 1)
                 throw new ChkRefException("Invalid arguments.");
                
-            if((world = server.getWorld(args[0])) == null)
-                throw new ChkRefException("Invalid arguments, world \"" + args[0] + "\" doesn't exist or isn't loaded.");
+            worlds = getWorlds(args[0]);
 
-            if((args.length >= 2) && !args[1].equalsIgnoreCase("nomemcheck"))
+            if((args.length >= 2) && !RefreshOptions.isOption(args[1]))
             {
                 try
                 {
@@ -245,96 +433,124 @@ public final class ChunksRefresher extends JavaPlugin
                 {
                     throw new ChkRefException("Invalid argument, operation \"" + args[1] + "\" is unknown.");
                 }
+                
+                firstOptionIndex = 2;
             }
 
             else
                 operation = ChkRefOperation.CHKREF_CREATE;
 
-            if(args.length > ((operation == ChkRefOperation.CHKREF_CREATE) ? 3 : 2))
+            if((operation != ChkRefOperation.CHKREF_CREATE) && (operation != ChkRefOperation.CHKREF_GENERATE) && (args.length > 2))
                 throw new ChkRefException("Too much arguments.");             
+
+            if((operation == ChkRefOperation.CHKREF_CREATE) || (operation == ChkRefOperation.CHKREF_GENERATE))
+                options = RefreshOptions.parse(args, firstOptionIndex, operation == ChkRefOperation.CHKREF_GENERATE);
             
             synchronized(tasksLock)
             {
-                // Exécution.
+                // Exécution, pour chaque monde.
 
-                switch(operation)
+                for(World world : worlds)
                 {
-                    case CHKREF_CREATE:
-                        /* Créé une tâche asynchrone pour traiter les chunks du monde spécifié, reprenant éventuellement là où elle s'était arrêtée. */
-                        
-                        safeLogger.logInfo("Creating asynchronous task to refresh chunks of world \"" + args[0] + "\"...");
-
-                        achunksRefresher = achunksRefreshers.get(world);
-                        
-                        if(achunksRefresher != null)
-                        {
-                            safeLogger.logWarning("An existing task already exists for world \"" + args[0] + "\".");
-
-                            return;
-                        }
-                        
-                        achunksRefresher = new AsyncChunksRefresher(bukkitScheduler, safeLogger, this, world, args[args.length - 1].equalsIgnoreCase("nomemcheck"));
-                                
-                        achunksRefreshers.put(world, achunksRefresher);
-                        
-                        if((chunksRefreshersTask = achunksRefresher.runTaskAsynchronously(this)) == null)
-                            throw new ChkRefException("Failed to run task to refresh chunks.");
-                        
-                        chunksRefreshersTasks.put(world, chunksRefreshersTask);
-
-                        break;
-
-                    case CHKREF_RESUME:
-                    case CHKREF_PAUSE:
-                        /* Continue ou pause une tâche asynchrone pour traiter les chunks du monde spécifié. */
-                        
-                        if(operation == ChkRefOperation.CHKREF_RESUME)
-                            safeLogger.logInfo("Resuming asynchronous task to refresh chunks of world \"" + args[0] + "\"...");
-
-                        else
-                            safeLogger.logInfo("Pausing asynchronous task to refresh chunks of world \"" + args[0] + "\"...");
-
-                        achunksRefresher = achunksRefreshers.get(world);
-                        
-                        if(achunksRefresher == null)
-                        {
-                            safeLogger.logWarning("No existing task found for world \"" + args[0] + "\".");
-
-                            return;
-                        }
-
-                        else
-                        {
-                            if(operation == ChkRefOperation.CHKREF_RESUME)
-                                achunksRefresher.resume();
+                    switch(operation)
+                    {
+                        case CHKREF_CREATE:
+                        case CHKREF_GENERATE:
+                            /* Met en file d'attente le traitement des chunks du monde spécifié, reprenant éventuellement là où il s'était arrêté,
+                               en générant aussi les chunks manquants de la zone s'il s'agit d'une génération. */
+                            
+                            if(achunksRefreshers.containsKey(world) || refreshCoordinator.isQueued(world))
+                            {
+                                safeLogger.logWarning("An existing task already exists for world \"" + world.getName() + "\".");
+
+                                break;
+                            }
+
+                            if(operation == ChkRefOperation.CHKREF_GENERATE)
+                                safeLogger.logInfo("Queuing asynchronous task to generate and refresh chunks of world \"" + world.getName() + "\"...");
 
                             else
-                                achunksRefresher.pause();
-                        }
+                                safeLogger.logInfo("Queuing asynchronous task to refresh chunks of world \"" + world.getName() + "\"...");
+
+                            refreshCoordinator.enqueue(world, options);
 
-                        break;
+                            break;
 
-                    case CHKREF_CANCEL:                    
-                        safeLogger.logInfo("Aborting asynchronous task to refresh chunks of world \"" + args[0] + "\"...");
+                        case CHKREF_RESUME:
+                        case CHKREF_PAUSE:
+                            /* Continue ou pause une tâche asynchrone pour traiter les chunks du monde spécifié. */
+                            
+                            if(operation == ChkRefOperation.CHKREF_RESUME)
+                                safeLogger.logInfo("Resuming asynchronous task to refresh chunks of world \"" + world.getName() + "\"...");
 
-                        achunksRefresher = achunksRefreshers.get(world);
-                        
-                        if(achunksRefresher == null)
-                        {
-                            safeLogger.logWarning("No existing task found for world \"" + args[0] + "\".");
+                            else
+                                safeLogger.logInfo("Pausing asynchronous task to refresh chunks of world \"" + world.getName() + "\"...");
 
-                            return;
-                        }
+                            achunksRefresher = achunksRefreshers.get(world);
+                            
+                            if(achunksRefresher == null)
+                                safeLogger.logWarning("No existing task found for world \"" + world.getName() + "\".");
 
-                        else
-                            achunksRefresher.askForStop(true);
+                            else if(operation == ChkRefOperation.CHKREF_RESUME)
+                                achunksRefresher.resume();
 
-                        break;
+                            else
+                                achunksRefresher.pause();
+
+                            break;
 
-                    default:
-                        throw new UnsupportedOperationException();
+                        case CHKREF_STATUS:
+                            /* Affiche les mesures de la tâche du monde spécifié. */
+                            
+                            achunksRefresher = achunksRefreshers.get(world);
+                            
+                            if(achunksRefresher instanceof AsyncChunksRefresher)
+                            {
+                                logStatus(world, achunksRefresher);
+                                
+                                totalChunksPerSecond += achunksRefresher.getMetrics().getChunksPerSecond();
+                                nStatusDisplayed++;
+                            }
+                            
+                            else if(refreshCoordinator.isQueued(world))
+                                safeLogger.logInfo("World \"" + world.getName() + "\": queued, waiting for a free slot or for memory.");
+                            
+                            else if(worlds.size() == 1)
+                                safeLogger.logWarning("No existing task found for world \"" + world.getName() + "\".");
+                            
+                            break;
+                            
+                        case CHKREF_CANCEL:                    
+                            safeLogger.logInfo("Aborting asynchronous task to refresh chunks of world \"" + world.getName() + "\"...");
+
+                            achunksRefresher = achunksRefreshers.get(world);
+                            
+                            if(achunksRefresher instanceof AsyncChunksRefresher)
+                                achunksRefresher.askForStop(true);
+
+                            else if(!refreshCoordinator.dequeue(world))
+                                safeLogger.logWarning("No existing task found for world \"" + world.getName() + "\".");
+
+                            break;
+
+                        default:
+                            throw new UnsupportedOperationException();
+                    }
                 }
             }
+
+            if(nStatusDisplayed > 1)
+                safeLogger.logInfo("All tasks: " + String.format("%.1f", totalChunksPerSecond) + " chunks/s.");
+            
+            // Démarre les mondes en attente, dans la limite des places disponibles.
+
+            if((operation == ChkRefOperation.CHKREF_CREATE) || (operation == ChkRefOperation.CHKREF_GENERATE))
+            {
+                startQueuedTasks();
+                
+                if(refreshCoordinator.getQueueSize() > 0)
+                    safeLogger.logInfo(refreshCoordinator.getQueueSize() + " world(s) waiting for a free slot or for memory.");
+            }
         }
         
         catch(ChkRefException error)
@@ -350,13 +566,136 @@ public final class ChunksRefresher extends JavaPlugin
         }
     }
 
+    private static String formatDuration(long seconds)
+    {
+        /* Met en forme une durée.
+         * Retour : durée en heures, minutes et secondes.
+         * Paramètres : durée en secondes. */
+        
+        return String.format("%dh%02dm%02ds", seconds / 3600L, (seconds / 60L) % 60L, seconds % 60L);
+    }
+    
+    private List<World> getWorlds(String worldsArgument) throws ChkRefException
+    {
+        /* Retourne les mondes désignés par un argument : "*" pour tous les mondes chargés,
+         * ou une liste de noms séparés par des virgules.
+         * Retour : liste des mondes en question.
+         * Paramètres : argument en question. */
+
+        ArrayList<World> worlds = new ArrayList<World>(); // Mondes trouvés.
+        World world             = null;                   // Monde courant.
+
+        if(worldsArgument.equals("*"))
+            worlds.addAll(server.getWorlds());
+
+        else
+        {
+            for(String worldName : worldsArgument.split(","))
+            {
+                if((world = server.getWorld(worldName)) == null)
+                    throw new ChkRefException("Invalid arguments, world \"" + worldName + "\" doesn't exist or isn't loaded.");
+
+                if(!worlds.contains(world))
+                    worlds.add(world);
+            }
+        }
+
+        if(worlds.isEmpty())
+            throw new ChkRefException("Invalid arguments, no world found.");
+
+        return worlds;
+    }
+
+    private void initializeMembers()
+    {
+        /* Initialise les membres, pour les deux constructeurs.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+        
+        achunksRefreshers     = new HashMap<World, AsyncChunksRefresher>();
+        bukkitScheduler       = null;
+        chunksRefreshersTasks = new HashMap<World, BukkitTask>();
+        pluginManagement      = null;
+        refreshCoordinator    = new RefreshCoordinator();
+        safeLogger            = null;
+        server                = null;
+        tickMonitor           = null;
+        tasksLock             = new Object();
+    }
+
+    private void logStatus(World world, AsyncChunksRefresher achunksRefresher)
+    {
+        /* Affiche les mesures de la tâche d'un monde.
+         * Retour : aucun.
+         * Paramètres : -world            : monde en question.
+         *              -achunksRefresher : tâche du monde. */
+        
+        RefreshMetrics metrics = achunksRefresher.getMetrics();          // Mesures de la tâche.
+        long chunksRemaining   = metrics.getChunksRemaining();           // Chunks restants.
+        String worldPrefix     = "World \"" + world.getName() + "\": "; // Préfixe des lignes.
+        
+        safeLogger.logInfo(worldPrefix + achunksRefresher.getState().name().toLowerCase() + ", " + metrics.getChunksRefreshed() + " chunks refreshed in " + formatDuration(metrics.getElapsedSeconds())
+                           + " (" + String.format("%.1f", metrics.getChunksPerSecond()) + " chunks/s), " + metrics.getRegionCount() + " regions done"
+                           + String.format(" (last %.1f s, average %.1f s, max %.1f s).", metrics.getLastRegionSeconds(), metrics.getRegionSecondsAverage(), metrics.getRegionSecondsMax()));
+        
+        safeLogger.logInfo(worldPrefix + "server thread time per batch"
+                           + String.format(" p50 %.2f ms, p99 %.2f ms, max %.2f ms", metrics.getBatchMillisPercentile(0.5D), metrics.getBatchMillisPercentile(0.99D), metrics.getBatchMillisMax())
+                           + " over " + metrics.getBatchCount() + " batches, current share " + String.format("%.1f", refreshCoordinator.getBudgetShareNanos(achunksRefresher) / 1000000.0D) + " ms per tick.");
+        
+        if(chunksRemaining < 0L)
+            safeLogger.logInfo(worldPrefix + "counting remaining chunks...");
+        
+        else
+            safeLogger.logInfo(worldPrefix + ((achunksRefresher.getOptions().isStaleOnly() || achunksRefresher.getOptions().isIncremental()) ? "at most " : "") + chunksRemaining + " chunks remaining, ETA "
+                               + ((metrics.getEtaSeconds() < 0L) ? "unknown" : formatDuration(metrics.getEtaSeconds())) + ".");
+    }
+    
+    private void startQueuedTasks() throws ChkRefException
+    {
+        /* Démarre les mondes en attente tant que le coordinateur l'autorise.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        AsyncChunksRefresher achunksRefresher = null; // Tâches asynchrone de raffraichissement des chunks.
+        BukkitTask chunksRefreshersTask       = null; // Tâches Bukkit de raffraichissement asynchrone des chunks.
+        QueuedRefresh queuedRefresh           = null; // Monde à démarrer.
+
+        synchronized(tasksLock)
+        {
+            while((queuedRefresh = refreshCoordinator.pollStartable(achunksRefreshers.size())) instanceof QueuedRefresh)
+            {
+                safeLogger.logInfo("Creating asynchronous task to refresh chunks of world \"" + queuedRefresh.getWorld().getName() + "\"...");
+
+                achunksRefresher = new AsyncChunksRefresher(bukkitScheduler, safeLogger, this, queuedRefresh.getWorld(), queuedRefresh.getOptions());
+
+                achunksRefresher.addStateListener(refreshCoordinator);
+
+                achunksRefreshers.put(queuedRefresh.getWorld(), achunksRefresher);
+
+                if((chunksRefreshersTask = achunksRefresher.runTaskAsynchronously(this)) == null)
+                {
+                    achunksRefreshers.remove(queuedRefresh.getWorld());
+
+                    throw new ChkRefException("Failed to run task to refresh chunks.");
+                }
+
+                chunksRefreshersTasks.put(queuedRefresh.getWorld(), chunksRefreshersTask);
+                
+                if(pluginManagement instanceof PluginManagement)
+                    pluginManagement.registerTask(achunksRefresher);
+            }
+        }
+    }
+
     // Enumérations membres.
 
     private enum ChkRefOperation
     {
         CHKREF_CREATE,
+        CHKREF_GENERATE,
         CHKREF_PAUSE,
         CHKREF_RESUME,
-        CHKREF_CANCEL;
+        CHKREF_CANCEL,
+        CHKREF_STATUS;
     }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+/* ChunksRefresherMXBean.java
+ * Interface JMX du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Définition de l'interface.
+
+public interface ChunksRefresherMXBean
+{
+    /* Interface de supervision et de pilotage de l'ensemble des tâches de raffraichissement, enregistrée sous le nom
+     * fr.huvecraft.chunksrefresher:type=Plugin. Les opérations sont exécutées comme la commande console équivalente. */
+
+    // Attributs.
+
+    int getMaxConcurrentTasks();
+    String[] getQueuedWorlds();
+    String[] getRunningWorlds();
+    int getTickBudgetMillis();
+    boolean isMemoryLow();
+    void setMaxConcurrentTasks(int maxConcurrentTasks);
+    void setTickBudgetMillis(int tickBudgetMillis);
+
+    // Opérations.
+
+    void cancel(String worlds);
+    void generate(String worlds, String options);
+    void pause(String worlds);
+    void resume(String worlds);
+    void start(String worlds, String options);
+}
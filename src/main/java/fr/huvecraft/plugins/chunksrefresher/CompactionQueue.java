@@ -0,0 +1,206 @@
+/* CompactionQueue.java
+ * Classe de la file des régions à compacter du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCompactor;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionPruner;
+import fr.huvecraft.plugins.chunksrefresher.util.SafeLogger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Définition de la classe.
+
+final class CompactionQueue
+{
+    /* File des régions raffraichies à compacter, tenue dans un fichier chkref.compact du dossier des régions (un nom de
+     * fichier de région par ligne, suivi le cas échéant du masque des chunks jamais habités à en retirer). Le serveur
+     * gardant ouverts les fichiers des régions d'un monde chargé, le compactage n'a lieu qu'au démarrage suivant, lors
+     * du chargement du plugin, avant celui des mondes : les fichiers en file de tous les mondes sont alors élagués puis
+     * compactés en parallèle dans le pool fork-join commun. Les chunks retirés sont sauvegardés dans le dossier
+     * chkref-pruned du dossier des régions. */
+
+    // Constantes.
+
+    public static final String BACKUP_FOLDER   = "chkref-pruned";                             // Dossier de sauvegarde des chunks retirés, dans le dossier des régions.
+    public static final String FILE_NAME       = "chkref.compact";                            // Nom du fichier, dans le dossier des régions.
+    private static final String[] REGION_PATHS = { "region", "DIM-1/region", "DIM1/region" }; // Dossiers des régions d'un monde, selon sa dimension.
+
+    // Constructeurs.
+
+    private CompactionQueue()
+    {
+        /* Classe utilitaire, non instanciable. */
+    }
+
+    // Méthodes publiques statiques.
+
+    public static void add(File regionFolder, int xRegion, int zRegion) throws IOException
+    {
+        /* Ajoute une région à la file de son dossier.
+         * Retour : aucun.
+         * Paramètres : -regionFolder     : dossier des régions.
+         *              -xRegion, zRegion : coordonnées de la région. */
+
+        add(regionFolder, xRegion, zRegion, null);
+    }
+
+    public static synchronized void add(File regionFolder, int xRegion, int zRegion, ChunkMask pruneMask) throws IOException
+    {
+        /* Ajoute une région à la file de son dossier, avec des chunks jamais habités à retirer. Appelable depuis
+         * n'importe quel thread.
+         * Retour : aucun.
+         * Paramètres : -regionFolder     : dossier des régions.
+         *              -xRegion, zRegion : coordonnées de la région.
+         *              -pruneMask        : chunks à retirer, s'ils n'ont toujours pas été habités, null pour aucun. */
+
+        StringBuilder line = new StringBuilder(RegionCoordinates.toFilename(RegionCoordinates.pack(xRegion, zRegion), RegionSource.REGION_EXTENSION)); // Ligne ajoutée.
+
+        if(pruneMask instanceof ChunkMask)
+        {
+            for(long word : pruneMask.toWords())
+                line.append(line.indexOf(" ") < 0 ? ' ' : ',').append(Long.toHexString(word));
+        }
+
+        line.append('\n');
+
+        Files.write(new File(regionFolder, FILE_NAME).toPath(), line.toString().getBytes(StandardCharsets.US_ASCII), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    public static void compactPending(File worldContainer, SafeLogger safeLogger)
+    {
+        /* Compacte les régions en file de tous les mondes, puis vide les files. A appeler avant le chargement des mondes.
+         * Retour : aucun.
+         * Paramètres : -worldContainer : dossier contenant les mondes.
+         *              -safeLogger     : loggueur thread-safe. */
+
+        ArrayList<File> queueFiles                 = new ArrayList<File>();                // Fichiers des files trouvées.
+        LinkedHashMap<File, ChunkMask> regionFiles = new LinkedHashMap<File, ChunkMask>(); // Fichiers de régions à compacter, et chunks à en retirer.
+        LongAdder prunedChunks                     = new LongAdder();                      // Chunks retirés.
+        File[] worldFolders                        = null;                                 // Dossiers des mondes.
+        long startTime                             = System.nanoTime();                    // Début du compactage.
+        long reclaimedBytes                        = 0L;                                   // Octets récupérés.
+
+        if(!((worldFolders = worldContainer.listFiles(File::isDirectory)) instanceof File[]))
+            return;
+
+        // Relève les régions en file.
+
+        for(File worldFolder : worldFolders)
+        {
+            for(String regionPath : REGION_PATHS)
+            {
+                File regionFolder = new File(worldFolder, regionPath); // Dossier des régions.
+                File queueFile    = new File(regionFolder, FILE_NAME); // File du dossier.
+
+                if(!(queueFile.isFile()))
+                    continue;
+
+                try
+                {
+                    for(String line : Files.readAllLines(queueFile.toPath(), StandardCharsets.US_ASCII))
+                    {
+                        String[] lineParts = line.trim().split(" ");               // Nom du fichier, et masque éventuel.
+                        File regionFile    = new File(regionFolder, lineParts[0]); // Fichier de région.
+
+                        if(!RegionCoordinates.isRegionFilename(regionFile.getName(), RegionSource.REGION_EXTENSION) || !regionFile.isFile())
+                            continue;
+
+                        regionFiles.computeIfAbsent(regionFile, file -> new ChunkMask());
+
+                        if(lineParts.length > 1)
+                            regionFiles.get(regionFile).or(parseMask(lineParts[1]));
+                    }
+
+                    queueFiles.add(queueFile);
+                }
+
+                catch(IOException error)
+                {
+                    safeLogger.logWarning("Cannot read region compaction queue \"" + queueFile + "\": " + error.getMessage());
+                }
+            }
+        }
+
+        if(queueFiles.isEmpty())
+            return;
+
+        // Compacte les régions, en parallèle.
+
+        safeLogger.logInfo("Compacting " + regionFiles.size() + " region files refreshed before last server stop...");
+
+        reclaimedBytes = regionFiles.entrySet().parallelStream().mapToLong(regionEntry ->
+        {
+            File regionFile = regionEntry.getKey(); // Fichier de région.
+
+            try
+            {
+                if(!regionEntry.getValue().isEmpty())
+                    prunedChunks.add(RegionPruner.prune(regionFile, regionEntry.getValue(), new File(new File(regionFile.getParentFile(), BACKUP_FOLDER), regionFile.getName())));
+
+                return RegionCompactor.compact(regionFile);
+            }
+
+            catch(IOException error)
+            {
+                safeLogger.logWarning("Region file \"" + regionFile + "\" not compacted: " + error.getMessage());
+
+                return 0L;
+            }
+        }).sum();
+
+        if(prunedChunks.sum() > 0L)
+            safeLogger.logInfo(prunedChunks.sum() + " never inhabited chunks removed, backed up in the " + BACKUP_FOLDER + " folder of their region folder.");
+
+        safeLogger.logInfo(regionFiles.size() + " region files compacted in " + ((System.nanoTime() - startTime) / 1000000L) + " ms, " + (reclaimedBytes / 1048576L) + " MiB reclaimed.");
+
+        // Vide les files : une région en échec ne serait pas mieux traitée au prochain démarrage.
+
+        for(File queueFile : queueFiles)
+        {
+            if(!(queueFile.delete()))
+                safeLogger.logWarning("Region compaction queue \"" + queueFile + "\" cannot be deleted, you should delete it by yourself.");
+        }
+    }
+
+    // Méthodes privées statiques.
+
+    private static ChunkMask parseMask(String maskText)
+    {
+        /* Lit un masque de chunks écrit dans une file.
+         * Retour : masque lu, vide s'il est illisible.
+         * Paramètres : mots du masque, en hexadécimal, séparés par des virgules. */
+
+        String[] wordParts = maskText.split(",");                         // Mots bruts.
+        long[] words       = new long[ChunkMask.CHUNKS_PER_REGION / 64]; // Mots lus.
+
+        if(wordParts.length != words.length)
+            return new ChunkMask();
+
+        try
+        {
+            for(int wordIndex = 0; wordIndex < words.length; wordIndex++)
+                words[wordIndex] = Long.parseUnsignedLong(wordParts[wordIndex], 16);
+        }
+
+        catch(NumberFormatException exception)
+        {
+            return new ChunkMask();
+        }
+
+        return ChunkMask.fromWords(words);
+    }
+}
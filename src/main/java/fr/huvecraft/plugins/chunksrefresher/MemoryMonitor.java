@@ -0,0 +1,171 @@
+/* MemoryMonitor.java
+ * Classe de surveillance de la mémoire du serveur du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+
+// Définition de la classe.
+
+final class MemoryMonitor
+{
+    /* Classe détectant la saturation de la mémoire du serveur d'après l'occupation des zones mémoire de longue durée
+     * (old gen) mesurée après le passage du ramasse-miettes : seuil de "collection usage" de la JVM, indépendant de la
+     * taille du tas et du ramasse-miettes utilisé. La saturation prend fin, avec hystérésis, quand l'occupation après
+     * le passage suivant redescend sous un seuil de reprise. Aucun passage du ramasse-miettes n'est jamais forcé.
+     * Les seuils étant communs à toute la JVM, ceux en place avant l'installation sont rétablis à la fermeture. */
+
+    // Constantes.
+
+    private static final double PRESSURE_RATIO = 0.85D; // Occupation après passage du ramasse-miettes déclenchant la saturation.
+    private static final double RECOVERY_RATIO = 0.70D; // Occupation après passage du ramasse-miettes mettant fin à la saturation.
+
+    // Membres.
+
+    private ArrayList<Long> previousThresholds;         // Seuils en place avant l'installation, par zone surveillée.
+    private ArrayList<MemoryPoolMXBean> monitoredPools; // Zones mémoire surveillées.
+    private boolean underPressure;                      // Saturation en cours ?
+
+    // Constructeurs.
+
+    public MemoryMonitor()
+    {
+        /* Constructeur par défaut, installant les seuils sur les zones mémoire qui le permettent. */
+
+        this.previousThresholds = new ArrayList<Long>();
+        this.monitoredPools     = new ArrayList<MemoryPoolMXBean>();
+        this.underPressure      = false;
+
+        for(MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            long maxSize = getMaxSize(memoryPool); // Taille maximale de la zone.
+
+            // Seules les zones du tas pour lesquelles la JVM mesure l'occupation après passage du ramasse-miettes sont
+            // concernées. Les zones de jeunes objets (eden, survivor), vidées à chaque passage, ne dépassent jamais le seuil.
+
+            if((memoryPool.getType() != MemoryType.HEAP) || !memoryPool.isCollectionUsageThresholdSupported() || (maxSize <= 0L))
+                continue;
+
+            try
+            {
+                long previousThreshold = memoryPool.getCollectionUsageThreshold(); // Seuil en place.
+
+                memoryPool.setCollectionUsageThreshold((long)(maxSize * PRESSURE_RATIO));
+
+                previousThresholds.add(previousThreshold);
+                monitoredPools.add(memoryPool);
+            }
+
+            catch(IllegalArgumentException|SecurityException|UnsupportedOperationException exception)
+            {
+                // Zone non surveillée.
+            }
+        }
+    }
+
+    // Méthodes publiques de classe.
+
+    public synchronized void close()
+    {
+        /* Rétablit les seuils en place avant l'installation, lors de la désactivation du plugin. La saturation n'est
+         * ensuite plus détectée que d'après l'occupation du tas.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        for(int poolIndex = 0; poolIndex < monitoredPools.size(); poolIndex++)
+        {
+            try
+            {
+                monitoredPools.get(poolIndex).setCollectionUsageThreshold(previousThresholds.get(poolIndex));
+            }
+
+            catch(IllegalArgumentException|SecurityException|UnsupportedOperationException exception)
+            {
+                // Seuil laissé en place.
+            }
+        }
+
+        monitoredPools.clear();
+        previousThresholds.clear();
+
+        underPressure = false;
+    }
+
+    public synchronized boolean isUnderPressure()
+    {
+        /* Indique si la mémoire du serveur est saturée.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        if(monitoredPools.isEmpty())
+            return isHeapNearlyFull();
+
+        if(!underPressure)
+        {
+            for(MemoryPoolMXBean memoryPool : monitoredPools)
+            {
+                if(memoryPool.isCollectionUsageThresholdExceeded())
+                {
+                    underPressure = true;
+
+                    break;
+                }
+            }
+        }
+
+        else
+        {
+            underPressure = false;
+
+            for(MemoryPoolMXBean memoryPool : monitoredPools)
+            {
+                MemoryUsage collectionUsage = memoryPool.getCollectionUsage(); // Occupation après le dernier passage.
+
+                if((collectionUsage instanceof MemoryUsage) && (collectionUsage.getUsed() >= (long)(getMaxSize(memoryPool) * RECOVERY_RATIO)))
+                {
+                    underPressure = true;
+
+                    break;
+                }
+            }
+        }
+
+        return underPressure;
+    }
+
+    // Méthodes privées statiques.
+
+    private static long getMaxSize(MemoryPoolMXBean memoryPool)
+    {
+        /* Retourne la taille maximale d'une zone mémoire, ou sa taille réservée si elle n'a pas de maximum.
+         * Retour : taille en octets, 0 si inconnue.
+         * Paramètres : zone en question. */
+
+        MemoryUsage usage = memoryPool.getUsage(); // Occupation courante.
+
+        if(!(usage instanceof MemoryUsage))
+            return 0L;
+
+        return (usage.getMax() > 0L) ? usage.getMax() : usage.getCommitted();
+    }
+
+    private static boolean isHeapNearlyFull()
+    {
+        /* Indique, à défaut de zone surveillée, si le tas est presque plein en tenant compte de sa partie non réservée.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        Runtime runtime = Runtime.getRuntime(); // Environnement d'exécution.
+
+        return (runtime.totalMemory() - runtime.freeMemory()) >= (long)(runtime.maxMemory() * PRESSURE_RATIO);
+    }
+}
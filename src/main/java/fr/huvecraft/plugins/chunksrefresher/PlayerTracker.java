@@ -0,0 +1,175 @@
+/* PlayerTracker.java
+ * Classe de suivi des joueurs connectés du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+// Définition de la classe.
+
+final class PlayerTracker extends BukkitRunnable
+{
+    /* Tâche synchrone relevant périodiquement la position des joueurs d'un monde, et leur vitesse d'après la position
+     * précédente, en mode serveur ouvert : une région proche d'un joueur, ou sur le chemin qu'il suit, ne doit pas
+     * être raffraichie maintenant. Le dernier relevé est lisible depuis n'importe quel thread. */
+
+    // Constantes.
+
+    public static final long PERIOD_TICKS  = 20L;    // Intervalle entre deux relevés, en ticks (1 seconde).
+    private static final double LOOKAHEAD  = 30.0D;  // Durée sur laquelle la trajectoire des joueurs est prolongée, en secondes.
+    private static final double MAX_SPEED  = 100.0D; // Vitesse au-delà de laquelle un déplacement est une téléportation, en blocs par seconde.
+    private static final double MIN_STEP   = 32.0D;  // Pas minimal du parcours d'une trajectoire, en blocs.
+    private static final int REGION_BLOCKS = 512;    // Côté d'une région, en blocs.
+    private static final int SAMPLE_FIELDS = 4;      // Valeurs par joueur dans un relevé : X, Z, vitesses en X et en Z.
+
+    // Membres.
+
+    private HashMap<UUID, double[]> lastPositions; // Positions du relevé précédent, par joueur.
+    private World world;                           // Monde concerné.
+    private long lastSampleTime;                   // Timestamp du relevé précédent, 0 avant le premier.
+    private volatile boolean closed;               // Tâche terminée : s'arrêter ?
+    private volatile double[] samples;             // Dernier relevé, jamais modifié une fois publié.
+
+    // Constructeurs.
+
+    public PlayerTracker(World world) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. */
+
+        // Contrôle.
+
+        if(!(world instanceof World))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.lastPositions  = new HashMap<UUID, double[]>();
+        this.world          = world;
+        this.lastSampleTime = 0L;
+        this.closed         = false;
+        this.samples        = new double[0];
+    }
+
+    // Méthodes publiques de classe.
+
+    public void close()
+    {
+        /* Arrête les relevés, au prochain d'entre eux. Appelable depuis n'importe quel thread.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        closed = true;
+    }
+
+    public boolean isRegionNear(int xRegion, int zRegion, int distance)
+    {
+        /* Indique si un joueur est à proximité d'une région, ou s'en approchera d'ici peu au rythme de son dernier
+         * déplacement.
+         * Retour : oui ou non.
+         * Paramètres : -xRegion  : X de la région.
+         *              -zRegion  : Z de la région.
+         *              -distance : distance minimale à respecter, en blocs. */
+
+        double[] currentSamples = samples;                         // Relevé lu.
+        double minX             = (double)xRegion * REGION_BLOCKS; // Limites de la région, en blocs.
+        double minZ             = (double)zRegion * REGION_BLOCKS;
+        double maxX             = minX + REGION_BLOCKS;
+        double maxZ             = minZ + REGION_BLOCKS;
+        double step             = Math.max(MIN_STEP, distance);    // Pas du parcours des trajectoires.
+
+        for(int sampleIndex = 0; sampleIndex < currentSamples.length; sampleIndex += SAMPLE_FIELDS)
+        {
+            double x     = currentSamples[sampleIndex];                     // Position du joueur.
+            double z     = currentSamples[sampleIndex + 1];
+            double xMove = currentSamples[sampleIndex + 2] * LOOKAHEAD;     // Déplacement prévu.
+            double zMove = currentSamples[sampleIndex + 3] * LOOKAHEAD;
+            int nSteps   = (int)Math.ceil(Math.hypot(xMove, zMove) / step); // Nombre de pas du parcours.
+
+            // Parcourt la trajectoire prévue, position actuelle comprise.
+
+            for(int stepIndex = 0; stepIndex <= nSteps; stepIndex++)
+            {
+                double progress = (nSteps == 0) ? 0.0D : ((double)stepIndex / nSteps);    // Avancement sur la trajectoire.
+                double xPoint   = x + (xMove * progress);                                 // Point de la trajectoire.
+                double zPoint   = z + (zMove * progress);
+                double xGap     = Math.max(0.0D, Math.max(minX - xPoint, xPoint - maxX)); // Ecarts à la région.
+                double zGap     = Math.max(0.0D, Math.max(minZ - zPoint, zPoint - maxZ));
+
+                if(((xGap * xGap) + (zGap * zGap)) <= ((double)distance * distance))
+                    return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void run()
+    {
+        /* Fonction appellée périodiquement par Bukkit : relève la position et la vitesse des joueurs du monde.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        HashMap<UUID, double[]> positions = new HashMap<UUID, double[]>(); // Positions de ce relevé.
+        List<Player> players              = null;                          // Joueurs du monde.
+        double[] newSamples               = null;                          // Relevé à publier.
+        double elapsedSeconds             = 0.0D;                          // Temps écoulé depuis le relevé précédent.
+        long now                          = System.nanoTime();             // Timestamp du relevé.
+        int sampleIndex                   = 0;                             // Prochain emplacement du relevé.
+
+        if(closed)
+        {
+            cancel();
+
+            return;
+        }
+
+        if(!((players = world.getPlayers()) instanceof List))
+            return;
+
+        newSamples     = new double[players.size() * SAMPLE_FIELDS];
+        elapsedSeconds = (lastSampleTime == 0L) ? 0.0D : ((now - lastSampleTime) / 1000000000.0D);
+
+        for(Player currentPlayer : players)
+        {
+            Location location = currentPlayer.getLocation();                    // Position du joueur.
+            double[] previous = lastPositions.get(currentPlayer.getUniqueId()); // Position précédente, null si inconnue.
+            double xSpeed     = 0.0D;                                           // Vitesse du joueur, en blocs par seconde.
+            double zSpeed     = 0.0D;
+
+            if((previous instanceof double[]) && (elapsedSeconds > 0.0D))
+            {
+                xSpeed = (location.getX() - previous[0]) / elapsedSeconds;
+                zSpeed = (location.getZ() - previous[1]) / elapsedSeconds;
+
+                if(Math.hypot(xSpeed, zSpeed) > MAX_SPEED) // Téléportation : pas de trajectoire à prolonger.
+                {
+                    xSpeed = 0.0D;
+                    zSpeed = 0.0D;
+                }
+            }
+
+            positions.put(currentPlayer.getUniqueId(), new double[] { location.getX(), location.getZ() });
+
+            newSamples[sampleIndex++] = location.getX();
+            newSamples[sampleIndex++] = location.getZ();
+            newSamples[sampleIndex++] = xSpeed;
+            newSamples[sampleIndex++] = zSpeed;
+        }
+
+        lastPositions  = positions; // Les joueurs partis sont oubliés.
+        lastSampleTime = now;
+        samples        = newSamples;
+    }
+}
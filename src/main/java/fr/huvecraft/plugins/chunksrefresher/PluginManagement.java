@@ -0,0 +1,238 @@
+/* PluginManagement.java
+ * Classe JMX du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.util.SafeLogger;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Définition de la classe.
+
+final class PluginManagement implements ChunksRefresherMXBean
+{
+    /* Implémentation de l'interface JMX du plugin, et enregistrement des interfaces JMX du plugin et de ses tâches
+     * auprès du serveur MBean de la plateforme. */
+
+    // Constantes.
+
+    private static final String DOMAIN = "fr.huvecraft.chunksrefresher"; // Domaine des noms JMX.
+
+    // Membres.
+
+    private ChunksRefresher chunkRefresherPlugin; // Instance du plugin hôte.
+    private MBeanServer mbeanServer;              // Serveur MBean de la plateforme.
+    private SafeLogger safeLogger;                // Loggueur thread-safe.
+
+    // Constructeurs.
+
+    public PluginManagement(ChunksRefresher chunkRefresherPlugin, SafeLogger safeLogger) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. */
+
+        // Contrôle.
+
+        if((!(chunkRefresherPlugin instanceof ChunksRefresher)) || (!(safeLogger instanceof SafeLogger)))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.chunkRefresherPlugin = chunkRefresherPlugin;
+        this.mbeanServer          = ManagementFactory.getPlatformMBeanServer();
+        this.safeLogger           = safeLogger;
+    }
+
+    // Méthodes publiques de classe.
+
+    @Override
+    public void cancel(String worlds)
+    {
+        chunkRefresherPlugin.runManagementCommand(worlds, "cancel");
+    }
+
+    @Override
+    public void generate(String worlds, String options)
+    {
+        runCreateCommand(worlds, "generate", options);
+    }
+
+    @Override
+    public int getMaxConcurrentTasks()
+    {
+        return chunkRefresherPlugin.getRefreshCoordinator().getMaxConcurrentTasks();
+    }
+
+    @Override
+    public String[] getQueuedWorlds()
+    {
+        return chunkRefresherPlugin.getRefreshCoordinator().getQueuedWorldNames();
+    }
+
+    @Override
+    public String[] getRunningWorlds()
+    {
+        return chunkRefresherPlugin.getRunningWorldNames();
+    }
+
+    @Override
+    public int getTickBudgetMillis()
+    {
+        return chunkRefresherPlugin.getRefreshCoordinator().getTickBudgetMillis();
+    }
+
+    @Override
+    public boolean isMemoryLow()
+    {
+        return chunkRefresherPlugin.getRefreshCoordinator().isMemoryLow();
+    }
+
+    @Override
+    public void pause(String worlds)
+    {
+        chunkRefresherPlugin.runManagementCommand(worlds, "pause");
+    }
+
+    public void register()
+    {
+        /* Enregistre l'interface JMX du plugin.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        registerBean(this, "type=Plugin");
+    }
+
+    public void registerTask(AsyncChunksRefresher achunksRefresher)
+    {
+        /* Enregistre l'interface JMX d'une tâche.
+         * Retour : aucun.
+         * Paramètres : tâche en question. */
+
+        registerBean(new RefreshTaskManagement(chunkRefresherPlugin, achunksRefresher), getTaskKeys(achunksRefresher.getWorld().getName()));
+    }
+
+    @Override
+    public void resume(String worlds)
+    {
+        chunkRefresherPlugin.runManagementCommand(worlds, "resume");
+    }
+
+    @Override
+    public void setMaxConcurrentTasks(int maxConcurrentTasks)
+    {
+        chunkRefresherPlugin.getRefreshCoordinator().setMaxConcurrentTasks(maxConcurrentTasks);
+    }
+
+    @Override
+    public void setTickBudgetMillis(int tickBudgetMillis)
+    {
+        chunkRefresherPlugin.getRefreshCoordinator().setTickBudgetMillis(tickBudgetMillis);
+    }
+
+    @Override
+    public void start(String worlds, String options)
+    {
+        runCreateCommand(worlds, "create", options);
+    }
+
+    public void unregister()
+    {
+        /* Retire l'interface JMX du plugin.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        unregisterBean("type=Plugin");
+    }
+
+    public void unregisterTask(String worldName)
+    {
+        /* Retire l'interface JMX d'une tâche.
+         * Retour : aucun.
+         * Paramètres : nom du monde de la tâche. */
+
+        unregisterBean(getTaskKeys(worldName));
+    }
+
+    // Méthodes privées statiques.
+
+    private static String getTaskKeys(String worldName)
+    {
+        /* Retourne les propriétés du nom JMX d'une tâche.
+         * Retour : propriétés en question.
+         * Paramètres : nom du monde de la tâche. */
+
+        return "type=RefreshTask,world=" + ObjectName.quote(worldName);
+    }
+
+    // Méthodes privées de classe.
+
+    private void registerBean(Object bean, String keys)
+    {
+        /* Enregistre une interface JMX, en remplaçant celle portant déjà ce nom.
+         * Retour : aucun.
+         * Paramètres : -bean : interface en question.
+         *              -keys : propriétés de son nom. */
+
+        try
+        {
+            ObjectName objectName = new ObjectName(DOMAIN + ":" + keys); // Nom JMX.
+
+            if(mbeanServer.isRegistered(objectName))
+                mbeanServer.unregisterMBean(objectName);
+
+            mbeanServer.registerMBean(bean, objectName);
+        }
+
+        catch(JMException|SecurityException error)
+        {
+            safeLogger.logWarning("Cannot register JMX bean " + keys + ": " + error.getMessage());
+        }
+    }
+
+    private void runCreateCommand(String worlds, String operation, String options)
+    {
+        /* Exécute une commande de création de tâches, avec ses options éventuelles séparées par des espaces.
+         * Retour : aucun.
+         * Paramètres : -worlds    : liste des mondes, comme pour la commande.
+         *              -operation : opération de création (create ou generate).
+         *              -options   : options de la commande, null ou vide pour aucune. */
+
+        ArrayList<String> args = new ArrayList<String>(); // Arguments de la commande équivalente.
+
+        args.add(worlds);
+        args.add(operation);
+
+        if((options instanceof String) && !options.trim().isEmpty())
+            args.addAll(Arrays.asList(options.trim().split("\\s+")));
+
+        chunkRefresherPlugin.runManagementCommand(args.toArray(new String[0]));
+    }
+
+    private void unregisterBean(String keys)
+    {
+        /* Retire une interface JMX, si elle est enregistrée.
+         * Retour : aucun.
+         * Paramètres : propriétés de son nom. */
+
+        try
+        {
+            ObjectName objectName = new ObjectName(DOMAIN + ":" + keys); // Nom JMX.
+
+            if(mbeanServer.isRegistered(objectName))
+                mbeanServer.unregisterMBean(objectName);
+        }
+
+        catch(JMException|SecurityException error)
+        {
+            safeLogger.logWarning("Cannot unregister JMX bean " + keys + ": " + error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/* ProgressJournal.java
+ * Classe du journal de progression d'une tâche de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+// Définition de la classe.
+
+final class ProgressJournal
+{
+    /* Journal de progression d'un monde, projeté en mémoire : un bit par chunk raffraichi, regroupés par région.
+     * Format : en-tête (signature sur 8 octets, version et nombre de régions sur 4 octets chacun),
+     *          puis pour chaque région : coordonnées regroupées (8 octets), indicateurs (4 octets), réservé (4 octets),
+     *          masque des chunks raffraichis (128 octets). */
+
+    // Constantes.
+
+    public static final String FILE_NAME            = "chkref.journal";     // Nom du fichier, dans le dossier des régions.
+    private static final int ENTRIES_PER_EXTENT     = 1024;                 // Nombre de régions ajoutées à chaque agrandissement.
+    private static final int ENTRY_SIZE             = 144;                  // Taille d'une région dans le journal.
+    private static final int FLAG_REGION_DONE       = 1;                    // Indicateur de région totalement raffraichie.
+    private static final int HEADER_SIZE            = 16;                   // Taille de l'en-tête.
+    private static final int VERSION                = 1;                    // Version du format.
+    private static final long COMMIT_INTERVAL_NANOS = 1000000000L;          // Intervalle minimal entre deux écritures sur disque.
+    private static final long SIGNATURE             = 0x43484B5245464A4EL; // "CHKREFJN".
+
+    // Membres.
+
+    private boolean dirty;                  // Modifications non écrites sur disque ?
+    private File journalFile;               // Fichier du journal.
+    private FileChannel channel;            // Canal d'accès au fichier.
+    private HashMap<Long, Integer> entries; // Index des régions dans le journal, par coordonnées regroupées.
+    private int capacity;                   // Nombre de régions que peut contenir la projection actuelle.
+    private int nEntries;                   // Nombre de régions journalisées, emplacements en double compris.
+    private long lastCommitTime;            // Timestamp de la dernière écriture sur disque.
+    private MappedByteBuffer mapping;       // Projection du fichier.
+
+    // Constructeurs.
+
+    private ProgressJournal(File journalFile) throws IOException
+    {
+        /* Constructeur par défaut, ouvrant ou créant le journal. */
+
+        // Affectation.
+
+        this.dirty          = false;
+        this.journalFile    = journalFile;
+        this.channel        = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.entries        = new HashMap<Long, Integer>();
+        this.capacity       = 0;
+        this.nEntries       = 0;
+        this.lastCommitTime = System.nanoTime();
+        this.mapping        = null;
+
+        // Lit l'en-tête d'un journal existant, ou en écrit un nouveau.
+
+        if(channel.size() >= HEADER_SIZE)
+        {
+            map((int)Math.max(ENTRIES_PER_EXTENT, (channel.size() - HEADER_SIZE) / ENTRY_SIZE));
+
+            if((mapping.getLong(0) != SIGNATURE) || (mapping.getInt(8) != VERSION) || (mapping.getInt(12) < 0) || (mapping.getInt(12) > capacity))
+            {
+                channel.close();
+
+                throw new IOException("Invalid progress journal \"" + journalFile.getName() + "\".");
+            }
+
+            nEntries = mapping.getInt(12);
+
+            // Une écriture interrompue peut laisser des emplacements comptés mais vides : la première région de
+            // coordonnées données l'emporte.
+
+            for(int entryIndex = 0; entryIndex < nEntries; entryIndex++)
+                entries.putIfAbsent(mapping.getLong(HEADER_SIZE + (entryIndex * ENTRY_SIZE)), entryIndex);
+        }
+
+        else
+        {
+            map(ENTRIES_PER_EXTENT);
+
+            mapping.putLong(0, SIGNATURE);
+            mapping.putInt(8, VERSION);
+            mapping.putInt(12, 0);
+
+            dirty = true;
+        }
+    }
+
+    // Méthodes publiques statiques.
+
+    public static ProgressJournal open(File worldRegionFolder) throws IOException
+    {
+        /* Ouvre le journal d'un monde, en le créant si nécessaire.
+         * Retour : journal en question.
+         * Paramètres : dossier des régions du monde. */
+
+        if(!(worldRegionFolder instanceof File))
+            throw new IllegalArgumentException();
+
+        return new ProgressJournal(new File(worldRegionFolder, FILE_NAME));
+    }
+
+    // Méthodes publiques de classe.
+
+    public void close() throws IOException
+    {
+        /* Ecrit les modifications en attente et ferme le journal.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        if(channel.isOpen())
+        {
+            flush();
+
+            channel.close();
+        }
+    }
+
+    public void commit()
+    {
+        /* Ecrit les modifications en attente sur disque, au plus une fois par intervalle : les lots raffraichis
+         * entre deux écritures sont ainsi validés ensemble.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        if(dirty && ((System.nanoTime() - lastCommitTime) >= COMMIT_INTERVAL_NANOS))
+            flush();
+    }
+
+    public boolean delete() throws IOException
+    {
+        /* Ferme et supprime le journal.
+         * Retour : succès de la suppression.
+         * Paramètres : aucun. */
+
+        channel.close();
+
+        mapping = null;
+
+        return journalFile.delete();
+    }
+
+    public void flush()
+    {
+        /* Ecrit immédiatement les modifications en attente sur disque.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        if(dirty)
+        {
+            mapping.force();
+
+            dirty          = false;
+            lastCommitTime = System.nanoTime();
+        }
+    }
+
+    public ChunkMask getRefreshedMask(int xRegion, int zRegion)
+    {
+        /* Retourne le masque des chunks déjà raffraichis d'une région.
+         * Retour : masque en question, vide si la région n'est pas journalisée.
+         * Paramètres : coordonnées X et Z de la région. */
+
+        Integer entryIndex = entries.get(RegionCoordinates.pack(xRegion, zRegion)); // Index de la région.
+        long[] words       = new long[ChunkMask.CHUNKS_PER_REGION / 64];           // Mots du masque.
+        int bitmapOffset   = 0;                                                     // Position du masque dans le fichier.
+
+        if(entryIndex == null)
+            return new ChunkMask();
+
+        bitmapOffset = HEADER_SIZE + (entryIndex * ENTRY_SIZE) + 16;
+
+        for(int wordIndex = 0; wordIndex < words.length; wordIndex++)
+            words[wordIndex] = mapping.getLong(bitmapOffset + (wordIndex * 8));
+
+        return ChunkMask.fromWords(words);
+    }
+
+    public boolean isDirty()
+    {
+        /* Indique si des modifications attendent leur écriture sur disque.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return dirty;
+    }
+
+    public boolean isRegionRefreshed(int xRegion, int zRegion)
+    {
+        /* Indique si une région a été totalement raffraichie.
+         * Retour : oui ou non.
+         * Paramètres : coordonnées X et Z de la région. */
+
+        Integer entryIndex = entries.get(RegionCoordinates.pack(xRegion, zRegion)); // Index de la région.
+
+        if(entryIndex == null)
+            return false;
+
+        return (mapping.getInt(HEADER_SIZE + (entryIndex * ENTRY_SIZE) + 8) & FLAG_REGION_DONE) != 0;
+    }
+
+    public void markChunksRefreshed(int xRegion, int zRegion, ChunkMask refreshedChunks) throws IOException
+    {
+        /* Ajoute des chunks raffraichis à une région.
+         * Retour : aucun.
+         * Paramètres : -xRegion, zRegion : coordonnées de la région.
+         *              -refreshedChunks  : chunks raffraichis. */
+
+        int bitmapOffset = 0;                         // Position du masque dans le fichier.
+        long[] words     = refreshedChunks.toWords(); // Mots du masque.
+
+        if(refreshedChunks.isEmpty())
+            return;
+
+        bitmapOffset = HEADER_SIZE + (getOrCreateEntry(xRegion, zRegion) * ENTRY_SIZE) + 16;
+
+        for(int wordIndex = 0; wordIndex < words.length; wordIndex++)
+            mapping.putLong(bitmapOffset + (wordIndex * 8), mapping.getLong(bitmapOffset + (wordIndex * 8)) | words[wordIndex]);
+
+        dirty = true;
+    }
+
+    public void markRegionRefreshed(int xRegion, int zRegion) throws IOException
+    {
+        /* Marque une région comme totalement raffraichie.
+         * Retour : aucun.
+         * Paramètres : coordonnées X et Z de la région. */
+
+        int flagsOffset = HEADER_SIZE + (getOrCreateEntry(xRegion, zRegion) * ENTRY_SIZE) + 8; // Position des indicateurs.
+
+        mapping.putInt(flagsOffset, mapping.getInt(flagsOffset) | FLAG_REGION_DONE);
+
+        dirty = true;
+    }
+
+    // Méthodes privées de classe.
+
+    private int getOrCreateEntry(int xRegion, int zRegion) throws IOException
+    {
+        /* Retourne l'index d'une région dans le journal, en l'y ajoutant si nécessaire.
+         * Retour : index en question.
+         * Paramètres : coordonnées X et Z de la région. */
+
+        long packedCoordinates = RegionCoordinates.pack(xRegion, zRegion); // Clé de la région.
+        Integer entryIndex     = entries.get(packedCoordinates);            // Index de la région.
+
+        if(entryIndex == null)
+        {
+            entryIndex = nEntries;
+
+            // Agrandit la projection si elle est pleine.
+
+            if(entryIndex >= capacity)
+            {
+                flush();
+                map(capacity + ENTRIES_PER_EXTENT);
+            }
+
+            // Ajoute la région, indicateurs et masque vidés : l'emplacement peut garder une région écrite sur disque
+            // sans le nombre de régions de l'en-tête.
+
+            mapping.putLong(HEADER_SIZE + (entryIndex * ENTRY_SIZE), packedCoordinates);
+
+            for(int byteOffset = 8; byteOffset < ENTRY_SIZE; byteOffset += 8)
+                mapping.putLong(HEADER_SIZE + (entryIndex * ENTRY_SIZE) + byteOffset, 0L);
+
+            mapping.putInt(12, ++nEntries);
+
+            entries.put(packedCoordinates, entryIndex);
+
+            dirty = true;
+        }
+
+        return entryIndex;
+    }
+
+    private void map(int nEntries) throws IOException
+    {
+        /* Projette le fichier en mémoire, en l'agrandissant si nécessaire.
+         * Retour : aucun.
+         * Paramètres : nombre de régions que doit pouvoir contenir la projection. */
+
+        mapping  = channel.map(FileChannel.MapMode.READ_WRITE, 0L, HEADER_SIZE + ((long)nEntries * ENTRY_SIZE));
+        capacity = nEntries;
+    }
+}
@@ -0,0 +1,41 @@
+/* PruneMode.java
+ * Enumération des modes d'élagage des chunks jamais habités du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Définition de l'énumération.
+
+enum PruneMode
+{
+    /* Traitement des chunks qu'aucun joueur n'a jamais habités (InhabitedTime nul), relevés lors de la pré-analyse
+     * des fichiers de régions. */
+
+    DRYRUN, // Relevés et comptés, mais raffraichis comme les autres.
+    SKIP,   // Ecartés du raffraichissement.
+    REMOVE; // Ecartés du raffraichissement, puis retirés des fichiers de régions au prochain démarrage du serveur.
+
+    // Méthodes publiques statiques.
+
+    public static PruneMode parse(String name) throws IllegalArgumentException
+    {
+        /* Retourne le mode correspondant à un nom, insensible à la casse.
+         * Retour : mode en question.
+         * Paramètres : nom du mode. */
+
+        return valueOf(name.toUpperCase());
+    }
+
+    // Méthodes publiques.
+
+    public boolean isExcluding()
+    {
+        /* Indique si les chunks relevés sont écartés du raffraichissement.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return this != DRYRUN;
+    }
+}
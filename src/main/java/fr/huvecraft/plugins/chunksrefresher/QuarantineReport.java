@@ -0,0 +1,148 @@
+/* QuarantineReport.java
+ * Classe du rapport des chunks mis en quarantaine du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Définition de la classe.
+
+final class QuarantineReport
+{
+    /* Rapport des chunks écartés du raffraichissement par le contrôle des fichiers de régions, tenu dans un fichier
+     * chkref.quarantine du dossier des régions : une ligne par chunk (fichier, coordonnées du chunk, défaut), ou par
+     * région entière dont l'en-tête est illisible (fichier, défaut), à la suite d'une ligne d'en-tête par tâche. Le fichier n'est créé qu'au premier chunk écarté, et n'est jamais vidé
+     * par le plugin : il reste à examiner, les chunks listés pouvant être réparés ou supprimés avec les outils
+     * d'édition de régions. Complété depuis les threads du pool fork-join. */
+
+    // Constantes.
+
+    public static final String FILE_NAME = "chkref.quarantine"; // Nom du fichier, dans le dossier des régions.
+
+    // Membres.
+
+    private File reportFile;  // Fichier du rapport.
+    private String worldName; // Nom du monde, pour l'en-tête.
+    private boolean headed;   // En-tête de la tâche déjà écrit ?
+    private int chunksCount;  // Nombre de chunks écartés par la tâche.
+    private int regionsCount; // Nombre de régions entières écartées par la tâche.
+
+    // Constructeurs.
+
+    public QuarantineReport(File regionFolder, String worldName) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. */
+
+        // Contrôle.
+
+        if((!(regionFolder instanceof File)) || (!(worldName instanceof String)))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.reportFile   = new File(regionFolder, FILE_NAME);
+        this.worldName    = worldName;
+        this.headed       = false;
+        this.chunksCount  = 0;
+        this.regionsCount = 0;
+    }
+
+    // Méthodes publiques de classe.
+
+    public synchronized void add(int xRegion, int zRegion, String[] defects) throws IOException
+    {
+        /* Ajoute au rapport les chunks défectueux d'une région.
+         * Retour : aucun.
+         * Paramètres : -xRegion, zRegion : coordonnées de la région.
+         *              -defects          : défaut de chaque chunk, par index d'en-tête, null pour un chunk sain. */
+
+        StringBuilder lines = new StringBuilder(); // Lignes ajoutées.
+        String filename     = null;                // Fichier de la région.
+
+        filename = RegionCoordinates.toFilename(RegionCoordinates.pack(xRegion, zRegion), RegionSource.REGION_EXTENSION);
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            if(!(defects[chunkIndex] instanceof String))
+                continue;
+
+            lines.append(filename).append(" chunk ").append((xRegion * ChunkMask.REGION_WIDTH) + (chunkIndex & 31)).append(',').append((zRegion * ChunkMask.REGION_WIDTH) + (chunkIndex >>> 5)).append(": ").append(defects[chunkIndex]).append('\n');
+
+            chunksCount++;
+        }
+
+        append(lines);
+    }
+
+    public synchronized void addRegion(int xRegion, int zRegion, String defect) throws IOException
+    {
+        /* Ajoute au rapport une région entière, écartée faute d'en-tête lisible.
+         * Retour : aucun.
+         * Paramètres : -xRegion, zRegion : coordonnées de la région.
+         *              -defect           : défaut de l'en-tête. */
+
+        StringBuilder lines = new StringBuilder(); // Ligne ajoutée.
+
+        lines.append(RegionCoordinates.toFilename(RegionCoordinates.pack(xRegion, zRegion), RegionSource.REGION_EXTENSION)).append(": ").append(defect).append('\n');
+
+        regionsCount++;
+
+        append(lines);
+    }
+
+    public synchronized int getChunksCount()
+    {
+        /* Retourne le nombre de chunks écartés par la tâche jusqu'ici.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return chunksCount;
+    }
+
+    public synchronized int getRegionsCount()
+    {
+        /* Retourne le nombre de régions entières écartées par la tâche jusqu'ici.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return regionsCount;
+    }
+
+    public File getFile()
+    {
+        /* Retourne le fichier du rapport.
+         * Retour : fichier en question.
+         * Paramètres : aucun. */
+
+        return reportFile;
+    }
+
+    // Méthodes privées de classe.
+
+    private void append(StringBuilder lines) throws IOException
+    {
+        /* Ajoute des lignes au fichier du rapport, précédées de l'en-tête de la tâche à la première écriture.
+         * Retour : aucun.
+         * Paramètres : lignes en question. */
+
+        if(!headed)
+            lines.insert(0, "# Refresh of world \"" + worldName + "\" started " + LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + '\n');
+
+        Files.write(reportFile.toPath(), lines.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        headed = true;
+    }
+}
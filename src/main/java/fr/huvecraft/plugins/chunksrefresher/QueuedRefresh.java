@@ -0,0 +1,53 @@
+/* QueuedRefresh.java
+ * Classe d'un monde en attente de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import org.bukkit.World;
+
+// Définition de la classe.
+
+final class QueuedRefresh
+{
+    /* Monde en attente de traitement et options de sa tâche. */
+
+    // Membres.
+
+    private RefreshOptions options; // Options de la tâche.
+    private World world;            // Monde à traiter.
+
+    // Constructeurs.
+
+    public QueuedRefresh(World world, RefreshOptions options)
+    {
+        /* Constructeur par défaut. */
+
+        this.options = options;
+        this.world   = world;
+    }
+
+    // Méthodes publiques de classe.
+
+    public RefreshOptions getOptions()
+    {
+        /* Retourne les options de la tâche.
+         * Retour : options en question.
+         * Paramètres : aucun. */
+
+        return options;
+    }
+
+    public World getWorld()
+    {
+        /* Retourne le monde à traiter.
+         * Retour : monde en question.
+         * Paramètres : aucun. */
+
+        return world;
+    }
+}
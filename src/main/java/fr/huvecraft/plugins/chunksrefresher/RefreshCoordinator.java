@@ -0,0 +1,284 @@
+/* RefreshCoordinator.java
+ * Classe de coordination des tâches de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import org.bukkit.World;
+
+// Définition de la classe.
+
+final class RefreshCoordinator implements RefreshStateListener
+{
+    /* Classe coordonnant toutes les tâches de raffraichissement du serveur : file d'attente commune des mondes demandés,
+     * partage du budget de temps par tick entre les tâches actives selon leur poids, et surveillance mémoire commune.
+     * Les tâches en pause rendent leur part du budget aux autres jusqu'à leur reprise. Le budget commun et le nombre
+     * maximal de tâches simultanées ne changent que par leurs modificateurs (JMX) : les options d'une tâche ne font que
+     * plafonner sa propre part, ou retarder son propre démarrage. */
+
+    // Constantes.
+
+    private static final int DEFAULT_MAX_CONCURRENT_TASKS = 3;  // Nombre de tâches simultanées, par défaut.
+    private static final int DEFAULT_TICK_BUDGET_MILLIS   = 20; // Budget de temps par tick commun, par défaut.
+
+    // Membres.
+
+    private ArrayDeque<QueuedRefresh> pendingRefreshes;         // Mondes en attente de traitement.
+    private HashMap<AsyncChunksRefresher, Integer> taskWeights; // Poids des tâches actives.
+    private HashSet<AsyncChunksRefresher> pausedTasks;          // Tâches actives en pause, hors du partage du budget.
+    private MemoryMonitor memoryMonitor;                        // Surveillance de la mémoire du serveur.
+    private int maxConcurrentTasks;                             // Nombre maximal de tâches simultanées.
+    private int tickBudgetMillis;                               // Budget de temps par tick, partagé entre les tâches.
+    private int totalWeight;                                    // Somme des poids des tâches actives hors pause.
+
+    // Constructeurs.
+
+    public RefreshCoordinator()
+    {
+        /* Constructeur par défaut. */
+
+        this.pendingRefreshes   = new ArrayDeque<QueuedRefresh>();
+        this.taskWeights        = new HashMap<AsyncChunksRefresher, Integer>();
+        this.pausedTasks        = new HashSet<AsyncChunksRefresher>();
+        this.memoryMonitor      = new MemoryMonitor();
+        this.maxConcurrentTasks = DEFAULT_MAX_CONCURRENT_TASKS;
+        this.tickBudgetMillis   = DEFAULT_TICK_BUDGET_MILLIS;
+        this.totalWeight        = 0;
+    }
+
+    // Méthodes publiques de classe.
+
+    public synchronized void clearQueue()
+    {
+        /* Vide la file d'attente.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        pendingRefreshes.clear();
+    }
+
+    public synchronized void close()
+    {
+        /* Vide la file d'attente et rétablit les seuils de la surveillance mémoire, lors de la désactivation du plugin.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        pendingRefreshes.clear();
+
+        memoryMonitor.close();
+    }
+
+    public synchronized boolean dequeue(World world)
+    {
+        /* Retire un monde de la file d'attente.
+         * Retour : le monde était en attente.
+         * Paramètres : monde en question. */
+
+        Iterator<QueuedRefresh> queueIterator = pendingRefreshes.iterator(); // Parcours de la file.
+
+        while(queueIterator.hasNext())
+        {
+            if(queueIterator.next().getWorld().equals(world))
+            {
+                queueIterator.remove();
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public synchronized void enqueue(World world, RefreshOptions options)
+    {
+        /* Ajoute un monde à la file d'attente.
+         * Retour : aucun.
+         * Paramètres : -world   : monde à traiter.
+         *              -options : options de la tâche. */
+
+        pendingRefreshes.addLast(new QueuedRefresh(world, options));
+    }
+
+    public synchronized long getBudgetShareNanos(AsyncChunksRefresher achunksRefresher)
+    {
+        /* Retourne la part du budget de temps par tick revenant à une tâche active, selon son poids, dans la limite du
+         * plafond propre à la tâche.
+         * Retour : budget en nanosecondes.
+         * Paramètres : tâche en question. */
+
+        Integer weight       = taskWeights.get(achunksRefresher);                   // Poids de la tâche.
+        int taskBudgetMillis = achunksRefresher.getOptions().getTickBudgetMillis(); // Plafond propre à la tâche, 0 si aucun.
+        long shareNanos      = tickBudgetMillis * 1000000L;                         // Part de la tâche.
+
+        if((weight != null) && (totalWeight > 0))
+            shareNanos = (shareNanos * weight) / totalWeight;
+
+        if(taskBudgetMillis > 0)
+            shareNanos = Math.min(shareNanos, taskBudgetMillis * 1000000L);
+
+        return shareNanos;
+    }
+
+    public synchronized int getMaxConcurrentTasks()
+    {
+        /* Retourne le nombre maximal de tâches simultanées.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return maxConcurrentTasks;
+    }
+
+    public synchronized String[] getQueuedWorldNames()
+    {
+        /* Retourne les noms des mondes en attente, dans l'ordre de la file.
+         * Retour : noms en question.
+         * Paramètres : aucun. */
+
+        ArrayList<String> worldNames = new ArrayList<String>(pendingRefreshes.size()); // Noms à retourner.
+
+        for(QueuedRefresh queuedRefresh : pendingRefreshes)
+            worldNames.add(queuedRefresh.getWorld().getName());
+
+        return worldNames.toArray(new String[0]);
+    }
+
+    public synchronized int getQueueSize()
+    {
+        /* Retourne le nombre de mondes en attente.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return pendingRefreshes.size();
+    }
+
+    public synchronized int getTickBudgetMillis()
+    {
+        /* Retourne le budget de temps par tick partagé entre les tâches.
+         * Retour : budget en millisecondes.
+         * Paramètres : aucun. */
+
+        return tickBudgetMillis;
+    }
+
+    public synchronized boolean isQueued(World world)
+    {
+        /* Indique si un monde est en attente.
+         * Retour : oui ou non.
+         * Paramètres : monde en question. */
+
+        for(QueuedRefresh queuedRefresh : pendingRefreshes)
+        {
+            if(queuedRefresh.getWorld().equals(world))
+                return true;
+        }
+
+        return false;
+    }
+
+    public boolean isMemoryLow()
+    {
+        /* Indique si la mémoire du serveur est saturée, seuil commun à toutes les tâches.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return memoryMonitor.isUnderPressure();
+    }
+
+    @Override
+    public synchronized void onStateChanged(AsyncChunksRefresher achunksRefresher, RefreshState previousState, RefreshState newState)
+    {
+        /* Retire une tâche mise en pause du partage du budget, et l'y remet à sa reprise.
+         * Retour : aucun.
+         * Paramètres : -achunksRefresher : tâche concernée.
+         *              -previousState    : état précédent.
+         *              -newState         : nouvel état. */
+
+        Integer weight = taskWeights.get(achunksRefresher); // Poids de la tâche.
+
+        if(weight == null)
+            return;
+
+        if((newState == RefreshState.PAUSED) && pausedTasks.add(achunksRefresher))
+            totalWeight -= weight;
+
+        else if((newState != RefreshState.PAUSED) && pausedTasks.remove(achunksRefresher))
+            totalWeight += weight;
+    }
+
+    public synchronized QueuedRefresh pollStartable(int nRunningTasks)
+    {
+        /* Retire de la file le prochain monde à démarrer, si une place est libre, y compris selon le nombre de tâches
+         * propre au monde, et que la mémoire le permet.
+         * Retour : monde et options en question, null si aucun.
+         * Paramètres : nombre de tâches en cours. */
+
+        if(pendingRefreshes.isEmpty() || (nRunningTasks >= maxConcurrentTasks))
+            return null;
+
+        if((pendingRefreshes.peekFirst().getOptions().getMaxConcurrentTasks() > 0) && (nRunningTasks >= pendingRefreshes.peekFirst().getOptions().getMaxConcurrentTasks()))
+            return null;
+
+        if(isMemoryLow() && !(pendingRefreshes.peekFirst().getOptions().isNoMemControl()))
+            return null;
+
+        return pendingRefreshes.pollFirst();
+    }
+
+    public synchronized void register(AsyncChunksRefresher achunksRefresher, int weight)
+    {
+        /* Enregistre une tâche active, pour le partage du budget.
+         * Retour : aucun.
+         * Paramètres : -achunksRefresher : tâche en question.
+         *              -weight           : poids de la tâche. */
+
+        Integer previousWeight = taskWeights.put(achunksRefresher, weight); // Poids déjà enregistré.
+
+        if(!pausedTasks.contains(achunksRefresher))
+            totalWeight += weight - ((previousWeight == null) ? 0 : previousWeight);
+    }
+
+    public synchronized void setMaxConcurrentTasks(int maxConcurrentTasks) throws IllegalArgumentException
+    {
+        /* Change le nombre maximal de tâches simultanées, sans arrêter les tâches en cours au-delà.
+         * Retour : aucun.
+         * Paramètres : nombre en question. */
+
+        if((maxConcurrentTasks < 1) || (maxConcurrentTasks > RefreshOptions.MAX_CONCURRENT_TASKS))
+            throw new IllegalArgumentException("Maximum concurrent tasks must be between 1 and " + RefreshOptions.MAX_CONCURRENT_TASKS + ".");
+
+        this.maxConcurrentTasks = maxConcurrentTasks;
+    }
+
+    public synchronized void setTickBudgetMillis(int tickBudgetMillis) throws IllegalArgumentException
+    {
+        /* Change le budget de temps par tick partagé entre les tâches, pris en compte dès leur prochain lot.
+         * Retour : aucun.
+         * Paramètres : budget en millisecondes. */
+
+        if((tickBudgetMillis < 1) || (tickBudgetMillis > RefreshOptions.MAX_TICK_BUDGET_MILLIS))
+            throw new IllegalArgumentException("Tick budget must be between 1 and " + RefreshOptions.MAX_TICK_BUDGET_MILLIS + " ms.");
+
+        this.tickBudgetMillis = tickBudgetMillis;
+    }
+
+    public synchronized void unregister(AsyncChunksRefresher achunksRefresher)
+    {
+        /* Retire une tâche terminée du partage du budget.
+         * Retour : aucun.
+         * Paramètres : tâche en question. */
+
+        Integer weight = taskWeights.remove(achunksRefresher); // Poids de la tâche.
+
+        if((weight != null) && !pausedTasks.remove(achunksRefresher))
+            totalWeight -= weight;
+    }
+}
@@ -0,0 +1,257 @@
+/* RefreshMetrics.java
+ * Classe des mesures d'une tâche de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Définition de la classe.
+
+final class RefreshMetrics
+{
+    /* Mesures d'une tâche de raffraichissement, alimentées par la tâche et lisibles depuis n'importe quel thread :
+     * débit, temps passé sur le thread Bukkit par lot (histogramme par tranches de 0,25 ms), durée des régions,
+     * et estimation de la durée restante d'après le nombre de chunks indiqué par les en-têtes des régions. */
+
+    // Constantes.
+
+    private static final int HISTOGRAM_BUCKETS       = 400;     // Nombre de tranches de l'histogramme, la dernière comprenant les dépassements.
+    private static final long HISTOGRAM_BUCKET_NANOS = 250000L; // Largeur d'une tranche (0,25 ms).
+
+    // Membres.
+
+    private AtomicLong batchCount;          // Nombre de lots exécutés.
+    private AtomicLong batchNanosMax;       // Plus long lot sur le thread Bukkit.
+    private AtomicLong chunksRefreshed;     // Chunks traités depuis le démarrage.
+    private AtomicLong lastRegionNanos;     // Durée de la dernière région terminée.
+    private AtomicLong regionCount;         // Nombre de régions terminées.
+    private AtomicLong regionNanosMax;      // Durée de la plus longue région.
+    private AtomicLong regionNanosSum;      // Durée cumulée des régions terminées.
+    private AtomicLongArray batchHistogram; // Nombre de lots par tranche de durée sur le thread Bukkit.
+    private long startTime;                 // Timestamp de démarrage de la tâche.
+    private volatile long chunksToRefresh;  // Chunks à traiter d'après les en-têtes, -1 si inconnu.
+    private volatile long regionsToRefresh; // Régions à traiter, -1 si inconnu.
+
+    // Constructeurs.
+
+    public RefreshMetrics()
+    {
+        /* Constructeur par défaut. */
+
+        this.batchCount       = new AtomicLong(0L);
+        this.batchNanosMax    = new AtomicLong(0L);
+        this.chunksRefreshed  = new AtomicLong(0L);
+        this.lastRegionNanos  = new AtomicLong(0L);
+        this.regionCount      = new AtomicLong(0L);
+        this.regionNanosMax   = new AtomicLong(0L);
+        this.regionNanosSum   = new AtomicLong(0L);
+        this.batchHistogram   = new AtomicLongArray(HISTOGRAM_BUCKETS);
+        this.startTime        = System.nanoTime();
+        this.chunksToRefresh  = -1L;
+        this.regionsToRefresh = -1L;
+    }
+
+    // Méthodes publiques de classe.
+
+    public double getBatchMillisMax()
+    {
+        /* Retourne la durée du plus long lot sur le thread Bukkit.
+         * Retour : durée en millisecondes.
+         * Paramètres : aucun. */
+
+        return batchNanosMax.get() / 1000000.0D;
+    }
+
+    public double getBatchMillisPercentile(double percentile)
+    {
+        /* Retourne un centile de la durée des lots sur le thread Bukkit, à la largeur d'une tranche près.
+         * Retour : borne haute de la tranche contenant le centile, en millisecondes, 0 si aucun lot.
+         * Paramètres : centile, entre 0 et 1. */
+
+        long nBatches   = batchCount.get(); // Nombre de lots.
+        long rank       = 0L;               // Rang du lot recherché.
+        long nCumulated = 0L;               // Lots des tranches déjà parcourues.
+
+        if(nBatches == 0L)
+            return 0.0D;
+
+        rank = Math.max(1L, (long)Math.ceil(percentile * nBatches));
+
+        for(int bucketIndex = 0; bucketIndex < HISTOGRAM_BUCKETS; bucketIndex++)
+        {
+            nCumulated += batchHistogram.get(bucketIndex);
+
+            if(nCumulated >= rank)
+                return Math.min(((bucketIndex + 1) * HISTOGRAM_BUCKET_NANOS) / 1000000.0D, getBatchMillisMax());
+        }
+
+        return getBatchMillisMax();
+    }
+
+    public long getBatchCount()
+    {
+        /* Retourne le nombre de lots exécutés.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return batchCount.get();
+    }
+
+    public double getChunksPerSecond()
+    {
+        /* Retourne le débit moyen depuis le démarrage de la tâche.
+         * Retour : chunks par seconde.
+         * Paramètres : aucun. */
+
+        long elapsedNanos = System.nanoTime() - startTime; // Durée écoulée.
+
+        return (elapsedNanos <= 0L) ? 0.0D : (chunksRefreshed.get() * 1000000000.0D) / elapsedNanos;
+    }
+
+    public long getChunksRefreshed()
+    {
+        /* Retourne le nombre de chunks traités depuis le démarrage de la tâche.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return chunksRefreshed.get();
+    }
+
+    public long getChunksRemaining()
+    {
+        /* Retourne le nombre de chunks restant à traiter, d'après les en-têtes des régions.
+         * Retour : nombre en question, -1 si inconnu.
+         * Paramètres : aucun. */
+
+        long chunksTotal = chunksToRefresh; // Chunks à traiter.
+
+        return (chunksTotal < 0L) ? -1L : Math.max(0L, chunksTotal - chunksRefreshed.get());
+    }
+
+    public long getEtaSeconds()
+    {
+        /* Retourne l'estimation de la durée restante, au débit moyen.
+         * Retour : durée en secondes, -1 si inconnue.
+         * Paramètres : aucun. */
+
+        long chunksRemaining   = getChunksRemaining(); // Chunks restants.
+        double chunksPerSecond = getChunksPerSecond(); // Débit moyen.
+
+        if((chunksRemaining < 0L) || (chunksPerSecond <= 0.0D))
+            return -1L;
+
+        return (long)Math.ceil(chunksRemaining / chunksPerSecond);
+    }
+
+    public long getElapsedSeconds()
+    {
+        /* Retourne la durée écoulée depuis le démarrage de la tâche.
+         * Retour : durée en secondes.
+         * Paramètres : aucun. */
+
+        return (System.nanoTime() - startTime) / 1000000000L;
+    }
+
+    public double getLastRegionSeconds()
+    {
+        /* Retourne la durée de la dernière région terminée.
+         * Retour : durée en secondes.
+         * Paramètres : aucun. */
+
+        return lastRegionNanos.get() / 1000000000.0D;
+    }
+
+    public double getRegionSecondsAverage()
+    {
+        /* Retourne la durée moyenne des régions terminées.
+         * Retour : durée en secondes, 0 si aucune.
+         * Paramètres : aucun. */
+
+        long nRegions = regionCount.get(); // Régions terminées.
+
+        return (nRegions == 0L) ? 0.0D : (regionNanosSum.get() / 1000000000.0D) / nRegions;
+    }
+
+    public double getRegionSecondsMax()
+    {
+        /* Retourne la durée de la plus longue région terminée.
+         * Retour : durée en secondes.
+         * Paramètres : aucun. */
+
+        return regionNanosMax.get() / 1000000000.0D;
+    }
+
+    public long getRegionCount()
+    {
+        /* Retourne le nombre de régions terminées.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return regionCount.get();
+    }
+
+    public long getRegionsRemaining()
+    {
+        /* Retourne le nombre de régions restant à traiter.
+         * Retour : nombre en question, -1 si inconnu.
+         * Paramètres : aucun. */
+
+        long regionsTotal = regionsToRefresh; // Régions à traiter.
+
+        return (regionsTotal < 0L) ? -1L : Math.max(0L, regionsTotal - regionCount.get());
+    }
+
+    public void recordBatch(int nChunks, long elapsedNanos)
+    {
+        /* Enregistre un lot exécuté sur le thread Bukkit.
+         * Retour : aucun.
+         * Paramètres : -nChunks      : nombre de chunks traités.
+         *              -elapsedNanos : temps passé sur le thread Bukkit. */
+
+        if(nChunks > 0)
+            chunksRefreshed.addAndGet(nChunks);
+
+        if(elapsedNanos < 0L)
+            return;
+
+        batchHistogram.incrementAndGet((int)Math.min(HISTOGRAM_BUCKETS - 1, elapsedNanos / HISTOGRAM_BUCKET_NANOS));
+        batchNanosMax.accumulateAndGet(elapsedNanos, Math::max);
+        batchCount.incrementAndGet();
+    }
+
+    public void recordRegion(long elapsedNanos)
+    {
+        /* Enregistre une région terminée.
+         * Retour : aucun.
+         * Paramètres : durée de traitement de la région. */
+
+        lastRegionNanos.set(elapsedNanos);
+        regionNanosMax.accumulateAndGet(elapsedNanos, Math::max);
+        regionNanosSum.addAndGet(elapsedNanos);
+        regionCount.incrementAndGet();
+    }
+
+    public void setRegionsToRefresh(long regionsToRefresh)
+    {
+        /* Indique le nombre de régions à traiter.
+         * Retour : aucun.
+         * Paramètres : nombre en question. */
+
+        this.regionsToRefresh = regionsToRefresh;
+    }
+
+    public void setChunksToRefresh(long chunksToRefresh)
+    {
+        /* Indique le nombre de chunks à traiter, d'après les en-têtes des régions.
+         * Retour : aucun.
+         * Paramètres : nombre en question. */
+
+        this.chunksToRefresh = chunksToRefresh;
+    }
+}
@@ -0,0 +1,593 @@
+/* RefreshOptions.java
+ * Classe des options d'une tâche de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.util.ChkRefException;
+
+// Définition de la classe.
+
+final class RefreshOptions
+{
+    /* Classe contenant les options d'une tâche de raffraichissement, issues des arguments de la commande. */
+
+    // Constantes.
+
+    public static final int MAX_CONCURRENT_TASKS    = 16;       // Nombre maximal de tâches simultanées.
+    public static final int MAX_TICK_BUDGET_MILLIS  = 45;       // Budget maximal, pour laisser au serveur de quoi tenir ses ticks.
+    private static final int DEFAULT_ASYNC_WINDOW   = 32;       // Nombre de chargements asynchrones en cours, par défaut.
+    private static final int DEFAULT_LIVE_BUDGET    = 5;        // Budget de temps par tick par défaut en mode serveur ouvert, en millisecondes.
+    private static final int DEFAULT_LIVE_RADIUS    = 256;      // Distance aux joueurs en deçà de laquelle une région est reportée, par défaut, en blocs.
+    private static final int DEFAULT_MAX_UNSAVED    = 1024;     // Plafond des chunks retenus non sauvegardés par défaut : une région.
+    private static final int DEFAULT_RESIDENCY_ROWS = 2;        // Nombre de rangées de chunks gardées chargées, par défaut.
+    private static final int MAX_ASYNC_WINDOW       = 512;      // Nombre maximal de chargements asynchrones en cours.
+    private static final int MAX_LIVE_RADIUS        = 4096;     // Distance maximale aux joueurs, en blocs.
+    private static final int MAX_SCOPE_RADIUS       = 30000000; // Rayon maximal d'une zone, en blocs : limite du monde.
+    private static final int MAX_WEIGHT             = 100;      // Poids maximal d'une tâche.
+
+    // Membres.
+
+    private boolean compact;        // Compacter les fichiers des régions raffraichies, au prochain démarrage du serveur ?
+    private boolean generate;       // Générer les chunks manquants de la zone, en plus de raffraichir les chunks existants ?
+    private boolean incremental;    // Ne charger que les chunks nouveaux ou sauvegardés depuis le dernier raffraichissement complet ?
+    private boolean live;           // Serveur ouvert aux joueurs : ralentir selon la durée des ticks, et se tenir à l'écart des joueurs ?
+    private boolean noMemControl;   // Ne pas surveiller la RAM ?
+    private boolean scopeBorder;    // Limiter la tâche à l'intérieur de la bordure du monde ?
+    private boolean scopeCentered;  // Centre de la zone circulaire précisé ? Spawn du monde sinon.
+    private boolean staleOnly;      // Ne charger que les chunks dont la version de format est antérieure à celle du serveur ?
+    private boolean syncLoad;       // Charger les chunks de manière bloquante, même si le serveur propose le chargement asynchrone ?
+    private boolean trustHeader;    // Se fier à l'en-tête des régions, sans demander au serveur si le chunk existe ?
+    private boolean validate;       // Contrôler les fichiers des régions avant de les traiter, et écarter les chunks défectueux ?
+    private int asyncWindow;        // Nombre maximal de chargements asynchrones en cours.
+    private int liveRadius;         // Distance aux joueurs en deçà de laquelle une région est reportée, en blocs.
+    private int maxConcurrentTasks; // Nombre de tâches en cours au-dessous duquel démarrer la tâche, 0 sans condition propre.
+    private int maxUnsaved;         // Plafond des chunks retenus non sauvegardés, 0 pour sauvegarder au fil de l'eau.
+    private int residencyRows;      // Nombre de rangées de chunks gardées chargées, 0 pour décharger chaque chunk aussitôt.
+    private int scopeRadius;        // Rayon de la zone circulaire, en blocs, 0 pour aucune.
+    private int targetDataVersion;  // Version de format visée, 0 pour celle du serveur.
+    private int tickBudgetMillis;   // Plafond de la part du budget commun revenant à la tâche, en millisecondes, 0 sans plafond propre.
+    private int weight;             // Poids de la tâche dans le partage du budget.
+    private int xScopeCenter;       // Centre de la zone circulaire, en blocs.
+    private int zScopeCenter;
+    private PruneMode pruneMode;    // Traitement des chunks jamais habités, null pour les raffraichir sans les relever.
+    private RefreshScope scopeArea; // Rectangle de chunks auquel limiter la tâche, null pour aucun.
+    private RegionOrder order;      // Ordre de traitement des régions.
+
+    // Constructeurs.
+
+    public RefreshOptions()
+    {
+        /* Constructeur par défaut, options par défaut. */
+
+        this.compact            = false;
+        this.generate           = false;
+        this.incremental        = false;
+        this.live               = false;
+        this.noMemControl       = false;
+        this.scopeBorder        = false;
+        this.scopeCentered      = false;
+        this.staleOnly          = false;
+        this.syncLoad           = false;
+        this.trustHeader        = false;
+        this.validate           = false;
+        this.asyncWindow        = DEFAULT_ASYNC_WINDOW;
+        this.liveRadius         = DEFAULT_LIVE_RADIUS;
+        this.maxConcurrentTasks = 0;
+        this.maxUnsaved         = 0;
+        this.residencyRows      = DEFAULT_RESIDENCY_ROWS;
+        this.scopeRadius        = 0;
+        this.targetDataVersion  = 0;
+        this.tickBudgetMillis   = 0;
+        this.weight             = 1;
+        this.xScopeCenter       = 0;
+        this.zScopeCenter       = 0;
+        this.pruneMode          = null;
+        this.scopeArea          = null;
+        this.order              = RegionOrder.NATURAL;
+    }
+
+    // Méthodes publiques statiques.
+
+    public static boolean isOption(String argument)
+    {
+        /* Indique si un argument de commande est une option (et non une opération).
+         * Retour : oui ou non.
+         * Paramètres : argument en question. */
+
+        if(!(argument instanceof String))
+            return false;
+
+        switch(getOptionName(argument))
+        {
+            case "area":
+            case "border":
+            case "budget":
+            case "center":
+            case "compact":
+            case "dataversion":
+            case "incremental":
+            case "live":
+            case "liveradius":
+            case "nomemcheck":
+            case "maxunsaved":
+            case "order":
+            case "parallel":
+            case "prune":
+            case "radius":
+            case "regionsave":
+            case "residency":
+            case "staleonly":
+            case "syncload":
+            case "trustheader":
+            case "validate":
+            case "weight":
+            case "window":
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    public static RefreshOptions parse(String[] args, int firstOptionIndex, boolean generate) throws ChkRefException
+    {
+        /* Construit les options depuis les arguments d'une commande.
+         * Retour : options obtenues.
+         * Paramètres : -args             : arguments de la commande.
+         *              -firstOptionIndex : index du premier argument d'option.
+         *              -generate         : opération de génération des chunks manquants de la zone ? */
+
+        RefreshOptions options = new RefreshOptions(); // Options à retourner.
+
+        options.generate = generate;
+
+        for(int argIndex = firstOptionIndex; argIndex < args.length; argIndex++)
+        {
+            switch(getOptionName(args[argIndex]))
+            {
+                case "area":
+                    int[] corners = parseIntValues(args[argIndex], 4); // Coins du rectangle, en chunks.
+
+                    options.scopeArea = RefreshScope.rectangle(corners[0], corners[1], corners[2], corners[3]);
+
+                    break;
+
+                case "border":
+                    options.scopeBorder = true;
+
+                    break;
+
+                case "budget":
+                    options.tickBudgetMillis = parseIntValue(args[argIndex], 1, MAX_TICK_BUDGET_MILLIS);
+
+                    break;
+
+                case "center":
+                    int[] center = parseIntValues(args[argIndex], 2); // Centre de la zone, en blocs.
+
+                    options.scopeCentered = true;
+                    options.xScopeCenter  = center[0];
+                    options.zScopeCenter  = center[1];
+
+                    break;
+
+                case "compact":
+                    options.compact = true;
+
+                    break;
+
+                case "dataversion":
+                    options.targetDataVersion = parseIntValue(args[argIndex], 1, Integer.MAX_VALUE);
+                    options.staleOnly         = true;
+
+                    break;
+
+                case "incremental":
+                    options.incremental = true;
+
+                    break;
+
+                case "live":
+                    options.live = true;
+
+                    break;
+
+                case "liveradius":
+                    options.liveRadius = parseIntValue(args[argIndex], 0, MAX_LIVE_RADIUS);
+                    options.live       = true;
+
+                    break;
+
+                case "maxunsaved":
+                    options.maxUnsaved = parseIntValue(args[argIndex], ChunkResidencyWindow.MIN_UNSAVED, ChunkResidencyWindow.MAX_UNSAVED);
+
+                    break;
+
+                case "nomemcheck":
+                    options.noMemControl = true;
+
+                    break;
+
+                case "order":
+                    try
+                    {
+                        options.order = RegionOrder.parse(getOptionValue(args[argIndex]));
+                    }
+
+                    catch(IllegalArgumentException exception)
+                    {
+                        throw new ChkRefException("Invalid argument, region order \"" + args[argIndex] + "\" is unknown.");
+                    }
+
+                    break;
+
+                case "parallel":
+                    options.maxConcurrentTasks = parseIntValue(args[argIndex], 1, MAX_CONCURRENT_TASKS);
+
+                    break;
+
+                case "prune":
+                    try
+                    {
+                        options.pruneMode = PruneMode.parse(getOptionValue(args[argIndex]));
+                    }
+
+                    catch(IllegalArgumentException exception)
+                    {
+                        throw new ChkRefException("Invalid argument, prune mode \"" + args[argIndex] + "\" is unknown.");
+                    }
+
+                    break;
+
+                case "radius":
+                    options.scopeRadius = parseIntValue(args[argIndex], 1, MAX_SCOPE_RADIUS);
+
+                    break;
+
+                case "regionsave":
+                    if(options.maxUnsaved == 0)
+                        options.maxUnsaved = DEFAULT_MAX_UNSAVED;
+
+                    break;
+
+                case "residency":
+                    options.residencyRows = parseIntValue(args[argIndex], 0, ChunkResidencyWindow.MAX_ROWS);
+
+                    break;
+
+                case "staleonly":
+                    options.staleOnly = true;
+
+                    break;
+
+                case "syncload":
+                    options.syncLoad = true;
+
+                    break;
+
+                case "trustheader":
+                    options.trustHeader = true;
+
+                    break;
+
+                case "validate":
+                    options.validate = true;
+
+                    break;
+
+                case "weight":
+                    options.weight = parseIntValue(args[argIndex], 1, MAX_WEIGHT);
+
+                    break;
+
+                case "window":
+                    options.asyncWindow = parseIntValue(args[argIndex], 1, MAX_ASYNC_WINDOW);
+
+                    break;
+
+                default:
+                    throw new ChkRefException("Invalid argument, option \"" + args[argIndex] + "\" is unknown.");
+            }
+        }
+
+        // Contrôle de la zone.
+
+        if(((options.scopeRadius > 0) ? 1 : 0) + ((options.scopeArea instanceof RefreshScope) ? 1 : 0) + (options.scopeBorder ? 1 : 0) > 1)
+            throw new ChkRefException("Invalid arguments, only one of radius, area and border can be given.");
+
+        if(options.scopeCentered && (options.scopeRadius == 0))
+            throw new ChkRefException("Invalid arguments, center requires a radius.");
+
+        if(options.generate && (options.scopeRadius == 0) && !(options.scopeArea instanceof RefreshScope) && !options.scopeBorder)
+            throw new ChkRefException("Invalid arguments, generate requires one of radius, area and border.");
+
+        // Part du budget réduite en mode serveur ouvert, sauf si elle est précisée : plafond propre à la tâche, le
+        // budget commun restant inchangé.
+
+        if(options.live && (options.tickBudgetMillis == 0))
+            options.tickBudgetMillis = DEFAULT_LIVE_BUDGET;
+
+        return options;
+    }
+
+    // Méthodes privées statiques.
+
+    private static String getOptionName(String argument)
+    {
+        /* Retourne le nom d'une option, sans son éventuelle valeur (nom=valeur).
+         * Retour : nom en minuscules.
+         * Paramètres : argument en question. */
+
+        int separatorIndex = argument.indexOf('='); // Position du séparateur.
+
+        return ((separatorIndex < 0) ? argument : argument.substring(0, separatorIndex)).toLowerCase();
+    }
+
+    private static String getOptionValue(String argument) throws ChkRefException
+    {
+        /* Retourne la valeur d'une option (nom=valeur).
+         * Retour : valeur en question.
+         * Paramètres : argument en question. */
+
+        int separatorIndex = argument.indexOf('='); // Position du séparateur.
+
+        if((separatorIndex < 0) || (separatorIndex == (argument.length() - 1)))
+            throw new ChkRefException("Invalid argument, option \"" + argument + "\" requires a value.");
+
+        return argument.substring(separatorIndex + 1);
+    }
+
+    private static int[] parseIntValues(String argument, int count) throws ChkRefException
+    {
+        /* Retourne les valeurs entières, séparées par des virgules, d'une option (nom=valeur,valeur...).
+         * Retour : valeurs en question.
+         * Paramètres : -argument : argument en question.
+         *              -count    : nombre de valeurs attendues. */
+
+        String[] valueParts = getOptionValue(argument).split(","); // Valeurs brutes.
+        int[] values        = new int[count];                      // Valeurs lues.
+
+        if(valueParts.length != count)
+            throw new ChkRefException("Invalid argument, option \"" + argument + "\" requires " + count + " comma separated numbers.");
+
+        try
+        {
+            for(int valueIndex = 0; valueIndex < count; valueIndex++)
+                values[valueIndex] = Integer.parseInt(valueParts[valueIndex].trim());
+        }
+
+        catch(NumberFormatException exception)
+        {
+            throw new ChkRefException("Invalid argument, option \"" + argument + "\" requires " + count + " comma separated numbers.");
+        }
+
+        return values;
+    }
+
+    private static int parseIntValue(String argument, int minValue, int maxValue) throws ChkRefException
+    {
+        /* Retourne la valeur entière d'une option (nom=valeur), contrôlée.
+         * Retour : valeur en question.
+         * Paramètres : -argument : argument en question.
+         *              -minValue : valeur minimale acceptée.
+         *              -maxValue : valeur maximale acceptée. */
+
+        int value = 0; // Valeur lue.
+
+        try
+        {
+            value = Integer.parseInt(getOptionValue(argument));
+        }
+
+        catch(NumberFormatException exception)
+        {
+            throw new ChkRefException("Invalid argument, option \"" + argument + "\" requires a number.");
+        }
+
+        if((value < minValue) || (value > maxValue))
+            throw new ChkRefException("Invalid argument, option \"" + argument + "\" must be between " + minValue + " and " + maxValue + ".");
+
+        return value;
+    }
+
+    // Méthodes publiques de classe.
+
+    public int getAsyncWindow()
+    {
+        /* Retourne le nombre maximal de chargements asynchrones en cours.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return asyncWindow;
+    }
+
+    public int getLiveRadius()
+    {
+        /* Retourne la distance aux joueurs en deçà de laquelle une région est reportée, en mode serveur ouvert.
+         * Retour : distance en blocs.
+         * Paramètres : aucun. */
+
+        return liveRadius;
+    }
+
+    public int getMaxConcurrentTasks()
+    {
+        /* Retourne le nombre de tâches en cours au-dessous duquel la tâche peut démarrer, le nombre maximal commun
+         * s'appliquant aussi.
+         * Retour : nombre en question, 0 si non précisé.
+         * Paramètres : aucun. */
+
+        return maxConcurrentTasks;
+    }
+
+    public RegionOrder getOrder()
+    {
+        /* Retourne l'ordre de traitement des régions.
+         * Retour : ordre en question.
+         * Paramètres : aucun. */
+
+        return order;
+    }
+
+    public int getMaxUnsaved()
+    {
+        /* Retourne le plafond des chunks retenus non sauvegardés, en mode de sauvegarde par région.
+         * Retour : plafond en question, 0 pour sauvegarder les chunks au fil de l'eau.
+         * Paramètres : aucun. */
+
+        return maxUnsaved;
+    }
+
+    public PruneMode getPruneMode()
+    {
+        /* Retourne le traitement des chunks jamais habités.
+         * Retour : mode en question, null s'ils sont raffraichis sans être relevés.
+         * Paramètres : aucun. */
+
+        return pruneMode;
+    }
+
+    public int getResidencyRows()
+    {
+        /* Retourne le nombre de rangées de chunks gardées chargées.
+         * Retour : nombre en question, 0 pour décharger chaque chunk aussitôt.
+         * Paramètres : aucun. */
+
+        return residencyRows;
+    }
+
+    public RefreshScope getScope(int xSpawn, int zSpawn, double xBorderCenter, double zBorderCenter, double borderSize) throws ChkRefException
+    {
+        /* Retourne la zone à laquelle limiter la tâche, résolue pour un monde.
+         * Retour : zone en question, null pour le monde entier.
+         * Paramètres : -xSpawn, zSpawn               : coordonnées du spawn du monde, centre par défaut de la zone circulaire.
+         *              -xBorderCenter, zBorderCenter : centre de la bordure du monde.
+         *              -borderSize                   : côté de la bordure du monde, 0 si indisponible. */
+
+        if(scopeRadius > 0)
+            return scopeCentered ? RefreshScope.circle(xScopeCenter + 0.5D, zScopeCenter + 0.5D, scopeRadius) : RefreshScope.circle(xSpawn + 0.5D, zSpawn + 0.5D, scopeRadius);
+
+        if(scopeBorder)
+        {
+            if(!(borderSize > 0.0D))
+                throw new ChkRefException("World border is not available.");
+
+            return RefreshScope.border(xBorderCenter, zBorderCenter, borderSize);
+        }
+
+        return scopeArea;
+    }
+
+    public int getTargetDataVersion()
+    {
+        /* Retourne la version de format visée par l'option staleonly.
+         * Retour : version en question, 0 pour celle du serveur.
+         * Paramètres : aucun. */
+
+        return targetDataVersion;
+    }
+
+    public int getTickBudgetMillis()
+    {
+        /* Retourne le plafond de la part du budget de temps par tick commun revenant à la tâche.
+         * Retour : plafond en millisecondes, 0 si non précisé.
+         * Paramètres : aucun. */
+
+        return tickBudgetMillis;
+    }
+
+    public int getWeight()
+    {
+        /* Retourne le poids de la tâche dans le partage du budget.
+         * Retour : poids en question.
+         * Paramètres : aucun. */
+
+        return weight;
+    }
+
+    public boolean isCompact()
+    {
+        /* Indique si les fichiers des régions raffraichies doivent être compactés au prochain démarrage du serveur.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return compact;
+    }
+
+    public boolean isGenerate()
+    {
+        /* Indique si les chunks manquants de la zone doivent être générés, en plus du raffraichissement des chunks existants.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return generate;
+    }
+
+    public boolean isIncremental()
+    {
+        /* Indique si seuls les chunks nouveaux ou sauvegardés depuis le dernier raffraichissement complet doivent être chargés.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return incremental;
+    }
+
+    public boolean isLive()
+    {
+        /* Indique si le serveur est ouvert aux joueurs pendant la tâche : mode serveur ouvert.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return live;
+    }
+
+    public boolean isNoMemControl()
+    {
+        /* Indique si la surveillance de la mémoire est désactivée.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return noMemControl;
+    }
+
+    public boolean isStaleOnly()
+    {
+        /* Indique si seuls les chunks de version de format antérieure doivent être chargés.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return staleOnly;
+    }
+
+    public boolean isSyncLoad()
+    {
+        /* Indique si le chargement bloquant des chunks est imposé.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return syncLoad;
+    }
+
+    public boolean isTrustHeader()
+    {
+        /* Indique si l'en-tête des régions fait foi pour l'existence des chunks.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return trustHeader;
+    }
+
+    public boolean isValidate()
+    {
+        /* Indique si les fichiers des régions doivent être contrôlés avant d'être traités, les chunks défectueux étant écartés.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return validate;
+    }
+}
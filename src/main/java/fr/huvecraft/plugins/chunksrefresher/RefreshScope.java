@@ -0,0 +1,230 @@
+/* RefreshScope.java
+ * Classe de la zone bornée d'une tâche de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import java.util.Arrays;
+
+// Définition de la classe.
+
+final class RefreshScope
+{
+    /* Zone à laquelle une tâche de raffraichissement est limitée : rectangle de chunks, ou disque de blocs.
+     * Un chunk fait partie de la zone dès qu'il la recoupe. Les régions hors de la zone ne sont pas retenues par
+     * l'exploration du dossier, et les chunks hors de la zone sont retirés des masques avant tout travail sur le
+     * thread Bukkit. */
+
+    // Constantes.
+
+    private static final int BLOCKS_PER_CHUNK  = 16;  // Côté d'un chunk, en blocs.
+    private static final int BLOCKS_PER_REGION = 512; // Côté d'une région, en blocs.
+
+    // Membres.
+
+    private boolean circular; // Zone circulaire ? Rectangulaire sinon.
+    private double radius;    // Rayon du disque, en blocs.
+    private double xCenter;   // Centre du disque, en blocs.
+    private double zCenter;
+    private int xChunkMin;    // Rectangle de chunks englobant la zone, bornes incluses.
+    private int xChunkMax;
+    private int zChunkMin;
+    private int zChunkMax;
+
+    // Constructeurs.
+
+    private RefreshScope(boolean circular, double xCenter, double zCenter, double radius, int xChunkMin, int zChunkMin, int xChunkMax, int zChunkMax)
+    {
+        /* Constructeur par défaut. */
+
+        this.circular  = circular;
+        this.radius    = radius;
+        this.xCenter   = xCenter;
+        this.zCenter   = zCenter;
+        this.xChunkMin = xChunkMin;
+        this.xChunkMax = xChunkMax;
+        this.zChunkMin = zChunkMin;
+        this.zChunkMax = zChunkMax;
+    }
+
+    // Méthodes publiques statiques.
+
+    public static RefreshScope border(double xCenter, double zCenter, double size) throws IllegalArgumentException
+    {
+        /* Construit la zone intérieure à une bordure de monde (WorldBorder), carrée.
+         * Retour : zone en question.
+         * Paramètres : -xCenter, zCenter : centre de la bordure, en blocs.
+         *              -size             : côté de la bordure, en blocs. */
+
+        double halfSize = size / 2.0D; // Demi-côté de la bordure.
+
+        if(!(size > 0.0D))
+            throw new IllegalArgumentException("Invalid world border size.");
+
+        return rectangle(toChunk(xCenter - halfSize), toChunk(zCenter - halfSize), (int)Math.ceil((xCenter + halfSize) / BLOCKS_PER_CHUNK) - 1, (int)Math.ceil((zCenter + halfSize) / BLOCKS_PER_CHUNK) - 1);
+    }
+
+    public static RefreshScope circle(double xCenter, double zCenter, double radius) throws IllegalArgumentException
+    {
+        /* Construit une zone circulaire.
+         * Retour : zone en question.
+         * Paramètres : -xCenter, zCenter : centre du disque, en blocs.
+         *              -radius           : rayon du disque, en blocs. */
+
+        if(!(radius > 0.0D))
+            throw new IllegalArgumentException("Invalid radius.");
+
+        return new RefreshScope(true, xCenter, zCenter, radius, toChunk(xCenter - radius), toChunk(zCenter - radius), toChunk(xCenter + radius), toChunk(zCenter + radius));
+    }
+
+    public static RefreshScope rectangle(int xChunk1, int zChunk1, int xChunk2, int zChunk2)
+    {
+        /* Construit une zone rectangulaire, en coordonnées de chunks.
+         * Retour : zone en question.
+         * Paramètres : coordonnées de deux coins opposés du rectangle, inclus. */
+
+        return new RefreshScope(false, 0.0D, 0.0D, 0.0D, Math.min(xChunk1, xChunk2), Math.min(zChunk1, zChunk2), Math.max(xChunk1, xChunk2), Math.max(zChunk1, zChunk2));
+    }
+
+    // Méthodes publiques de classe.
+
+    public long countRegions()
+    {
+        /* Retourne le nombre de régions du rectangle englobant la zone.
+         * Retour : nombre en question, majorant celui des régions recoupant la zone.
+         * Paramètres : aucun. */
+
+        return ((long)(xChunkMax >> 5) - (xChunkMin >> 5) + 1L) * ((long)(zChunkMax >> 5) - (zChunkMin >> 5) + 1L);
+    }
+
+    public boolean containsRegion(int xRegion, int zRegion)
+    {
+        /* Indique si une région est entièrement comprise dans la zone.
+         * Retour : oui ou non.
+         * Paramètres : coordonnées de la région. */
+
+        long xFirstChunk = (long)xRegion * ChunkMask.REGION_WIDTH; // Premier chunk de la région.
+        long zFirstChunk = (long)zRegion * ChunkMask.REGION_WIDTH;
+        double xFar      = 0.0D;                                   // Ecart au coin de la région le plus éloigné du centre.
+        double zFar      = 0.0D;
+
+        if((xFirstChunk < xChunkMin) || ((xFirstChunk + ChunkMask.REGION_WIDTH - 1) > xChunkMax) || (zFirstChunk < zChunkMin) || ((zFirstChunk + ChunkMask.REGION_WIDTH - 1) > zChunkMax))
+            return false;
+
+        if(!circular)
+            return true;
+
+        xFar = Math.max(Math.abs(((double)xRegion * BLOCKS_PER_REGION) - xCenter), Math.abs((((double)xRegion + 1.0D) * BLOCKS_PER_REGION) - xCenter));
+        zFar = Math.max(Math.abs(((double)zRegion * BLOCKS_PER_REGION) - zCenter), Math.abs((((double)zRegion + 1.0D) * BLOCKS_PER_REGION) - zCenter));
+
+        return ((xFar * xFar) + (zFar * zFar)) <= (radius * radius);
+    }
+
+    public ChunkMask getRegionMask(int xRegion, int zRegion)
+    {
+        /* Retourne les chunks d'une région compris dans la zone.
+         * Retour : masque en question.
+         * Paramètres : coordonnées de la région. */
+
+        ChunkMask regionMask = new ChunkMask(); // Masque à retourner.
+
+        for(int xChunkIndex = 0; xChunkIndex < ChunkMask.REGION_WIDTH; xChunkIndex++)
+        {
+            for(int zChunkIndex = 0; zChunkIndex < ChunkMask.REGION_WIDTH; zChunkIndex++)
+            {
+                if(intersectsBlocks(((long)xRegion * ChunkMask.REGION_WIDTH) + xChunkIndex, ((long)zRegion * ChunkMask.REGION_WIDTH) + zChunkIndex, 1, BLOCKS_PER_CHUNK))
+                    regionMask.set(xChunkIndex, zChunkIndex);
+            }
+        }
+
+        return regionMask;
+    }
+
+    public long[] getRegions()
+    {
+        /* Retourne les régions recoupant la zone, rangée par rangée. A réserver aux zones de taille raisonnable
+         * (voir countRegions()).
+         * Retour : coordonnées regroupées des régions.
+         * Paramètres : aucun. */
+
+        long[] regions = new long[(int)countRegions()]; // Régions à retourner.
+        int nRegions   = 0;                             // Nombre de régions retenues.
+
+        for(int xRegion = xChunkMin >> 5; xRegion <= (xChunkMax >> 5); xRegion++)
+        {
+            for(int zRegion = zChunkMin >> 5; zRegion <= (zChunkMax >> 5); zRegion++)
+            {
+                long packedCoordinates = RegionCoordinates.pack(xRegion, zRegion); // Coordonnées de la région.
+
+                if(intersectsRegion(packedCoordinates))
+                    regions[nRegions++] = packedCoordinates;
+            }
+        }
+
+        return Arrays.copyOf(regions, nRegions);
+    }
+
+    public boolean intersectsRegion(long packedCoordinates)
+    {
+        /* Indique si une région recoupe la zone.
+         * Retour : oui ou non.
+         * Paramètres : coordonnées regroupées de la région. */
+
+        return intersectsBlocks(RegionCoordinates.unpackX(packedCoordinates), RegionCoordinates.unpackZ(packedCoordinates), ChunkMask.REGION_WIDTH, BLOCKS_PER_REGION);
+    }
+
+    @Override
+    public String toString()
+    {
+        /* Retourne la description de la zone, pour les journaux.
+         * Retour : description en question.
+         * Paramètres : aucun. */
+
+        if(circular)
+            return "radius of " + (long)radius + " blocks around X:" + (long)Math.floor(xCenter) + " Z:" + (long)Math.floor(zCenter);
+
+        return "chunks X:" + xChunkMin + " to " + xChunkMax + ", Z:" + zChunkMin + " to " + zChunkMax;
+    }
+
+    // Méthodes privées statiques.
+
+    private static int toChunk(double blockCoordinate)
+    {
+        /* Retourne la coordonnée du chunk contenant un bloc.
+         * Retour : coordonnée en question.
+         * Paramètres : coordonnée du bloc. */
+
+        return (int)Math.floor(blockCoordinate / BLOCKS_PER_CHUNK);
+    }
+
+    // Méthodes privées de classe.
+
+    private boolean intersectsBlocks(long xSquare, long zSquare, int chunksPerSquare, int blocksPerSquare)
+    {
+        /* Indique si un carré aligné sur la grille (chunk ou région) recoupe la zone.
+         * Retour : oui ou non.
+         * Paramètres : -xSquare, zSquare : coordonnées du carré, en unités de sa taille.
+         *              -chunksPerSquare  : côté du carré, en chunks.
+         *              -blocksPerSquare  : côté du carré, en blocs. */
+
+        double xNearest = 0.0D; // Ecart du centre au point du carré le plus proche.
+        double zNearest = 0.0D;
+
+        if(((((xSquare + 1L) * chunksPerSquare) - 1L) < xChunkMin) || ((xSquare * chunksPerSquare) > xChunkMax) || ((((zSquare + 1L) * chunksPerSquare) - 1L) < zChunkMin) || ((zSquare * chunksPerSquare) > zChunkMax))
+            return false;
+
+        if(!circular)
+            return true;
+
+        xNearest = Math.max((double)xSquare * blocksPerSquare, Math.min(xCenter, ((double)xSquare + 1.0D) * blocksPerSquare)) - xCenter;
+        zNearest = Math.max((double)zSquare * blocksPerSquare, Math.min(zCenter, ((double)zSquare + 1.0D) * blocksPerSquare)) - zCenter;
+
+        return ((xNearest * xNearest) + (zNearest * zNearest)) <= (radius * radius);
+    }
+}
@@ -0,0 +1,33 @@
+/* RefreshState.java
+ * Enumération des états d'une tâche de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Définition de l'énumération.
+
+enum RefreshState
+{
+    /* Etats du cycle de vie d'une tâche de raffraichissement. Les demandes (pause, arrêt) sont prises en compte par
+     * la tâche entre deux lots de chunks. */
+
+    RUNNING,  // En cours.
+    PAUSING,  // Pause demandée, effective au prochain lot.
+    PAUSED,   // En pause.
+    STOPPING, // Arrêt demandé, effectif au prochain lot.
+    DONE,     // Terminée : achevée, ou arrêtée à la demande.
+    FAILED;   // Terminée sur une erreur.
+
+    // Méthodes publiques.
+
+    public boolean isTerminal()
+    {
+        /* Indique si l'état est final.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return (this == DONE) || (this == FAILED);
+    }
+}
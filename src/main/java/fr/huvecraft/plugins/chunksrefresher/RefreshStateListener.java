@@ -0,0 +1,19 @@
+/* RefreshStateListener.java
+ * Interface d'écoute des changements d'état des tâches de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Définition de l'interface.
+
+interface RefreshStateListener
+{
+    /* Interface des objets prévenus des changements d'état d'une tâche de raffraichissement. Les appels sont faits
+     * depuis le thread ayant provoqué le changement (commande, thread de la tâche) : ils doivent être brefs. */
+
+    // Méthodes.
+
+    void onStateChanged(AsyncChunksRefresher achunksRefresher, RefreshState previousState, RefreshState newState);
+}
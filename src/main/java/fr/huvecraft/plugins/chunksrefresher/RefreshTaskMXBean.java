@@ -0,0 +1,38 @@
+/* RefreshTaskMXBean.java
+ * Interface JMX d'une tâche de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Définition de l'interface.
+
+public interface RefreshTaskMXBean
+{
+    /* Interface de supervision et de pilotage d'une tâche de raffraichissement, enregistrée sous le nom
+     * fr.huvecraft.chunksrefresher:type=RefreshTask,world=<monde>. */
+
+    // Attributs.
+
+    double getBatchMillisMax();
+    double getBatchMillisP50();
+    double getBatchMillisP99();
+    long getChunksRefreshed();
+    long getChunksRemaining();
+    double getChunksPerSecond();
+    long getEtaSeconds();
+    long getRegionsDone();
+    long getRegionsRemaining();
+    String getState();
+    double getTickBudgetShareMillis();
+    String getWorldName();
+    boolean isMemoryThrottled();
+    boolean isPaused();
+
+    // Opérations.
+
+    void cancel();
+    void pause();
+    void resume();
+}
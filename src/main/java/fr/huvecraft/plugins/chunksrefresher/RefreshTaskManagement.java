@@ -0,0 +1,141 @@
+/* RefreshTaskManagement.java
+ * Classe JMX d'une tâche de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Définition de la classe.
+
+final class RefreshTaskManagement implements RefreshTaskMXBean
+{
+    /* Implémentation de l'interface JMX d'une tâche de raffraichissement : les attributs sont lus dans les mesures
+     * de la tâche, les opérations passent par la commande console du plugin. */
+
+    // Membres.
+
+    private AsyncChunksRefresher achunksRefresher; // Tâche supervisée.
+    private ChunksRefresher chunkRefresherPlugin;  // Instance du plugin hôte.
+
+    // Constructeurs.
+
+    public RefreshTaskManagement(ChunksRefresher chunkRefresherPlugin, AsyncChunksRefresher achunksRefresher) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. */
+
+        // Contrôle.
+
+        if((!(chunkRefresherPlugin instanceof ChunksRefresher)) || (!(achunksRefresher instanceof AsyncChunksRefresher)))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.achunksRefresher     = achunksRefresher;
+        this.chunkRefresherPlugin = chunkRefresherPlugin;
+    }
+
+    // Méthodes publiques de classe.
+
+    @Override
+    public void cancel()
+    {
+        chunkRefresherPlugin.runManagementCommand(getWorldName(), "cancel");
+    }
+
+    @Override
+    public double getBatchMillisMax()
+    {
+        return achunksRefresher.getMetrics().getBatchMillisMax();
+    }
+
+    @Override
+    public double getBatchMillisP50()
+    {
+        return achunksRefresher.getMetrics().getBatchMillisPercentile(0.5D);
+    }
+
+    @Override
+    public double getBatchMillisP99()
+    {
+        return achunksRefresher.getMetrics().getBatchMillisPercentile(0.99D);
+    }
+
+    @Override
+    public long getChunksRefreshed()
+    {
+        return achunksRefresher.getMetrics().getChunksRefreshed();
+    }
+
+    @Override
+    public long getChunksRemaining()
+    {
+        return achunksRefresher.getMetrics().getChunksRemaining();
+    }
+
+    @Override
+    public double getChunksPerSecond()
+    {
+        return achunksRefresher.getMetrics().getChunksPerSecond();
+    }
+
+    @Override
+    public long getEtaSeconds()
+    {
+        return achunksRefresher.getMetrics().getEtaSeconds();
+    }
+
+    @Override
+    public long getRegionsDone()
+    {
+        return achunksRefresher.getMetrics().getRegionCount();
+    }
+
+    @Override
+    public long getRegionsRemaining()
+    {
+        return achunksRefresher.getMetrics().getRegionsRemaining();
+    }
+
+    @Override
+    public String getState()
+    {
+        return achunksRefresher.getState().name();
+    }
+
+    @Override
+    public double getTickBudgetShareMillis()
+    {
+        return chunkRefresherPlugin.getRefreshCoordinator().getBudgetShareNanos(achunksRefresher) / 1000000.0D;
+    }
+
+    @Override
+    public String getWorldName()
+    {
+        return achunksRefresher.getWorld().getName();
+    }
+
+    @Override
+    public boolean isMemoryThrottled()
+    {
+        return achunksRefresher.isMemoryThrottled();
+    }
+
+    @Override
+    public boolean isPaused()
+    {
+        return achunksRefresher.isPaused();
+    }
+
+    @Override
+    public void pause()
+    {
+        chunkRefresherPlugin.runManagementCommand(getWorldName(), "pause");
+    }
+
+    @Override
+    public void resume()
+    {
+        chunkRefresherPlugin.runManagementCommand(getWorldName(), "resume");
+    }
+}
@@ -0,0 +1,172 @@
+/* RegionOrder.java
+ * Enumération des ordres de traitement des régions du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+
+// Définition de l'énumération.
+
+enum RegionOrder
+{
+    /* Ordres dans lesquels les régions d'un monde peuvent être traitées. Ils ne changent que l'ordre de couverture
+     * de la carte : dans la simulation, aucun n'est plus rapide que l'ordre naturel au-delà du bruit de mesure. */
+
+    NATURAL, // Ordre de listage du dossier des régions.
+    SPIRAL,  // Spirale partant de la région du spawn : anneau par anneau, puis par angle.
+    HILBERT, // Courbe de Hilbert sur le rectangle englobant les régions : régions successives toujours voisines.
+    ZORDER,  // Courbe en Z (ordre de Morton) sur le rectangle englobant les régions.
+    LARGEST; // Plus gros fichiers d'abord, pour une estimation de durée restante plus stable.
+
+    // Méthodes publiques statiques.
+
+    public static RegionOrder parse(String name) throws IllegalArgumentException
+    {
+        /* Retourne l'ordre correspondant à un nom, insensible à la casse.
+         * Retour : ordre en question.
+         * Paramètres : nom de l'ordre. */
+
+        return valueOf(name.toUpperCase());
+    }
+
+    // Méthodes publiques.
+
+    public void sort(long[] regions, int regionsCount, File regionFolder, int xSpawnRegion, int zSpawnRegion)
+    {
+        /* Trie des régions selon cet ordre.
+         * Retour : aucun.
+         * Paramètres : -regions                    : coordonnées regroupées des régions, triées en place.
+         *              -regionsCount               : nombre de régions de la table.
+         *              -regionFolder               : dossier des régions, pour la taille des fichiers.
+         *              -xSpawnRegion, zSpawnRegion : coordonnées de la région du spawn. */
+
+        ArrayList<RegionSortEntry> sortEntries = null;              // Régions et clés de tri.
+        int xMin                               = Integer.MAX_VALUE; // Rectangle englobant les régions.
+        int xMax                               = Integer.MIN_VALUE;
+        int zMin                               = Integer.MAX_VALUE;
+        int zMax                               = Integer.MIN_VALUE;
+        int curveOrder                         = 1;                 // Côté du carré parcouru par les courbes, puissance de 2.
+
+        if((this == NATURAL) || (regionsCount < 2))
+            return;
+
+        // Lit les coordonnées des régions.
+
+        sortEntries = new ArrayList<RegionSortEntry>(regionsCount);
+
+        for(int regionIndex = 0; regionIndex < regionsCount; regionIndex++)
+        {
+            RegionSortEntry sortEntry = new RegionSortEntry(regions[regionIndex]); // Entrée de la région.
+
+            xMin = Math.min(xMin, sortEntry.xRegion);
+            xMax = Math.max(xMax, sortEntry.xRegion);
+            zMin = Math.min(zMin, sortEntry.zRegion);
+            zMax = Math.max(zMax, sortEntry.zRegion);
+
+            sortEntries.add(sortEntry);
+        }
+
+        while((curveOrder < ((long)xMax - xMin + 1L)) || (curveOrder < ((long)zMax - zMin + 1L)))
+            curveOrder <<= 1;
+
+        // Calcule les clés de tri.
+
+        for(RegionSortEntry sortEntry : sortEntries)
+        {
+            switch(this)
+            {
+                case SPIRAL:
+                    sortEntry.key = spiralKey(sortEntry.xRegion - xSpawnRegion, sortEntry.zRegion - zSpawnRegion);
+
+                    break;
+
+                case HILBERT:
+                    sortEntry.key = RegionCoordinates.hilbertKey(curveOrder, sortEntry.xRegion - xMin, sortEntry.zRegion - zMin);
+
+                    break;
+
+                case ZORDER:
+                    sortEntry.key = mortonKey(sortEntry.xRegion - xMin, sortEntry.zRegion - zMin);
+
+                    break;
+
+                case LARGEST:
+                    sortEntry.key = -new File(regionFolder, RegionCoordinates.toFilename(sortEntry.packedCoordinates, RegionSource.REGION_EXTENSION)).length();
+
+                    break;
+
+                default:
+                    throw new UnsupportedOperationException();
+            }
+        }
+
+        // Tri.
+
+        sortEntries.sort(Comparator.comparingLong(sortEntry -> sortEntry.key));
+
+        for(int regionIndex = 0; regionIndex < regionsCount; regionIndex++)
+            regions[regionIndex] = sortEntries.get(regionIndex).packedCoordinates;
+    }
+
+    // Méthodes privées statiques.
+
+    private static long mortonKey(int x, int z)
+    {
+        /* Retourne l'entrelacement des bits de deux coordonnées positives.
+         * Retour : clé en question.
+         * Paramètres : coordonnées du point. */
+
+        long key = 0L; // Clé calculée.
+
+        for(int bit = 0; bit < 31; bit++)
+            key |= ((((long)x >>> bit) & 1L) << (2 * bit)) | ((((long)z >>> bit) & 1L) << ((2 * bit) + 1));
+
+        return key;
+    }
+
+    private static long spiralKey(int dx, int dz)
+    {
+        /* Retourne la position d'une région dans une spirale partant de l'origine : d'abord l'anneau, puis l'angle.
+         * Retour : clé en question.
+         * Paramètres : décalage de la région par rapport à l'origine. */
+
+        long ring  = Math.max(Math.abs((long)dx), Math.abs((long)dz));   // Anneau de la région.
+        long angle = (long)((Math.atan2(dz, dx) + Math.PI) * 1000000.0D); // Angle dans l'anneau.
+
+        return (ring << 32) | angle;
+    }
+}
+
+// Définitions de classes associées privées.
+
+final class RegionSortEntry
+{
+    /* Région et sa clé de tri. */
+
+    // Membres.
+
+    int xRegion;            // Coordonnée X de la région.
+    int zRegion;            // Coordonnée Z de la région.
+    long key;               // Clé de tri.
+    long packedCoordinates; // Coordonnées regroupées de la région.
+
+    // Constructeurs.
+
+    public RegionSortEntry(long packedCoordinates)
+    {
+        /* Constructeur par défaut. */
+
+        this.xRegion           = RegionCoordinates.unpackX(packedCoordinates);
+        this.zRegion           = RegionCoordinates.unpackZ(packedCoordinates);
+        this.key               = 0L;
+        this.packedCoordinates = packedCoordinates;
+    }
+}
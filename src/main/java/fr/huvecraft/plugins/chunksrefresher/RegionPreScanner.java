@@ -0,0 +1,275 @@
+/* RegionPreScanner.java
+ * Classe de pré-analyse asynchrone des fichiers de régions du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionHeader;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionValidator;
+import fr.huvecraft.plugins.chunksrefresher.region.StaleChunksScanner;
+import fr.huvecraft.plugins.chunksrefresher.region.UninhabitedChunksScanner;
+import java.io.File;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Définition de la classe.
+
+final class RegionPreScanner
+{
+    /* Classe lisant par anticipation, hors du thread Bukkit, les en-têtes des fichiers de régions à traiter,
+     * afin de ne transmettre à l'énumérateur synchrone que les chunks réellement présents.
+     * En mode incrémental, seuls les chunks nouveaux ou sauvegardés depuis l'instantané des dates sont retenus.
+     * Si une version de format est visée, les données des chunks retenus sont aussi analysées, dans le pool fork-join,
+     * pour ne garder que les chunks périmés. Les chunks hors de la zone de la tâche sont écartés avant cette analyse.
+     * En mode génération, les chunks de la zone absents de l'en-tête, ou de toute la région si son fichier n'existe pas
+     * encore, sont ajoutés au masque. Si un mode d'élagage est demandé, les chunks jamais habités sont relevés avant
+     * l'analyse des versions, comptés, puis écartés du masque selon le mode. En mode retrait, ils sont gardés jusqu'à ce
+     * que la tâche les demande à la fin du traitement de leur région : une tâche interrompue ne retire rien des régions
+     * analysées par anticipation. Si un rapport de quarantaine est fourni, les chunks sont d'abord contrôlés, et les
+     * chunks défectueux écartés et ajoutés au rapport, pour que le serveur ne bute pas sur eux. */
+
+    // Constantes.
+
+    private static final int LOOKAHEAD = 8; // Nombre de régions analysées en avance.
+
+    // Membres.
+
+    private boolean generate;                                 // Retenir aussi les chunks manquants de la zone, à générer ?
+    private HashMap<Integer, Future<ChunkMask>> pendingScans; // Analyses en cours, par index de région.
+    private ConcurrentHashMap<Long, ChunkMask> pruneMasks;    // Chunks jamais habités à retirer, par région analysée non encore traitée.
+    private LongAdder uninhabitedBytes;                       // Taille réservée aux chunks jamais habités relevés, en octets.
+    private LongAdder uninhabitedChunks;                      // Nombre de chunks jamais habités relevés.
+    private PruneMode pruneMode;                              // Traitement des chunks jamais habités, null pour ne pas les relever.
+    private QuarantineReport quarantineReport;                // Rapport des chunks défectueux, null pour ne pas contrôler les régions.
+    private RegionSource regionSource;                        // Source des régions du monde.
+    private int nextScanIndex;                                // Index de la prochaine région à analyser par anticipation.
+    private int targetDataVersion;                            // Version de format visée, 0 pour retenir tous les chunks présents.
+    private RefreshScope refreshScope;                        // Zone de la tâche, null pour le monde entier.
+    private TimestampSnapshot timestampSnapshot;              // Instantané des dates, null hors mode incrémental.
+
+    // Constructeurs.
+
+    public RegionPreScanner(RegionSource regionSource, int targetDataVersion, TimestampSnapshot timestampSnapshot, RefreshScope refreshScope, boolean generate, PruneMode pruneMode, QuarantineReport quarantineReport) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. Le mode génération exige une zone. */
+
+        // Contrôle.
+
+        if((!(regionSource instanceof RegionSource)) || (targetDataVersion < 0) || (generate && !(refreshScope instanceof RefreshScope)))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.generate          = generate;
+        this.pendingScans      = new HashMap<Integer, Future<ChunkMask>>();
+        this.pruneMasks        = new ConcurrentHashMap<Long, ChunkMask>();
+        this.uninhabitedBytes  = new LongAdder();
+        this.uninhabitedChunks = new LongAdder();
+        this.pruneMode         = pruneMode;
+        this.quarantineReport  = quarantineReport;
+        this.regionSource      = regionSource;
+        this.nextScanIndex     = 0;
+        this.targetDataVersion = targetDataVersion;
+        this.refreshScope      = refreshScope;
+        this.timestampSnapshot = timestampSnapshot;
+    }
+
+    // Méthodes publiques de classe.
+
+    public void close()
+    {
+        /* Abandonne les analyses en cours.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        for(Future<ChunkMask> currentScan : pendingScans.values())
+            currentScan.cancel(false);
+
+        pendingScans.clear();
+        pruneMasks.clear();
+    }
+
+    public ChunkMask getRegionMask(int regionIndex) throws InterruptedException, ExecutionException
+    {
+        /* Retourne le masque des chunks à traiter dans une région, en lançant l'analyse des suivantes. Une région
+         * reportée peut être demandée après les suivantes, sans que celles déjà traitées soient analysées à nouveau.
+         * Retour : masque en question.
+         * Paramètres : index de la région dans la source, déjà relevée. */
+
+        Future<ChunkMask> regionScan = null; // Analyse de la région demandée.
+
+        // Lance l'analyse de la région demandée si nécessaire, puis celles des régions à venir déjà relevées.
+
+        if(!(pendingScans.containsKey(regionIndex)))
+            pendingScans.put(regionIndex, submitScan(regionSource.get(regionIndex)));
+
+        for(nextScanIndex = Math.max(nextScanIndex, regionIndex + 1); (nextScanIndex < regionSource.size()) && (nextScanIndex <= (regionIndex + LOOKAHEAD)); nextScanIndex++)
+            pendingScans.put(nextScanIndex, submitScan(regionSource.get(nextScanIndex)));
+
+        // Attend le résultat de la région demandée.
+
+        regionScan = pendingScans.remove(regionIndex);
+
+        return regionScan.get();
+    }
+
+    public long getUninhabitedBytes()
+    {
+        /* Retourne la taille réservée dans les fichiers aux chunks jamais habités relevés jusqu'ici.
+         * Retour : taille en octets.
+         * Paramètres : aucun. */
+
+        return uninhabitedBytes.sum();
+    }
+
+    public long getUninhabitedChunks()
+    {
+        /* Retourne le nombre de chunks jamais habités relevés jusqu'ici.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return uninhabitedChunks.sum();
+    }
+
+    public ChunkMask takePruneMask(int xRegion, int zRegion)
+    {
+        /* Retourne et oublie les chunks jamais habités à retirer d'une région analysée, pour les mettre en file de
+         * retrait une fois la région traitée.
+         * Retour : masque en question, null si aucun chunk n'est à retirer.
+         * Paramètres : coordonnées de la région. */
+
+        return pruneMasks.remove(RegionCoordinates.pack(xRegion, zRegion));
+    }
+
+    // Méthodes privées de classe.
+
+    private ChunkMask getDefectsMask(String[] defects)
+    {
+        /* Retourne le masque des chunks défectueux.
+         * Retour : masque en question.
+         * Paramètres : défaut de chaque chunk, null pour un chunk sain. */
+
+        ChunkMask defectsMask = new ChunkMask(); // Masque à retourner.
+
+        for(int chunkIndex = 0; chunkIndex < defects.length; chunkIndex++)
+        {
+            if(defects[chunkIndex] instanceof String)
+                defectsMask.set(chunkIndex);
+        }
+
+        return defectsMask;
+    }
+
+    private void recordUninhabited(RegionHeader regionHeader, int xRegion, int zRegion, ChunkMask uninhabitedMask)
+    {
+        /* Compte les chunks jamais habités d'une région, et les garde pour le retrait selon le mode d'élagage.
+         * Retour : aucun.
+         * Paramètres : -regionHeader     : en-tête de la région.
+         *              -xRegion, zRegion : coordonnées de la région.
+         *              -uninhabitedMask  : chunks jamais habités relevés. */
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            if(uninhabitedMask.get(chunkIndex))
+                uninhabitedBytes.add((long)regionHeader.getSectorCount(chunkIndex) * RegionHeader.SECTOR_SIZE);
+        }
+
+        uninhabitedChunks.add(uninhabitedMask.count());
+
+        if(pruneMode == PruneMode.REMOVE)
+            pruneMasks.put(RegionCoordinates.pack(xRegion, zRegion), uninhabitedMask);
+    }
+
+    private Future<ChunkMask> submitScan(long packedCoordinates)
+    {
+        /* Lance l'analyse d'un fichier de région dans le pool de threads commun.
+         * Retour : objet Future du masque des chunks à traiter.
+         * Paramètres : coordonnées regroupées de la région. */
+
+        return ForkJoinPool.commonPool().submit(() ->
+        {
+            File regionFile           = regionSource.getFile(packedCoordinates);      // Fichier de la région.
+            RegionHeader regionHeader = null;                                         // En-tête de la région.
+            ChunkMask regionMask      = null;                                         // Chunks retenus.
+            ChunkMask missingMask     = null;                                         // Chunks à générer, en mode génération.
+            ChunkMask uninhabitedMask = null;                                         // Chunks jamais habités, en mode élagage.
+            String[] defects          = null;                                         // Défauts des chunks, en mode contrôle.
+            int xRegion               = RegionCoordinates.unpackX(packedCoordinates); // Coordonnées de la région.
+            int zRegion               = RegionCoordinates.unpackZ(packedCoordinates);
+
+            // Mode génération : une région sans fichier est entièrement à générer, dans la limite de la zone.
+
+            if(generate && !regionFile.isFile())
+                return refreshScope.getRegionMask(xRegion, zRegion);
+
+            regionHeader = RegionHeader.read(regionFile);
+
+            if(generate)
+            {
+                missingMask = refreshScope.getRegionMask(xRegion, zRegion);
+
+                missingMask.andNot(regionHeader.getOccupancyMask());
+            }
+
+            // Chunks existants à raffraichir.
+
+            if(timestampSnapshot instanceof TimestampSnapshot)
+                regionMask = timestampSnapshot.getChangedMask(xRegion, zRegion, regionHeader);
+
+            else
+                regionMask = regionHeader.getOccupancyMask();
+
+            if(refreshScope instanceof RefreshScope)
+                regionMask.and(refreshScope.getRegionMask(xRegion, zRegion));
+
+            // Chunks défectueux, mis en quarantaine.
+
+            if((quarantineReport instanceof QuarantineReport) && !regionMask.isEmpty())
+            {
+                defects = RegionValidator.validate(regionFile, regionHeader, regionMask);
+
+                for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+                {
+                    if(defects[chunkIndex] instanceof String)
+                    {
+                        quarantineReport.add(xRegion, zRegion, defects);
+
+                        regionMask.andNot(getDefectsMask(defects));
+
+                        break;
+                    }
+                }
+            }
+
+            // Chunks jamais habités.
+
+            if((pruneMode instanceof PruneMode) && !regionMask.isEmpty() && !(uninhabitedMask = UninhabitedChunksScanner.scan(regionFile, regionHeader, regionMask)).isEmpty())
+            {
+                recordUninhabited(regionHeader, xRegion, zRegion, uninhabitedMask);
+
+                if(pruneMode.isExcluding())
+                    regionMask.andNot(uninhabitedMask);
+            }
+
+            if((targetDataVersion != 0) && !regionMask.isEmpty())
+                regionMask = StaleChunksScanner.scan(regionFile, regionHeader, regionMask, targetDataVersion);
+
+            // Ajoute les chunks à générer.
+
+            if(missingMask instanceof ChunkMask)
+                regionMask.or(missingMask);
+
+            return regionMask;
+        });
+    }
+}
@@ -0,0 +1,63 @@
+/* RegionRefreshEvent.java
+ * Evénement JFR du traitement d'une région du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.bukkit.World;
+
+// Définition de la classe.
+
+@Name("fr.huvecraft.chunksrefresher.RegionRefresh")
+@Label("Region Refresh")
+@Category("ChunksRefresher")
+@Description("Refresh of a region file, from the determination of its coordinates to its journal write.")
+final class RegionRefreshEvent extends jdk.jfr.Event
+{
+    /* Evénement Java Flight Recorder couvrant le traitement d'une région, sans coût si l'enregistrement est inactif. */
+
+    // Membres.
+
+    @Label("World")
+    String world; // Nom du monde.
+
+    @Label("Region X")
+    int regionX; // Coordonnées de la région.
+
+    @Label("Region Z")
+    int regionZ;
+
+    @Label("Chunks Refreshed")
+    int chunksRefreshed; // Chunks traités dans la région.
+
+    // Méthodes publiques de classe.
+
+    public void commit(World world, int regionX, int regionZ, int chunksRefreshed)
+    {
+        /* Termine l'événement et l'enregistre si l'enregistrement est actif.
+         * Retour : aucun.
+         * Paramètres : -world            : monde traité.
+         *              -regionX, regionZ : coordonnées de la région.
+         *              -chunksRefreshed  : chunks traités dans la région. */
+
+        end();
+
+        if(shouldCommit())
+        {
+            this.world           = world.getName();
+            this.regionX         = regionX;
+            this.regionZ         = regionZ;
+            this.chunksRefreshed = chunksRefreshed;
+
+            commit();
+        }
+    }
+}
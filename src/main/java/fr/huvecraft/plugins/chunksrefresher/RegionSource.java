@@ -0,0 +1,287 @@
+/* RegionSource.java
+ * Classe de l'exploration du dossier des régions du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongPredicate;
+
+// Définition de la classe.
+
+final class RegionSource implements Runnable
+{
+    /* Source des régions d'un monde, alimentée par l'exploration en flux (DirectoryStream) du dossier des régions,
+     * dans un thread dédié : les premières régions sont disponibles avant la fin de l'exploration.
+     * Les régions sont conservées sous forme de coordonnées regroupées (8 octets par région), les fichiers étant
+     * reconstruits à la demande. Les régions écartées par le filtre éventuel ne sont pas retenues. Les fichiers
+     * indicateurs .chkref des versions précédentes sont relevés lors du même parcours. En mode génération, les régions
+     * de la zone sans fichier sont ajoutées à la fin de l'exploration. */
+
+    // Constantes.
+
+    public static final String INDICATOR_EXTENSION = ".chkref"; // Extension des fichiers indicateurs.
+    public static final String REGION_EXTENSION    = ".mca";    // Extension des fichiers de régions.
+    private static final int INITIAL_CAPACITY      = 1024;      // Capacité initiale de la table des régions.
+
+    // Membres.
+
+    private ConcurrentLinkedQueue<Long> refreshedIndicators; // Coordonnées des fichiers indicateurs relevés, pas encore repris.
+    private File regionFolder;                               // Dossier des régions.
+    private IOException scanError;                           // Erreur ayant interrompu l'exploration, null sinon.
+    private LongPredicate regionFilter;                      // Filtre des régions à retenir, null pour toutes.
+    private RefreshScope generationScope;                    // Zone dont les régions sans fichier sont à ajouter, null hors mode génération.
+    private String worldName;                                // Nom du monde, pour le nom du thread.
+    private boolean complete;                                // Exploration terminée ?
+    private volatile boolean closed;                         // Exploration abandonnée ?
+    private int regionsCount;                                // Nombre de régions relevées.
+    private long[] regions;                                  // Coordonnées regroupées des régions, dans l'ordre de listage.
+
+    // Constructeurs.
+
+    public RegionSource(File regionFolder, String worldName, LongPredicate regionFilter, RefreshScope generationScope) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. */
+
+        // Contrôle.
+
+        if((!(regionFolder instanceof File)) || (!(worldName instanceof String)))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.refreshedIndicators = new ConcurrentLinkedQueue<Long>();
+        this.regionFolder        = regionFolder;
+        this.scanError           = null;
+        this.regionFilter        = regionFilter;
+        this.generationScope     = generationScope;
+        this.worldName           = worldName;
+        this.complete            = false;
+        this.closed              = false;
+        this.regionsCount        = 0;
+        this.regions             = new long[INITIAL_CAPACITY];
+    }
+
+    // Méthodes publiques de classe.
+
+    public synchronized boolean await(int regionIndex) throws InterruptedException, IOException
+    {
+        /* Attend qu'une région soit relevée, ou que l'exploration soit terminée.
+         * Retour : la région existe ?
+         * Paramètres : index de la région. */
+
+        while((regionIndex >= regionsCount) && !complete)
+            wait();
+
+        if((regionIndex >= regionsCount) && (scanError instanceof IOException))
+            throw new IOException("Can't list world region files: " + scanError.getMessage(), scanError);
+
+        return regionIndex < regionsCount;
+    }
+
+    public synchronized int awaitCompletion() throws InterruptedException, IOException
+    {
+        /* Attend la fin de l'exploration.
+         * Retour : nombre de régions relevées.
+         * Paramètres : aucun. */
+
+        while(!complete)
+            wait();
+
+        if(scanError instanceof IOException)
+            throw new IOException("Can't list world region files: " + scanError.getMessage(), scanError);
+
+        return regionsCount;
+    }
+
+    public void close()
+    {
+        /* Abandonne l'exploration en cours.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        closed = true;
+    }
+
+    public synchronized long get(int regionIndex) throws IndexOutOfBoundsException
+    {
+        /* Retourne les coordonnées d'une région déjà relevée.
+         * Retour : coordonnées regroupées.
+         * Paramètres : index de la région. */
+
+        if((regionIndex < 0) || (regionIndex >= regionsCount))
+            throw new IndexOutOfBoundsException();
+
+        return regions[regionIndex];
+    }
+
+    public File getFile(long packedCoordinates)
+    {
+        /* Retourne le fichier d'une région.
+         * Retour : fichier en question.
+         * Paramètres : coordonnées regroupées de la région. */
+
+        return new File(regionFolder, RegionCoordinates.toFilename(packedCoordinates, REGION_EXTENSION));
+    }
+
+    public File getIndicatorFile(long packedCoordinates)
+    {
+        /* Retourne le fichier indicateur d'une région.
+         * Retour : fichier en question.
+         * Paramètres : coordonnées regroupées de la région. */
+
+        return new File(regionFolder, RegionCoordinates.toFilename(packedCoordinates, INDICATOR_EXTENSION));
+    }
+
+    public synchronized boolean isComplete()
+    {
+        /* Indique si l'exploration est terminée.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        return complete;
+    }
+
+    public Long pollRefreshedIndicator()
+    {
+        /* Retire et retourne les coordonnées d'un fichier indicateur relevé.
+         * Retour : coordonnées regroupées, null si aucun n'est en attente.
+         * Paramètres : aucun. */
+
+        return refreshedIndicators.poll();
+    }
+
+    @Override
+    public void run()
+    {
+        /* Explore le dossier des régions, sans charger sa liste complète en mémoire.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        try(DirectoryStream<Path> directoryStream = Files.newDirectoryStream(regionFolder.toPath()))
+        {
+            for(Path currentPath : directoryStream)
+            {
+                String filename = currentPath.getFileName().toString(); // Nom du fichier.
+
+                if(closed)
+                    break;
+
+                if(RegionCoordinates.isRegionFilename(filename, REGION_EXTENSION))
+                {
+                    long packedCoordinates = RegionCoordinates.parseFilename(filename); // Coordonnées de la région.
+
+                    if((!(regionFilter instanceof LongPredicate)) || regionFilter.test(packedCoordinates))
+                        addRegion(packedCoordinates);
+                }
+
+                else if(RegionCoordinates.isRegionFilename(filename, INDICATOR_EXTENSION))
+                    refreshedIndicators.add(RegionCoordinates.parseFilename(filename));
+            }
+
+            // Mode génération : ajoute les régions de la zone encore sans fichier.
+
+            if((generationScope instanceof RefreshScope) && !closed)
+                addMissingRegions();
+        }
+
+        catch(IOException error)
+        {
+            scanError = error;
+        }
+
+        catch(DirectoryIteratorException error)
+        {
+            scanError = error.getCause();
+        }
+
+        finally
+        {
+            synchronized(this)
+            {
+                complete = true;
+
+                notifyAll();
+            }
+        }
+    }
+
+    public synchronized int size()
+    {
+        /* Retourne le nombre de régions relevées jusqu'ici.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return regionsCount;
+    }
+
+    public synchronized void sort(RegionOrder order, int xSpawnRegion, int zSpawnRegion) throws IllegalStateException
+    {
+        /* Trie les régions selon un ordre, une fois l'exploration terminée.
+         * Retour : aucun.
+         * Paramètres : -order                      : ordre en question.
+         *              -xSpawnRegion, zSpawnRegion : coordonnées de la région du spawn. */
+
+        if(!complete)
+            throw new IllegalStateException("Region folder scan not completed.");
+
+        order.sort(regions, regionsCount, regionFolder, xSpawnRegion, zSpawnRegion);
+    }
+
+    public void start()
+    {
+        /* Lance l'exploration dans un thread dédié.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        Thread scanThread = new Thread(this, "ChunksRefresher region scan - " + worldName); // Thread de l'exploration.
+
+        scanThread.setDaemon(true);
+        scanThread.start();
+    }
+
+    // Méthodes privées de classe.
+
+    private synchronized void addMissingRegions()
+    {
+        /* Ajoute, en mode génération, les régions de la zone dont aucun fichier n'a été relevé.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        long[] listedRegions = Arrays.copyOf(regions, regionsCount); // Régions relevées, triées pour la recherche.
+
+        Arrays.sort(listedRegions);
+
+        for(long packedCoordinates : generationScope.getRegions())
+        {
+            if(Arrays.binarySearch(listedRegions, packedCoordinates) < 0)
+                addRegion(packedCoordinates);
+        }
+    }
+
+    private synchronized void addRegion(long packedCoordinates)
+    {
+        /* Ajoute une région relevée et réveille le consommateur en attente.
+         * Retour : aucun.
+         * Paramètres : coordonnées regroupées de la région. */
+
+        if(regionsCount == regions.length)
+            regions = Arrays.copyOf(regions, regions.length * 2);
+
+        regions[regionsCount++] = packedCoordinates;
+
+        notifyAll();
+    }
+}
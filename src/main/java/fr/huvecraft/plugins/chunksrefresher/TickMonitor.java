@@ -0,0 +1,85 @@
+/* TickMonitor.java
+ * Classe de mesure de la durée des ticks du serveur du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import java.util.Arrays;
+import org.bukkit.scheduler.BukkitRunnable;
+
+// Définition de la classe.
+
+final class TickMonitor extends BukkitRunnable
+{
+    /* Tâche synchrone exécutée à chaque tick, mesurant l'intervalle entre deux ticks consécutifs.
+     * La moyenne glissante est lisible depuis n'importe quel thread. */
+
+    // Constantes.
+
+    public static final double TICK_MILLIS = 50.0D; // Durée nominale d'un tick.
+    private static final int SAMPLES       = 20;    // Nombre de ticks de la moyenne glissante (1 seconde).
+
+    // Membres.
+
+    private long[] tickDurations;              // Durées des derniers ticks, en nanosecondes.
+    private long lastTickTime;                 // Timestamp du tick précédent.
+    private long tickDurationsSum;             // Somme des durées mémorisées.
+    private int sampleIndex;                   // Prochain emplacement à remplacer.
+    private volatile double averageTickMillis; // Moyenne glissante de la durée des ticks.
+
+    // Constructeurs.
+
+    public TickMonitor()
+    {
+        /* Constructeur par défaut. */
+
+        this.tickDurations     = new long[SAMPLES];
+        this.lastTickTime      = 0L;
+        this.tickDurationsSum  = 0L;
+        this.sampleIndex       = 0;
+        this.averageTickMillis = TICK_MILLIS;
+
+        // Considère les ticks précédant la première mesure comme nominaux.
+
+        Arrays.fill(tickDurations, (long)(TICK_MILLIS * 1000000.0D));
+
+        tickDurationsSum = SAMPLES * tickDurations[0];
+    }
+
+    // Méthodes publiques de classe.
+
+    public double getAverageTickMillis()
+    {
+        /* Retourne la durée moyenne des derniers ticks.
+         * Retour : durée en millisecondes.
+         * Paramètres : aucun. */
+
+        return averageTickMillis;
+    }
+
+    @Override
+    public void run()
+    {
+        /* Fonction appellée à chaque tick par Bukkit.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        long now = System.nanoTime(); // Timestamp du tick.
+
+        if(lastTickTime != 0L)
+        {
+            tickDurationsSum          -= tickDurations[sampleIndex];
+            tickDurations[sampleIndex] = now - lastTickTime;
+            tickDurationsSum          += tickDurations[sampleIndex];
+            sampleIndex                = (sampleIndex + 1) % SAMPLES;
+
+            averageTickMillis = (tickDurationsSum / (double)SAMPLES) / 1000000.0D;
+        }
+
+        lastTickTime = now;
+    }
+}
@@ -0,0 +1,188 @@
+/* TimestampSnapshot.java
+ * Classe de l'instantané des dates de sauvegarde des chunks du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionHeader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+
+// Définition de la classe.
+
+final class TimestampSnapshot
+{
+    /* Instantané, pris à la fin d'un raffraichissement complet, des tables de dates des fichiers de régions d'un monde.
+     * Un raffraichissement incrémental ne charge ensuite que les chunks nouveaux ou sauvegardés depuis.
+     * Format : en-tête (signature sur 8 octets, version et nombre de régions sur 4 octets chacun),
+     *          puis pour chaque région : coordonnées regroupées (8 octets), table des dates (4 Kio).
+     * Le fichier est projeté en mémoire par fenêtres de régions, une projection ne pouvant dépasser 2 Gio. */
+
+    // Constantes.
+
+    public static final String FILE_NAME = "chkref.snapshot";                        // Nom du fichier, dans le dossier des régions.
+    private static final int ENTRY_SIZE  = 8 + (4 * ChunkMask.CHUNKS_PER_REGION);    // Taille d'une région dans l'instantané.
+    private static final int HEADER_SIZE = 16;                                       // Taille de l'en-tête.
+    private static final int WINDOW_SIZE = 65536;                                    // Nombre de régions par fenêtre projetée (256 Mio).
+    private static final int VERSION     = 1;                                        // Version du format.
+    private static final long SIGNATURE  = 0x43484B5245465453L;                      // "CHKREFTS".
+
+    // Membres.
+
+    private HashMap<Long, Integer> entries; // Index des régions dans l'instantané, par coordonnées regroupées.
+    private MappedByteBuffer[] windows;     // Projections des régions du fichier, en lecture seule, par fenêtre.
+
+    // Constructeurs.
+
+    private TimestampSnapshot(MappedByteBuffer[] windows, HashMap<Long, Integer> entries)
+    {
+        /* Constructeur par défaut. */
+
+        this.entries = entries;
+        this.windows = windows;
+    }
+
+    // Méthodes publiques statiques.
+
+    public static TimestampSnapshot load(File worldRegionFolder) throws IOException
+    {
+        /* Charge l'instantané d'un monde.
+         * Retour : instantané en question, null s'il n'existe pas.
+         * Paramètres : dossier des régions du monde. */
+
+        File snapshotFile              = new File(worldRegionFolder, FILE_NAME); // Fichier de l'instantané.
+        HashMap<Long, Integer> entries = new HashMap<Long, Integer>();           // Index des régions.
+        ByteBuffer header              = ByteBuffer.allocate(HEADER_SIZE);       // En-tête.
+        MappedByteBuffer[] windows     = null;                                   // Projections du fichier.
+        int nEntries                   = 0;                                      // Nombre de régions.
+
+        if(!snapshotFile.isFile())
+            return null;
+
+        try(FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ))
+        {
+            while(header.hasRemaining())
+            {
+                if(channel.read(header, header.position()) < 0)
+                    break;
+            }
+
+            nEntries = header.getInt(12);
+
+            if(header.hasRemaining() || (header.getLong(0) != SIGNATURE) || (header.getInt(8) != VERSION) || (nEntries < 0) || (channel.size() < (HEADER_SIZE + ((long)nEntries * ENTRY_SIZE))))
+                throw new IOException("Invalid timestamp snapshot \"" + snapshotFile.getName() + "\".");
+
+            // Projette les régions par fenêtres, les projections restant valides après la fermeture du fichier.
+
+            windows = new MappedByteBuffer[(int)((nEntries + (WINDOW_SIZE - 1L)) / WINDOW_SIZE)];
+
+            for(int windowIndex = 0; windowIndex < windows.length; windowIndex++)
+                windows[windowIndex] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + ((long)windowIndex * WINDOW_SIZE * ENTRY_SIZE), (long)Math.min(WINDOW_SIZE, nEntries - (windowIndex * WINDOW_SIZE)) * ENTRY_SIZE);
+        }
+
+        for(int entryIndex = 0; entryIndex < nEntries; entryIndex++)
+            entries.put(windows[entryIndex / WINDOW_SIZE].getLong((entryIndex % WINDOW_SIZE) * ENTRY_SIZE), entryIndex);
+
+        return new TimestampSnapshot(windows, entries);
+    }
+
+    public static void write(File worldRegionFolder, RegionSource regionSource) throws IOException
+    {
+        /* Prend l'instantané des tables de dates des régions d'un monde, remplaçant atomiquement le précédent.
+         * Retour : aucun.
+         * Paramètres : -worldRegionFolder : dossier des régions du monde.
+         *              -regionSource      : source des régions du monde, exploration terminée. */
+
+        File snapshotFile      = new File(worldRegionFolder, FILE_NAME);          // Fichier de l'instantané.
+        File temporaryFile     = new File(worldRegionFolder, FILE_NAME + ".tmp"); // Fichier en cours d'écriture.
+        ByteBuffer entryBuffer = ByteBuffer.allocate(ENTRY_SIZE);                 // Région en cours d'écriture.
+        ByteBuffer header      = ByteBuffer.allocate(HEADER_SIZE);                // En-tête.
+        int nEntries           = 0;                                               // Nombre de régions écrites.
+
+        try(FileChannel channel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            channel.position(HEADER_SIZE);
+
+            for(int regionIndex = 0; regionIndex < regionSource.size(); regionIndex++)
+            {
+                long packedCoordinates    = regionSource.get(regionIndex);                           // Clé de la région.
+                RegionHeader regionHeader = RegionHeader.read(regionSource.getFile(packedCoordinates)); // En-tête de la région.
+
+                entryBuffer.clear();
+                entryBuffer.putLong(packedCoordinates);
+
+                for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+                    entryBuffer.putInt(regionHeader.getTimestamp(chunkIndex));
+
+                entryBuffer.flip();
+
+                while(entryBuffer.hasRemaining())
+                    channel.write(entryBuffer);
+
+                nEntries++;
+            }
+
+            header.putLong(SIGNATURE).putInt(VERSION).putInt(nEntries).flip();
+
+            while(header.hasRemaining())
+                channel.write(header, header.position());
+
+            channel.force(true);
+        }
+
+        Files.move(temporaryFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Méthodes publiques de classe.
+
+    public ChunkMask getChangedMask(int xRegion, int zRegion, RegionHeader regionHeader)
+    {
+        /* Retourne les chunks présents dans une région, nouveaux ou sauvegardés depuis l'instantané.
+         * Peut être appelée depuis plusieurs threads.
+         * Retour : masque en question.
+         * Paramètres : -xRegion, zRegion : coordonnées de la région.
+         *              -regionHeader     : en-tête actuel de la région. */
+
+        Integer entryIndex      = entries.get(RegionCoordinates.pack(xRegion, zRegion)); // Index de la région.
+        ChunkMask changed       = null;                                                   // Masque à retourner.
+        MappedByteBuffer window = null;                                                   // Fenêtre de la région.
+        int timestampOffset     = 0;                                                      // Position de la table des dates dans la fenêtre.
+
+        if(entryIndex == null) // Région apparue depuis l'instantané.
+            return regionHeader.getOccupancyMask();
+
+        changed         = new ChunkMask();
+        window          = windows[entryIndex / WINDOW_SIZE];
+        timestampOffset = ((entryIndex % WINDOW_SIZE) * ENTRY_SIZE) + 8;
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            if(regionHeader.isPresent(chunkIndex) && (regionHeader.getTimestamp(chunkIndex) != window.getInt(timestampOffset + (chunkIndex * 4))))
+                changed.set(chunkIndex);
+        }
+
+        return changed;
+    }
+
+    public int getRegionsCount()
+    {
+        /* Retourne le nombre de régions de l'instantané.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return entries.size();
+    }
+}
@@ -0,0 +1,244 @@
+/* ChunkMask.java
+ * Classe ChunkMask du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import java.util.Arrays;
+
+// Définition de la classe.
+
+public final class ChunkMask
+{
+    /* Masque de 1024 bits représentant les 32x32 chunks d'une région.
+     * L'index d'un chunk est celui de la table d'en-tête des fichiers .mca : (x & 31) + (z & 31) * 32. */
+
+    // Constantes.
+
+    public static final int CHUNKS_PER_REGION = 1024; // Nombre de chunks dans une région.
+    public static final int REGION_WIDTH      = 32;   // Nombre de chunks sur un côté de région.
+
+    // Membres.
+
+    private final long[] bits; // Bits du masque, 16 mots de 64 bits.
+
+    // Constructeurs.
+
+    public ChunkMask()
+    {
+        /* Constructeur par défaut, masque vide. */
+
+        this.bits = new long[CHUNKS_PER_REGION / 64];
+    }
+
+    public ChunkMask(ChunkMask source) throws IllegalArgumentException
+    {
+        /* Constructeur de copie. */
+
+        // Contrôle.
+
+        if(!(source instanceof ChunkMask))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.bits = Arrays.copyOf(source.bits, source.bits.length);
+    }
+
+    // Méthodes publiques statiques.
+
+    public static ChunkMask full()
+    {
+        /* Retourne un masque dont tous les chunks sont présents.
+         * Retour : masque en question.
+         * Paramètres : aucun. */
+
+        ChunkMask fullMask = new ChunkMask(); // Masque à retourner.
+
+        Arrays.fill(fullMask.bits, -1L);
+
+        return fullMask;
+    }
+
+    public static ChunkMask fromWords(long[] words) throws IllegalArgumentException
+    {
+        /* Construit un masque depuis ses 16 mots de 64 bits.
+         * Retour : masque en question.
+         * Paramètres : mots du masque. */
+
+        ChunkMask mask = new ChunkMask(); // Masque à retourner.
+
+        // Contrôle.
+
+        if((!(words instanceof long[])) || (words.length != mask.bits.length))
+            throw new IllegalArgumentException();
+
+        // Copie.
+
+        System.arraycopy(words, 0, mask.bits, 0, words.length);
+
+        return mask;
+    }
+
+    public static int index(int xChunkIndex, int zChunkIndex)
+    {
+        /* Retourne l'index d'un chunk dans la région.
+         * Retour : index entre 0 et 1023.
+         * Paramètres : index X et Z du chunk dans la région (ou coordonnées absolues). */
+
+        return (xChunkIndex & 31) + ((zChunkIndex & 31) << 5);
+    }
+
+    public static ChunkMask range(ChunkMask source, int fromPosition, int toPosition)
+    {
+        /* Retourne les chunks d'un masque compris entre deux positions de parcours (x * 32 + z).
+         * Retour : nouveau masque.
+         * Paramètres : -source       : masque d'origine.
+         *              -fromPosition : première position, incluse.
+         *              -toPosition   : dernière position, exclue. */
+
+        ChunkMask rangeMask = new ChunkMask(); // Masque à retourner.
+
+        for(int position = Math.max(fromPosition, 0); position < Math.min(toPosition, CHUNKS_PER_REGION); position++)
+        {
+            if(source.get(positionToIndex(position)))
+                rangeMask.set(positionToIndex(position));
+        }
+
+        return rangeMask;
+    }
+
+    public static int positionToIndex(int position)
+    {
+        /* Convertit une position de parcours (x * 32 + z) en index d'en-tête (x + z * 32).
+         * Retour : index en question.
+         * Paramètres : position dans la région. */
+
+        return index(position >>> 5, position & 31);
+    }
+
+    // Méthodes publiques de classe.
+
+    public void and(ChunkMask other)
+    {
+        /* Ne conserve que les chunks également présents dans l'autre masque.
+         * Retour : aucun.
+         * Paramètres : autre masque. */
+
+        for(int wordIndex = 0; wordIndex < bits.length; wordIndex++)
+            bits[wordIndex] &= other.bits[wordIndex];
+    }
+
+    public void andNot(ChunkMask other)
+    {
+        /* Retire les chunks présents dans l'autre masque.
+         * Retour : aucun.
+         * Paramètres : autre masque. */
+
+        for(int wordIndex = 0; wordIndex < bits.length; wordIndex++)
+            bits[wordIndex] &= ~other.bits[wordIndex];
+    }
+
+    public void or(ChunkMask other)
+    {
+        /* Ajoute les chunks présents dans l'autre masque.
+         * Retour : aucun.
+         * Paramètres : autre masque. */
+
+        for(int wordIndex = 0; wordIndex < bits.length; wordIndex++)
+            bits[wordIndex] |= other.bits[wordIndex];
+    }
+
+    public int count()
+    {
+        /* Retourne le nombre de chunks présents.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        int nChunks = 0; // Total.
+
+        for(long word : bits)
+            nChunks += Long.bitCount(word);
+
+        return nChunks;
+    }
+
+    public boolean get(int xChunkIndex, int zChunkIndex)
+    {
+        /* Indique si un chunk est présent.
+         * Retour : oui ou non.
+         * Paramètres : index X et Z du chunk dans la région. */
+
+        return get(index(xChunkIndex, zChunkIndex));
+    }
+
+    public boolean get(int chunkIndex)
+    {
+        /* Indique si un chunk est présent.
+         * Retour : oui ou non.
+         * Paramètres : index du chunk dans la région. */
+
+        return (bits[chunkIndex >>> 6] & (1L << chunkIndex)) != 0L;
+    }
+
+    public boolean isEmpty()
+    {
+        /* Indique si aucun chunk n'est présent.
+         * Retour : oui ou non.
+         * Paramètres : aucun. */
+
+        for(long word : bits)
+        {
+            if(word != 0L)
+                return false;
+        }
+
+        return true;
+    }
+
+    public int nextPosition(int fromPosition)
+    {
+        /* Retourne la position du prochain chunk présent, en parcourant la région rangée par rangée (X constant).
+         * Retour : position (x * 32 + z) du chunk trouvé, 1024 si aucun.
+         * Paramètres : position à partir de laquelle chercher, incluse. */
+
+        for(int position = Math.max(fromPosition, 0); position < CHUNKS_PER_REGION; position++)
+        {
+            if(get(position >>> 5, position & 31))
+                return position;
+        }
+
+        return CHUNKS_PER_REGION;
+    }
+
+    public long[] toWords()
+    {
+        /* Retourne une copie des 16 mots de 64 bits du masque.
+         * Retour : mots du masque.
+         * Paramètres : aucun. */
+
+        return Arrays.copyOf(bits, bits.length);
+    }
+
+    public void set(int xChunkIndex, int zChunkIndex)
+    {
+        /* Marque un chunk comme présent.
+         * Retour : aucun.
+         * Paramètres : index X et Z du chunk dans la région. */
+
+        set(index(xChunkIndex, zChunkIndex));
+    }
+
+    public void set(int chunkIndex)
+    {
+        /* Marque un chunk comme présent.
+         * Retour : aucun.
+         * Paramètres : index du chunk dans la région. */
+
+        bits[chunkIndex >>> 6] |= (1L << chunkIndex);
+    }
+}
@@ -0,0 +1,351 @@
+/* ChunkNbtReader.java
+ * Classe ChunkNbtReader du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+// Définition de la classe.
+
+public final class ChunkNbtReader
+{
+    /* Lecture des données NBT d'un chunk d'un fichier de région : ouverture de son flux décompressé, et lecture de la
+     * version de format (tag DataVersion) ou du temps cumulé de présence des joueurs (tag InhabitedTime) sans construire
+     * l'arbre NBT : les données sont décompressées au fil de l'eau, et les tags précédant celui recherché sont sautés.
+     * InhabitedTime est à la racine depuis la 1.18, dans le tag Level avant.
+     * Format d'un chunk dans un fichier .mca : longueur (4 octets), compression (1 octet), données NBT compressées. */
+
+    // Constantes.
+
+    public static final int NO_DATA_VERSION    = -1;  // Chunk antérieur à l'apparition du tag DataVersion (1.9).
+    public static final long NO_INHABITED_TIME = -1L; // Chunk sans tag InhabitedTime.
+    private static final int COMPRESSION_GZIP  = 1;   // Compression gzip.
+    private static final int COMPRESSION_NONE  = 3;   // Pas de compression.
+    private static final int COMPRESSION_ZLIB  = 2;   // Compression zlib.
+    private static final int TAG_BYTE          = 1;   // Types de tags NBT.
+    private static final int TAG_BYTE_ARRAY    = 7;
+    private static final int TAG_COMPOUND      = 10;
+    private static final int TAG_DOUBLE        = 6;
+    private static final int TAG_END           = 0;
+    private static final int TAG_FLOAT         = 5;
+    private static final int TAG_INT           = 3;
+    private static final int TAG_INT_ARRAY     = 11;
+    private static final int TAG_LIST          = 9;
+    private static final int TAG_LONG          = 4;
+    private static final int TAG_LONG_ARRAY    = 12;
+    private static final int TAG_SHORT         = 2;
+    private static final int TAG_STRING        = 8;
+    private static final byte[] DATA_VERSION_NAME   = { 'D', 'a', 't', 'a', 'V', 'e', 'r', 's', 'i', 'o', 'n' };           // Noms des tags recherchés.
+    private static final byte[] INHABITED_TIME_NAME = { 'I', 'n', 'h', 'a', 'b', 'i', 't', 'e', 'd', 'T', 'i', 'm', 'e' };
+    private static final byte[] LEVEL_NAME          = { 'L', 'e', 'v', 'e', 'l' };
+
+    // Constructeurs.
+
+    private ChunkNbtReader()
+    {
+        /* Classe utilitaire, non instanciable. */
+    }
+
+    // Méthodes publiques statiques.
+
+    public static DataInputStream openChunk(FileChannel channel, int sectorOffset, int sectorCount) throws IOException
+    {
+        /* Lit les données compressées d'un chunk et ouvre leur flux NBT, décompressé au fil de la lecture.
+         * Retour : flux en question, positionné sur le tag racine.
+         * Paramètres : -channel      : canal du fichier de région.
+         *              -sectorOffset : position du chunk, en secteurs.
+         *              -sectorCount  : taille réservée au chunk, en secteurs. */
+
+        ByteBuffer chunkHeader = ByteBuffer.allocate(5);                        // Longueur et compression.
+        ByteBuffer chunkData   = null;                                          // Données compressées.
+        long position          = (long)sectorOffset * RegionHeader.SECTOR_SIZE; // Position du chunk dans le fichier.
+        int length             = 0;                                             // Longueur des données, compression incluse.
+
+        readFully(channel, chunkHeader, position);
+
+        length = chunkHeader.getInt(0);
+
+        if((length < 1) || (length > ((sectorCount * RegionHeader.SECTOR_SIZE) - 4)))
+            throw new IOException("Invalid chunk length " + length + ".");
+
+        chunkData = ByteBuffer.allocate(length - 1);
+
+        readFully(channel, chunkData, position + 5L);
+
+        return new DataInputStream(openPayload(chunkHeader.get(4), chunkData.array()));
+    }
+
+    public static int readDataVersion(FileChannel channel, int sectorOffset, int sectorCount) throws IOException
+    {
+        /* Lit la version de format d'un chunk d'un fichier de région. Le canal n'est lu qu'en positionnement absolu,
+         * et peut donc être partagé entre plusieurs threads.
+         * Retour : version en question, NO_DATA_VERSION si le chunk n'en a pas.
+         * Paramètres : -channel      : canal du fichier de région.
+         *              -sectorOffset : position du chunk, en secteurs.
+         *              -sectorCount  : taille réservée au chunk, en secteurs. */
+
+        try(DataInputStream nbtStream = openChunk(channel, sectorOffset, sectorCount))
+        {
+            return readDataVersion(nbtStream);
+        }
+    }
+
+    public static long readInhabitedTime(FileChannel channel, int sectorOffset, int sectorCount) throws IOException
+    {
+        /* Lit le temps cumulé de présence des joueurs dans un chunk d'un fichier de région. Le canal n'est lu qu'en
+         * positionnement absolu, et peut donc être partagé entre plusieurs threads.
+         * Retour : temps en question, en ticks, NO_INHABITED_TIME si le chunk ne l'indique pas.
+         * Paramètres : -channel      : canal du fichier de région.
+         *              -sectorOffset : position du chunk, en secteurs.
+         *              -sectorCount  : taille réservée au chunk, en secteurs. */
+
+        try(DataInputStream nbtStream = openChunk(channel, sectorOffset, sectorCount))
+        {
+            return readInhabitedTime(nbtStream, true);
+        }
+    }
+
+    // Méthodes privées statiques.
+
+    private static InputStream openPayload(int compression, byte[] compressedData) throws IOException
+    {
+        /* Ouvre le flux décompressé des données d'un chunk.
+         * Retour : flux en question.
+         * Paramètres : -compression    : type de compression.
+         *              -compressedData : données compressées. */
+
+        InputStream rawStream = new ByteArrayInputStream(compressedData); // Flux des données compressées.
+
+        switch(compression)
+        {
+            case COMPRESSION_GZIP:
+                return new BufferedInputStream(new GZIPInputStream(rawStream));
+
+            case COMPRESSION_ZLIB:
+                return new BufferedInputStream(new InflaterInputStream(rawStream));
+
+            case COMPRESSION_NONE:
+                return rawStream;
+
+            default: // Y compris les données externes (.mcc) des versions récentes.
+                throw new IOException("Unsupported chunk compression " + compression + ".");
+        }
+    }
+
+    private static int readDataVersion(DataInputStream nbtStream) throws IOException
+    {
+        /* Parcourt les tags de premier niveau du tag racine jusqu'à DataVersion.
+         * Retour : version en question, NO_DATA_VERSION si absente.
+         * Paramètres : flux NBT décompressé. */
+
+        int tagType = nbtStream.readUnsignedByte(); // Type du tag courant.
+
+        if(tagType != TAG_COMPOUND)
+            throw new IOException("Chunk data root is not a compound tag.");
+
+        skipFully(nbtStream, nbtStream.readUnsignedShort()); // Nom du tag racine.
+
+        while((tagType = nbtStream.readUnsignedByte()) != TAG_END)
+        {
+            boolean dataVersionTag = isTagName(nbtStream, DATA_VERSION_NAME); // Tag recherché ?
+
+            if(dataVersionTag && (tagType == TAG_INT))
+                return nbtStream.readInt();
+
+            skipPayload(nbtStream, tagType);
+        }
+
+        return NO_DATA_VERSION;
+    }
+
+    private static long readInhabitedTime(DataInputStream nbtStream, boolean root) throws IOException
+    {
+        /* Parcourt les tags d'un compound jusqu'à InhabitedTime, en descendant dans le tag Level depuis la racine.
+         * Retour : temps en question, NO_INHABITED_TIME si absent.
+         * Paramètres : -nbtStream : flux NBT décompressé, positionné sur le tag racine ou sur le contenu du tag Level.
+         *              -root      : flux positionné sur le tag racine ? */
+
+        int tagType = 0; // Type du tag courant.
+
+        if(root)
+        {
+            if(nbtStream.readUnsignedByte() != TAG_COMPOUND)
+                throw new IOException("Chunk data root is not a compound tag.");
+
+            skipFully(nbtStream, nbtStream.readUnsignedShort()); // Nom du tag racine.
+        }
+
+        while((tagType = nbtStream.readUnsignedByte()) != TAG_END)
+        {
+            byte[] tagName = readTagName(nbtStream); // Nom du tag.
+
+            if((tagType == TAG_LONG) && Arrays.equals(tagName, INHABITED_TIME_NAME))
+                return nbtStream.readLong();
+
+            if(root && (tagType == TAG_COMPOUND) && Arrays.equals(tagName, LEVEL_NAME)) // Données du chunk avant la 1.18.
+                return readInhabitedTime(nbtStream, false);
+
+            skipPayload(nbtStream, tagType);
+        }
+
+        return NO_INHABITED_TIME;
+    }
+
+    private static boolean isTagName(DataInputStream nbtStream, byte[] expectedName) throws IOException
+    {
+        /* Lit le nom d'un tag et le compare au nom attendu, sans créer de chaîne.
+         * Retour : nom en question ou non.
+         * Paramètres : -nbtStream    : flux NBT.
+         *              -expectedName : nom attendu, en ASCII. */
+
+        int nameLength = nbtStream.readUnsignedShort();     // Longueur du nom.
+        boolean match  = nameLength == expectedName.length; // Nom identique jusqu'ici ?
+
+        for(int byteIndex = 0; byteIndex < nameLength; byteIndex++)
+        {
+            int nameByte = nbtStream.readUnsignedByte(); // Octet du nom.
+
+            if(match && (nameByte != expectedName[byteIndex]))
+                match = false;
+        }
+
+        return match;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        /* Remplit un tampon depuis une position absolue d'un canal.
+         * Retour : aucun.
+         * Paramètres : -channel  : canal lu.
+         *              -buffer   : tampon à remplir.
+         *              -position : position de lecture. */
+
+        while(buffer.hasRemaining())
+        {
+            if(channel.read(buffer, position + buffer.position()) < 0)
+                throw new EOFException("Chunk data truncated.");
+        }
+    }
+
+    private static byte[] readTagName(DataInputStream nbtStream) throws IOException
+    {
+        /* Lit le nom d'un tag, sans le décoder.
+         * Retour : octets du nom.
+         * Paramètres : flux NBT. */
+
+        byte[] tagName = new byte[nbtStream.readUnsignedShort()]; // Nom à retourner.
+
+        nbtStream.readFully(tagName);
+
+        return tagName;
+    }
+
+    private static void skipFully(DataInputStream nbtStream, long nBytes) throws IOException
+    {
+        /* Saute un nombre d'octets d'un flux.
+         * Retour : aucun.
+         * Paramètres : -nbtStream : flux en question.
+         *              -nBytes    : nombre d'octets. */
+
+        while(nBytes > 0L)
+        {
+            long nSkipped = nbtStream.skip(nBytes); // Octets sautés.
+
+            if(nSkipped <= 0L)
+            {
+                nbtStream.readByte(); // Lève EOFException en fin de flux.
+
+                nSkipped = 1L;
+            }
+
+            nBytes -= nSkipped;
+        }
+    }
+
+    private static void skipPayload(DataInputStream nbtStream, int tagType) throws IOException
+    {
+        /* Saute le contenu d'un tag.
+         * Retour : aucun.
+         * Paramètres : -nbtStream : flux NBT.
+         *              -tagType   : type du tag. */
+
+        switch(tagType)
+        {
+            case TAG_BYTE:
+                skipFully(nbtStream, 1L);
+                break;
+
+            case TAG_SHORT:
+                skipFully(nbtStream, 2L);
+                break;
+
+            case TAG_INT:
+            case TAG_FLOAT:
+                skipFully(nbtStream, 4L);
+                break;
+
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                skipFully(nbtStream, 8L);
+                break;
+
+            case TAG_BYTE_ARRAY:
+                skipFully(nbtStream, nbtStream.readInt());
+                break;
+
+            case TAG_STRING:
+                skipFully(nbtStream, nbtStream.readUnsignedShort());
+                break;
+
+            case TAG_LIST:
+            {
+                int elementType = nbtStream.readUnsignedByte(); // Type des éléments.
+                int nElements   = nbtStream.readInt();          // Nombre d'éléments.
+
+                for(int elementIndex = 0; elementIndex < nElements; elementIndex++)
+                    skipPayload(nbtStream, elementType);
+
+                break;
+            }
+
+            case TAG_COMPOUND:
+            {
+                int childType = 0; // Type du tag enfant.
+
+                while((childType = nbtStream.readUnsignedByte()) != TAG_END)
+                {
+                    skipFully(nbtStream, nbtStream.readUnsignedShort());
+                    skipPayload(nbtStream, childType);
+                }
+
+                break;
+            }
+
+            case TAG_INT_ARRAY:
+                skipFully(nbtStream, 4L * nbtStream.readInt());
+                break;
+
+            case TAG_LONG_ARRAY:
+                skipFully(nbtStream, 8L * nbtStream.readInt());
+                break;
+
+            default:
+                throw new IOException("Invalid NBT tag type " + tagType + ".");
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/* RegionCompactor.java
+ * Classe RegionCompactor du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+
+// Définition de la classe.
+
+public final class RegionCompactor
+{
+    /* Réécriture d'un fichier de région avec ses chunks contigus, dans l'ordre d'une courbe de Hilbert sur la région :
+     * les secteurs laissés libres par les chunks déplacés lors de leurs sauvegardes successives sont récupérés.
+     * Les données des chunks sont copiées telles quelles, sans décompression, d'un canal à l'autre, dans un fichier
+     * temporaire qui remplace ensuite l'original d'un seul renommage atomique, ou d'un simple renommage si le système de
+     * fichiers ne permet pas le premier (le fichier temporaire étant complet et écrit sur disque, seul un arrêt brutal
+     * pendant le renommage pourrait alors laisser l'original incomplet). Un fichier dont une entrée de l'en-tête
+     * est incohérente n'est pas modifié. Le fichier ne doit être ouvert par aucun autre, serveur compris. */
+
+    // Constantes.
+
+    public static final String TEMP_EXTENSION = ".compact";               // Extension du fichier temporaire, ajoutée au nom du fichier.
+    private static final int SECTOR_SIZE      = RegionHeader.SECTOR_SIZE; // Taille d'un secteur.
+    private static final int[] HILBERT_ORDER  = hilbertOrder();           // Index des chunks, dans l'ordre de la courbe.
+
+    // Constructeurs.
+
+    private RegionCompactor()
+    {
+        /* Classe utilitaire, non instanciable. */
+    }
+
+    // Méthodes publiques statiques.
+
+    public static long compact(File regionFile) throws IOException
+    {
+        /* Compacte un fichier de région, s'il y a de la place à récupérer.
+         * Retour : nombre d'octets récupérés, 0 si le fichier n'a pas été réécrit.
+         * Paramètres : fichier de région. */
+
+        return compact(regionFile, true);
+    }
+
+    static long compact(File regionFile, boolean atomicMove) throws IOException
+    {
+        /* Compacte un fichier de région, s'il y a de la place à récupérer, le renommage atomique pouvant être écarté
+         * pour éprouver son remplacement.
+         * Retour : nombre d'octets récupérés, 0 si le fichier n'a pas été réécrit.
+         * Paramètres : -regionFile : fichier de région.
+         *              -atomicMove : tenter le renommage atomique avant le simple renommage ? */
+
+        Path sourcePath = null; // Chemins du fichier et du fichier temporaire.
+        Path tempPath   = null;
+        long fileSize   = 0L;   // Taille d'origine.
+        long newSize    = 0L;   // Taille après compactage.
+
+        // Contrôle.
+
+        if(!(regionFile instanceof File))
+            throw new IllegalArgumentException();
+
+        sourcePath = regionFile.toPath();
+        tempPath   = sourcePath.resolveSibling(regionFile.getName() + TEMP_EXTENSION);
+
+        // Copie des chunks dans le fichier temporaire.
+
+        try
+        {
+            try(FileChannel source = FileChannel.open(sourcePath, StandardOpenOption.READ))
+            {
+                fileSize = source.size();
+                newSize  = write(source, fileSize, tempPath);
+            }
+
+            if(newSize >= fileSize) // Rien à récupérer : fichier temporaire non écrit.
+                return 0L;
+
+            // Remplacement de l'original.
+
+            try
+            {
+                if(!atomicMove)
+                    throw new AtomicMoveNotSupportedException(tempPath.toString(), sourcePath.toString(), "Atomic move not attempted.");
+
+                Files.move(tempPath, sourcePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            catch(AtomicMoveNotSupportedException exception)
+            {
+                Files.move(tempPath, sourcePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        finally
+        {
+            Files.deleteIfExists(tempPath);
+        }
+
+        return fileSize - newSize;
+    }
+
+    // Méthodes privées statiques.
+
+    private static int[] hilbertOrder()
+    {
+        /* Calcule l'ordre des chunks d'une région le long d'une courbe de Hilbert.
+         * Retour : index d'en-tête des chunks, dans l'ordre de la courbe.
+         * Paramètres : aucun. */
+
+        Integer[] indexes = new Integer[ChunkMask.CHUNKS_PER_REGION]; // Index à trier.
+
+        for(int chunkIndex = 0; chunkIndex < indexes.length; chunkIndex++)
+            indexes[chunkIndex] = chunkIndex;
+
+        Arrays.sort(indexes, Comparator.comparingLong(chunkIndex -> RegionCoordinates.hilbertKey(ChunkMask.REGION_WIDTH, chunkIndex & 31, chunkIndex >>> 5)));
+
+        return Arrays.stream(indexes).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        /* Lit un tampon complet depuis une position d'un canal.
+         * Retour : aucun.
+         * Paramètres : -channel  : canal lu.
+         *              -buffer   : tampon à remplir.
+         *              -position : position de lecture. */
+
+        while(buffer.hasRemaining())
+        {
+            int nRead = channel.read(buffer, position); // Octets lus.
+
+            if(nRead < 0)
+                throw new IOException("Unexpected end of region file.");
+
+            position += nRead;
+        }
+
+        buffer.flip();
+    }
+
+    private static long write(FileChannel source, long fileSize, Path tempPath) throws IOException
+    {
+        /* Ecrit le fichier compacté, sauf s'il ne serait pas plus petit que l'original.
+         * Retour : taille du fichier compacté.
+         * Paramètres : -source   : canal du fichier d'origine.
+         *              -fileSize : taille du fichier d'origine.
+         *              -tempPath : chemin du fichier temporaire. */
+
+        ByteBuffer header       = ByteBuffer.allocate(2 * SECTOR_SIZE).order(ByteOrder.BIG_ENDIAN); // En-tête d'origine, puis compacté.
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);               // Longueur d'un chunk.
+        int[] locations         = new int[ChunkMask.CHUNKS_PER_REGION];                             // Entrées des emplacements.
+        int[] lengths           = new int[ChunkMask.CHUNKS_PER_REGION];                             // Longueur de chaque chunk présent, préfixe compris.
+        long newSize            = 2L * SECTOR_SIZE;                                                 // Taille du fichier compacté.
+        int nextSector          = 2;                                                                // Prochain secteur libre du fichier compacté.
+
+        if(fileSize < (2L * SECTOR_SIZE)) // Région vide en cours de création.
+            return fileSize;
+
+        readFully(source, header, 0L);
+
+        header.asIntBuffer().get(locations);
+
+        // Longueurs des chunks présents, contrôlées d'après l'en-tête.
+
+        for(int chunkIndex = 0; chunkIndex < locations.length; chunkIndex++)
+        {
+            int sectorOffset = locations[chunkIndex] >>> 8; // Emplacement du chunk.
+            int sectorCount  = locations[chunkIndex] & 0xFF;
+
+            if((sectorOffset < 2) || (sectorCount == 0)) // Absent.
+                continue;
+
+            if((((long)sectorOffset * SECTOR_SIZE) + lengthBuffer.capacity()) > fileSize)
+                throw new IOException("Chunk " + chunkIndex + " out of region file.");
+
+            lengthBuffer.clear();
+
+            readFully(source, lengthBuffer, (long)sectorOffset * SECTOR_SIZE);
+
+            lengths[chunkIndex] = lengthBuffer.getInt() + lengthBuffer.capacity();
+
+            if((lengths[chunkIndex] <= lengthBuffer.capacity()) || (lengths[chunkIndex] > ((long)sectorCount * SECTOR_SIZE)) || ((((long)sectorOffset * SECTOR_SIZE) + lengths[chunkIndex]) > fileSize))
+                throw new IOException("Invalid length of chunk " + chunkIndex + ".");
+
+            newSize += (long)sectorsFor(lengths[chunkIndex]) * SECTOR_SIZE;
+        }
+
+        if(newSize >= fileSize)
+            return newSize;
+
+        // Copie des chunks, contigus, dans l'ordre de la courbe.
+
+        try(FileChannel target = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+        {
+            IntBuffer newLocations = header.asIntBuffer(); // Table des emplacements, réécrite ; les dates sont conservées.
+
+            for(int chunkIndex : HILBERT_ORDER)
+            {
+                long sourcePosition = (long)(locations[chunkIndex] >>> 8) * SECTOR_SIZE; // Position du chunk d'origine.
+                long targetPosition = (long)nextSector * SECTOR_SIZE;                    // Position du chunk compacté.
+                int sectorCount     = 0;                                                 // Secteurs du chunk compacté.
+
+                if(lengths[chunkIndex] == 0) // Absent.
+                {
+                    newLocations.put(chunkIndex, 0);
+
+                    continue;
+                }
+
+                sectorCount = sectorsFor(lengths[chunkIndex]);
+
+                for(long copied = 0L; copied < lengths[chunkIndex]; )
+                    copied += source.transferTo(sourcePosition + copied, lengths[chunkIndex] - copied, target.position(targetPosition + copied));
+
+                newLocations.put(chunkIndex, (nextSector << 8) | sectorCount);
+
+                nextSector += sectorCount;
+            }
+
+            // Complète le dernier secteur, puis écrit l'en-tête.
+
+            target.truncate(newSize);
+
+            if(target.size() < newSize)
+                target.write(ByteBuffer.allocate(1), newSize - 1L);
+
+            header.rewind();
+
+            while(header.hasRemaining())
+                target.write(header, header.position());
+
+            target.force(true);
+        }
+
+        return newSize;
+    }
+
+    private static int sectorsFor(int length)
+    {
+        /* Retourne le nombre de secteurs nécessaires à un chunk.
+         * Retour : nombre en question.
+         * Paramètres : longueur du chunk, préfixe compris. */
+
+        return (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    }
+}
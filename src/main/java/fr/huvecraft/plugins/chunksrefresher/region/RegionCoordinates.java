@@ -0,0 +1,201 @@
+/* RegionCoordinates.java
+ * Classe RegionCoordinates du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Définition de la classe.
+
+public final class RegionCoordinates
+{
+    /* Coordonnées X et Z d'une région regroupées dans un seul long : X dans les 32 bits de poids fort, Z dans les autres. */
+
+    // Constructeurs.
+
+    private RegionCoordinates()
+    {
+        /* Classe utilitaire, non instanciable. */
+    }
+
+    // Méthodes publiques statiques.
+
+    public static long hilbertKey(int curveOrder, int x, int z)
+    {
+        /* Retourne la distance d'un point le long d'une courbe de Hilbert.
+         * Retour : distance en question.
+         * Paramètres : -curveOrder : côté du carré parcouru, puissance de 2.
+         *              -x, z       : coordonnées positives du point. */
+
+        long distance = 0L; // Distance calculée.
+        int xRotated  = x;  // Coordonnées après rotations successives.
+        int zRotated  = z;
+
+        for(int halfSide = curveOrder >>> 1; halfSide > 0; halfSide >>>= 1)
+        {
+            int xQuadrant = ((xRotated & halfSide) != 0) ? 1 : 0; // Quadrant du point.
+            int zQuadrant = ((zRotated & halfSide) != 0) ? 1 : 0;
+
+            distance += (long)halfSide * halfSide * ((3 * xQuadrant) ^ zQuadrant);
+
+            // Rotation du quadrant.
+
+            if(zQuadrant == 0)
+            {
+                if(xQuadrant == 1)
+                {
+                    xRotated = curveOrder - 1 - xRotated;
+                    zRotated = curveOrder - 1 - zRotated;
+                }
+
+                int swap = xRotated; // Echange X et Z.
+
+                xRotated = zRotated;
+                zRotated = swap;
+            }
+        }
+
+        return distance;
+    }
+
+    public static long parseFilename(String filename) throws IllegalArgumentException
+    {
+        /* Lit les coordonnées d'une région depuis le nom de son fichier (r.<x>.<z>.<extension>), sans expression régulière.
+         * Retour : coordonnées regroupées.
+         * Paramètres : nom du fichier. */
+
+        int xEnd = 0; // Fin de la coordonnée X.
+        int zEnd = 0; // Fin de la coordonnée Z.
+
+        // Contrôle.
+
+        if((!(filename instanceof String)) || (filename.length() < 5) || ((filename.charAt(0) != 'r') && (filename.charAt(0) != 'R')) || (filename.charAt(1) != '.'))
+            throw new IllegalArgumentException("Invalid region filename.");
+
+        // Délimite les coordonnées.
+
+        if(((xEnd = filename.indexOf('.', 2)) < 0) || ((zEnd = filename.indexOf('.', xEnd + 1)) < 0))
+            throw new IllegalArgumentException("Invalid region filename.");
+
+        return pack(parseCoordinate(filename, 2, xEnd), parseCoordinate(filename, xEnd + 1, zEnd));
+    }
+
+    public static boolean isRegionFilename(String filename, String extension)
+    {
+        /* Indique si un nom de fichier est celui d'une région (r.<x>.<z><extension>), sans expression régulière.
+         * Retour : oui ou non.
+         * Paramètres : -filename  : nom du fichier.
+         *              -extension : extension attendue, point compris, insensible à la casse. */
+
+        int xEnd = 0; // Fin de la coordonnée X.
+        int zEnd = 0; // Fin de la coordonnée Z.
+
+        // Contrôle.
+
+        if((!(filename instanceof String)) || (!(extension instanceof String)) || (filename.length() < (extension.length() + 5)))
+            return false;
+
+        if(!(filename.regionMatches(true, 0, "r.", 0, 2) && filename.regionMatches(true, filename.length() - extension.length(), extension, 0, extension.length())))
+            return false;
+
+        // Délimite et lit les coordonnées.
+
+        zEnd = filename.length() - extension.length();
+
+        if(((xEnd = filename.indexOf('.', 2)) < 0) || (xEnd >= zEnd))
+            return false;
+
+        try
+        {
+            parseCoordinate(filename, 2, xEnd);
+            parseCoordinate(filename, xEnd + 1, zEnd);
+        }
+
+        catch(IllegalArgumentException exception)
+        {
+            return false;
+        }
+
+        return true;
+    }
+
+    public static long pack(int xRegion, int zRegion)
+    {
+        /* Regroupe les coordonnées d'une région.
+         * Retour : coordonnées regroupées.
+         * Paramètres : coordonnées X et Z de la région. */
+
+        return (((long)xRegion) << 32) | (zRegion & 0xFFFFFFFFL);
+    }
+
+    public static String toFilename(long packedCoordinates, String extension)
+    {
+        /* Construit le nom du fichier d'une région.
+         * Retour : nom en question (r.<x>.<z><extension>).
+         * Paramètres : -packedCoordinates : coordonnées regroupées.
+         *              -extension         : extension, point compris. */
+
+        return "r." + unpackX(packedCoordinates) + "." + unpackZ(packedCoordinates) + extension;
+    }
+
+    public static int unpackX(long packedCoordinates)
+    {
+        /* Retourne la coordonnée X de coordonnées regroupées.
+         * Retour : coordonnée X de la région.
+         * Paramètres : coordonnées regroupées. */
+
+        return (int)(packedCoordinates >> 32);
+    }
+
+    public static int unpackZ(long packedCoordinates)
+    {
+        /* Retourne la coordonnée Z de coordonnées regroupées.
+         * Retour : coordonnée Z de la région.
+         * Paramètres : coordonnées regroupées. */
+
+        return (int)packedCoordinates;
+    }
+
+    // Méthodes privées statiques.
+
+    private static int parseCoordinate(String filename, int start, int end) throws IllegalArgumentException
+    {
+        /* Lit une coordonnée entière signée dans une partie d'un nom de fichier.
+         * Retour : coordonnée lue.
+         * Paramètres : -filename : nom du fichier.
+         *              -start    : début de la coordonnée, inclus.
+         *              -end      : fin de la coordonnée, exclue. */
+
+        boolean negative = false; // Coordonnée négative ?
+        long value       = 0L;    // Valeur lue.
+        int position     = start; // Caractère en cours.
+
+        if((position < end) && (filename.charAt(position) == '-'))
+        {
+            negative = true;
+
+            position++;
+        }
+
+        if((position == end) || ((end - position) > 10))
+            throw new IllegalArgumentException("Invalid region filename.");
+
+        for(; position < end; position++)
+        {
+            char currentChar = filename.charAt(position); // Chiffre en cours.
+
+            if((currentChar < '0') || (currentChar > '9'))
+                throw new IllegalArgumentException("Invalid region filename.");
+
+            value = (value * 10L) + (currentChar - '0');
+        }
+
+        value = negative ? -value : value;
+
+        if((value < Integer.MIN_VALUE) || (value > Integer.MAX_VALUE))
+            throw new IllegalArgumentException("Invalid region filename.");
+
+        return (int)value;
+    }
+}
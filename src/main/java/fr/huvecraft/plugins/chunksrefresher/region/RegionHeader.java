@@ -0,0 +1,178 @@
+/* RegionHeader.java
+ * Classe RegionHeader du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+// Définition de la classe.
+
+public final class RegionHeader
+{
+    /* Lecture des deux tables (4 Kio chacune) en tête des fichiers de régions Anvil (.mca).
+     * Table des emplacements : chaque entrée de 4 octets contient la position (3 octets, en secteurs de 4 Kio) et la taille (1 octet) du chunk.
+     * Table des dates : chaque entrée de 4 octets contient la date de dernière sauvegarde du chunk, en secondes. */
+
+    // Constantes.
+
+    public static final int SECTOR_SIZE = 4096; // Taille d'un secteur, et de la table des emplacements.
+
+    // Membres.
+
+    private final int[] locations;  // Entrées brutes de la table des emplacements.
+    private final int[] timestamps; // Entrées de la table des dates.
+
+    // Constructeurs.
+
+    private RegionHeader(int[] locations, int[] timestamps)
+    {
+        /* Constructeur par défaut. */
+
+        this.locations  = locations;
+        this.timestamps = timestamps;
+    }
+
+    // Méthodes publiques statiques.
+
+    public static RegionHeader read(File regionFile) throws IOException
+    {
+        /* Lit l'en-tête d'un fichier de région, en projetant ses tables en mémoire.
+         * Retour : en-tête lu, vide si le fichier est trop court pour en contenir un.
+         * Paramètres : fichier de région. */
+
+        int[] locations          = new int[ChunkMask.CHUNKS_PER_REGION]; // Entrées des tables.
+        int[] timestamps         = new int[ChunkMask.CHUNKS_PER_REGION];
+        MappedByteBuffer mapping = null;                                 // Projection des tables.
+
+        // Contrôle.
+
+        if(!(regionFile instanceof File))
+            throw new IllegalArgumentException();
+
+        // Lecture.
+
+        try(FileChannel channel = FileChannel.open(regionFile.toPath(), StandardOpenOption.READ))
+        {
+            if(channel.size() >= SECTOR_SIZE) // Un fichier plus court est une région vide en cours de création.
+            {
+                mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0L, Math.min(channel.size(), 2L * SECTOR_SIZE));
+
+                IntBuffer entries = mapping.order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+
+                entries.get(locations);
+
+                if(entries.remaining() >= timestamps.length)
+                    entries.get(timestamps);
+            }
+        }
+
+        return new RegionHeader(locations, timestamps);
+    }
+
+    public static RegionHeader read(FileChannel channel) throws IOException
+    {
+        /* Lit l'en-tête d'un fichier de région déjà ouvert, sans projection, le fichier pouvant être modifié ensuite.
+         * Retour : en-tête lu, vide si le fichier est trop court pour en contenir un.
+         * Paramètres : canal du fichier de région. */
+
+        int[] locations   = new int[ChunkMask.CHUNKS_PER_REGION];                             // Entrées des tables.
+        int[] timestamps  = new int[ChunkMask.CHUNKS_PER_REGION];
+        ByteBuffer tables = ByteBuffer.allocate(2 * SECTOR_SIZE).order(ByteOrder.BIG_ENDIAN); // Tables lues.
+
+        // Contrôle.
+
+        if(!(channel instanceof FileChannel))
+            throw new IllegalArgumentException();
+
+        // Lecture.
+
+        if(channel.size() >= SECTOR_SIZE) // Un fichier plus court est une région vide en cours de création.
+        {
+            tables.limit((int)Math.min(channel.size(), tables.capacity()));
+
+            while(tables.hasRemaining())
+            {
+                if(channel.read(tables, tables.position()) < 0)
+                    break;
+            }
+
+            tables.flip();
+
+            IntBuffer entries = tables.asIntBuffer();
+
+            entries.get(locations);
+
+            if(entries.remaining() >= timestamps.length)
+                entries.get(timestamps);
+        }
+
+        return new RegionHeader(locations, timestamps);
+    }
+
+    // Méthodes publiques de classe.
+
+    public ChunkMask getOccupancyMask()
+    {
+        /* Retourne le masque des chunks présents dans la région.
+         * Retour : masque en question.
+         * Paramètres : aucun. */
+
+        ChunkMask occupancyMask = new ChunkMask(); // Masque à retourner.
+
+        for(int chunkIndex = 0; chunkIndex < locations.length; chunkIndex++)
+        {
+            if(isPresent(chunkIndex))
+                occupancyMask.set(chunkIndex);
+        }
+
+        return occupancyMask;
+    }
+
+    public int getSectorCount(int chunkIndex)
+    {
+        /* Retourne le nombre de secteurs occupés par un chunk.
+         * Retour : nombre en question.
+         * Paramètres : index du chunk dans la région. */
+
+        return locations[chunkIndex] & 0xFF;
+    }
+
+    public int getSectorOffset(int chunkIndex)
+    {
+        /* Retourne le secteur de début d'un chunk.
+         * Retour : numéro du secteur, 0 si absent.
+         * Paramètres : index du chunk dans la région. */
+
+        return locations[chunkIndex] >>> 8;
+    }
+
+    public int getTimestamp(int chunkIndex)
+    {
+        /* Retourne la date de dernière sauvegarde d'un chunk.
+         * Retour : date en secondes depuis l'epoch, 0 si inconnue.
+         * Paramètres : index du chunk dans la région. */
+
+        return timestamps[chunkIndex];
+    }
+
+    public boolean isPresent(int chunkIndex)
+    {
+        /* Indique si un chunk est présent dans le fichier.
+         * Retour : oui ou non.
+         * Paramètres : index du chunk dans la région. */
+
+        return (getSectorOffset(chunkIndex) >= 2) && (getSectorCount(chunkIndex) > 0); // Les 2 premiers secteurs sont l'en-tête.
+    }
+}
@@ -0,0 +1,200 @@
+/* RegionPruner.java
+ * Classe RegionPruner du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+// Définition de la classe.
+
+public final class RegionPruner
+{
+    /* Retrait, d'un fichier de région, des chunks qu'aucun joueur n'a jamais habités : le serveur les générera à
+     * nouveau, avec le générateur actuel, si un joueur s'en approche. Chaque chunk désigné est vérifié à nouveau avant
+     * son retrait, un joueur ayant pu s'y arrêter depuis. Les données retirées sont d'abord copiées telles quelles
+     * dans un fichier de sauvegarde au même format, restaurable avec les outils d'édition de régions, puis les entrées
+     * de l'en-tête sont effacées : les secteurs libérés sont récupérés par un compactage. Le fichier ne doit être
+     * ouvert par aucun autre, serveur compris. */
+
+    // Constantes.
+
+    private static final int SECTOR_SIZE = RegionHeader.SECTOR_SIZE; // Taille d'un secteur.
+    private static final int MAX_SECTOR  = 0xFFFFFF;                 // Dernier secteur adressable par l'en-tête.
+
+    // Constructeurs.
+
+    private RegionPruner()
+    {
+        /* Classe utilitaire, non instanciable. */
+    }
+
+    // Méthodes publiques statiques.
+
+    public static int prune(File regionFile, ChunkMask candidates, File backupFile) throws IOException
+    {
+        /* Retire d'un fichier de région les chunks désignés toujours jamais habités, après les avoir sauvegardés.
+         * Retour : nombre de chunks retirés.
+         * Paramètres : -regionFile : fichier de région.
+         *              -candidates : chunks à retirer, s'ils n'ont toujours pas été habités.
+         *              -backupFile : fichier de sauvegarde des chunks retirés, complété s'il existe déjà. */
+
+        ByteBuffer emptyEntry = ByteBuffer.allocate(4); // Entrée d'en-tête effacée.
+        ChunkMask removed     = new ChunkMask();        // Chunks retirés.
+        RegionHeader header   = null;                   // En-tête du fichier.
+
+        // Contrôle.
+
+        if((!(regionFile instanceof File)) || (!(candidates instanceof ChunkMask)) || (!(backupFile instanceof File)))
+            throw new IllegalArgumentException();
+
+        try(FileChannel source = FileChannel.open(regionFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            header = RegionHeader.read(source);
+
+            // Vérifie les chunks désignés.
+
+            for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+            {
+                if(candidates.get(chunkIndex) && header.isPresent(chunkIndex) && UninhabitedChunksScanner.isUninhabited(source, header, chunkIndex))
+                    removed.set(chunkIndex);
+            }
+
+            if(removed.isEmpty())
+                return 0;
+
+            // Sauvegarde, puis retrait de l'en-tête.
+
+            backup(source, header, removed, backupFile);
+
+            for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+            {
+                if(!removed.get(chunkIndex))
+                    continue;
+
+                write(source, emptyEntry, 4L * chunkIndex);
+                write(source, emptyEntry, SECTOR_SIZE + (4L * chunkIndex));
+            }
+
+            source.force(true);
+        }
+
+        return removed.count();
+    }
+
+    // Méthodes privées statiques.
+
+    private static void backup(FileChannel source, RegionHeader header, ChunkMask removed, File backupFile) throws IOException
+    {
+        /* Copie des chunks dans le fichier de sauvegarde, à la suite de ceux qu'il contient déjà.
+         * Retour : aucun.
+         * Paramètres : -source     : canal du fichier de région.
+         *              -header     : en-tête du fichier de région.
+         *              -removed    : chunks à copier, déjà lus sans erreur.
+         *              -backupFile : fichier de sauvegarde. */
+
+        ByteBuffer backupHeader = ByteBuffer.allocate(2 * SECTOR_SIZE).order(ByteOrder.BIG_ENDIAN); // En-tête de la sauvegarde.
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);               // Longueur d'un chunk.
+        long nextSector         = 2L;                                                               // Prochain secteur libre de la sauvegarde.
+
+        Files.createDirectories(backupFile.getParentFile().toPath());
+
+        try(FileChannel target = FileChannel.open(backupFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            // Reprend l'en-tête d'une sauvegarde existante.
+
+            if(target.size() >= backupHeader.capacity())
+            {
+                readFully(target, backupHeader, 0L);
+
+                nextSector = (target.size() + SECTOR_SIZE - 1) / SECTOR_SIZE;
+            }
+
+            // Copie les chunks, un chunk déjà sauvegardé étant remplacé.
+
+            for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+            {
+                long sourcePosition = (long)header.getSectorOffset(chunkIndex) * SECTOR_SIZE; // Position du chunk.
+                int length          = 0;                                                      // Longueur du chunk, préfixe compris.
+                int sectorCount     = 0;                                                      // Secteurs du chunk.
+
+                if(!removed.get(chunkIndex))
+                    continue;
+
+                lengthBuffer.clear();
+
+                readFully(source, lengthBuffer, sourcePosition);
+
+                length = lengthBuffer.getInt() + lengthBuffer.capacity();
+
+                if((length <= lengthBuffer.capacity()) || (length > (header.getSectorCount(chunkIndex) * SECTOR_SIZE))) // Hors des secteurs du chunk.
+                    throw new IOException("Invalid length " + (length - lengthBuffer.capacity()) + " of chunk " + chunkIndex + " (" + header.getSectorCount(chunkIndex) + " sectors).");
+
+                sectorCount = (length + SECTOR_SIZE - 1) / SECTOR_SIZE;
+
+                if((nextSector + sectorCount) > MAX_SECTOR)
+                    throw new IOException("Backup file \"" + backupFile + "\" is full.");
+
+                for(long copied = 0L; copied < length; )
+                    copied += source.transferTo(sourcePosition + copied, length - copied, target.position((nextSector * SECTOR_SIZE) + copied));
+
+                backupHeader.putInt(4 * chunkIndex, (int)(nextSector << 8) | sectorCount);
+                backupHeader.putInt(SECTOR_SIZE + (4 * chunkIndex), header.getTimestamp(chunkIndex));
+
+                nextSector += sectorCount;
+            }
+
+            // Complète le dernier secteur, puis écrit l'en-tête.
+
+            if(target.size() < (nextSector * SECTOR_SIZE))
+                target.write(ByteBuffer.allocate(1), (nextSector * SECTOR_SIZE) - 1L);
+
+            backupHeader.clear();
+
+            write(target, backupHeader, 0L);
+
+            target.force(true);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        /* Lit un tampon complet depuis une position d'un canal.
+         * Retour : aucun.
+         * Paramètres : -channel  : canal lu.
+         *              -buffer   : tampon à remplir.
+         *              -position : position de lecture. */
+
+        while(buffer.hasRemaining())
+        {
+            if(channel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of region file.");
+        }
+
+        buffer.flip();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        /* Ecrit un tampon complet à une position d'un canal.
+         * Retour : aucun.
+         * Paramètres : -channel  : canal écrit.
+         *              -buffer   : tampon à écrire, relu depuis son début.
+         *              -position : position d'écriture. */
+
+        buffer.rewind();
+
+        while(buffer.hasRemaining())
+            channel.write(buffer, position + buffer.position());
+    }
+}
@@ -0,0 +1,252 @@
+/* RegionValidator.java
+ * Classe RegionValidator du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+// Définition de la classe.
+
+public final class RegionValidator extends RecursiveAction
+{
+    /* Tâche fork-join contrôlant, avant leur raffraichissement, les chunks d'un fichier de région : emplacements dans
+     * les limites du fichier et sans chevauchement, d'après l'en-tête seul, puis pour chaque chunk champ de longueur,
+     * type de compression et décompression complète des données, dont la racine doit être un tag compound. Le contrôle
+     * des données est découpé comme l'analyse de StaleChunksScanner. Les données externes (.mcc) et compressées en LZ4
+     * ne sont pas décompressées. Chaque chunk défectueux reçoit la description de son défaut. */
+
+    // Constantes.
+
+    private static final int COMPRESSION_EXTERNAL = 128;                      // Drapeau des données externes (.mcc).
+    private static final int COMPRESSION_GZIP     = 1;                        // Types de compression connus.
+    private static final int COMPRESSION_LZ4      = 4;
+    private static final int DRAIN_SIZE           = 8192;                     // Taille du tampon de décompression.
+    private static final int LEAF_SIZE            = 64;                       // Nombre de chunks au-dessous duquel la plage n'est plus découpée.
+    private static final int SECTOR_SIZE          = RegionHeader.SECTOR_SIZE; // Taille d'un secteur.
+    private static final int TAG_COMPOUND         = 10;                       // Type du tag racine.
+    private static final long serialVersionUID    = 1L;
+
+    // Membres.
+
+    private final transient ChunkMask candidates; // Chunks à contrôler.
+    private final transient FileChannel channel;  // Canal du fichier de région.
+    private final transient String[] defects;     // Défaut de chaque chunk, null s'il est sain, commun aux sous-tâches.
+    private final transient RegionHeader header;  // En-tête de la région.
+    private final int fromIndex;                  // Début de la plage, inclus.
+    private final int toIndex;                    // Fin de la plage, exclue.
+
+    // Constructeurs.
+
+    private RegionValidator(FileChannel channel, RegionHeader header, ChunkMask candidates, String[] defects, int fromIndex, int toIndex)
+    {
+        /* Constructeur par défaut. */
+
+        this.candidates = candidates;
+        this.channel    = channel;
+        this.defects    = defects;
+        this.header     = header;
+        this.fromIndex  = fromIndex;
+        this.toIndex    = toIndex;
+    }
+
+    // Méthodes publiques statiques.
+
+    public static String[] validate(File regionFile, RegionHeader header, ChunkMask candidates) throws IOException
+    {
+        /* Contrôle les chunks d'un fichier de région. Appelée depuis un thread du pool fork-join, les sous-tâches y
+         * sont réparties.
+         * Retour : défaut de chaque chunk, par index d'en-tête, null pour un chunk sain ou non contrôlé.
+         * Paramètres : -regionFile : fichier de région.
+         *              -header     : en-tête déjà lu du fichier.
+         *              -candidates : chunks présents à contrôler. */
+
+        String[] defects = new String[ChunkMask.CHUNKS_PER_REGION]; // Défauts relevés.
+
+        // Contrôle.
+
+        if((!(regionFile instanceof File)) || (!(header instanceof RegionHeader)) || (!(candidates instanceof ChunkMask)))
+            throw new IllegalArgumentException();
+
+        // Emplacements, puis données des chunks dont l'emplacement est correct.
+
+        try(FileChannel channel = FileChannel.open(regionFile.toPath(), StandardOpenOption.READ))
+        {
+            checkLayout(channel.size(), header, candidates, defects);
+
+            new RegionValidator(channel, header, candidates, defects, 0, ChunkMask.CHUNKS_PER_REGION).invoke();
+        }
+
+        catch(UncheckedIOException error) // Canal fermé ou inaccessible.
+        {
+            throw error.getCause();
+        }
+
+        return defects;
+    }
+
+    // Méthodes privées statiques.
+
+    private static void checkLayout(long fileSize, RegionHeader header, ChunkMask candidates, String[] defects)
+    {
+        /* Contrôle, d'après l'en-tête, que les chunks candidats sont dans les limites du fichier, et qu'ils ne
+         * partagent aucun secteur avec un autre chunk.
+         * Retour : aucun.
+         * Paramètres : -fileSize   : taille du fichier.
+         *              -header     : en-tête du fichier.
+         *              -candidates : chunks à contrôler.
+         *              -defects    : défauts relevés, complétés. */
+
+        long[] extents   = new long[ChunkMask.CHUNKS_PER_REGION];       // Secteur de début et index de chaque chunk présent, triés.
+        long fileSectors = (fileSize + SECTOR_SIZE - 1L) / SECTOR_SIZE; // Nombre de secteurs du fichier.
+        int nExtents     = 0;                                           // Nombre de chunks présents.
+        int lastEnd      = 0;                                           // Fin du chunk s'étendant le plus loin jusqu'ici, exclue.
+        int lastIndex    = -1;                                          // Index de ce chunk.
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            if(!header.isPresent(chunkIndex))
+                continue;
+
+            extents[nExtents++] = ((long)header.getSectorOffset(chunkIndex) << 10) | chunkIndex;
+
+            if(candidates.get(chunkIndex) && ((header.getSectorOffset(chunkIndex) + header.getSectorCount(chunkIndex)) > fileSectors))
+                defects[chunkIndex] = "sectors beyond end of file";
+        }
+
+        // Parcourt les chunks dans l'ordre du fichier : un chunk commençant avant la fin d'un précédent le chevauche.
+
+        Arrays.sort(extents, 0, nExtents);
+
+        for(int extentIndex = 0; extentIndex < nExtents; extentIndex++)
+        {
+            int chunkIndex   = (int)(extents[extentIndex] & 0x3FF);              // Chunk en cours.
+            int sectorOffset = header.getSectorOffset(chunkIndex);               // Emplacement du chunk.
+            int sectorEnd    = sectorOffset + header.getSectorCount(chunkIndex);
+
+            if(sectorOffset < lastEnd)
+            {
+                if(candidates.get(chunkIndex) && !(defects[chunkIndex] instanceof String))
+                    defects[chunkIndex] = "sectors overlapping chunk " + lastIndex;
+
+                if(candidates.get(lastIndex) && !(defects[lastIndex] instanceof String))
+                    defects[lastIndex] = "sectors overlapping chunk " + chunkIndex;
+            }
+
+            if(sectorEnd > lastEnd)
+            {
+                lastEnd   = sectorEnd;
+                lastIndex = chunkIndex;
+            }
+        }
+    }
+
+    // Méthodes protégées de classe.
+
+    @Override
+    protected void compute()
+    {
+        /* Contrôle les données de la plage de chunks, directement ou en la découpant.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        int middleIndex = 0; // Milieu de la plage.
+
+        if((toIndex - fromIndex) > LEAF_SIZE)
+        {
+            middleIndex = (fromIndex + toIndex) >>> 1;
+
+            invokeAll(new RegionValidator(channel, header, candidates, defects, fromIndex, middleIndex), new RegionValidator(channel, header, candidates, defects, middleIndex, toIndex));
+
+            return;
+        }
+
+        try
+        {
+            for(int chunkIndex = fromIndex; chunkIndex < toIndex; chunkIndex++)
+            {
+                if(candidates.get(chunkIndex) && header.isPresent(chunkIndex) && !(defects[chunkIndex] instanceof String))
+                    defects[chunkIndex] = checkPayload(chunkIndex);
+            }
+        }
+
+        catch(ClosedChannelException error) // Contrôle abandonné.
+        {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    // Méthodes privées de classe.
+
+    private String checkPayload(int chunkIndex) throws ClosedChannelException
+    {
+        /* Contrôle la longueur, la compression et la décompression des données d'un chunk.
+         * Retour : défaut relevé, null si le chunk est sain.
+         * Paramètres : index du chunk dans l'en-tête. */
+
+        ByteBuffer chunkHeader = ByteBuffer.allocate(5);                                 // Longueur et compression.
+        long position          = (long)header.getSectorOffset(chunkIndex) * SECTOR_SIZE; // Position du chunk dans le fichier.
+        int maxLength          = (header.getSectorCount(chunkIndex) * SECTOR_SIZE) - 4;  // Longueur maximale, compression incluse.
+        int length             = 0;                                                      // Longueur des données, compression incluse.
+        int compression        = 0;                                                      // Type de compression.
+
+        try
+        {
+            while(chunkHeader.hasRemaining())
+            {
+                if(channel.read(chunkHeader, position + chunkHeader.position()) < 0)
+                    return "truncated chunk header";
+            }
+
+            length      = chunkHeader.getInt(0);
+            compression = chunkHeader.get(4) & 0xFF;
+
+            if((length < 1) || (length > maxLength))
+                return "invalid length " + length + " (at most " + maxLength + ")";
+
+            if(((compression & ~COMPRESSION_EXTERNAL) < COMPRESSION_GZIP) || ((compression & ~COMPRESSION_EXTERNAL) > COMPRESSION_LZ4))
+                return "unknown compression type " + compression;
+
+            if(((compression & COMPRESSION_EXTERNAL) != 0) || (compression == COMPRESSION_LZ4)) // Non décompressées ici.
+                return null;
+
+            // Décompression complète.
+
+            try(DataInputStream nbtStream = ChunkNbtReader.openChunk(channel, header.getSectorOffset(chunkIndex), header.getSectorCount(chunkIndex)))
+            {
+                byte[] drainBuffer = new byte[DRAIN_SIZE]; // Tampon des données décompressées, ignorées.
+
+                if(nbtStream.read() != TAG_COMPOUND)
+                    return "data root is not a compound tag";
+
+                while(nbtStream.read(drainBuffer) >= 0)
+                    continue;
+            }
+        }
+
+        catch(ClosedChannelException error) // Contrôle abandonné.
+        {
+            throw error;
+        }
+
+        catch(IOException error)
+        {
+            return "unreadable data (" + error.getMessage() + ")";
+        }
+
+        return null;
+    }
+}
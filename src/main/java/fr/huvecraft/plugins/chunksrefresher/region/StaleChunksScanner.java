@@ -0,0 +1,149 @@
+/* StaleChunksScanner.java
+ * Classe StaleChunksScanner du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.RecursiveTask;
+
+// Définition de la classe.
+
+public final class StaleChunksScanner extends RecursiveTask<ChunkMask>
+{
+    /* Tâche fork-join recherchant, dans un fichier de région, les chunks dont la version de format est antérieure
+     * à celle du serveur. La plage des chunks est découpée en deux jusqu'à une taille fixe, chaque moitié lisant
+     * le fichier par un canal commun en positionnement absolu. Un chunk illisible est considéré comme périmé,
+     * pour que le serveur le traite lui-même. */
+
+    // Constantes.
+
+    private static final int LEAF_SIZE         = 64; // Nombre de chunks au-dessous duquel la plage n'est plus découpée.
+    private static final long serialVersionUID = 1L;
+
+    // Membres.
+
+    private final transient ChunkMask candidates; // Chunks à analyser.
+    private final transient FileChannel channel;  // Canal du fichier de région.
+    private final transient RegionHeader header;  // En-tête de la région.
+    private final int fromIndex;                  // Début de la plage, inclus.
+    private final int targetDataVersion;          // Version de format actuelle.
+    private final int toIndex;                    // Fin de la plage, exclue.
+
+    // Constructeurs.
+
+    private StaleChunksScanner(FileChannel channel, RegionHeader header, ChunkMask candidates, int targetDataVersion, int fromIndex, int toIndex)
+    {
+        /* Constructeur par défaut. */
+
+        this.candidates        = candidates;
+        this.channel           = channel;
+        this.header            = header;
+        this.fromIndex         = fromIndex;
+        this.targetDataVersion = targetDataVersion;
+        this.toIndex           = toIndex;
+    }
+
+    // Méthodes publiques statiques.
+
+    public static ChunkMask scan(File regionFile, RegionHeader header, ChunkMask candidates, int targetDataVersion) throws IOException
+    {
+        /* Recherche les chunks périmés d'un fichier de région. Appelée depuis un thread du pool fork-join,
+         * les sous-tâches y sont réparties.
+         * Retour : masque des chunks candidats dont la version est inférieure à la version actuelle.
+         * Paramètres : -regionFile        : fichier de région.
+         *              -header            : en-tête déjà lu du fichier.
+         *              -candidates        : chunks présents à analyser.
+         *              -targetDataVersion : version de format actuelle. */
+
+        // Contrôle.
+
+        if((!(regionFile instanceof File)) || (!(header instanceof RegionHeader)) || (!(candidates instanceof ChunkMask)))
+            throw new IllegalArgumentException();
+
+        // Analyse.
+
+        try(FileChannel channel = FileChannel.open(regionFile.toPath(), StandardOpenOption.READ))
+        {
+            return new StaleChunksScanner(channel, header, candidates, targetDataVersion, 0, ChunkMask.CHUNKS_PER_REGION).invoke();
+        }
+
+        catch(UncheckedIOException error) // Canal fermé ou inaccessible.
+        {
+            throw error.getCause();
+        }
+    }
+
+    // Méthodes protégées de classe.
+
+    @Override
+    protected ChunkMask compute()
+    {
+        /* Analyse la plage de chunks, directement ou en la découpant.
+         * Retour : masque des chunks périmés de la plage.
+         * Paramètres : aucun. */
+
+        ChunkMask staleChunks         = null; // Masque calculé.
+        StaleChunksScanner firstHalf  = null; // Sous-tâches.
+        StaleChunksScanner secondHalf = null;
+        int middleIndex               = 0;    // Milieu de la plage.
+
+        if((toIndex - fromIndex) > LEAF_SIZE)
+        {
+            middleIndex = (fromIndex + toIndex) >>> 1;
+            firstHalf   = new StaleChunksScanner(channel, header, candidates, targetDataVersion, fromIndex, middleIndex);
+            secondHalf  = new StaleChunksScanner(channel, header, candidates, targetDataVersion, middleIndex, toIndex);
+
+            firstHalf.fork();
+
+            staleChunks = secondHalf.compute();
+
+            staleChunks.or(firstHalf.join());
+
+            return staleChunks;
+        }
+
+        staleChunks = new ChunkMask();
+
+        for(int chunkIndex = fromIndex; chunkIndex < toIndex; chunkIndex++)
+        {
+            if(candidates.get(chunkIndex) && header.isPresent(chunkIndex) && isStale(chunkIndex))
+                staleChunks.set(chunkIndex);
+        }
+
+        return staleChunks;
+    }
+
+    // Méthodes privées de classe.
+
+    private boolean isStale(int chunkIndex)
+    {
+        /* Indique si un chunk présent doit être mis à jour.
+         * Retour : oui ou non.
+         * Paramètres : index du chunk dans l'en-tête. */
+
+        try
+        {
+            return ChunkNbtReader.readDataVersion(channel, header.getSectorOffset(chunkIndex), header.getSectorCount(chunkIndex)) < targetDataVersion;
+        }
+
+        catch(ClosedChannelException error) // Analyse abandonnée.
+        {
+            throw new UncheckedIOException(error);
+        }
+
+        catch(IOException error)
+        {
+            return true; // Illisible : laissé au serveur.
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/* UninhabitedChunksScanner.java
+ * Classe UninhabitedChunksScanner du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.RecursiveTask;
+
+// Définition de la classe.
+
+public final class UninhabitedChunksScanner extends RecursiveTask<ChunkMask>
+{
+    /* Tâche fork-join recherchant, dans un fichier de région, les chunks qu'aucun joueur n'a jamais habités (tag
+     * InhabitedTime nul) : générés au passage d'un joueur, sans qu'aucun ne s'y soit arrêté. Découpage et lecture
+     * identiques à ceux de StaleChunksScanner. Un chunk illisible, ou sans InhabitedTime, n'est jamais retenu. */
+
+    // Constantes.
+
+    private static final int LEAF_SIZE         = 64; // Nombre de chunks au-dessous duquel la plage n'est plus découpée.
+    private static final long serialVersionUID = 1L;
+
+    // Membres.
+
+    private final transient ChunkMask candidates; // Chunks à analyser.
+    private final transient FileChannel channel;  // Canal du fichier de région.
+    private final transient RegionHeader header;  // En-tête de la région.
+    private final int fromIndex;                  // Début de la plage, inclus.
+    private final int toIndex;                    // Fin de la plage, exclue.
+
+    // Constructeurs.
+
+    private UninhabitedChunksScanner(FileChannel channel, RegionHeader header, ChunkMask candidates, int fromIndex, int toIndex)
+    {
+        /* Constructeur par défaut. */
+
+        this.candidates = candidates;
+        this.channel    = channel;
+        this.header     = header;
+        this.fromIndex  = fromIndex;
+        this.toIndex    = toIndex;
+    }
+
+    // Méthodes publiques statiques.
+
+    public static boolean isUninhabited(FileChannel channel, RegionHeader header, int chunkIndex) throws ClosedChannelException
+    {
+        /* Indique si un chunk présent n'a jamais été habité.
+         * Retour : oui ou non, non s'il est illisible.
+         * Paramètres : -channel    : canal du fichier de région.
+         *              -header     : en-tête du fichier.
+         *              -chunkIndex : index du chunk dans l'en-tête. */
+
+        try
+        {
+            return ChunkNbtReader.readInhabitedTime(channel, header.getSectorOffset(chunkIndex), header.getSectorCount(chunkIndex)) == 0L;
+        }
+
+        catch(ClosedChannelException error) // Analyse abandonnée.
+        {
+            throw error;
+        }
+
+        catch(IOException error)
+        {
+            return false; // Illisible : laissé au serveur.
+        }
+    }
+
+    public static ChunkMask scan(File regionFile, RegionHeader header, ChunkMask candidates) throws IOException
+    {
+        /* Recherche les chunks jamais habités d'un fichier de région. Appelée depuis un thread du pool fork-join,
+         * les sous-tâches y sont réparties.
+         * Retour : masque des chunks candidats jamais habités.
+         * Paramètres : -regionFile : fichier de région.
+         *              -header     : en-tête déjà lu du fichier.
+         *              -candidates : chunks présents à analyser. */
+
+        // Contrôle.
+
+        if((!(regionFile instanceof File)) || (!(header instanceof RegionHeader)) || (!(candidates instanceof ChunkMask)))
+            throw new IllegalArgumentException();
+
+        // Analyse.
+
+        try(FileChannel channel = FileChannel.open(regionFile.toPath(), StandardOpenOption.READ))
+        {
+            return new UninhabitedChunksScanner(channel, header, candidates, 0, ChunkMask.CHUNKS_PER_REGION).invoke();
+        }
+
+        catch(UncheckedIOException error) // Canal fermé ou inaccessible.
+        {
+            throw error.getCause();
+        }
+    }
+
+    // Méthodes protégées de classe.
+
+    @Override
+    protected ChunkMask compute()
+    {
+        /* Analyse la plage de chunks, directement ou en la découpant.
+         * Retour : masque des chunks jamais habités de la plage.
+         * Paramètres : aucun. */
+
+        ChunkMask uninhabitedChunks         = null; // Masque calculé.
+        UninhabitedChunksScanner firstHalf  = null; // Sous-tâches.
+        UninhabitedChunksScanner secondHalf = null;
+        int middleIndex                     = 0;    // Milieu de la plage.
+
+        if((toIndex - fromIndex) > LEAF_SIZE)
+        {
+            middleIndex = (fromIndex + toIndex) >>> 1;
+            firstHalf   = new UninhabitedChunksScanner(channel, header, candidates, fromIndex, middleIndex);
+            secondHalf  = new UninhabitedChunksScanner(channel, header, candidates, middleIndex, toIndex);
+
+            firstHalf.fork();
+
+            uninhabitedChunks = secondHalf.compute();
+
+            uninhabitedChunks.or(firstHalf.join());
+
+            return uninhabitedChunks;
+        }
+
+        uninhabitedChunks = new ChunkMask();
+
+        try
+        {
+            for(int chunkIndex = fromIndex; chunkIndex < toIndex; chunkIndex++)
+            {
+                if(candidates.get(chunkIndex) && header.isPresent(chunkIndex) && isUninhabited(channel, header, chunkIndex))
+                    uninhabitedChunks.set(chunkIndex);
+            }
+        }
+
+        catch(ClosedChannelException error) // Analyse abandonnée.
+        {
+            throw new UncheckedIOException(error);
+        }
+
+        return uninhabitedChunks;
+    }
+}
@@ -0,0 +1,702 @@
+/* SimulatedServer.java
+ * Classe du serveur simulé du banc de simulation du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionHeader;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.scheduler.BukkitWorker;
+
+// Définition de la classe.
+
+final class SimulatedServer
+{
+    /* Serveur simulé, hors Bukkit : un thread de tick cadencé à 20 ticks par seconde exécute à chaque tick un travail
+     * de jeu simulé (attente active de durée fixe), puis les tâches synchrones dues, et mesure la durée de chaque tick.
+     * Le serveur, son scheduler et son unique monde sont des proxies des interfaces Bukkit, répondant par défaut
+     * aux méthodes non simulées. Le chargement d'un chunk coûte une attente active sur le thread de tick, plus longue
+     * s'il n'existe pas (génération). L'existence des chunks est lue dans les en-têtes des fichiers de régions. */
+
+    // Constantes.
+
+    private static final long TICK_NANOS = 50000000L; // Durée nominale d'un tick.
+
+    // Membres.
+
+    private final AtomicInteger nextTaskId;                        // Identifiant de la prochaine tâche.
+    private final AtomicLong chunksGenerated;                      // Chunks absents chargés (générés).
+    private final AtomicLong chunksLoaded;                         // Chunks existants chargés.
+    private final ConcurrentHashMap<Integer, Thread> asyncThreads; // Threads des tâches asynchrones en cours.
+    private final ConcurrentHashMap<Long, ChunkMask> regionMasks;  // Chunks présents par région, lus à la demande.
+    private final ConcurrentLinkedQueue<SimulatedTask> submitted;  // Tâches synchrones soumises depuis le dernier tick.
+    private final ArrayList<SimulatedTask> syncTasks;              // Tâches synchrones planifiées (thread de tick).
+    private final Logger logger;                                   // Loggeur du serveur.
+    private final MemoryMXBean memoryBean;                         // Occupation du tas.
+    private final Server server;                                   // Proxy du serveur.
+    private final BukkitScheduler scheduler;                       // Proxy du scheduler.
+    private final World world;                                     // Proxy du monde.
+    private final File worldFolder;                                // Dossier du monde.
+    private final String worldName;                                // Nom du monde.
+    private final long baseTickNanos;                              // Travail de jeu simulé par tick.
+    private final long chunkGenerateNanos;                         // Coût de génération d'un chunk absent.
+    private final long chunkLoadNanos;                             // Coût de chargement d'un chunk existant.
+    private volatile boolean running;                              // Thread de tick actif ?
+    private volatile long currentTick;                             // Numéro du tick en cours.
+    private long[] tickDurations;                                  // Durées des ticks mesurés.
+    private int nTicks;                                            // Nombre de ticks mesurés.
+    private long peakHeapUsed;                                     // Occupation maximale du tas mesurée en fin de tick.
+    private Thread tickThread;                                     // Thread de tick.
+
+    // Constructeurs.
+
+    public SimulatedServer(File worldFolder, String worldName, double baseTickMillis, double chunkLoadMillis, double chunkGenerateMillis)
+    {
+        /* Constructeur par défaut. */
+
+        this.nextTaskId         = new AtomicInteger(1);
+        this.chunksGenerated    = new AtomicLong(0L);
+        this.chunksLoaded       = new AtomicLong(0L);
+        this.asyncThreads       = new ConcurrentHashMap<Integer, Thread>();
+        this.regionMasks        = new ConcurrentHashMap<Long, ChunkMask>();
+        this.submitted          = new ConcurrentLinkedQueue<SimulatedTask>();
+        this.syncTasks          = new ArrayList<SimulatedTask>();
+        this.logger             = Logger.getLogger("SimulatedServer");
+        this.memoryBean         = ManagementFactory.getMemoryMXBean();
+        this.worldFolder        = worldFolder;
+        this.worldName          = worldName;
+        this.baseTickNanos      = (long)(baseTickMillis * 1000000.0D);
+        this.chunkGenerateNanos = (long)(chunkGenerateMillis * 1000000.0D);
+        this.chunkLoadNanos     = (long)(chunkLoadMillis * 1000000.0D);
+        this.running            = false;
+        this.currentTick        = 0L;
+        this.tickDurations      = new long[1024];
+        this.nTicks             = 0;
+        this.peakHeapUsed       = 0L;
+        this.tickThread         = null;
+        this.server             = (Server)Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[] { Server.class }, (proxy, method, arguments) -> answerServer(proxy, method, arguments));
+        this.scheduler          = (BukkitScheduler)Proxy.newProxyInstance(BukkitScheduler.class.getClassLoader(), new Class<?>[] { BukkitScheduler.class }, (proxy, method, arguments) -> answerScheduler(proxy, method, arguments));
+        this.world              = (World)Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[] { World.class }, (proxy, method, arguments) -> answerWorld(proxy, method, arguments));
+    }
+
+    // Méthodes publiques de classe.
+
+    public long getChunksGenerated()
+    {
+        /* Retourne le nombre de chunks absents chargés, donc générés.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return chunksGenerated.get();
+    }
+
+    public long getChunksLoaded()
+    {
+        /* Retourne le nombre de chunks existants chargés.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return chunksLoaded.get();
+    }
+
+    public synchronized long getPeakHeapUsed()
+    {
+        /* Retourne l'occupation maximale du tas depuis la dernière remise à zéro des mesures.
+         * Retour : occupation en octets.
+         * Paramètres : aucun. */
+
+        return peakHeapUsed;
+    }
+
+    public Server getServer()
+    {
+        /* Retourne le serveur simulé.
+         * Retour : proxy en question.
+         * Paramètres : aucun. */
+
+        return server;
+    }
+
+    public synchronized long[] getTickDurations()
+    {
+        /* Retourne les durées des ticks depuis la dernière remise à zéro des mesures.
+         * Retour : durées en nanosecondes, dans l'ordre.
+         * Paramètres : aucun. */
+
+        return Arrays.copyOf(tickDurations, nTicks);
+    }
+
+    public World getWorld()
+    {
+        /* Retourne le monde simulé.
+         * Retour : proxy en question.
+         * Paramètres : aucun. */
+
+        return world;
+    }
+
+    public synchronized void resetStatistics()
+    {
+        /* Remet à zéro les mesures des ticks et du tas.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        nTicks       = 0;
+        peakHeapUsed = 0L;
+
+        chunksGenerated.set(0L);
+        chunksLoaded.set(0L);
+    }
+
+    public void start()
+    {
+        /* Démarre le thread de tick.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        running    = true;
+        tickThread = new Thread(this::runTicks, "Server thread");
+
+        tickThread.start();
+    }
+
+    public void stop() throws InterruptedException
+    {
+        /* Arrête le thread de tick et attend sa fin.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        running = false;
+
+        if(tickThread instanceof Thread)
+            tickThread.join();
+    }
+
+    // Méthodes privées statiques.
+
+    private static void busyWait(long nanos)
+    {
+        /* Occupe le thread courant, comme le ferait un travail de calcul.
+         * Retour : aucun.
+         * Paramètres : durée en nanosecondes. */
+
+        long endTime = System.nanoTime() + nanos; // Fin de l'attente.
+
+        while(System.nanoTime() < endTime)
+            Thread.onSpinWait();
+    }
+
+    private static Object defaultAnswer(Object proxy, Method method, Object[] arguments)
+    {
+        /* Répond à une méthode non simulée d'un proxy : méthodes d'Object, puis valeurs par défaut.
+         * Retour : valeur en question.
+         * Paramètres : -proxy     : proxy appelé.
+         *              -method    : méthode appelée.
+         *              -arguments : arguments de l'appel. */
+
+        Class<?> returnType = method.getReturnType(); // Type retourné.
+
+        switch(method.getName())
+        {
+            case "equals":
+                return proxy == arguments[0];
+
+            case "hashCode":
+                return System.identityHashCode(proxy);
+
+            case "toString":
+                return "Simulated" + proxy.getClass().getInterfaces()[0].getSimpleName();
+        }
+
+        if(returnType == boolean.class)
+            return false;
+
+        if(returnType == int.class)
+            return 0;
+
+        if(returnType == long.class)
+            return 0L;
+
+        if(returnType == double.class)
+            return 0.0D;
+
+        if(returnType == float.class)
+            return 0.0F;
+
+        if(returnType == List.class)
+            return Collections.emptyList();
+
+        return null;
+    }
+
+    // Méthodes privées de classe.
+
+    private Object answerScheduler(Object proxy, Method method, Object[] arguments)
+    {
+        /* Répond aux méthodes du scheduler simulé.
+         * Retour : valeur retournée par la méthode.
+         * Paramètres : -proxy     : proxy appelé.
+         *              -method    : méthode appelée.
+         *              -arguments : arguments de l'appel. */
+
+        switch(method.getName())
+        {
+            case "callSyncMethod":
+            {
+                FutureTask<?> futureTask = new FutureTask<Object>(((Callable<?>)arguments[1])::call); // Appel à exécuter au prochain tick.
+
+                scheduleSync((Plugin)arguments[0], futureTask, 1L, -1L);
+
+                return futureTask;
+            }
+
+            case "runTask":
+            case "scheduleSyncDelayedTask":
+            case "runTaskLater":
+            case "runTaskTimer":
+            case "scheduleSyncRepeatingTask":
+            {
+                long delay          = (arguments.length >= 3) ? Math.max(1L, (Long)arguments[2]) : 1L; // Délai avant la première exécution.
+                long period         = (arguments.length >= 4) ? Math.max(1L, (Long)arguments[3]) : -1L; // Période, -1 pour une exécution unique.
+                SimulatedTask task  = scheduleSync((Plugin)arguments[0], (Runnable)arguments[1], delay, period); // Tâche planifiée.
+
+                return method.getName().startsWith("schedule") ? (Object)task.taskId : createTaskProxy(task);
+            }
+
+            case "runTaskAsynchronously":
+                return createTaskProxy(startAsync((Plugin)arguments[0], (Runnable)arguments[1]));
+
+            case "cancelTask":
+                cancelTask((Integer)arguments[0]);
+                return null;
+
+            case "isCurrentlyRunning":
+                return asyncThreads.containsKey((Integer)arguments[0]);
+
+            case "isQueued":
+                return isQueued((Integer)arguments[0]);
+
+            case "getActiveWorkers":
+                return getActiveWorkers();
+
+            default:
+                return defaultAnswer(proxy, method, arguments);
+        }
+    }
+
+    private Object answerServer(Object proxy, Method method, Object[] arguments)
+    {
+        /* Répond aux méthodes du serveur simulé.
+         * Retour : valeur retournée par la méthode.
+         * Paramètres : -proxy     : proxy appelé.
+         *              -method    : méthode appelée.
+         *              -arguments : arguments de l'appel. */
+
+        switch(method.getName())
+        {
+            case "getScheduler":
+                return scheduler;
+
+            case "getLogger":
+                return logger;
+
+            case "getName":
+                return "SimulatedServer";
+
+            case "getVersion":
+            case "getBukkitVersion":
+                return "simulation";
+
+            case "isPrimaryThread":
+                return Thread.currentThread() == tickThread;
+
+            case "getWorlds":
+                return Collections.singletonList(world);
+
+            case "getWorld":
+                return worldName.equals(arguments[0]) ? world : null;
+
+            case "getWorldContainer":
+                return worldFolder.getParentFile();
+
+            case "getOnlinePlayers":
+                return Collections.emptyList();
+
+            case "shutdown":
+                running = false;
+                return null;
+
+            default:
+                return defaultAnswer(proxy, method, arguments);
+        }
+    }
+
+    private Object answerWorld(Object proxy, Method method, Object[] arguments) throws IOException
+    {
+        /* Répond aux méthodes du monde simulé.
+         * Retour : valeur retournée par la méthode.
+         * Paramètres : -proxy     : proxy appelé.
+         *              -method    : méthode appelée.
+         *              -arguments : arguments de l'appel. */
+
+        switch(method.getName())
+        {
+            case "getName":
+                return worldName;
+
+            case "getUID":
+                return UUID.nameUUIDFromBytes(worldName.getBytes());
+
+            case "getEnvironment":
+                return World.Environment.NORMAL;
+
+            case "getWorldFolder":
+                return worldFolder;
+
+            case "getSpawnLocation":
+                return new Location((World)proxy, 0.0D, 64.0D, 0.0D);
+
+            case "isChunkGenerated":
+                return isChunkPresent((Integer)arguments[0], (Integer)arguments[1]);
+
+            case "getChunkAt":
+                if((arguments.length == 2) && (arguments[0] instanceof Integer))
+                    return loadChunk((Integer)arguments[0], (Integer)arguments[1]);
+
+                return defaultAnswer(proxy, method, arguments);
+
+            case "getLoadedChunks":
+                return new Chunk[0];
+
+            case "unloadChunk":
+            case "unloadChunkRequest":
+                return true;
+
+            default:
+                return defaultAnswer(proxy, method, arguments); // Chunks jamais chargés, sauvegarde sans effet, aucun joueur.
+        }
+    }
+
+    private synchronized void cancelTask(int taskId)
+    {
+        /* Annule une tâche synchrone planifiée. Les tâches asynchrones ne sont pas interrompues, comme dans Bukkit.
+         * Retour : aucun.
+         * Paramètres : identifiant de la tâche. */
+
+        for(SimulatedTask task : syncTasks)
+        {
+            if(task.taskId == taskId)
+                task.cancelled = true;
+        }
+
+        for(SimulatedTask task : submitted)
+        {
+            if(task.taskId == taskId)
+                task.cancelled = true;
+        }
+    }
+
+    private Object createTaskProxy(SimulatedTask task)
+    {
+        /* Crée la BukkitTask d'une tâche.
+         * Retour : proxy en question.
+         * Paramètres : tâche en question. */
+
+        return Proxy.newProxyInstance(BukkitTask.class.getClassLoader(), new Class<?>[] { BukkitTask.class }, (proxy, method, arguments) ->
+        {
+            switch(method.getName())
+            {
+                case "getTaskId":
+                    return task.taskId;
+
+                case "getOwner":
+                    return task.owner;
+
+                case "isSync":
+                    return task.sync;
+
+                case "isCancelled":
+                    return task.cancelled;
+
+                case "cancel":
+                    task.cancelled = true;
+                    return null;
+
+                default:
+                    return defaultAnswer(proxy, method, arguments);
+            }
+        });
+    }
+
+    private List<BukkitWorker> getActiveWorkers()
+    {
+        /* Retourne les tâches asynchrones en cours.
+         * Retour : liste de proxies BukkitWorker.
+         * Paramètres : aucun. */
+
+        ArrayList<BukkitWorker> workers = new ArrayList<BukkitWorker>(); // Liste à retourner.
+
+        asyncThreads.forEach((taskId, thread) -> workers.add((BukkitWorker)Proxy.newProxyInstance(BukkitWorker.class.getClassLoader(), new Class<?>[] { BukkitWorker.class }, (proxy, method, arguments) ->
+        {
+            switch(method.getName())
+            {
+                case "getTaskId":
+                    return taskId;
+
+                case "getThread":
+                    return thread;
+
+                default:
+                    return defaultAnswer(proxy, method, arguments);
+            }
+        })));
+
+        return workers;
+    }
+
+    private boolean isChunkPresent(int xChunk, int zChunk) throws IOException
+    {
+        /* Indique si un chunk existe, d'après l'en-tête de sa région, lu une seule fois.
+         * Retour : oui ou non.
+         * Paramètres : coordonnées du chunk. */
+
+        long packedCoordinates = RegionCoordinates.pack(xChunk >> 5, zChunk >> 5); // Région du chunk.
+        ChunkMask regionMask   = regionMasks.get(packedCoordinates);               // Chunks présents dans la région.
+        File regionFile        = null;                                             // Fichier de la région.
+
+        if(!(regionMask instanceof ChunkMask))
+        {
+            regionFile = new File(new File(worldFolder, "region"), "r." + (xChunk >> 5) + "." + (zChunk >> 5) + ".mca");
+            regionMask = regionFile.isFile() ? RegionHeader.read(regionFile).getOccupancyMask() : new ChunkMask();
+
+            regionMasks.put(packedCoordinates, regionMask);
+        }
+
+        return regionMask.get(xChunk & 31, zChunk & 31);
+    }
+
+    private synchronized boolean isQueued(int taskId)
+    {
+        /* Indique si une tâche synchrone est planifiée.
+         * Retour : oui ou non.
+         * Paramètres : identifiant de la tâche. */
+
+        for(SimulatedTask task : syncTasks)
+        {
+            if((task.taskId == taskId) && !task.cancelled)
+                return true;
+        }
+
+        return false;
+    }
+
+    private Chunk loadChunk(int xChunk, int zChunk) throws IOException
+    {
+        /* Simule le chargement d'un chunk, sur le thread appelant.
+         * Retour : proxy du chunk chargé.
+         * Paramètres : coordonnées du chunk. */
+
+        if(isChunkPresent(xChunk, zChunk))
+        {
+            busyWait(chunkLoadNanos);
+
+            chunksLoaded.incrementAndGet();
+        }
+
+        else
+        {
+            busyWait(chunkGenerateNanos);
+
+            chunksGenerated.incrementAndGet();
+        }
+
+        return (Chunk)Proxy.newProxyInstance(Chunk.class.getClassLoader(), new Class<?>[] { Chunk.class }, (proxy, method, arguments) ->
+        {
+            switch(method.getName())
+            {
+                case "getX":
+                    return xChunk;
+
+                case "getZ":
+                    return zChunk;
+
+                case "getWorld":
+                    return world;
+
+                case "unload":
+                    return true;
+
+                default:
+                    return defaultAnswer(proxy, method, arguments);
+            }
+        });
+    }
+
+    private synchronized void recordTick(long tickNanos)
+    {
+        /* Enregistre la durée d'un tick et l'occupation du tas.
+         * Retour : aucun.
+         * Paramètres : durée du tick. */
+
+        if(nTicks == tickDurations.length)
+            tickDurations = Arrays.copyOf(tickDurations, nTicks * 2);
+
+        tickDurations[nTicks++] = tickNanos;
+        peakHeapUsed            = Math.max(peakHeapUsed, memoryBean.getHeapMemoryUsage().getUsed());
+    }
+
+    private void runTicks()
+    {
+        /* Boucle du thread de tick.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        long nextTickTime = System.nanoTime(); // Début prévu du prochain tick.
+
+        while(running)
+        {
+            long tickStartTime = System.nanoTime(); // Début du tick.
+
+            // Travail de jeu simulé, puis tâches synchrones dues.
+
+            busyWait(baseTickNanos);
+
+            runDueTasks();
+
+            recordTick(System.nanoTime() - tickStartTime);
+
+            currentTick++;
+
+            // Attend le début du tick suivant, sans rattrapage des ticks en retard, comme le serveur.
+
+            nextTickTime = Math.max(nextTickTime + TICK_NANOS, System.nanoTime());
+
+            LockSupport.parkNanos(nextTickTime - System.nanoTime());
+        }
+    }
+
+    private void runDueTasks()
+    {
+        /* Exécute les tâches synchrones dues au tick en cours.
+         * Retour : aucun.
+         * Paramètres : aucun. */
+
+        ArrayList<SimulatedTask> dueTasks = new ArrayList<SimulatedTask>(); // Tâches à exécuter.
+        SimulatedTask submittedTask       = null;                           // Tâche soumise depuis le dernier tick.
+
+        synchronized(this)
+        {
+            while((submittedTask = submitted.poll()) != null)
+                syncTasks.add(submittedTask);
+
+            for(Iterator<SimulatedTask> taskIterator = syncTasks.iterator(); taskIterator.hasNext();)
+            {
+                SimulatedTask task = taskIterator.next(); // Tâche planifiée.
+
+                if(task.cancelled)
+                    taskIterator.remove();
+
+                else if(task.nextTick <= currentTick)
+                {
+                    dueTasks.add(task);
+
+                    if(task.period > 0L)
+                        task.nextTick = currentTick + task.period;
+
+                    else
+                        taskIterator.remove();
+                }
+            }
+        }
+
+        for(SimulatedTask task : dueTasks)
+        {
+            try
+            {
+                if(!task.cancelled)
+                    task.runnable.run();
+            }
+
+            catch(RuntimeException|Error error)
+            {
+                logger.warning("Task #" + task.taskId + " generated an exception: " + error);
+            }
+        }
+    }
+
+    private SimulatedTask scheduleSync(Plugin owner, Runnable runnable, long delay, long period)
+    {
+        /* Planifie une tâche synchrone.
+         * Retour : tâche planifiée.
+         * Paramètres : -owner    : plugin propriétaire.
+         *              -runnable : code à exécuter.
+         *              -delay    : délai en ticks.
+         *              -period   : période en ticks, -1 pour une exécution unique. */
+
+        SimulatedTask task = new SimulatedTask(nextTaskId.getAndIncrement(), owner, runnable, true, currentTick + delay, period); // Tâche créée.
+
+        submitted.add(task);
+
+        return task;
+    }
+
+    private SimulatedTask startAsync(Plugin owner, Runnable runnable)
+    {
+        /* Démarre une tâche asynchrone dans son propre thread.
+         * Retour : tâche démarrée.
+         * Paramètres : -owner    : plugin propriétaire.
+         *              -runnable : code à exécuter. */
+
+        SimulatedTask task = new SimulatedTask(nextTaskId.getAndIncrement(), owner, runnable, false, 0L, -1L); // Tâche créée.
+        Thread thread      = new Thread(() ->
+        {
+            try
+            {
+                runnable.run();
+            }
+
+            finally
+            {
+                asyncThreads.remove(task.taskId);
+            }
+        }, "Simulated async task #" + task.taskId); // Thread de la tâche.
+
+        asyncThreads.put(task.taskId, thread);
+
+        thread.start();
+
+        return task;
+    }
+}
@@ -0,0 +1,43 @@
+/* SimulatedTask.java
+ * Classe des tâches du scheduler simulé du banc de simulation du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import org.bukkit.plugin.Plugin;
+
+// Définition de la classe.
+
+final class SimulatedTask
+{
+    /* Tâche planifiée par le scheduler simulé. */
+
+    // Membres.
+
+    final boolean sync;         // Tâche exécutée sur le thread de tick ?
+    final int taskId;           // Identifiant de la tâche.
+    final long period;          // Période en ticks, -1 pour une exécution unique.
+    final Plugin owner;         // Plugin propriétaire.
+    final Runnable runnable;    // Code à exécuter.
+    volatile boolean cancelled; // Tâche annulée ?
+    long nextTick;              // Tick de la prochaine exécution.
+
+    // Constructeurs.
+
+    public SimulatedTask(int taskId, Plugin owner, Runnable runnable, boolean sync, long nextTick, long period)
+    {
+        /* Constructeur par défaut. */
+
+        this.sync      = sync;
+        this.taskId    = taskId;
+        this.period    = period;
+        this.owner     = owner;
+        this.runnable  = runnable;
+        this.cancelled = false;
+        this.nextTick  = nextTick;
+    }
+}
@@ -0,0 +1,234 @@
+/* SimulationRunner.java
+ * Classe principale du banc de simulation du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+// Définition de la classe.
+
+public final class SimulationRunner
+{
+    /* Banc de simulation de bout en bout : génère un monde synthétique, démarre un serveur simulé, lance une tâche
+     * de raffraichissement complète sur ce monde par la commande du plugin, puis affiche le débit, l'impact sur la durée
+     * des ticks (MSPT) et l'occupation maximale du tas. Lancé par "mvn -Psimulation test", réglé par des propriétés
+     * système (voir main()). */
+
+    // Constantes.
+
+    private static final String PROPERTY_PREFIX = "simulation.";     // Préfixe des propriétés système.
+    private static final String WORLD_NAME      = "simulated_world"; // Nom du monde simulé.
+    private static final long BASELINE_MILLIS   = 5000L;             // Durée de la mesure de référence, sans tâche.
+    private static final long PROGRESS_MILLIS   = 10000L;            // Intervalle d'affichage de la progression.
+
+    // Constructeurs.
+
+    private SimulationRunner()
+    {
+        /* Classe non instanciable. */
+    }
+
+    // Méthodes publiques statiques.
+
+    @SuppressWarnings("deprecation") // Constructeur de JavaPluginLoader réservé aux tests.
+    public static void main(String[] args) throws Exception
+    {
+        /* Exécute la simulation.
+         * Retour : aucun.
+         * Paramètres : arguments de la ligne de commande, non utilisés. */
+
+        int regionsCount                  = Integer.getInteger(PROPERTY_PREFIX + "regions", 64);                    // Nombre de régions du monde.
+        double occupancy                  = getDouble("occupancy", 0.6D);                                           // Part des chunks présents.
+        int payloadBytes                  = Integer.getInteger(PROPERTY_PREFIX + "payload", 4096);                  // Charge de chaque chunk.
+        int dataVersion                   = Integer.getInteger(PROPERTY_PREFIX + "dataversion", 1631);              // Version de format des chunks (1.13.2).
+        double baseTickMillis             = getDouble("basetick", 10.0D);                                           // Travail de jeu par tick.
+        double chunkLoadMillis            = getDouble("chunkload", 0.5D);                                           // Coût d'un chargement.
+        double chunkGenerateMillis        = getDouble("chunkgenerate", 5.0D);                                       // Coût d'une génération.
+        String options                    = System.getProperty(PROPERTY_PREFIX + "options", "").trim();             // Options de la commande.
+        boolean keepWorld                 = Boolean.getBoolean(PROPERTY_PREFIX + "keep");                           // Conserver le monde généré ?
+        Path simulationFolder             = Files.createTempDirectory("chkref-simulation");                         // Dossier de la simulation.
+        File worldFolder                  = new File(simulationFolder.toFile(), WORLD_NAME);                        // Dossier du monde.
+        SyntheticWorldGenerator generator = new SyntheticWorldGenerator(occupancy, payloadBytes, dataVersion, 42L); // Générateur du monde.
+        SimulatedServer simulatedServer   = null;                                                                   // Serveur simulé.
+        ChunksRefresher plugin            = null;                                                                   // Plugin testé.
+        ArrayList<String> commandArgs     = new ArrayList<String>();                                                // Arguments de la commande.
+        long[] baselineTicks              = null;                                                                   // Durées des ticks sans tâche.
+        long startTime                    = 0L;                                                                     // Début de la tâche.
+        long lastProgressTime             = 0L;                                                                     // Dernier affichage de la progression.
+        double elapsedSeconds             = 0.0D;                                                                   // Durée de la tâche.
+
+        // Génère le monde.
+
+        startTime = System.nanoTime();
+
+        generator.generate(new File(worldFolder, "region"), regionsCount);
+
+        System.out.println(String.format(Locale.ROOT, "Generated %d regions, %d chunks, %.1f MiB in %.1f s into %s.", regionsCount, generator.getChunksCount(), generator.getBytesWritten() / 1048576.0D, (System.nanoTime() - startTime) / 1.0E9D, worldFolder));
+
+        try
+        {
+            // Démarre le serveur simulé et le plugin.
+
+            simulatedServer = new SimulatedServer(worldFolder, WORLD_NAME, baseTickMillis, chunkLoadMillis, chunkGenerateMillis);
+
+            simulatedServer.start();
+
+            Bukkit.setServer(simulatedServer.getServer());
+
+            plugin = new ChunksRefresher(new JavaPluginLoader(simulatedServer.getServer()), loadDescription(), new File(simulationFolder.toFile(), "plugin"), new File(simulationFolder.toFile(), "ChunksRefresher.jar"));
+
+            plugin.onLoad();
+            plugin.onEnable();
+
+            // Mesure de référence.
+
+            Thread.sleep(BASELINE_MILLIS);
+
+            baselineTicks = simulatedServer.getTickDurations();
+
+            simulatedServer.resetStatistics();
+
+            // Lance la tâche et attend sa fin.
+
+            commandArgs.add(WORLD_NAME);
+
+            if(!options.isEmpty())
+                commandArgs.addAll(Arrays.asList(options.split("\\s+")));
+
+            System.out.println("Running: chkref " + String.join(" ", commandArgs));
+
+            startTime        = System.nanoTime();
+            lastProgressTime = System.currentTimeMillis();
+
+            plugin.runManagementCommand(commandArgs.toArray(new String[0]));
+
+            while((plugin.getRunningWorldNames().length > 0) || (plugin.getRefreshCoordinator().getQueueSize() > 0))
+            {
+                Thread.sleep(100L);
+
+                if((System.currentTimeMillis() - lastProgressTime) >= PROGRESS_MILLIS)
+                {
+                    System.out.println(String.format(Locale.ROOT, "... %d chunks loaded after %.0f s.", simulatedServer.getChunksLoaded() + simulatedServer.getChunksGenerated(), (System.nanoTime() - startTime) / 1.0E9D));
+
+                    lastProgressTime = System.currentTimeMillis();
+                }
+            }
+
+            elapsedSeconds = (System.nanoTime() - startTime) / 1.0E9D;
+
+            // Rapport.
+
+            printReport(simulatedServer, generator.getChunksCount(), elapsedSeconds, baselineTicks, simulatedServer.getTickDurations());
+
+            plugin.onDisable();
+        }
+
+        finally
+        {
+            if(simulatedServer instanceof SimulatedServer)
+                simulatedServer.stop();
+
+            if(!keepWorld)
+                deleteFolder(simulationFolder);
+        }
+
+        System.exit(0); // Threads de la JVM hors simulation (JMX) éventuellement encore actifs.
+    }
+
+    // Méthodes privées statiques.
+
+    private static void deleteFolder(Path folder) throws IOException
+    {
+        /* Supprime un dossier et son contenu.
+         * Retour : aucun.
+         * Paramètres : dossier en question. */
+
+        try(Stream<Path> paths = Files.walk(folder))
+        {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static double getDouble(String name, double defaultValue)
+    {
+        /* Lit une propriété système décimale de la simulation.
+         * Retour : valeur lue, ou valeur par défaut.
+         * Paramètres : -name         : nom de la propriété, sans préfixe.
+         *              -defaultValue : valeur par défaut. */
+
+        String value = System.getProperty(PROPERTY_PREFIX + name); // Valeur brute.
+
+        return ((value instanceof String) && !value.trim().isEmpty()) ? Double.parseDouble(value.trim()) : defaultValue;
+    }
+
+    private static PluginDescriptionFile loadDescription() throws Exception
+    {
+        /* Lit la description du plugin (plugin.yml) depuis le classpath.
+         * Retour : description en question.
+         * Paramètres : aucun. */
+
+        try(InputStream descriptionStream = SimulationRunner.class.getResourceAsStream("/plugin.yml"))
+        {
+            if(!(descriptionStream instanceof InputStream))
+                throw new IOException("plugin.yml not found in the classpath.");
+
+            return new PluginDescriptionFile(descriptionStream);
+        }
+    }
+
+    private static double percentile(long[] sortedTicks, double percentile)
+    {
+        /* Retourne un centile de durées triées.
+         * Retour : durée en millisecondes, 0 si aucune.
+         * Paramètres : -sortedTicks : durées triées, en nanosecondes.
+         *              -percentile  : centile, entre 0 et 1. */
+
+        if(sortedTicks.length == 0)
+            return 0.0D;
+
+        return sortedTicks[(int)Math.min(sortedTicks.length - 1, Math.max(0L, (long)Math.ceil(percentile * sortedTicks.length) - 1L))] / 1.0E6D;
+    }
+
+    private static void printReport(SimulatedServer simulatedServer, long chunksInWorld, double elapsedSeconds, long[] baselineTicks, long[] taskTicks)
+    {
+        /* Affiche le rapport de la simulation.
+         * Retour : aucun.
+         * Paramètres : -simulatedServer : serveur simulé.
+         *              -chunksInWorld   : chunks présents dans le monde.
+         *              -elapsedSeconds  : durée de la tâche.
+         *              -baselineTicks   : durées des ticks sans tâche.
+         *              -taskTicks       : durées des ticks pendant la tâche. */
+
+        long chunksLoaded     = simulatedServer.getChunksLoaded() + simulatedServer.getChunksGenerated(); // Chunks chargés par la tâche.
+        long nOverloadedTicks = Arrays.stream(taskTicks).filter(tickNanos -> tickNanos > (long)(TickMonitor.TICK_MILLIS * 1.0E6D)).count(); // Ticks de plus de 50 ms.
+        double baselineMean   = Arrays.stream(baselineTicks).average().orElse(0.0D) / 1.0E6D;             // MSPT moyen de référence.
+        double taskMean       = Arrays.stream(taskTicks).average().orElse(0.0D) / 1.0E6D;                 // MSPT moyen pendant la tâche.
+
+        Arrays.sort(baselineTicks);
+        Arrays.sort(taskTicks);
+
+        System.out.println("----- ChunksRefresher simulation report -----");
+        System.out.println(String.format(Locale.ROOT, "Chunks: %d loaded (%d generated) of %d in the world, in %.1f s: %.1f chunks/s.", chunksLoaded, simulatedServer.getChunksGenerated(), chunksInWorld, elapsedSeconds, (elapsedSeconds > 0.0D) ? chunksLoaded / elapsedSeconds : 0.0D));
+        System.out.println(String.format(Locale.ROOT, "MSPT baseline: mean %.2f ms, p99 %.2f ms over %d ticks.", baselineMean, percentile(baselineTicks, 0.99D), baselineTicks.length));
+        System.out.println(String.format(Locale.ROOT, "MSPT during refresh: mean %.2f ms (+%.2f ms), p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms over %d ticks, %d ticks over 50 ms.",
+                                         taskMean, taskMean - baselineMean, percentile(taskTicks, 0.5D), percentile(taskTicks, 0.95D), percentile(taskTicks, 0.99D), percentile(taskTicks, 1.0D), taskTicks.length, nOverloadedTicks));
+        System.out.println(String.format(Locale.ROOT, "Peak heap used: %.1f MiB (max heap %.1f MiB).", simulatedServer.getPeakHeapUsed() / 1048576.0D, Runtime.getRuntime().maxMemory() / 1048576.0D));
+    }
+}
@@ -0,0 +1,238 @@
+/* SyntheticWorldGenerator.java
+ * Classe du générateur de mondes synthétiques du banc de simulation du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionHeader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+
+// Définition de la classe.
+
+public final class SyntheticWorldGenerator
+{
+    /* Générateur de fichiers de régions Anvil (.mca) synthétiques mais valides : en-têtes complets, chunks compressés
+     * en zlib contenant un NBT minimal (DataVersion, coordonnées, statut, temps d'habitation) et une charge de taille
+     * réglable, peu compressible comme les palettes des sections. Les régions forment un carré centré sur l'origine,
+     * et chaque chunk est présent avec une probabilité donnée. Le tirage est reproductible. Public, pour les tests des
+     * classes de fichiers de régions. */
+
+    // Constantes.
+
+    private static final int COMPRESSION_ZLIB = 2;   // Compression des chunks.
+    private static final int MAX_SECTORS      = 255; // Taille maximale d'un chunk, en secteurs.
+    private static final int TAG_BYTE_ARRAY   = 7;   // Types de tags NBT.
+    private static final int TAG_COMPOUND     = 10;
+    private static final int TAG_END          = 0;
+    private static final int TAG_INT          = 3;
+    private static final int TAG_INT_ARRAY    = 11;
+    private static final int TAG_LONG         = 4;
+    private static final int TAG_STRING       = 8;
+
+    // Membres.
+
+    private Random random;     // Tirage des chunks présents et de leur contenu.
+    private double occupancy;  // Probabilité de présence d'un chunk.
+    private int dataVersion;   // Version de format des chunks.
+    private int payloadBytes;  // Taille de la charge de chaque chunk, avant compression.
+    private long chunksCount;  // Chunks écrits.
+    private long bytesWritten; // Octets écrits.
+
+    // Constructeurs.
+
+    public SyntheticWorldGenerator(double occupancy, int payloadBytes, int dataVersion, long seed) throws IllegalArgumentException
+    {
+        /* Constructeur par défaut. */
+
+        // Contrôle.
+
+        if((occupancy < 0.0D) || (occupancy > 1.0D) || (payloadBytes < 0))
+            throw new IllegalArgumentException();
+
+        // Affectation.
+
+        this.random       = new Random(seed);
+        this.occupancy    = occupancy;
+        this.dataVersion  = dataVersion;
+        this.payloadBytes = payloadBytes;
+        this.chunksCount  = 0L;
+        this.bytesWritten = 0L;
+    }
+
+    // Méthodes publiques de classe.
+
+    public void generate(File regionFolder, int regionsCount) throws IOException
+    {
+        /* Ecrit les fichiers de régions d'un monde.
+         * Retour : aucun.
+         * Paramètres : -regionFolder : dossier des régions, créé si besoin.
+         *              -regionsCount : nombre de régions. */
+
+        int sideLength = (int)Math.ceil(Math.sqrt(regionsCount)); // Côté du carré de régions.
+
+        if(!regionFolder.isDirectory() && !regionFolder.mkdirs())
+            throw new IOException("Cannot create folder \"" + regionFolder + "\".");
+
+        for(int regionIndex = 0; regionIndex < regionsCount; regionIndex++)
+        {
+            int xRegion = (regionIndex % sideLength) - (sideLength / 2); // Coordonnées de la région.
+            int zRegion = (regionIndex / sideLength) - (sideLength / 2);
+
+            writeRegion(new File(regionFolder, "r." + xRegion + "." + zRegion + ".mca"), xRegion, zRegion);
+        }
+    }
+
+    public long getBytesWritten()
+    {
+        /* Retourne la taille totale des fichiers écrits.
+         * Retour : taille en octets.
+         * Paramètres : aucun. */
+
+        return bytesWritten;
+    }
+
+    public long getChunksCount()
+    {
+        /* Retourne le nombre de chunks écrits.
+         * Retour : nombre en question.
+         * Paramètres : aucun. */
+
+        return chunksCount;
+    }
+
+    // Méthodes privées de classe.
+
+    private byte[] createChunkData(int xChunk, int zChunk) throws IOException
+    {
+        /* Construit les données compressées d'un chunk.
+         * Retour : données en question.
+         * Paramètres : coordonnées du chunk. */
+
+        ByteArrayOutputStream compressedData = new ByteArrayOutputStream(); // Données compressées.
+        byte[] payload                       = new byte[payloadBytes];      // Charge du chunk.
+
+        for(int byteIndex = 0; byteIndex < payload.length; byteIndex++)
+            payload[byteIndex] = (byte)random.nextInt(16); // Petite palette, comme les blocs d'une section.
+
+        try(DataOutputStream nbtStream = new DataOutputStream(new DeflaterOutputStream(compressedData)))
+        {
+            nbtStream.writeByte(TAG_COMPOUND);
+            nbtStream.writeUTF("");
+
+            writeTagHeader(nbtStream, TAG_INT, "DataVersion");
+            nbtStream.writeInt(dataVersion);
+
+            writeTagHeader(nbtStream, TAG_COMPOUND, "Level");
+            writeTagHeader(nbtStream, TAG_INT, "xPos");
+            nbtStream.writeInt(xChunk);
+            writeTagHeader(nbtStream, TAG_INT, "zPos");
+            nbtStream.writeInt(zChunk);
+            writeTagHeader(nbtStream, TAG_STRING, "Status");
+            nbtStream.writeUTF("postprocessed");
+            writeTagHeader(nbtStream, TAG_LONG, "InhabitedTime");
+            nbtStream.writeLong(random.nextBoolean() ? 0L : random.nextInt(1000000)); // La moitié des chunks jamais visités.
+            writeTagHeader(nbtStream, TAG_INT_ARRAY, "Biomes");
+            nbtStream.writeInt(256);
+
+            for(int biomeIndex = 0; biomeIndex < 256; biomeIndex++)
+                nbtStream.writeInt(1);
+
+            writeTagHeader(nbtStream, TAG_BYTE_ARRAY, "SimulationPayload");
+            nbtStream.writeInt(payload.length);
+            nbtStream.write(payload);
+            nbtStream.writeByte(TAG_END); // Fin de Level.
+
+            nbtStream.writeByte(TAG_END); // Fin du tag racine.
+        }
+
+        return compressedData.toByteArray();
+    }
+
+    private void writeRegion(File regionFile, int xRegion, int zRegion) throws IOException
+    {
+        /* Ecrit un fichier de région.
+         * Retour : aucun.
+         * Paramètres : -regionFile       : fichier à écrire.
+         *              -xRegion, zRegion : coordonnées de la région. */
+
+        ByteBuffer header             = ByteBuffer.allocate(2 * RegionHeader.SECTOR_SIZE); // Tables des emplacements et des dates.
+        ByteArrayOutputStream sectors = new ByteArrayOutputStream();                       // Secteurs des chunks.
+        int timestamp                 = (int)(System.currentTimeMillis() / 1000L);         // Date de sauvegarde des chunks.
+        int nextSector                = 2;                                                 // Premier secteur libre.
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            byte[] chunkData = null; // Données compressées du chunk.
+            int nSectors     = 0;    // Taille du chunk, en secteurs.
+
+            if(random.nextDouble() >= occupancy)
+                continue;
+
+            chunkData = createChunkData((xRegion * 32) + (chunkIndex & 31), (zRegion * 32) + (chunkIndex >>> 5)); // Index d'en-tête : x + z * 32.
+            nSectors  = (chunkData.length + 5 + RegionHeader.SECTOR_SIZE - 1) / RegionHeader.SECTOR_SIZE;
+
+            if(nSectors > MAX_SECTORS)
+                throw new IOException("Chunk too large, reduce the payload size.");
+
+            header.putInt(chunkIndex * 4, (nextSector << 8) | nSectors);
+            header.putInt(RegionHeader.SECTOR_SIZE + (chunkIndex * 4), timestamp);
+
+            writeChunkSectors(sectors, chunkData, nSectors);
+
+            nextSector += nSectors;
+            chunksCount++;
+        }
+
+        try(OutputStream output = new FileOutputStream(regionFile))
+        {
+            output.write(header.array());
+            sectors.writeTo(output);
+        }
+
+        bytesWritten += header.capacity() + sectors.size();
+    }
+
+    // Méthodes privées statiques.
+
+    private static void writeChunkSectors(ByteArrayOutputStream sectors, byte[] chunkData, int nSectors) throws IOException
+    {
+        /* Ajoute un chunk aux secteurs d'une région : longueur, compression, données, puis complément jusqu'au secteur suivant.
+         * Retour : aucun.
+         * Paramètres : -sectors   : secteurs de la région.
+         *              -chunkData : données compressées.
+         *              -nSectors  : taille réservée, en secteurs. */
+
+        DataOutputStream sectorsStream = new DataOutputStream(sectors); // Ecriture des entiers.
+
+        sectorsStream.writeInt(chunkData.length + 1);
+        sectorsStream.writeByte(COMPRESSION_ZLIB);
+        sectorsStream.write(chunkData);
+        sectorsStream.write(new byte[(nSectors * RegionHeader.SECTOR_SIZE) - (chunkData.length + 5)]);
+        sectorsStream.flush();
+    }
+
+    private static void writeTagHeader(DataOutputStream nbtStream, int tagType, String name) throws IOException
+    {
+        /* Ecrit le type et le nom d'un tag NBT.
+         * Retour : aucun.
+         * Paramètres : -nbtStream : flux NBT.
+         *              -tagType   : type du tag.
+         *              -name      : nom du tag. */
+
+        nbtStream.writeByte(tagType);
+        nbtStream.writeUTF(name);
+    }
+}
@@ -0,0 +1,154 @@
+/* AsyncChunksRefresherTest.java
+ * Tests de la tâche de raffraichissement du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Définition de la classe.
+
+public class AsyncChunksRefresherTest
+{
+    /* Tâche lancée par la commande du plugin sur un monde généré comme pour la simulation, servi par le serveur simulé.
+     * Le serveur de Bukkit ne pouvant être affecté qu'une fois, une seule méthode de test démarre le serveur. */
+
+    // Constantes.
+
+    private static final String WORLD_NAME   = "simulated_world";                                                            // Nom du monde simulé.
+    private static final int REGIONS_COUNT   = 12;                                                                           // Nombre de régions du monde.
+    private static final long TIMEOUT_MILLIS = 60000L;                                                                       // Attente maximale de chaque étape.
+    private static final Pattern REGION_DONE = Pattern.compile("discovered and refreshed in region X:(-?\\d+) Z:(-?\\d+) "); // Fin d'une région.
+
+    // Membres.
+
+    @TempDir
+    public File tempFolder; // Dossier du monde et du plugin.
+
+    // Méthodes de test.
+
+    @Test
+    @SuppressWarnings("deprecation") // Constructeur de JavaPluginLoader réservé aux tests.
+    public void cancelQueuesRemovalOfFinishedRegionsOnly() throws Exception
+    {
+        File worldFolder                = new File(tempFolder, WORLD_NAME);                                // Dossier du monde.
+        File queueFile                  = new File(worldFolder, "region/" + CompactionQueue.FILE_NAME);    // File de compactage du monde.
+        Set<String> finishedRegions     = Collections.synchronizedSet(new HashSet<String>());              // Fichiers des régions terminées.
+        SimulatedServer simulatedServer = new SimulatedServer(worldFolder, WORLD_NAME, 10.0D, 0.5D, 5.0D); // Serveur simulé.
+        ChunksRefresher plugin          = null;                                                            // Plugin testé.
+        List<String> queuedRegions      = null;                                                            // Lignes de la file après l'annulation.
+        long deadline                   = 0L;                                                              // Fin de l'attente en cours.
+
+        new SyntheticWorldGenerator(0.6D, 2048, 1631, 7L).generate(new File(worldFolder, "region"), REGIONS_COUNT);
+
+        try
+        {
+            simulatedServer.start();
+
+            Bukkit.setServer(simulatedServer.getServer());
+
+            plugin = new ChunksRefresher(new JavaPluginLoader(simulatedServer.getServer()), loadDescription(), new File(tempFolder, "plugin"), new File(tempFolder, "ChunksRefresher.jar"));
+
+            plugin.onLoad();
+            plugin.onEnable();
+
+            // Relève les régions terminées, d'après le compte rendu de fin de chaque région.
+
+            plugin.getLogger().addHandler(new Handler()
+            {
+                @Override
+                public void publish(LogRecord record)
+                {
+                    Matcher matcher = REGION_DONE.matcher(String.valueOf(record.getMessage())); // Recherche de la fin d'une région.
+
+                    if(matcher.find())
+                        finishedRegions.add(RegionCoordinates.toFilename(RegionCoordinates.pack(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))), RegionSource.REGION_EXTENSION));
+                }
+
+                @Override
+                public void flush()
+                {
+                }
+
+                @Override
+                public void close()
+                {
+                }
+            });
+
+            // Annule la tâche dès sa première région terminée, les suivantes étant déjà analysées par anticipation.
+
+            plugin.runManagementCommand(WORLD_NAME, "prune=remove");
+
+            for(deadline = System.currentTimeMillis() + TIMEOUT_MILLIS; finishedRegions.isEmpty() && (System.currentTimeMillis() < deadline); )
+                Thread.sleep(10L);
+
+            assertFalse(finishedRegions.isEmpty(), "No region finished.");
+
+            plugin.runManagementCommand(WORLD_NAME, "cancel");
+
+            for(deadline = System.currentTimeMillis() + TIMEOUT_MILLIS; (plugin.getRunningWorldNames().length > 0) && (System.currentTimeMillis() < deadline); )
+                Thread.sleep(10L);
+
+            assertTrue(plugin.getRunningWorldNames().length == 0, "Task not stopped.");
+            assertTrue(finishedRegions.size() < REGIONS_COUNT, "Task finished before being canceled.");
+
+            plugin.onDisable();
+        }
+
+        finally
+        {
+            simulatedServer.stop();
+        }
+
+        // Chaque région en file de retrait a été terminée avant l'annulation.
+
+        queuedRegions = Files.readAllLines(queueFile.toPath());
+
+        assertFalse(queuedRegions.isEmpty(), "No never inhabited chunks queued for removal.");
+
+        for(String queuedRegion : queuedRegions)
+            assertTrue(finishedRegions.contains(queuedRegion.split(" ")[0]), "Region " + queuedRegion.split(" ")[0] + " queued for removal without being refreshed.");
+    }
+
+    // Méthodes privées statiques.
+
+    private static PluginDescriptionFile loadDescription() throws Exception
+    {
+        /* Lit la description du plugin (plugin.yml) depuis le classpath.
+         * Retour : description en question.
+         * Paramètres : aucun. */
+
+        try(InputStream descriptionStream = AsyncChunksRefresherTest.class.getResourceAsStream("/plugin.yml"))
+        {
+            if(!(descriptionStream instanceof InputStream))
+                throw new IOException("plugin.yml not found in the classpath.");
+
+            return new PluginDescriptionFile(descriptionStream);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/* CompactionQueueTest.java
+ * Tests de la file des régions à compacter du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCompactorTest;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionHeader;
+import fr.huvecraft.plugins.chunksrefresher.region.UninhabitedChunksScanner;
+import fr.huvecraft.plugins.chunksrefresher.util.SafeLogger;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Définition de la classe.
+
+public class CompactionQueueTest
+{
+    /* Traitement, au démarrage, des files de régions écrites par des mondes générés comme pour la simulation. */
+
+    // Constantes.
+
+    private static final int SECTOR_SIZE = RegionHeader.SECTOR_SIZE; // Taille d'un secteur.
+
+    // Membres.
+
+    @TempDir
+    public File worldContainer; // Dossier des mondes.
+
+    // Méthodes de test.
+
+    @Test
+    public void compactPendingCompactsQueuedRegions() throws IOException
+    {
+        File regionFolder = new File(worldContainer, "world/DIM-1/region"); // Dossier des régions du monde.
+        File regionFile   = new File(regionFolder, "r.0.0.mca");            // Région en file.
+        byte[][] chunks   = null;                                           // Chunks avant compactage.
+        int[] timestamps  = null;                                           // Dates avant compactage.
+        long initialSize  = 0L;                                             // Taille avant compactage.
+
+        new SyntheticWorldGenerator(0.6D, 4096, 1631, 5L).generate(regionFolder, 1);
+
+        RegionCompactorTest.fragment(regionFile);
+
+        chunks      = RegionCompactorTest.readChunks(regionFile);
+        timestamps  = RegionCompactorTest.readTable(regionFile, 1);
+        initialSize = regionFile.length();
+
+        CompactionQueue.add(regionFolder, 0, 0);
+        CompactionQueue.compactPending(worldContainer, new SafeLogger(Logger.getLogger("CompactionQueueTest")));
+
+        assertTrue(regionFile.length() < initialSize);
+        assertArrayEquals(timestamps, RegionCompactorTest.readTable(regionFile, 1));
+        assertFalse(new File(regionFolder, CompactionQueue.FILE_NAME).exists());
+        assertFalse(new File(regionFolder, CompactionQueue.BACKUP_FOLDER).exists());
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+            assertArrayEquals(chunks[chunkIndex], RegionCompactorTest.readChunks(regionFile)[chunkIndex], "Chunk " + chunkIndex + " changed.");
+    }
+
+    @Test
+    public void compactPendingPrunesUninhabitedChunks() throws IOException
+    {
+        File regionFolder     = new File(worldContainer, "world/region");                                     // Dossier des régions du monde.
+        File regionFile       = new File(regionFolder, "r.0.0.mca");                                          // Région en file.
+        File backupFile       = new File(new File(regionFolder, CompactionQueue.BACKUP_FOLDER), "r.0.0.mca"); // Sauvegarde des chunks retirés.
+        ChunkMask pruneMask   = new ChunkMask();                                                              // Chunks à retirer s'ils sont inhabités.
+        ChunkMask uninhabited = null;                                                                         // Chunks inhabités de la région.
+        byte[][] chunks       = null;                                                                         // Chunks avant retrait.
+        byte[][] newChunks    = null;                                                                         // Chunks après retrait.
+        byte[][] backedUp     = null;                                                                         // Chunks sauvegardés.
+
+        new SyntheticWorldGenerator(0.8D, 2048, 1631, 6L).generate(regionFolder, 1);
+
+        // Désigne la moitié nord de la région.
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION / 2; chunkIndex++)
+            pruneMask.set(chunkIndex);
+
+        uninhabited = UninhabitedChunksScanner.scan(regionFile, RegionHeader.read(regionFile), ChunkMask.full());
+        chunks      = RegionCompactorTest.readChunks(regionFile);
+
+        CompactionQueue.add(regionFolder, 0, 0, pruneMask);
+        CompactionQueue.compactPending(worldContainer, new SafeLogger(Logger.getLogger("CompactionQueueTest")));
+
+        newChunks = RegionCompactorTest.readChunks(regionFile);
+        backedUp  = RegionCompactorTest.readChunks(backupFile);
+
+        assertFalse(new File(regionFolder, CompactionQueue.FILE_NAME).exists());
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            if(pruneMask.get(chunkIndex) && uninhabited.get(chunkIndex))
+            {
+                assertNull(newChunks[chunkIndex], "Chunk " + chunkIndex + " kept.");
+                assertArrayEquals(chunks[chunkIndex], backedUp[chunkIndex], "Chunk " + chunkIndex + " not backed up.");
+            }
+
+            else
+            {
+                assertArrayEquals(chunks[chunkIndex], newChunks[chunkIndex], "Chunk " + chunkIndex + " changed.");
+                assertNull(backedUp[chunkIndex], "Chunk " + chunkIndex + " backed up.");
+            }
+        }
+
+        assertEquals(0L, regionFile.length() % SECTOR_SIZE);
+    }
+}
@@ -0,0 +1,296 @@
+/* ProgressJournalTest.java
+ * Tests du journal de progression du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Définition de la classe.
+
+public class ProgressJournalTest
+{
+    /* Format du journal projeté en mémoire relu octet par octet, reprise après une écriture interrompue, et
+     * écriture sur disque au plus une fois par seconde. */
+
+    // Constantes.
+
+    private static final int ENTRY_SIZE  = 144; // Taille d'une région dans le journal.
+    private static final int HEADER_SIZE = 16;  // Taille de l'en-tête.
+
+    // Membres.
+
+    @TempDir
+    public File regionFolder; // Dossier des régions du monde.
+
+    // Méthodes de test.
+
+    @Test
+    public void entriesSurviveReopening() throws IOException
+    {
+        ProgressJournal journal = ProgressJournal.open(regionFolder); // Journal testé.
+        ChunkMask firstMask     = createMask(3);                      // Chunks de la première région.
+        ChunkMask secondMask    = createMask(7);                      // Chunks de la seconde région.
+        ByteBuffer content      = null;                               // Contenu du fichier.
+
+        journal.markChunksRefreshed(-1, 2, firstMask);
+        journal.markChunksRefreshed(40, -35, secondMask);
+        journal.markRegionRefreshed(40, -35);
+        journal.close();
+
+        // Format sur disque.
+
+        content = ByteBuffer.wrap(Files.readAllBytes(new File(regionFolder, ProgressJournal.FILE_NAME).toPath()));
+
+        assertEquals(HEADER_SIZE + (1024L * ENTRY_SIZE), content.capacity());
+        assertEquals(0x43484B5245464A4EL, content.getLong(0));
+        assertEquals(1L, content.getInt(8));
+        assertEquals(2L, content.getInt(12));
+        assertEquals(RegionCoordinates.pack(-1, 2), content.getLong(HEADER_SIZE));
+        assertEquals(0L, content.getInt(HEADER_SIZE + 8));
+        assertArrayEquals(firstMask.toWords(), readWords(content, 0));
+        assertEquals(RegionCoordinates.pack(40, -35), content.getLong(HEADER_SIZE + ENTRY_SIZE));
+        assertEquals(1L, content.getInt(HEADER_SIZE + ENTRY_SIZE + 8));
+        assertArrayEquals(secondMask.toWords(), readWords(content, 1));
+
+        // Relecture.
+
+        journal = ProgressJournal.open(regionFolder);
+
+        assertArrayEquals(firstMask.toWords(), journal.getRefreshedMask(-1, 2).toWords());
+        assertArrayEquals(secondMask.toWords(), journal.getRefreshedMask(40, -35).toWords());
+        assertFalse(journal.isRegionRefreshed(-1, 2));
+        assertTrue(journal.isRegionRefreshed(40, -35));
+        assertTrue(journal.getRefreshedMask(0, 0).isEmpty());
+
+        journal.close();
+    }
+
+    @Test
+    public void journalGrowsByExtents() throws IOException
+    {
+        ProgressJournal journal = ProgressJournal.open(regionFolder); // Journal testé.
+
+        for(int regionIndex = 0; regionIndex < 1500; regionIndex++)
+            journal.markChunksRefreshed(regionIndex, -regionIndex, createMask(regionIndex));
+
+        journal.close();
+
+        assertEquals(HEADER_SIZE + (2048L * ENTRY_SIZE), new File(regionFolder, ProgressJournal.FILE_NAME).length());
+
+        journal = ProgressJournal.open(regionFolder);
+
+        for(int regionIndex = 0; regionIndex < 1500; regionIndex++)
+            assertArrayEquals(createMask(regionIndex).toWords(), journal.getRefreshedMask(regionIndex, -regionIndex).toWords(), "Region " + regionIndex);
+
+        journal.close();
+    }
+
+    @Test
+    public void truncatedHeaderStartsNewJournal() throws IOException
+    {
+        ProgressJournal journal = null; // Journal testé.
+
+        // En-tête interrompu avant sa fin.
+
+        Files.write(new File(regionFolder, ProgressJournal.FILE_NAME).toPath(), new byte[] { 0x43, 0x48, 0x4B, 0x52, 0x45 });
+
+        journal = ProgressJournal.open(regionFolder);
+
+        assertTrue(journal.getRefreshedMask(0, 0).isEmpty());
+
+        journal.markChunksRefreshed(0, 0, createMask(1));
+        journal.close();
+
+        journal = ProgressJournal.open(regionFolder);
+
+        assertArrayEquals(createMask(1).toWords(), journal.getRefreshedMask(0, 0).toWords());
+
+        journal.close();
+    }
+
+    @Test
+    public void entryWrittenWithoutCountIsReused() throws IOException
+    {
+        ProgressJournal journal = ProgressJournal.open(regionFolder); // Journal testé.
+
+        journal.markChunksRefreshed(1, 1, createMask(1));
+        journal.markChunksRefreshed(2, 2, createMask(2));
+        journal.markChunksRefreshed(3, 3, createMask(3));
+        journal.markRegionRefreshed(3, 3);
+        journal.close();
+
+        // Troisième région écrite sur disque, mais pas le nombre de régions de l'en-tête.
+
+        writeInt(12, 2);
+
+        journal = ProgressJournal.open(regionFolder);
+
+        assertTrue(journal.getRefreshedMask(3, 3).isEmpty());
+        assertFalse(journal.isRegionRefreshed(3, 3));
+
+        // La région suivante reprend l'emplacement, sans ses chunks ni ses indicateurs.
+
+        journal.markChunksRefreshed(4, 4, createMask(4));
+        journal.close();
+
+        journal = ProgressJournal.open(regionFolder);
+
+        assertArrayEquals(createMask(4).toWords(), journal.getRefreshedMask(4, 4).toWords());
+        assertFalse(journal.isRegionRefreshed(4, 4));
+        assertArrayEquals(createMask(2).toWords(), journal.getRefreshedMask(2, 2).toWords());
+
+        journal.close();
+    }
+
+    @Test
+    public void countWrittenWithoutEntriesKeepsRegions() throws IOException
+    {
+        ProgressJournal journal = ProgressJournal.open(regionFolder); // Journal testé.
+
+        journal.markChunksRefreshed(0, 0, createMask(1));
+        journal.markChunksRefreshed(5, 5, createMask(5));
+        journal.close();
+
+        // Nombre de régions écrit sur disque, mais pas les deux dernières régions.
+
+        writeInt(12, 4);
+
+        journal = ProgressJournal.open(regionFolder);
+
+        assertArrayEquals(createMask(1).toWords(), journal.getRefreshedMask(0, 0).toWords());
+
+        // La région suivante prend un emplacement libre, sans écraser les régions journalisées.
+
+        journal.markChunksRefreshed(6, 6, createMask(6));
+        journal.close();
+
+        journal = ProgressJournal.open(regionFolder);
+
+        assertArrayEquals(createMask(1).toWords(), journal.getRefreshedMask(0, 0).toWords());
+        assertArrayEquals(createMask(5).toWords(), journal.getRefreshedMask(5, 5).toWords());
+        assertArrayEquals(createMask(6).toWords(), journal.getRefreshedMask(6, 6).toWords());
+
+        journal.close();
+    }
+
+    @Test
+    public void invalidJournalIsRejected() throws IOException
+    {
+        ProgressJournal.open(regionFolder).close();
+
+        writeInt(12, 1025);
+
+        assertThrows(IOException.class, () -> ProgressJournal.open(regionFolder));
+
+        writeInt(12, 0);
+        writeInt(0, 0);
+
+        assertThrows(IOException.class, () -> ProgressJournal.open(regionFolder));
+    }
+
+    @Test
+    public void commitWritesAtMostOncePerSecond() throws IOException, InterruptedException
+    {
+        ProgressJournal journal = ProgressJournal.open(regionFolder); // Journal testé, créé à l'instant.
+
+        // Journal neuf : intervalle compté depuis l'ouverture.
+
+        journal.markChunksRefreshed(0, 0, createMask(1));
+        journal.commit();
+
+        assertTrue(journal.isDirty());
+
+        Thread.sleep(1100L);
+
+        journal.commit();
+
+        assertFalse(journal.isDirty());
+
+        // Ecrit à l'instant : la validation suivante attend l'intervalle, l'écriture forcée non.
+
+        journal.markChunksRefreshed(0, 0, createMask(2));
+        journal.commit();
+
+        assertTrue(journal.isDirty());
+
+        journal.flush();
+
+        assertFalse(journal.isDirty());
+
+        // Rien à écrire.
+
+        Thread.sleep(1100L);
+
+        journal.commit();
+
+        assertFalse(journal.isDirty());
+
+        journal.close();
+    }
+
+    // Méthodes privées de classe.
+
+    private void writeInt(int position, int value) throws IOException
+    {
+        /* Remplace un entier du fichier du journal fermé, comme une écriture interrompue l'aurait laissé.
+         * Retour : aucun.
+         * Paramètres : -position : position de l'entier.
+         *              -value    : nouvelle valeur. */
+
+        try(RandomAccessFile journalAccess = new RandomAccessFile(new File(regionFolder, ProgressJournal.FILE_NAME), "rw"))
+        {
+            journalAccess.seek(position);
+            journalAccess.writeInt(value);
+        }
+    }
+
+    // Méthodes privées statiques.
+
+    private static ChunkMask createMask(int seed)
+    {
+        /* Construit un masque de chunks propre à une graine.
+         * Retour : masque en question.
+         * Paramètres : graine du masque. */
+
+        ChunkMask mask = new ChunkMask(); // Masque à retourner.
+
+        for(int chunkIndex = seed % 7; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex += 7 + (seed % 13))
+            mask.set(chunkIndex);
+
+        return mask;
+    }
+
+    private static long[] readWords(ByteBuffer content, int entryIndex)
+    {
+        /* Lit le masque d'une région dans le contenu du journal.
+         * Retour : mots du masque.
+         * Paramètres : -content    : contenu du fichier.
+         *              -entryIndex : index de la région dans le journal. */
+
+        long[] words = new long[ChunkMask.CHUNKS_PER_REGION / 64]; // Mots lus.
+
+        for(int wordIndex = 0; wordIndex < words.length; wordIndex++)
+            words[wordIndex] = content.getLong(HEADER_SIZE + (entryIndex * ENTRY_SIZE) + 16 + (wordIndex * 8));
+
+        return words;
+    }
+}
@@ -0,0 +1,132 @@
+/* TimestampSnapshotTest.java
+ * Tests de l'instantané des dates de sauvegarde des chunks du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher;
+
+// Imports.
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.huvecraft.plugins.chunksrefresher.region.ChunkMask;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionCoordinates;
+import fr.huvecraft.plugins.chunksrefresher.region.RegionHeader;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Définition de la classe.
+
+public class TimestampSnapshotTest
+{
+    /* Lecture d'instantanés écrits au format du fichier, dont un instantané creux de plus de 2 Gio, au-delà d'une
+     * seule projection en mémoire, comparés à l'en-tête d'une région écrite par le générateur de la simulation. */
+
+    // Constantes.
+
+    private static final int ENTRY_SIZE  = 8 + (4 * ChunkMask.CHUNKS_PER_REGION); // Taille d'une région dans l'instantané.
+    private static final int HEADER_SIZE = 16;                                    // Taille de l'en-tête.
+
+    // Membres.
+
+    @TempDir
+    public File regionFolder; // Dossier des régions du monde.
+
+    // Méthodes de test.
+
+    @Test
+    public void snapshotBeyondTwoGibibytesIsRead() throws IOException
+    {
+        RegionHeader regionHeader  = generateRegion();                                                           // En-tête actuel de la région.
+        int nEntries               = 600000;                                                                     // Régions de l'instantané, au-delà de 2 Gio.
+        int changedIndex           = ChunkMask.positionToIndex(regionHeader.getOccupancyMask().nextPosition(0)); // Chunk sauvegardé depuis l'instantané.
+        ChunkMask expected         = new ChunkMask();                                                            // Chunks attendus.
+        TimestampSnapshot snapshot = null;                                                                       // Instantané relu.
+
+        expected.set(changedIndex);
+
+        // Instantané creux : seule la dernière région est écrite, les autres ont des coordonnées nulles.
+
+        try(RandomAccessFile snapshotAccess = new RandomAccessFile(new File(regionFolder, TimestampSnapshot.FILE_NAME), "rw"))
+        {
+            snapshotAccess.setLength(HEADER_SIZE + ((long)nEntries * ENTRY_SIZE));
+            snapshotAccess.writeLong(0x43484B5245465453L);
+            snapshotAccess.writeInt(1);
+            snapshotAccess.writeInt(nEntries);
+
+            writeEntry(snapshotAccess, nEntries - 1, RegionCoordinates.pack(5, -3), regionHeader, changedIndex);
+        }
+
+        snapshot = TimestampSnapshot.load(regionFolder);
+
+        assertEquals(2, snapshot.getRegionsCount());
+        assertArrayEquals(expected.toWords(), snapshot.getChangedMask(5, -3, regionHeader).toWords());
+        assertArrayEquals(regionHeader.getOccupancyMask().toWords(), snapshot.getChangedMask(6, -3, regionHeader).toWords());
+    }
+
+    @Test
+    public void truncatedSnapshotIsRejected() throws IOException
+    {
+        RegionHeader regionHeader = generateRegion(); // En-tête actuel de la région.
+
+        try(RandomAccessFile snapshotAccess = new RandomAccessFile(new File(regionFolder, TimestampSnapshot.FILE_NAME), "rw"))
+        {
+            snapshotAccess.writeLong(0x43484B5245465453L);
+            snapshotAccess.writeInt(1);
+            snapshotAccess.writeInt(2);
+
+            writeEntry(snapshotAccess, 0, RegionCoordinates.pack(0, 0), regionHeader, -1);
+        }
+
+        assertThrows(IOException.class, () -> TimestampSnapshot.load(regionFolder));
+
+        // En-tête lui-même interrompu.
+
+        try(RandomAccessFile snapshotAccess = new RandomAccessFile(new File(regionFolder, TimestampSnapshot.FILE_NAME), "rw"))
+        {
+            snapshotAccess.setLength(HEADER_SIZE - 1);
+        }
+
+        assertThrows(IOException.class, () -> TimestampSnapshot.load(regionFolder));
+        assertTrue(new File(regionFolder, TimestampSnapshot.FILE_NAME).isFile());
+    }
+
+    // Méthodes privées de classe.
+
+    private RegionHeader generateRegion() throws IOException
+    {
+        /* Ecrit une région synthétique.
+         * Retour : en-tête de la région.
+         * Paramètres : aucun. */
+
+        new SyntheticWorldGenerator(0.6D, 1024, 1631, 9L).generate(regionFolder, 1);
+
+        return RegionHeader.read(new File(regionFolder, "r.0.0.mca"));
+    }
+
+    // Méthodes privées statiques.
+
+    private static void writeEntry(RandomAccessFile snapshotAccess, int entryIndex, long packedCoordinates, RegionHeader regionHeader, int changedIndex) throws IOException
+    {
+        /* Ecrit une région dans un instantané, d'après son en-tête.
+         * Retour : aucun.
+         * Paramètres : -snapshotAccess    : fichier de l'instantané.
+         *              -entryIndex        : index de la région dans l'instantané.
+         *              -packedCoordinates : coordonnées regroupées de la région.
+         *              -regionHeader      : en-tête de la région.
+         *              -changedIndex      : chunk dont la date est faussée, -1 pour aucun. */
+
+        snapshotAccess.seek(HEADER_SIZE + ((long)entryIndex * ENTRY_SIZE));
+        snapshotAccess.writeLong(packedCoordinates);
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+            snapshotAccess.writeInt(regionHeader.getTimestamp(chunkIndex) - ((chunkIndex == changedIndex) ? 1 : 0));
+    }
+}
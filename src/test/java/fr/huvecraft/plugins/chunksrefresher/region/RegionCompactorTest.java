@@ -0,0 +1,283 @@
+/* RegionCompactorTest.java
+ * Tests du compactage des fichiers de régions du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.huvecraft.plugins.chunksrefresher.SyntheticWorldGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Définition de la classe.
+
+public class RegionCompactorTest
+{
+    /* Compactage de régions écrites par le générateur de la simulation, puis fragmentées : chunks dans l'ordre inverse
+     * de l'en-tête, chacun suivi d'un secteur libre rempli de données périmées. Les données de chaque chunk, son nombre
+     * de secteurs et sa date doivent être conservés, ses secteurs devenant contigus. */
+
+    // Constantes.
+
+    private static final int SECTOR_SIZE = RegionHeader.SECTOR_SIZE; // Taille d'un secteur.
+
+    // Membres.
+
+    @TempDir
+    public File tempFolder; // Dossier des régions générées.
+
+    // Méthodes de test.
+
+    @Test
+    public void compactKeepsChunksAndTimestamps() throws IOException
+    {
+        File regionFile     = generateRegion(1L); // Région fragmentée.
+        byte[][] chunks     = null;               // Chunks avant compactage.
+        int[] locations     = null;               // Emplacements avant compactage.
+        int[] timestamps    = null;               // Dates avant compactage.
+        long fragmentedSize = 0L;                 // Taille avant compactage.
+
+        fragment(regionFile);
+
+        chunks         = readChunks(regionFile);
+        locations      = readTable(regionFile, 0);
+        timestamps     = readTable(regionFile, 1);
+        fragmentedSize = regionFile.length();
+
+        assertEquals(fragmentedSize - ((countSectors(locations) + 2L) * SECTOR_SIZE), RegionCompactor.compact(regionFile));
+
+        assertCompacted(regionFile, chunks, locations, timestamps, fragmentedSize);
+    }
+
+    @Test
+    public void compactWithoutAtomicMoveKeepsChunks() throws IOException
+    {
+        File regionFile     = generateRegion(2L); // Région fragmentée.
+        byte[][] chunks     = null;               // Chunks avant compactage.
+        int[] locations     = null;               // Emplacements avant compactage.
+        int[] timestamps    = null;               // Dates avant compactage.
+        long fragmentedSize = 0L;                 // Taille avant compactage.
+
+        fragment(regionFile);
+
+        chunks         = readChunks(regionFile);
+        locations      = readTable(regionFile, 0);
+        timestamps     = readTable(regionFile, 1);
+        fragmentedSize = regionFile.length();
+
+        assertEquals(fragmentedSize - ((countSectors(locations) + 2L) * SECTOR_SIZE), RegionCompactor.compact(regionFile, false));
+
+        assertCompacted(regionFile, chunks, locations, timestamps, fragmentedSize);
+    }
+
+    @Test
+    public void compactLeavesCompactRegionUnchanged() throws IOException
+    {
+        File regionFile = generateRegion(3L);                      // Région déjà compacte.
+        byte[] content  = Files.readAllBytes(regionFile.toPath()); // Contenu d'origine.
+
+        assertEquals(0L, RegionCompactor.compact(regionFile));
+        assertArrayEquals(content, Files.readAllBytes(regionFile.toPath()));
+        assertFalse(new File(tempFolder, regionFile.getName() + RegionCompactor.TEMP_EXTENSION).exists());
+    }
+
+    @Test
+    public void compactRejectsInconsistentHeader() throws IOException
+    {
+        File regionFile = generateRegion(4L); // Région fragmentée, puis corrompue.
+        byte[] content  = null;               // Contenu avant la tentative.
+        int[] locations = null;               // Emplacements.
+        int chunkIndex  = 0;                  // Chunk corrompu.
+
+        fragment(regionFile);
+
+        locations = readTable(regionFile, 0);
+
+        while(locations[chunkIndex] == 0)
+            chunkIndex++;
+
+        // Longueur du chunk au-delà de ses secteurs.
+
+        writeInt(regionFile, (long)(locations[chunkIndex] >>> 8) * SECTOR_SIZE, ((locations[chunkIndex] & 0xFF) * SECTOR_SIZE) + 1);
+
+        content = Files.readAllBytes(regionFile.toPath());
+
+        assertThrows(IOException.class, () -> RegionCompactor.compact(regionFile));
+        assertArrayEquals(content, Files.readAllBytes(regionFile.toPath()));
+        assertFalse(new File(tempFolder, regionFile.getName() + RegionCompactor.TEMP_EXTENSION).exists());
+    }
+
+    // Méthodes privées de classe.
+
+    private File generateRegion(long seed) throws IOException
+    {
+        /* Ecrit une région synthétique.
+         * Retour : fichier de la région.
+         * Paramètres : graine du tirage. */
+
+        new SyntheticWorldGenerator(0.6D, 4096, 1631, seed).generate(tempFolder, 1);
+
+        return new File(tempFolder, "r.0.0.mca");
+    }
+
+    private void assertCompacted(File regionFile, byte[][] chunks, int[] locations, int[] timestamps, long fragmentedSize) throws IOException
+    {
+        /* Contrôle une région compactée d'après son état précédent.
+         * Retour : aucun.
+         * Paramètres : -regionFile     : région compactée.
+         *              -chunks         : chunks avant compactage.
+         *              -locations      : emplacements avant compactage.
+         *              -timestamps     : dates avant compactage.
+         *              -fragmentedSize : taille avant compactage. */
+
+        int[] newLocations = readTable(regionFile, 0); // Emplacements après compactage.
+        long[] extents     = new long[chunks.length];  // Secteur de début et nombre de secteurs des chunks, triés.
+        int nExtents       = 0;                        // Nombre de chunks présents.
+        int nextSector     = 2;                        // Début attendu du chunk suivant.
+        byte[][] newChunks = readChunks(regionFile);   // Chunks après compactage.
+
+        assertTrue(regionFile.length() < fragmentedSize);
+        assertArrayEquals(timestamps, readTable(regionFile, 1));
+        assertFalse(new File(tempFolder, regionFile.getName() + RegionCompactor.TEMP_EXTENSION).exists());
+
+        for(int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++)
+        {
+            assertArrayEquals(chunks[chunkIndex], newChunks[chunkIndex], "Chunk " + chunkIndex + " changed.");
+            assertEquals(locations[chunkIndex] & 0xFF, newLocations[chunkIndex] & 0xFF, "Sector count of chunk " + chunkIndex);
+
+            if(newLocations[chunkIndex] != 0)
+                extents[nExtents++] = ((long)(newLocations[chunkIndex] >>> 8) << 8) | (newLocations[chunkIndex] & 0xFF);
+        }
+
+        // Secteurs contigus, sans chevauchement, jusqu'à la fin du fichier.
+
+        Arrays.sort(extents, 0, nExtents);
+
+        for(int extentIndex = 0; extentIndex < nExtents; extentIndex++)
+        {
+            assertEquals(nextSector, extents[extentIndex] >>> 8);
+
+            nextSector += (int)(extents[extentIndex] & 0xFF);
+        }
+
+        assertEquals((long)nextSector * SECTOR_SIZE, regionFile.length());
+    }
+
+    // Méthodes privées statiques.
+
+    private static int countSectors(int[] locations)
+    {
+        /* Compte les secteurs occupés par les chunks d'une table des emplacements.
+         * Retour : nombre en question.
+         * Paramètres : table en question. */
+
+        int nSectors = 0; // Secteurs comptés.
+
+        for(int location : locations)
+            nSectors += location & 0xFF;
+
+        return nSectors;
+    }
+
+    // Méthodes publiques statiques, communes aux tests des fichiers de régions.
+
+    public static void fragment(File regionFile) throws IOException
+    {
+        /* Réécrit une région, chunks dans l'ordre inverse de l'en-tête, chacun suivi d'un secteur de données périmées.
+         * Retour : aucun.
+         * Paramètres : fichier de la région. */
+
+        byte[] content    = Files.readAllBytes(regionFile.toPath());                       // Contenu d'origine.
+        int[] locations   = readTable(regionFile, 0);                                       // Emplacements d'origine.
+        ByteBuffer output = ByteBuffer.allocate((2 * content.length) + (4 * SECTOR_SIZE)); // Contenu fragmenté.
+        byte[] staleData  = new byte[SECTOR_SIZE];                                          // Secteur périmé.
+        int nextSector    = 2;                                                              // Prochain secteur libre.
+
+        Arrays.fill(staleData, (byte)0x5A);
+
+        output.put(content, 0, 2 * SECTOR_SIZE);
+
+        for(int chunkIndex = locations.length - 1; chunkIndex >= 0; chunkIndex--)
+        {
+            int sectorCount = locations[chunkIndex] & 0xFF; // Secteurs du chunk.
+
+            if(locations[chunkIndex] == 0)
+                continue;
+
+            output.put(content, (locations[chunkIndex] >>> 8) * SECTOR_SIZE, sectorCount * SECTOR_SIZE);
+            output.put(staleData);
+            output.putInt(4 * chunkIndex, (nextSector << 8) | sectorCount);
+
+            nextSector += sectorCount + 1;
+        }
+
+        Files.write(regionFile.toPath(), Arrays.copyOf(output.array(), output.position()));
+    }
+
+    public static byte[][] readChunks(File regionFile) throws IOException
+    {
+        /* Lit les données de chaque chunk d'une région, préfixe de longueur compris.
+         * Retour : données par index d'en-tête, null pour un chunk absent.
+         * Paramètres : fichier de la région. */
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(regionFile.toPath())); // Contenu du fichier.
+        byte[][] chunks    = new byte[ChunkMask.CHUNKS_PER_REGION][];                  // Données lues.
+
+        for(int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++)
+        {
+            int position = (content.getInt(4 * chunkIndex) >>> 8) * SECTOR_SIZE; // Position du chunk.
+
+            if(content.getInt(4 * chunkIndex) == 0)
+                continue;
+
+            chunks[chunkIndex] = Arrays.copyOfRange(content.array(), position, position + 4 + content.getInt(position));
+        }
+
+        return chunks;
+    }
+
+    public static int[] readTable(File regionFile, int tableIndex) throws IOException
+    {
+        /* Lit une table de l'en-tête d'une région.
+         * Retour : entrées de la table, par index d'en-tête.
+         * Paramètres : -regionFile : fichier de la région.
+         *              -tableIndex : 0 pour les emplacements, 1 pour les dates. */
+
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(regionFile.toPath())); // Contenu du fichier.
+        int[] entries      = new int[ChunkMask.CHUNKS_PER_REGION];                     // Entrées lues.
+
+        for(int chunkIndex = 0; chunkIndex < entries.length; chunkIndex++)
+            entries[chunkIndex] = content.getInt((tableIndex * SECTOR_SIZE) + (4 * chunkIndex));
+
+        return entries;
+    }
+
+    public static void writeInt(File file, long position, int value) throws IOException
+    {
+        /* Remplace un entier d'un fichier.
+         * Retour : aucun.
+         * Paramètres : -file     : fichier modifié.
+         *              -position : position de l'entier.
+         *              -value    : nouvelle valeur. */
+
+        byte[] content = Files.readAllBytes(file.toPath()); // Contenu du fichier.
+
+        ByteBuffer.wrap(content).putInt((int)position, value);
+
+        Files.write(file.toPath(), content);
+    }
+}
@@ -0,0 +1,210 @@
+/* RegionPrunerTest.java
+ * Tests du retrait des chunks jamais habités du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.huvecraft.plugins.chunksrefresher.SyntheticWorldGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Définition de la classe.
+
+public class RegionPrunerTest
+{
+    /* Retrait des chunks jamais habités de régions écrites par le générateur de la simulation : entrées de l'en-tête
+     * effacées, données copiées à l'identique dans la sauvegarde, complétée d'un retrait à l'autre, et sauvegarde
+     * pleine refusée sans rien modifier. */
+
+    // Constantes.
+
+    private static final int SECTOR_SIZE = RegionHeader.SECTOR_SIZE; // Taille d'un secteur.
+    private static final int MAX_SECTOR  = 0xFFFFFF;                 // Dernier secteur adressable par l'en-tête.
+
+    // Membres.
+
+    @TempDir
+    public File tempFolder; // Dossier des régions générées.
+
+    // Méthodes de test.
+
+    @Test
+    public void pruneClearsHeaderEntries() throws IOException
+    {
+        File regionFile       = generateRegion(31L);                                      // Région élaguée.
+        File backupFile       = new File(tempFolder, "backup/r.0.0.mca");                 // Sauvegarde des chunks retirés.
+        ChunkMask uninhabited = UninhabitedChunksScannerTest.readUninhabited(regionFile); // Chunks à retirer.
+        byte[][] chunks       = RegionCompactorTest.readChunks(regionFile);               // Chunks avant retrait.
+        int[] locations       = RegionCompactorTest.readTable(regionFile, 0);             // Emplacements avant retrait.
+        int[] timestamps      = RegionCompactorTest.readTable(regionFile, 1);             // Dates avant retrait.
+        long initialSize      = regionFile.length();                                      // Taille avant retrait.
+        int[] newLocations    = null;                                                     // Emplacements après retrait.
+        int[] newTimestamps   = null;                                                     // Dates après retrait.
+        byte[][] backedUp     = null;                                                     // Chunks sauvegardés.
+
+        assertTrue(uninhabited.count() > 0);
+        assertEquals(uninhabited.count(), RegionPruner.prune(regionFile, ChunkMask.full(), backupFile));
+
+        newLocations  = RegionCompactorTest.readTable(regionFile, 0);
+        newTimestamps = RegionCompactorTest.readTable(regionFile, 1);
+        backedUp      = RegionCompactorTest.readChunks(backupFile);
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            if(uninhabited.get(chunkIndex))
+            {
+                assertEquals(0L, newLocations[chunkIndex], "Location of chunk " + chunkIndex);
+                assertEquals(0L, newTimestamps[chunkIndex], "Timestamp of chunk " + chunkIndex);
+                assertArrayEquals(chunks[chunkIndex], backedUp[chunkIndex], "Chunk " + chunkIndex + " not backed up.");
+                assertEquals(timestamps[chunkIndex], RegionCompactorTest.readTable(backupFile, 1)[chunkIndex], "Backup timestamp of chunk " + chunkIndex);
+            }
+
+            else
+            {
+                assertEquals(locations[chunkIndex], newLocations[chunkIndex], "Location of chunk " + chunkIndex);
+                assertEquals(timestamps[chunkIndex], newTimestamps[chunkIndex], "Timestamp of chunk " + chunkIndex);
+                assertNull(backedUp[chunkIndex], "Chunk " + chunkIndex + " backed up.");
+            }
+        }
+
+        // Secteurs laissés au compactage.
+
+        assertEquals(initialSize, regionFile.length());
+        assertEquals(0L, backupFile.length() % SECTOR_SIZE);
+    }
+
+    @Test
+    public void pruneAppendsToExistingBackup() throws IOException
+    {
+        File regionFile       = generateRegion(32L);                                      // Région élaguée en deux fois.
+        File backupFile       = new File(tempFolder, "backup/r.0.0.mca");                 // Sauvegarde des chunks retirés.
+        ChunkMask uninhabited = UninhabitedChunksScannerTest.readUninhabited(regionFile); // Chunks à retirer.
+        ChunkMask firstHalf   = new ChunkMask();                                          // Chunks désignés au premier retrait.
+        byte[][] chunks       = RegionCompactorTest.readChunks(regionFile);               // Chunks avant retrait.
+        int[] firstLocations  = null;                                                     // Emplacements de la sauvegarde après le premier retrait.
+        int[] locations       = null;                                                     // Emplacements de la sauvegarde après le second.
+        long firstSectors     = 0L;                                                       // Secteurs de la sauvegarde après le premier retrait.
+        byte[][] backedUp     = null;                                                     // Chunks sauvegardés.
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION / 2; chunkIndex++)
+            firstHalf.set(chunkIndex);
+
+        RegionPruner.prune(regionFile, firstHalf, backupFile);
+
+        firstLocations = RegionCompactorTest.readTable(backupFile, 0);
+        firstSectors   = backupFile.length() / SECTOR_SIZE;
+
+        RegionPruner.prune(regionFile, ChunkMask.full(), backupFile);
+
+        locations = RegionCompactorTest.readTable(backupFile, 0);
+        backedUp  = RegionCompactorTest.readChunks(backupFile);
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            if(!uninhabited.get(chunkIndex))
+                assertNull(backedUp[chunkIndex], "Chunk " + chunkIndex + " backed up.");
+
+            else if(firstHalf.get(chunkIndex)) // Sauvegardé au premier retrait, resté en place.
+            {
+                assertEquals(firstLocations[chunkIndex], locations[chunkIndex], "Backup location of chunk " + chunkIndex);
+                assertArrayEquals(chunks[chunkIndex], backedUp[chunkIndex], "Chunk " + chunkIndex + " not backed up.");
+            }
+
+            else // Ajouté à la suite.
+            {
+                assertEquals(0L, firstLocations[chunkIndex], "Backup location of chunk " + chunkIndex);
+                assertTrue((locations[chunkIndex] >>> 8) >= firstSectors, "Chunk " + chunkIndex + " written over the first backup.");
+                assertArrayEquals(chunks[chunkIndex], backedUp[chunkIndex], "Chunk " + chunkIndex + " not backed up.");
+            }
+        }
+    }
+
+    @Test
+    public void pruneRefusesFullBackup() throws IOException
+    {
+        File regionFile   = generateRegion(33L);                      // Région à élaguer.
+        File backupFile   = new File(tempFolder, "backup/r.0.0.mca"); // Sauvegarde pleine.
+        byte[] content    = null;                                     // Région avant la tentative.
+        byte[] backupHead = null;                                     // En-tête de la sauvegarde avant la tentative.
+
+        // Sauvegarde creuse, occupant déjà le dernier secteur adressable.
+
+        Files.createDirectories(backupFile.getParentFile().toPath());
+
+        try(RandomAccessFile backup = new RandomAccessFile(backupFile, "rw"))
+        {
+            backup.setLength((long)MAX_SECTOR * SECTOR_SIZE);
+        }
+
+        content    = Files.readAllBytes(regionFile.toPath());
+        backupHead = readHead(backupFile);
+
+        assertThrows(IOException.class, () -> RegionPruner.prune(regionFile, ChunkMask.full(), backupFile));
+        assertArrayEquals(content, Files.readAllBytes(regionFile.toPath()));
+        assertArrayEquals(backupHead, readHead(backupFile));
+        assertEquals((long)MAX_SECTOR * SECTOR_SIZE, backupFile.length());
+    }
+
+    @Test
+    public void pruneKeepsChunksWithInvalidLength() throws IOException
+    {
+        File regionFile       = generateRegion(34L);                                      // Région à élaguer, puis corrompue.
+        File backupFile       = new File(tempFolder, "backup/r.0.0.mca");                 // Sauvegarde des chunks retirés.
+        ChunkMask uninhabited = UninhabitedChunksScannerTest.readUninhabited(regionFile); // Chunks jamais habités.
+        int[] locations       = RegionCompactorTest.readTable(regionFile, 0);             // Emplacements avant retrait.
+        int chunkIndex        = ChunkMask.positionToIndex(uninhabited.nextPosition(0));   // Chunk corrompu.
+
+        // Longueur dépassant les secteurs du chunk.
+
+        RegionCompactorTest.writeInt(regionFile, (long)(locations[chunkIndex] >>> 8) * SECTOR_SIZE, (locations[chunkIndex] & 0xFF) * SECTOR_SIZE);
+
+        assertEquals(uninhabited.count() - 1, RegionPruner.prune(regionFile, ChunkMask.full(), backupFile));
+        assertEquals(locations[chunkIndex], RegionCompactorTest.readTable(regionFile, 0)[chunkIndex]);
+        assertNull(RegionCompactorTest.readChunks(backupFile)[chunkIndex]);
+    }
+
+    // Méthodes privées de classe.
+
+    private File generateRegion(long seed) throws IOException
+    {
+        /* Ecrit une région synthétique.
+         * Retour : fichier de la région.
+         * Paramètres : graine du tirage. */
+
+        new SyntheticWorldGenerator(0.7D, 2048, 1631, seed).generate(tempFolder, 1);
+
+        return new File(tempFolder, "r.0.0.mca");
+    }
+
+    // Méthodes privées statiques.
+
+    private static byte[] readHead(File regionFile) throws IOException
+    {
+        /* Lit l'en-tête d'un fichier de région, sans lire le reste du fichier.
+         * Retour : octets de l'en-tête.
+         * Paramètres : fichier de la région. */
+
+        byte[] head = new byte[2 * SECTOR_SIZE]; // Octets lus.
+
+        try(RandomAccessFile regionAccess = new RandomAccessFile(regionFile, "r"))
+        {
+            regionAccess.readFully(head);
+        }
+
+        return head;
+    }
+}
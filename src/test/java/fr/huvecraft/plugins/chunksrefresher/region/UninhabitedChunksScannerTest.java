@@ -0,0 +1,167 @@
+/* UninhabitedChunksScannerTest.java
+ * Tests de la recherche des chunks jamais habités du plugin ChunksRefresher pour Spigot.
+ * 17/10/2026. */
+
+// Définition du package.
+
+package fr.huvecraft.plugins.chunksrefresher.region;
+
+// Imports.
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import fr.huvecraft.plugins.chunksrefresher.SyntheticWorldGenerator;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.InflaterInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Définition de la classe.
+
+public class UninhabitedChunksScannerTest
+{
+    /* Recherche des chunks jamais habités dans des régions écrites par le générateur de la simulation, comparée à une
+     * lecture directe du tag InhabitedTime de chaque chunk. */
+
+    // Constantes.
+
+    private static final int SECTOR_SIZE = RegionHeader.SECTOR_SIZE; // Taille d'un secteur.
+
+    // Membres.
+
+    @TempDir
+    public File tempFolder; // Dossier des régions générées.
+
+    // Méthodes de test.
+
+    @Test
+    public void scanFindsUninhabitedChunks() throws IOException
+    {
+        File regionFile = generateRegion(21L); // Région analysée.
+
+        assertArrayEquals(readUninhabited(regionFile).toWords(), UninhabitedChunksScanner.scan(regionFile, RegionHeader.read(regionFile), ChunkMask.full()).toWords());
+    }
+
+    @Test
+    public void scanKeepsToCandidates() throws IOException
+    {
+        File regionFile      = generateRegion(22L);         // Région analysée.
+        ChunkMask candidates = new ChunkMask();             // Chunks de rang pair.
+        ChunkMask expected   = readUninhabited(regionFile); // Chunks attendus.
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex += 2)
+            candidates.set(chunkIndex);
+
+        expected.and(candidates);
+
+        assertArrayEquals(expected.toWords(), UninhabitedChunksScanner.scan(regionFile, RegionHeader.read(regionFile), candidates).toWords());
+    }
+
+    @Test
+    public void scanSkipsUnreadableChunks() throws IOException
+    {
+        File regionFile     = generateRegion(23L);                                            // Région analysée, puis corrompue.
+        ChunkMask expected  = readUninhabited(regionFile);                                    // Chunks attendus.
+        RegionHeader header = RegionHeader.read(regionFile);                                  // En-tête de la région.
+        int position        = expected.nextPosition(0);                                       // Premier chunk jamais habité.
+        int chunkIndex      = ChunkMask.positionToIndex(position);                            // Chunk corrompu.
+        int otherIndex      = ChunkMask.positionToIndex(expected.nextPosition(position + 1)); // Chunk laissé intact.
+
+        // Type de compression inconnu.
+
+        corruptByte(regionFile, ((long)header.getSectorOffset(chunkIndex) * SECTOR_SIZE) + 4L, 99);
+
+        try(FileChannel channel = FileChannel.open(regionFile.toPath(), StandardOpenOption.READ))
+        {
+            assertFalse(UninhabitedChunksScanner.isUninhabited(channel, header, chunkIndex));
+            assertTrue(UninhabitedChunksScanner.isUninhabited(channel, header, otherIndex));
+        }
+
+        expected = readUninhabited(regionFile);
+
+        assertFalse(expected.get(chunkIndex));
+        assertArrayEquals(expected.toWords(), UninhabitedChunksScanner.scan(regionFile, header, ChunkMask.full()).toWords());
+    }
+
+    // Méthodes publiques statiques, communes aux tests des fichiers de régions.
+
+    public static ChunkMask readUninhabited(File regionFile) throws IOException
+    {
+        /* Relève les chunks jamais habités d'une région, en cherchant le tag InhabitedTime dans les données
+         * décompressées de chaque chunk, indépendamment des classes testées.
+         * Retour : chunks dont le tag est nul, hors chunks illisibles.
+         * Paramètres : fichier de la région, écrit par le générateur de la simulation (compression zlib). */
+
+        ByteBuffer content    = ByteBuffer.wrap(Files.readAllBytes(regionFile.toPath()));        // Contenu du fichier.
+        byte[] tagHeader      = "\004\000\015InhabitedTime".getBytes(StandardCharsets.US_ASCII); // Type, longueur du nom et nom du tag cherché.
+        ChunkMask uninhabited = new ChunkMask();                                                 // Chunks relevés.
+
+        for(int chunkIndex = 0; chunkIndex < ChunkMask.CHUNKS_PER_REGION; chunkIndex++)
+        {
+            int position = (content.getInt(4 * chunkIndex) >>> 8) * SECTOR_SIZE; // Position du chunk.
+            byte[] data  = null;                                                  // Données décompressées.
+            int tagIndex = -1;                                                    // Position du tag dans les données.
+
+            if((content.getInt(4 * chunkIndex) == 0) || (content.get(position + 4) != 2))
+                continue;
+
+            try(InputStream dataStream = new InflaterInputStream(new ByteArrayInputStream(content.array(), position + 5, content.getInt(position) - 1)))
+            {
+                data = dataStream.readAllBytes();
+            }
+
+            catch(IOException error)
+            {
+                continue;
+            }
+
+            for(int dataIndex = 0; (tagIndex < 0) && (dataIndex <= data.length - tagHeader.length - 8); dataIndex++)
+            {
+                if(ByteBuffer.wrap(data, dataIndex, tagHeader.length).equals(ByteBuffer.wrap(tagHeader)))
+                    tagIndex = dataIndex + tagHeader.length;
+            }
+
+            if((tagIndex >= 0) && (ByteBuffer.wrap(data).getLong(tagIndex) == 0L))
+                uninhabited.set(chunkIndex);
+        }
+
+        return uninhabited;
+    }
+
+    public static void corruptByte(File file, long position, int value) throws IOException
+    {
+        /* Remplace un octet d'un fichier.
+         * Retour : aucun.
+         * Paramètres : -file     : fichier modifié.
+         *              -position : position de l'octet.
+         *              -value    : nouvelle valeur. */
+
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+        {
+            channel.write(ByteBuffer.wrap(new byte[] { (byte)value }), position);
+        }
+    }
+
+    // Méthodes privées de classe.
+
+    private File generateRegion(long seed) throws IOException
+    {
+        /* Ecrit une région synthétique.
+         * Retour : fichier de la région.
+         * Paramètres : graine du tirage. */
+
+        new SyntheticWorldGenerator(0.7D, 2048, 1631, seed).generate(tempFolder, 1);
+
+        return new File(tempFolder, "r.0.0.mca");
+    }
+}